@@ -1,6 +1,7 @@
 package com.example.artflow;
 
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
@@ -21,8 +22,11 @@ import javafx.scene.layout.FlowPane;
 
 import java.io.File;
 import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class AddArtworkController {
+    private static final Logger LOGGER = Logger.getLogger(AddArtworkController.class.getName());
 
     @FXML
     public VBox previewHolder; // container with controls
@@ -123,7 +127,7 @@ public class AddArtworkController {
     private void initialize() {
         // guard: avoid running design-time/runtime-only code when opened in SceneBuilder
         if (categoryCombo == null || titleField == null || priceField == null) {
-            System.out.println("AddArtworkController: running in design mode or missing controls");
+            LOGGER.fine("running in design mode or missing controls");
             return;
         }
 
@@ -169,7 +173,7 @@ public class AddArtworkController {
         if (removeImageBtn != null) {
             removeImageBtn.setOnAction(e -> {
                 // remove chosen image, clear preview image view and show drop area again
-                System.out.println("Remove clicked (lambda)");
+                LOGGER.fine("Remove clicked (lambda)");
                 chosenImageFile = null;
                 if (previewImageView != null) previewImageView.setImage(null);
                 if (previewCardContainer != null) {
@@ -191,7 +195,7 @@ public class AddArtworkController {
 
     @FXML
     private void onChooseImage(ActionEvent event) {
-        System.out.println("onChooseImage() called");
+        LOGGER.fine("onChooseImage() called");
         FileChooser chooser = new FileChooser();
         chooser.setTitle("Choose artwork image");
         chooser.getExtensionFilters().addAll(
@@ -222,7 +226,7 @@ public class AddArtworkController {
             }
 
             if (f != null) {
-                System.out.println("File chosen: " + f.getAbsolutePath());
+                LOGGER.log(Level.FINE, "File chosen: {0}", f);
                 chosenImageFile = f;
                 if (uploadStatusLabel != null) uploadStatusLabel.setText("Selected: " + f.getName());
                 setPreviewImage(f);
@@ -230,7 +234,7 @@ public class AddArtworkController {
                 if (uploadStatusLabel != null) uploadStatusLabel.setText("No file selected");
             }
         } catch (Exception ex) {
-            ex.printStackTrace();
+            LOGGER.log(Level.WARNING, "Error opening file chooser", ex);
             if (uploadStatusLabel != null) uploadStatusLabel.setText("Error opening file chooser: " + ex.getMessage());
         }
     }
@@ -255,12 +259,12 @@ public class AddArtworkController {
     }
 
     private void onDragDropped(DragEvent event) {
-        System.out.println("onDragDropped called");
+        LOGGER.fine("onDragDropped called");
         Dragboard db = event.getDragboard();
         boolean success = false;
         if (db.hasFiles()) {
             File f = db.getFiles().get(0);
-            System.out.println("File dropped: " + f.getAbsolutePath());
+            LOGGER.fine(() -> "File dropped: " + f.getAbsolutePath());
             chosenImageFile = f;
             setPreviewImage(f);
             success = true;
@@ -272,12 +276,12 @@ public class AddArtworkController {
     }
 
     private void setPreviewImage(File f) {
-        System.out.println("setPreviewImage called; file=" + (f == null ? "null" : f.getAbsolutePath()));
+        LOGGER.fine(() -> "setPreviewImage called; file=" + (f == null ? "null" : f.getAbsolutePath()));
         if (f == null) return;
         try {
             // load image synchronously (no background loading) to ensure dimensions available
             Image img = new Image(f.toURI().toString(), 0, 0, true, true, false);
-            System.out.println("Image loaded: width=" + img.getWidth() + ", height=" + img.getHeight());
+            LOGGER.fine(() -> "Image loaded: width=" + img.getWidth() + ", height=" + img.getHeight());
             javafx.application.Platform.runLater(() -> {
                 try {
                     if (previewImageView == null) {
@@ -286,15 +290,15 @@ public class AddArtworkController {
                             javafx.scene.Node looked = previewHolder.getScene().lookup("#previewImageView");
                             if (looked instanceof ImageView) {
                                 previewImageView = (ImageView) looked;
-                                System.out.println("previewImageView located via scene.lookup");
+                                LOGGER.fine("previewImageView located via scene.lookup");
                             }
                         }
                     }
                 } catch (Exception lookupEx) {
-                    System.out.println("previewImageView lookup failed: " + lookupEx.getMessage());
+                    LOGGER.fine(() -> "previewImageView lookup failed: " + lookupEx.getMessage());
                 }
                 if (previewImageView != null) {
-                    System.out.println("previewImageView available — setting image");
+                    LOGGER.fine("previewImageView available — setting image");
                     previewImageView.setImage(img);
                     previewImageView.setSmooth(true);
                     previewImageView.setPreserveRatio(true);
@@ -310,7 +314,7 @@ public class AddArtworkController {
                     }
                     previewImageView.setVisible(true);
                 } else {
-                    System.out.println("previewImageView is null even after lookup — creating one programmatically");
+                    LOGGER.fine("previewImageView is null even after lookup — creating one programmatically");
                     if (previewCardContainer != null) {
                         ImageView iv = new ImageView(img);
                         iv.setSmooth(true);
@@ -324,25 +328,25 @@ public class AddArtworkController {
                 }
                 // show preview container, hide drop area
                 if (previewCardContainer != null) {
-                    System.out.println("Showing previewCardContainer");
+                    LOGGER.fine("Showing previewCardContainer");
                     previewCardContainer.setVisible(true);
                     previewCardContainer.setManaged(true);
                     previewCardContainer.toFront();
                 } else {
-                    System.out.println("previewCardContainer is null");
+                    LOGGER.fine("previewCardContainer is null");
                 }
                 if (dropArea != null) {
-                    System.out.println("Hiding dropArea");
+                    LOGGER.fine("Hiding dropArea");
                     dropArea.setVisible(false);
                     dropArea.setManaged(false);
                 } else {
-                    System.out.println("dropArea is null");
+                    LOGGER.fine("dropArea is null");
                 }
                 if (previewHolder != null) previewHolder.requestLayout();
-                System.out.println("Preview visibility: imageViewVisible=" + (previewImageView != null && previewImageView.isVisible()) + ", containerVisible=" + (previewCardContainer != null && previewCardContainer.isVisible()));
+                LOGGER.fine(() -> "Preview visibility: imageViewVisible=" + (previewImageView != null && previewImageView.isVisible()) + ", containerVisible=" + (previewCardContainer != null && previewCardContainer.isVisible()));
             });
         } catch (Exception ex) {
-            ex.printStackTrace();
+            LOGGER.log(Level.WARNING, "Error showing image preview", ex);
         }
     }
 
@@ -353,14 +357,27 @@ public class AddArtworkController {
         if (chosenImageFile != null) {
             imgPath = chosenImageFile.toURI().toString();
         }
+        // the price is parsed here, once; everything downstream works in cents
+        long priceCents;
+        try {
+            priceCents = Money.parseCents(priceField.getText());
+        } catch (IllegalArgumentException ex) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle("Invalid price");
+            alert.setHeaderText(null);
+            alert.setContentText("Please enter a price such as 120 or 120.50.");
+            alert.showAndWait();
+            priceField.requestFocus();
+            return;
+        }
         ArtworkModel model;
         String desc = descriptionArea == null ? null : descriptionArea.getText();
         if (editMode && editingId != null) {
-            model = new ArtworkModel(editingId, titleField.getText(), priceField.getText(), categoryCombo.getValue(), imgPath, CurrentUser.getFullName(), desc);
+            model = new ArtworkModel(editingId, titleField.getText(), priceCents, categoryCombo.getValue(), imgPath, CurrentUser.getFullName(), desc);
             ArtworkStore.getInstance().update(model);
             if (editCallback != null) editCallback.accept(model);
         } else {
-            model = new ArtworkModel(titleField.getText(), priceField.getText(), categoryCombo.getValue(), imgPath, CurrentUser.getFullName(), desc);
+            model = new ArtworkModel(titleField.getText(), priceCents, categoryCombo.getValue(), imgPath, CurrentUser.getFullName(), desc);
             ArtworkStore.getInstance().add(model);
         }
 
@@ -378,7 +395,7 @@ public class AddArtworkController {
 
     @FXML
     private void onRemoveImage(ActionEvent event) {
-        System.out.println("onRemoveImage called");
+        LOGGER.fine("onRemoveImage called");
         // same behavior as removeImageBtn action but compatible with FXML handler signature
         chosenImageFile = null;
         if (previewImageView != null) previewImageView.setImage(null);
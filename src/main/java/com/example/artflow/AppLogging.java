@@ -0,0 +1,178 @@
+package com.example.artflow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.StreamHandler;
+
+/**
+ * java.util.logging setup for the app. Levels come from {@code logging.properties} next to this
+ * class (one {@code <logger>.level} line per class or package), or from the file named by
+ * {@code -Djava.util.logging.config.file}. The root logger writes through an {@link AsyncHandler}:
+ * the logging thread only enqueues the record, and one daemon thread formats and prints it, so an
+ * enabled log line never blocks the FX thread on console I/O. A disabled level is rejected by the
+ * logger before any message is built.
+ */
+public final class AppLogging {
+    private static final String CONFIG_RESOURCE = "logging.properties";
+    private static final int QUEUE_CAPACITY = 8192;
+
+    private static boolean installed;
+    private static AsyncHandler handler;
+
+    private AppLogging() {}
+
+    /** Apply the level configuration and route the root logger through the async handler. Idempotent. */
+    public static synchronized void install() {
+        if (installed) return;
+        installed = true;
+        LogManager manager = LogManager.getLogManager();
+        if (System.getProperty("java.util.logging.config.file") == null) {
+            try (InputStream in = AppLogging.class.getResourceAsStream(CONFIG_RESOURCE)) {
+                if (in != null) manager.readConfiguration(in);
+            } catch (IOException e) {
+                System.err.println("Could not read " + CONFIG_RESOURCE + ": " + e.getMessage());
+            }
+        }
+        Logger root = Logger.getLogger("");
+        for (Handler h : root.getHandlers()) {
+            root.removeHandler(h);
+            h.close();
+        }
+        // unlike ConsoleHandler this does not flush per record; the writer flushes when its queue runs empty
+        StreamHandler console = new StreamHandler(System.err, new LineFormatter()) {
+            @Override
+            public synchronized void close() {
+                flush(); // never close System.err
+            }
+        };
+        console.setLevel(Level.ALL);
+        handler = new AsyncHandler(console, QUEUE_CAPACITY);
+        root.addHandler(handler);
+    }
+
+    /** Write out what is queued, waiting up to {@code timeoutMs}; for application exit. */
+    public static synchronized void shutdown(long timeoutMs) {
+        if (handler != null) handler.drain(timeoutMs);
+    }
+
+    /** Records dropped because the queue was full (the console could not keep up). */
+    public static long getDroppedCount() {
+        AsyncHandler h = handler;
+        return h == null ? 0 : h.getDroppedCount();
+    }
+
+    /**
+     * Hands records to a background thread that publishes them to {@code target}. A full queue drops
+     * the record and counts it rather than making the caller wait. Records are formatted on the
+     * background thread, so the caller's source class and method are not inferred; the line format
+     * names the logger instead.
+     */
+    static final class AsyncHandler extends Handler {
+        private final Handler target;
+        private final BlockingQueue<LogRecord> queue;
+        private final Thread writer;
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean closed;
+
+        AsyncHandler(Handler target, int capacity) {
+            this.target = target;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.writer = new Thread(this::run, "log-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            if (closed || !isLoggable(record)) return;
+            if (!queue.offer(record)) dropped.incrementAndGet();
+        }
+
+        private void run() {
+            try {
+                while (!closed || !queue.isEmpty()) {
+                    LogRecord record = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (record == null) continue;
+                    target.publish(record);
+                    if (queue.isEmpty()) target.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                target.flush();
+            }
+        }
+
+        /** Wait up to {@code timeoutMs} for the queue to empty. */
+        void drain(long timeoutMs) {
+            long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+            while (!queue.isEmpty() && System.nanoTime() < deadline && writer.isAlive()) {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            target.flush();
+        }
+
+        long getDroppedCount() { return dropped.get(); }
+
+        @Override
+        public void flush() {
+            // records are flushed by the writer once the queue runs empty; see drain for a blocking flush
+        }
+
+        @Override
+        public void close() {
+            drain(1000);
+            closed = true;
+            long lost = dropped.get();
+            if (lost > 0) System.err.println("Logging: " + lost + " records dropped while the log queue was full");
+            target.close();
+        }
+    }
+
+    /** {@code HH:mm:ss.SSS LEVEL [Logger] message}, plus the stack trace when there is one. */
+    static final class LineFormatter extends Formatter {
+        private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+        @Override
+        public String format(LogRecord record) {
+            StringBuilder sb = new StringBuilder(128);
+            sb.append(TIME.format(LocalTime.ofInstant(record.getInstant(), ZoneId.systemDefault())))
+              .append(' ').append(record.getLevel().getName())
+              .append(" [").append(shortName(record.getLoggerName())).append("] ")
+              .append(formatMessage(record))
+              .append(System.lineSeparator());
+            if (record.getThrown() != null) {
+                StringWriter trace = new StringWriter();
+                record.getThrown().printStackTrace(new PrintWriter(trace));
+                sb.append(trace);
+            }
+            return sb.toString();
+        }
+
+        private static String shortName(String loggerName) {
+            if (loggerName == null) return "";
+            int dot = loggerName.lastIndexOf('.');
+            return dot < 0 ? loggerName : loggerName.substring(dot + 1);
+        }
+    }
+}
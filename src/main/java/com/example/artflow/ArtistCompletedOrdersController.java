@@ -9,7 +9,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.control.Label;
 
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,7 +47,7 @@ public class ArtistCompletedOrdersController {
     @FXML
     private TableColumn<OrderModel, String> colOrderedOn;
     @FXML
-    private TableColumn<OrderModel, Double> colAmount;
+    private TableColumn<OrderModel, String> colAmount;
     @FXML
     private TableColumn<OrderModel, String> colStatus;
     @FXML
@@ -76,21 +75,14 @@ public class ArtistCompletedOrdersController {
             }
             if (artistName == null) artistName = "";
 
-            List<OrderModel> all = DatabaseHelper.getInstance().listOrders();
-            if (all != null) {
-                for (OrderModel o : all) {
-                    if (o == null) continue;
-                    String status = o.getStatus() != null ? o.getStatus().toLowerCase() : "";
-                    String an = o.getArtistName();
-                    if (an == null) an = "";
-                    
-                    // Only show completed orders for this artist
-                    if ("completed".equals(status) && 
-                        (an.equalsIgnoreCase(artistName) || an.toLowerCase().contains(artistName.toLowerCase()))) {
-                        completedOrdersTable.getItems().add(o);
-                    }
-                }
-            }
+            // Only show completed orders for this artist (by account key when logged in), paged in as the table scrolls
+            UserModel user = CurrentUser.get();
+            OrderPage.Query query = user != null
+                    ? OrderPage.Query.forArtistAccount(user.getId(), "completed")
+                    : OrderPage.Query.forArtist(artistName, "completed");
+            PagedOrderTable completed = PagedOrderTable.attach(completedOrdersTable, query);
+            completed.bindSortColumns(PagedOrderTable.sortMap(colOrderedOn, colAmount, colStatus));
+            completed.reload();
 
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "Failed to initialize Completed Orders controller", ex);
@@ -25,7 +25,6 @@ import java.util.logging.Logger;
 import java.util.Locale;
 import java.util.List;
 import java.util.ArrayList;
-import javafx.application.Platform;
 import com.example.artflow.ArtworkModel;
 import com.example.artflow.OrderModel;
 import com.example.artflow.CurrentUser;
@@ -114,7 +113,7 @@ public class ArtistDashboardController {
     private TableColumn<OrderModel, String> colOrderedOn;
 
     @FXML
-    private TableColumn<OrderModel, Double> colAmount;
+    private TableColumn<OrderModel, String> colAmount;
 
     @FXML
     private TableColumn<OrderModel, String> colStatus;
@@ -124,6 +123,11 @@ public class ArtistDashboardController {
 
     private String currentUserType;
 
+    // pending orders are paged in from the database as the table scrolls
+    private PagedOrderTable recentOrders;
+    // background DB results for this screen; cancelled when the artist navigates away
+    private FxAsync fx;
+
     @FXML
     public void initialize() {
         if (manifestModal != null) {
@@ -170,25 +174,25 @@ public class ArtistDashboardController {
                                 acceptBtn.setDisable(true);
                                 rejectBtn.setDisable(true);
                                 
-                                // Run in background to keep UI responsive
-                                new Thread(() -> {
-                                    boolean ok = DatabaseHelper.getInstance().updateOrderStatus(order.getId(), "completed");
-                                    
-                                    // Update UI on JavaFX Application Thread
-                                    Platform.runLater(() -> {
-                                        if (ok) {
-                                            // Show success message
-                                            showAlert(Alert.AlertType.INFORMATION, "Success", "Order marked as completed!");
-                                            // Refresh the tables
-                                            refreshRecentOrders();
-                                            updateDashboardCards();
-                                        } else {
-                                            showAlert(Alert.AlertType.ERROR, "Error", "Failed to accept order. Please try again.");
-                                            // Reset button state on failure
-                                            resetButtons(originalText);
-                                        }
-                                    });
-                                }).start();
+                                // Run in background to keep UI responsive; the result is handled on the FX thread.
+                                // deliver, not handle: leaving the dashboard must not cancel the status change
+                                fx().deliver(DatabaseHelper.getInstance().async().updateOrderStatus(order.getId(), "completed"), ok -> {
+                                    if (ok) {
+                                        // Show success message
+                                        showAlert(Alert.AlertType.INFORMATION, "Success", "Order marked as completed!");
+                                        // Refresh the tables
+                                        applyOrderChanges();
+                                        updateDashboardCards();
+                                    } else {
+                                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to accept order. Please try again.");
+                                        // Reset button state on failure
+                                        resetButtons(originalText);
+                                    }
+                                }, ex -> {
+                                    LOGGER.log(Level.SEVERE, "Failed to update order status", ex);
+                                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to accept order. Please try again.");
+                                    resetButtons(originalText);
+                                });
                             }
                         });
                         
@@ -205,25 +209,25 @@ public class ArtistDashboardController {
                                 acceptBtn.setDisable(true);
                                 rejectBtn.setDisable(true);
                                 
-                                // Run in background to keep UI responsive
-                                new Thread(() -> {
-                                    boolean ok = DatabaseHelper.getInstance().updateOrderStatus(order.getId(), "rejected");
-                                    
-                                    // Update UI on JavaFX Application Thread
-                                    Platform.runLater(() -> {
-                                        if (ok) {
-                                            // Show success message
-                                            showAlert(Alert.AlertType.INFORMATION, "Success", "Order has been rejected.");
-                                            // Refresh the tables
-                                            refreshRecentOrders();
-                                            updateDashboardCards();
-                                        } else {
-                                            showAlert(Alert.AlertType.ERROR, "Error", "Failed to reject order. Please try again.");
-                                            // Reset button state on failure
-                                            resetButtons(originalText);
-                                        }
-                                    });
-                                }).start();
+                                // Run in background to keep UI responsive; the result is handled on the FX thread.
+                                // deliver, not handle: leaving the dashboard must not cancel the status change
+                                fx().deliver(DatabaseHelper.getInstance().async().updateOrderStatus(order.getId(), "rejected"), ok -> {
+                                    if (ok) {
+                                        // Show success message
+                                        showAlert(Alert.AlertType.INFORMATION, "Success", "Order has been rejected.");
+                                        // Refresh the tables
+                                        applyOrderChanges();
+                                        updateDashboardCards();
+                                    } else {
+                                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to reject order. Please try again.");
+                                        // Reset button state on failure
+                                        resetButtons(originalText);
+                                    }
+                                }, ex -> {
+                                    LOGGER.log(Level.SEVERE, "Failed to update order status", ex);
+                                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to reject order. Please try again.");
+                                    resetButtons(originalText);
+                                });
                             }
                         });
                     }
@@ -305,7 +309,7 @@ public class ArtistDashboardController {
         // mark selection
         try { setSidebarSelectionSafe(dashboardHBox); } catch (Exception ignored) {}
         // already on dashboard; no scene change required
-        System.out.println("openDashboard: selected dashboard");
+        LOGGER.fine("openDashboard: selected dashboard");
     }
 
     @FXML
@@ -321,7 +325,7 @@ public class ArtistDashboardController {
             if (stage == null) return;
             java.net.URL res = getClass().getResource("/com/example/artflow/ArtistCompletedOrders.fxml");
             if (res == null) {
-                System.err.println("ArtistCompletedOrders.fxml not found");
+                LOGGER.warning("ArtistCompletedOrders.fxml not found");
                 return;
             }
             FXMLLoader loader = new FXMLLoader(res);
@@ -337,7 +341,7 @@ public class ArtistDashboardController {
     @FXML
     private void openProfile(MouseEvent event) {
         try { setSidebarSelectionSafe(profileHBox); } catch (Exception ignored) {}
-        System.out.println("openProfile: profile clicked (no navigation implemented)");
+        LOGGER.fine("openProfile: profile clicked (no navigation implemented)");
     }
 
     public void setProfileName(String fullName) {
@@ -364,6 +368,11 @@ public class ArtistDashboardController {
         this.currentUserType = userType;
     }
 
+    private FxAsync fx() {
+        if (fx == null) fx = FxAsync.forNode(recentOrdersTable != null ? recentOrdersTable : profileNameLabel);
+        return fx;
+    }
+
     private void refreshRecentOrders() {
         try {
             String artistName = CurrentUser.getFullName();
@@ -372,31 +381,36 @@ public class ArtistDashboardController {
             }
             if (artistName == null) artistName = "";
 
-            List<OrderModel> all = DatabaseHelper.getInstance().listOrders();
-            // filter orders by artist name (case-insensitive contains) and status
-            List<OrderModel> filtered = new ArrayList<>();
-            for (OrderModel o : all) {
-                if (o == null) continue;
-                String an = o.getArtistName();
-                String status = o.getStatus() != null ? o.getStatus().toLowerCase() : "";
-                if (an == null) an = "";
-                
-                // Only show pending orders in recent orders
-                if ((an.equalsIgnoreCase(artistName) || an.toLowerCase().contains(artistName.toLowerCase())) 
-                        && "pending".equals(status)) {
-                    filtered.add(o);
-                }
-            }
-
+            // Only show pending orders in recent orders (filtered, sorted and paged in SQL)
             if (recentOrdersTable != null) {
-                recentOrdersTable.getItems().clear();
-                recentOrdersTable.getItems().addAll(filtered);
+                UserModel user = CurrentUser.get();
+                OrderPage.Query pending = user != null
+                        ? OrderPage.Query.forArtistAccount(user.getId(), "pending")
+                        : OrderPage.Query.forArtist(artistName, "pending");
+                if (recentOrders == null) {
+                    recentOrders = PagedOrderTable.attach(recentOrdersTable, pending);
+                    recentOrders.bindSortColumns(PagedOrderTable.sortMap(colOrderedOn, colAmount, colStatus));
+                    // new orders from the front desk or another instance show up without a reload
+                    recentOrders.followDatabaseChanges();
+                    recentOrders.reload();
+                } else {
+                    recentOrders.setFilter(pending);
+                }
             }
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error refreshing recent orders", e);
         }
     }
     
+    // after this screen's own Accept/Reject only the changed rows are re-read, not every loaded page
+    private void applyOrderChanges() {
+        if (recentOrders == null) {
+            refreshRecentOrders();
+            return;
+        }
+        recentOrders.refreshChanges();
+    }
+
     private void updateDashboardCards() {
         try {
             String artistName = CurrentUser.getFullName();
@@ -405,43 +419,19 @@ public class ArtistDashboardController {
             }
             if (artistName == null) artistName = "";
 
-            DatabaseHelper db = DatabaseHelper.getInstance();
-            
-            // Count total artworks for this artist
-            List<ArtworkModel> allArtworks = db.listArtworks();
-            int artworkCount = 0;
-            for (ArtworkModel artwork : allArtworks) {
-                if (artwork != null && artistName.equalsIgnoreCase(artwork.getArtistName())) {
-                    artworkCount++;
+            // artwork count, order count and completed earnings from one summary row, read off the FX thread
+            fx().handle(DatabaseHelper.getInstance().async().getArtistStats(artistName), stats -> {
+                if (totalArtworksLabel != null) {
+                    totalArtworksLabel.setText(String.valueOf(stats.getArtworkCount()));
                 }
-            }
-            if (totalArtworksLabel != null) {
-                totalArtworksLabel.setText(String.valueOf(artworkCount));
-            }
-            
-            // Count total orders and calculate earnings for this artist
-            List<OrderModel> allOrders = db.listOrders();
-            int orderCount = 0;
-            double totalEarnings = 0.0;
-            
-            for (OrderModel order : allOrders) {
-                if (order != null && artistName.equalsIgnoreCase(order.getArtistName())) {
-                    orderCount++;
-                    // Only count completed orders for earnings
-                    if ("completed".equalsIgnoreCase(order.getStatus())) {
-                        totalEarnings += order.getAmount();
-                    }
+                if (totalOrdersLabel != null) {
+                    totalOrdersLabel.setText(String.valueOf(stats.getOrderCount()));
                 }
-            }
-            
-            if (totalOrdersLabel != null) {
-                totalOrdersLabel.setText(String.valueOf(orderCount));
-            }
-            
-            if (totalEarningsLabel != null) {
-                // Format earnings to 2 decimal places
-                totalEarningsLabel.setText(String.format("%.0f", totalEarnings));
-            }
+                if (totalEarningsLabel != null) {
+                    // Format earnings to 2 decimal places
+                    totalEarningsLabel.setText(String.valueOf(Math.round(stats.getCompletedEarningsCents() / 100.0)));
+                }
+            }, ex -> LOGGER.log(Level.SEVERE, "Error updating dashboard cards", ex));
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error updating dashboard cards", e);
@@ -450,7 +440,7 @@ public class ArtistDashboardController {
 
     @FXML
     private void handleLogout(MouseEvent event) {
-        System.out.println("Logout clicked. currentUserType=" + currentUserType + ", event=" + event);
+        LOGGER.fine(() -> "Logout clicked. currentUserType=" + currentUserType + ", event=" + event);
         try {
             Stage stage = null;
             if (event != null && event.getSource() != null) {
@@ -461,14 +451,14 @@ public class ArtistDashboardController {
             }
 
             if (stage == null) {
-                System.err.println("Logout: could not determine Stage from event; falling back to profileNameLabel");
+                LOGGER.warning("Logout: could not determine Stage from event; falling back to profileNameLabel");
                 if (profileNameLabel != null && profileNameLabel.getScene() != null) {
                     stage = (Stage) profileNameLabel.getScene().getWindow();
                 }
             }
 
             if (stage == null) {
-                System.err.println("Logout failed: no stage available");
+                LOGGER.warning("Logout failed: no stage available");
                 showAlert(Alert.AlertType.ERROR, "Logout failed", "Unable to determine application window for logout.");
                 return;
             }
@@ -486,12 +476,12 @@ public class ArtistDashboardController {
             URL resUrl = getClass().getResource(resourcePath);
             if (resUrl == null) {
                 String msg = "FXML resource not found at absolute path: " + resourcePath;
-                System.err.println(msg);
+                LOGGER.warning(msg);
                 showAlert(Alert.AlertType.ERROR, "Logout error", msg);
                 return;
             }
 
-            System.out.println("Loading FXML for logout: " + resUrl);
+            LOGGER.fine(() -> "Loading FXML for logout: " + resUrl);
             FXMLLoader loader = new FXMLLoader(resUrl);
 
             Scene scene = new Scene(loader.load(), 600, 400);
@@ -509,7 +499,7 @@ public class ArtistDashboardController {
 
     @FXML
     private void openMyArtworks(MouseEvent event) {
-        System.out.println("Opening My Artworks from side menu");
+        LOGGER.fine("Opening My Artworks from side menu");
         Stage stage = null;
         if (event != null && event.getSource() != null) {
             Object src = event.getSource();
@@ -519,14 +509,14 @@ public class ArtistDashboardController {
         }
 
         if (stage == null) {
-            System.err.println("openMyArtworks: could not determine Stage from event; falling back to profileNameLabel");
+            LOGGER.warning("openMyArtworks: could not determine Stage from event; falling back to profileNameLabel");
             if (profileNameLabel != null && profileNameLabel.getScene() != null) {
                 stage = (Stage) profileNameLabel.getScene().getWindow();
             }
         }
 
         if (stage == null) {
-            System.err.println("openMyArtworks failed: no stage available");
+            LOGGER.warning("openMyArtworks failed: no stage available");
             showAlert(Alert.AlertType.ERROR, "Navigation failed", "Unable to determine application window for navigation.");
             return;
         }
@@ -535,12 +525,12 @@ public class ArtistDashboardController {
         URL resUrl = getClass().getResource(resourcePath);
         if (resUrl == null) {
             String msg = "MyArtwork FXML resource not found at: " + resourcePath;
-            System.err.println(msg);
+            LOGGER.warning(msg);
             showAlert(Alert.AlertType.ERROR, "Navigation error", msg);
             return;
         }
 
-        System.out.println("Loading MyArtworks FXML: " + resUrl);
+        LOGGER.fine(() -> "Loading MyArtworks FXML: " + resUrl);
         FXMLLoader loader = new FXMLLoader(resUrl);
         Scene scene;
         try {
@@ -12,8 +12,11 @@ import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class ArtistLoginController {
+    private static final Logger LOGGER = Logger.getLogger(ArtistLoginController.class.getName());
     @FXML
     private Button back;
 
@@ -30,10 +33,14 @@ public class ArtistLoginController {
     private PasswordField passwordField;
 
     private DatabaseHelper dbHelper;
+    private FxAsync fx;
+    // action and mouse-click handlers both fire; only one login may be in flight
+    private boolean loggingIn = false;
 
     public void initialize()
     {
         dbHelper = DatabaseHelper.getInstance();
+        fx = FxAsync.forNode(signup);
 
         signup.setOnMouseClicked(e->{
             try {
@@ -46,7 +53,7 @@ public class ArtistLoginController {
                 stage.setHeight(height);
                 stage.setWidth(width);
             } catch (IOException ex) {
-                ex.printStackTrace();
+                LOGGER.log(Level.WARNING, "Unable to open Artist Signup", ex);
             }
 
         });
@@ -62,33 +69,33 @@ public class ArtistLoginController {
                 stage.setHeight(height);
                 stage.setWidth(width);
             } catch (IOException ex) {
-                ex.printStackTrace();
+                LOGGER.log(Level.WARNING, "Unable to open Select screen", ex);
             }
 
         });
         // Ensure click is captured both via action and mouse click (defensive)
         if (login != null) {
             login.setOnAction(e -> {
-                System.out.println("ArtistLoginController: login button action fired");
+                LOGGER.fine("login button action fired");
                 handleLogin();
             });
             login.setOnMouseClicked(e -> {
-                System.out.println("ArtistLoginController: login button mouseClicked fired");
+                LOGGER.fine("login button mouseClicked fired");
                 // also call handleLogin to be defensive in case Action isn't wired
                 handleLogin();
             });
         } else {
-            System.err.println("ArtistLoginController: login Button is null in initialize()");
+            LOGGER.warning("login Button is null in initialize()");
         }
     }
 
     private void handleLogin() {
         try {
-            System.out.println("ArtistLoginController: handleLogin invoked");
+            LOGGER.fine("handleLogin invoked");
             String email = (emailField == null || emailField.getText() == null) ? "" : emailField.getText().trim().toLowerCase();
             String password = (passwordField == null) ? "" : passwordField.getText();
 
-            System.out.println("ArtistLoginController: email='" + email + "' passwordPresent=" + (!password.isEmpty()));
+            LOGGER.fine(() -> "email='" + email + "' passwordPresent=" + (!password.isEmpty()));
 
             if (email.isEmpty() || password.isEmpty()) {
                 showAlert(Alert.AlertType.ERROR, "Error", "Please enter email and password.");
@@ -97,66 +104,86 @@ public class ArtistLoginController {
 
             if (dbHelper == null) {
                 showAlert(Alert.AlertType.ERROR, "Error", "Database not initialized.");
-                System.err.println("ArtistLoginController: dbHelper is null");
+                LOGGER.warning("dbHelper is null");
                 return;
             }
 
-            // Pre-check credentials to give better feedback
-            String status = dbHelper.checkCredentials(email, password, "artist");
-            System.out.println("ArtistLoginController: credential check for '" + email + "' -> " + status);
-            if (status == null || status.startsWith("ERROR:")) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Login failed due to internal error.");
-                return;
-            }
-            switch (status) {
-                case "NO_USER":
-                    showAlert(Alert.AlertType.ERROR, "No account", "No account found for this email.");
-                    return;
-                case "WRONG_PASSWORD":
-                    showAlert(Alert.AlertType.ERROR, "Invalid password", "Incorrect password — please try again.");
+            if (loggingIn) return;
+            loggingIn = true;
+            // one query logs in and loads the user; only a failed login asks why, for a specific message
+            fx.handle(dbHelper.async().authenticate(email, password, "artist"), user -> {
+                if (user != null) {
+                    loggingIn = false;
+                    openDashboard(user);
                     return;
-                default:
-                    if (status.startsWith("WRONG_TYPE:")) {
-                        String ut = status.substring("WRONG_TYPE:".length());
-                        showAlert(Alert.AlertType.ERROR, "Wrong account type", "This email is registered as '" + ut + "' not as artist.");
-                        return;
-                    }
-                    break;
-            }
-
-            // Credentials OK — perform loginUser to retrieve fullName and proceed
-            String fullName = dbHelper.loginUser(email, password, "artist");
-            if (fullName != null) {
-                try {
-                    Stage stage = (Stage) login.getScene().getWindow();
-                    FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/artflow/ArtistDashboard.fxml"));
-                    Scene scene= new Scene(loader.load(),600,400);
-                    ArtistDashboardController controller = loader.getController();
-                    controller.setProfileName(fullName);
-                    String firstName = fullName.split(" ")[0];
-                    controller.setWelcomeFirstName(firstName);
-                    controller.setCurrentUserType("artist");
-                    // set global current user
-                    CurrentUser.setFullName(fullName);
-                    CurrentUser.setUserType("artist");
-                    CurrentUser.setEmail(email); // Set the email in CurrentUser
-
-                    double width = stage.getWidth();
-                    double height = stage.getHeight();
-                    stage.setScene(scene);
-                    stage.setHeight(height);
-                    stage.setWidth(width);
-                    System.out.println("ArtistLoginController: login successful, opened ArtistDashboard");
-                } catch (IOException ex) {
-                    ex.printStackTrace();
                 }
-            }
+                fx.handle(dbHelper.async().checkCredentials(email, password, "artist"), status -> {
+                    loggingIn = false;
+                    LOGGER.fine(() -> "credential check for '" + email + "' -> " + status);
+                    if (credentialsAccepted(status)) {
+                        showAlert(Alert.AlertType.ERROR, "Error", "Login failed. Please try again.");
+                    }
+                }, this::onLoginError);
+            }, this::onLoginError);
         } catch (Exception ex) {
-            ex.printStackTrace();
+            LOGGER.log(Level.WARNING, "Unexpected error during login", ex);
             showAlert(Alert.AlertType.ERROR, "Error", "Unexpected error during login: " + ex.getMessage());
         }
     }
 
+    private boolean credentialsAccepted(String status) {
+        if (status == null || status.startsWith("ERROR:")) {
+            showAlert(Alert.AlertType.ERROR, "Error", "Login failed due to internal error.");
+            return false;
+        }
+        switch (status) {
+            case "NO_USER":
+                showAlert(Alert.AlertType.ERROR, "No account", "No account found for this email.");
+                return false;
+            case "WRONG_PASSWORD":
+                showAlert(Alert.AlertType.ERROR, "Invalid password", "Incorrect password — please try again.");
+                return false;
+            default:
+                if (status.startsWith("WRONG_TYPE:")) {
+                    String ut = status.substring("WRONG_TYPE:".length());
+                    showAlert(Alert.AlertType.ERROR, "Wrong account type", "This email is registered as '" + ut + "' not as artist.");
+                    return false;
+                }
+                return true;
+        }
+    }
+
+    private void openDashboard(UserModel user) {
+        try {
+            Stage stage = (Stage) signup.getScene().getWindow();
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/artflow/ArtistDashboard.fxml"));
+            Scene scene= new Scene(loader.load(),600,400);
+            ArtistDashboardController controller = loader.getController();
+            String fullName = user.getDisplayName();
+            controller.setProfileName(fullName);
+            String firstName = fullName.split(" ")[0];
+            controller.setWelcomeFirstName(firstName);
+            controller.setCurrentUserType("artist");
+            // the session keeps the whole users row for the other screens
+            CurrentUser.start(user);
+
+            double width = stage.getWidth();
+            double height = stage.getHeight();
+            stage.setScene(scene);
+            stage.setHeight(height);
+            stage.setWidth(width);
+            LOGGER.fine("login successful, opened ArtistDashboard");
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to open Artist Dashboard", ex);
+        }
+    }
+
+    private void onLoginError(Throwable ex) {
+        loggingIn = false;
+        LOGGER.log(Level.WARNING, "Login failed", ex);
+        showAlert(Alert.AlertType.ERROR, "Error", "Unexpected error during login: " + ex.getMessage());
+    }
+
     private void showAlert(Alert.AlertType type, String title, String message) {
         Alert alert = new Alert(type);
         alert.setTitle(title);
@@ -167,7 +194,7 @@ public class ArtistLoginController {
 
     // FXML onAction handler (ensures login is invoked when button's onAction is set in FXML)
     public void onLogin(javafx.event.ActionEvent event) {
-        System.out.println("ArtistLoginController: onLogin(ActionEvent) invoked from FXML");
+        LOGGER.fine("onLogin(ActionEvent) invoked from FXML");
         handleLogin();
     }
 }
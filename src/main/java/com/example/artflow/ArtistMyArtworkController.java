@@ -28,6 +28,7 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import java.net.URL;
 
 @SuppressWarnings("unused")
@@ -45,6 +46,9 @@ public class ArtistMyArtworkController {
     @FXML
     private Button addArtworkBtn;
 
+    @FXML
+    private Button importFolderBtn;
+
     // ids added for responsive binding
     @FXML
     private javafx.scene.control.ScrollPane centerScroll;
@@ -60,6 +64,11 @@ public class ArtistMyArtworkController {
     private volatile double currentCardWidth = 260;
     private static final int TARGET_COLUMNS = 4;
 
+    // search results shown per query; the catalog can be far larger than a screenful of cards
+    private static final int SEARCH_RESULT_LIMIT = 100;
+    private CompletableFuture<List<ArtworkModel>> pendingSearch;
+    private FxAsync fx;
+
     @FXML
     private HBox dashboardHBox;
 
@@ -137,7 +146,19 @@ public class ArtistMyArtworkController {
             artworkModels.addAll(existing);
             applyFilters();
         }
-        ArtworkStore.getInstance().addListener(this::addArtwork);
+        ArtworkStore.getInstance().addListener(new ArtworkStore.Listener() {
+            @Override
+            public void onArtworkAdded(ArtworkModel model) { addArtwork(model); }
+
+            @Override
+            public void onArtworksAdded(List<ArtworkModel> models) { addArtworks(models); }
+
+            @Override
+            public void onArtworkUpdated(ArtworkModel model) { replaceArtwork(model); }
+
+            @Override
+            public void onArtworkRemoved(String id) { removeArtwork(id); }
+        });
     }
 
     // Recompute layout aiming for TARGET_COLUMNS per row; updates currentCardWidth and FlowPane wrapLength
@@ -197,12 +218,12 @@ public class ArtistMyArtworkController {
 
         categoryHBox.getChildren().forEach(n -> n.getStyleClass().remove("selected"));
         clicked.getStyleClass().add("selected");
-        System.out.println("Selected category: " + clicked.getText());
+        LOGGER.fine(() -> "Selected category: " + clicked.getText());
         applyFilters();
     }
 
     private void applyFilters() {
-        final String search = searchField != null ? searchField.getText().trim().toLowerCase(Locale.ROOT) : "";
+        final String search = searchField != null ? searchField.getText().trim() : "";
         final String selectedCategory;
         {
             String sc = null;
@@ -218,40 +239,50 @@ public class ArtistMyArtworkController {
         }
 
         if (artworksFlow == null) {
-            System.out.println("applyFilters: artworksFlow is null — nothing to update");
+            LOGGER.fine("applyFilters: artworksFlow is null — nothing to update");
             return;
         }
 
         final String selectedCategoryFinal = selectedCategory; // ensure effectively final for lambda
-        Platform.runLater(() -> {
-             artworksFlow.getChildren().clear();
-             java.util.Set<String> seen = new java.util.HashSet<>();
-             for (ArtworkModel m : artworkModels) {
-                // dedupe by title|category|price|image
-                String key = (m.getTitle() == null ? "" : m.getTitle().trim()) + "|" + (m.getCategory() == null ? "" : m.getCategory().trim()) + "|" + (m.getPrice() == null ? "" : m.getPrice().trim()) + "|" + (m.getImagePath() == null ? "" : m.getImagePath().trim());
-                if (seen.contains(key)) continue;
-                seen.add(key);
-
-                // Category filter: if a specific category chip is selected (not All), require artwork category to match
-                boolean matchesCategory = true;
-                if (selectedCategoryFinal != null && !"All".equalsIgnoreCase(selectedCategoryFinal)) {
-                    matchesCategory = m.getCategory() != null && selectedCategoryFinal.equalsIgnoreCase(m.getCategory());
-                }
+        if (pendingSearch != null) pendingSearch.cancel(true);
+        pendingSearch = null;
+        if (!search.isEmpty()) {
+            // typed text goes to the full-text index (title, category, artist, description)
+            CompletableFuture<List<ArtworkModel>> query = ArtworkStore.getInstance().search(search, selectedCategoryFinal, SEARCH_RESULT_LIMIT, 0);
+            pendingSearch = query;
+            fx().handle(query, results -> {
+                if (query == pendingSearch) renderCards(results, null);
+            });
+            return;
+        }
+        Platform.runLater(() -> renderCards(artworkModels, selectedCategoryFinal));
+    }
 
-                // Search filter: if search text provided, match against title OR category (case-insensitive)
-                boolean matchesSearch = true;
-                if (!search.isEmpty()) {
-                     String title = m.getTitle() == null ? "" : m.getTitle().toLowerCase(Locale.ROOT);
-                     String category = m.getCategory() == null ? "" : m.getCategory().toLowerCase(Locale.ROOT);
-                     matchesSearch = title.contains(search) || category.contains(search);
-                 }
+    private void renderCards(List<ArtworkModel> models, String selectedCategory) {
+        artworksFlow.getChildren().clear();
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        for (ArtworkModel m : models) {
+            // dedupe by title|category|price|image
+            String key = (m.getTitle() == null ? "" : m.getTitle().trim()) + "|" + (m.getCategory() == null ? "" : m.getCategory().trim()) + "|" + (m.getPrice() == null ? "" : m.getPrice().trim()) + "|" + (m.getImagePath() == null ? "" : m.getImagePath().trim());
+            if (seen.contains(key)) continue;
+            seen.add(key);
+
+            // Category filter: if a specific category chip is selected (not All), require artwork category to match
+            boolean matchesCategory = true;
+            if (selectedCategory != null && !"All".equalsIgnoreCase(selectedCategory)) {
+                matchesCategory = m.getCategory() != null && selectedCategory.equalsIgnoreCase(m.getCategory());
+            }
 
-                if (matchesCategory && matchesSearch) {
-                    Parent card = renderArtworkModel(m);
-                    if (card != null) artworksFlow.getChildren().add(card);
-                }
+            if (matchesCategory) {
+                Parent card = renderArtworkModel(m);
+                if (card != null) artworksFlow.getChildren().add(card);
             }
-        });
+        }
+    }
+
+    private FxAsync fx() {
+        if (fx == null) fx = FxAsync.forNode(artworksFlow);
+        return fx;
     }
 
     private Parent renderArtworkModel(ArtworkModel m) {
@@ -261,7 +292,7 @@ public class ArtistMyArtworkController {
             javafx.scene.Node imageView = card.lookup("#cardImageView");
             if (imageView instanceof ImageView && m.getImagePath() != null) {
                 try {
-                    Image img = new Image(m.getImagePath(), currentCardWidth * 0.8, 180, true, true);
+                    Image img = ThumbnailCache.get(m.getImagePath(), currentCardWidth * 0.8, 180);
                     ((ImageView) imageView).setImage(img);
                     // also set fit width on the image view to scale correctly
                     ((ImageView) imageView).setFitWidth(currentCardWidth * 0.8);
@@ -333,7 +364,7 @@ public class ArtistMyArtworkController {
 
             return card;
         } catch (IOException e) {
-            System.err.println("Error rendering artwork model: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error rendering artwork model", e);
             return null;
         }
     }
@@ -347,11 +378,11 @@ public class ArtistMyArtworkController {
             addArtworkBtn.setDisable(true);
         }
 
-        System.out.println("openAddArtwork: handler called");
+        LOGGER.fine("openAddArtwork: handler called");
 
         try {
             java.net.URL fxmlUrl = getClass().getResource("/com/example/artflow/ArtistAddArtwork.fxml");
-            System.out.println("Attempting to load FXML from: " + fxmlUrl);
+            LOGGER.fine(() -> "Attempting to load FXML from: " + fxmlUrl);
             if (fxmlUrl == null) {
                 Alert nf = new Alert(Alert.AlertType.ERROR, "ArtistAddArtwork.fxml resource not found on classpath.", ButtonType.OK);
                 nf.setHeaderText("Resource missing");
@@ -393,7 +424,7 @@ public class ArtistMyArtworkController {
             stage.setScene(new Scene(root));
             stage.setResizable(false);
 
-            System.out.println("FXML loaded, showing stage");
+            LOGGER.fine("FXML loaded, showing stage");
             stage.showAndWait();
 
         } catch (Exception e) {
@@ -415,7 +446,7 @@ public class ArtistMyArtworkController {
 
      @SuppressWarnings("unused")
      public void addArtworkNode(Parent artCardNode) {
-        System.out.println("addArtworkNode called — node=" + artCardNode + ", thread=" + Thread.currentThread().getName());
+        LOGGER.fine(() -> "addArtworkNode called — node=" + artCardNode + ", thread=" + Thread.currentThread().getName());
         if (artCardNode == null) return;
         // Ensure UI changes happen on JavaFX thread
         Platform.runLater(() -> {
@@ -426,7 +457,7 @@ public class ArtistMyArtworkController {
                      javafx.scene.Node found = searchField.getScene().lookup("#artworksFlow");
                      if (found instanceof FlowPane) {
                          artworksFlow = (FlowPane) found;
-                         System.out.println("addArtworkNode: located artworksFlow via scene lookup");
+                         LOGGER.fine("addArtworkNode: located artworksFlow via scene lookup");
                      }
                  }
              }
@@ -444,7 +475,7 @@ public class ArtistMyArtworkController {
                 }
             }
 
-            System.out.println("addArtworkNode: allArtNodes size after add = " + allArtNodes.size());
+            LOGGER.fine(() -> "addArtworkNode: allArtNodes size after add = " + allArtNodes.size());
 
             applyFilters();
         });
@@ -454,14 +485,94 @@ public class ArtistMyArtworkController {
         if (model == null) return;
         // Ensure UI updates happen on JavaFX thread and artworksFlow is available
         Platform.runLater(() -> {
-            System.out.println("addArtwork called: title='" + model.getTitle() + "', category='" + model.getCategory() + "', image='" + model.getImagePath() + "'");
+            LOGGER.fine(() -> "addArtwork called: title='" + model.getTitle() + "', category='" + model.getCategory() + "', image='" + model.getImagePath() + "'");
             artworkModels.add(model);
-            System.out.println("artworkModels size after add: " + artworkModels.size());
+            LOGGER.fine(() -> "artworkModels size after add: " + artworkModels.size());
             // always rebuild the flowpane from models to avoid duplicates
             applyFilters();
          });
      }
 
+    /** A whole catalog import: one rebuild of the cards for all of it. */
+    public void addArtworks(List<ArtworkModel> models) {
+        if (models == null || models.isEmpty()) return;
+        Platform.runLater(() -> {
+            artworkModels.addAll(models);
+            LOGGER.fine(() -> "addArtworks: " + models.size() + " added, " + artworkModels.size() + " in total");
+            applyFilters();
+        });
+    }
+
+    /** An artwork edited here or by another instance sharing the database; replaced by id. */
+    public void replaceArtwork(ArtworkModel model) {
+        if (model == null) return;
+        Platform.runLater(() -> {
+            for (int i = 0; i < artworkModels.size(); i++) {
+                if (artworkModels.get(i).getId().equals(model.getId())) {
+                    artworkModels.set(i, model);
+                    applyFilters();
+                    return;
+                }
+            }
+        });
+    }
+
+    public void removeArtwork(String id) {
+        if (id == null) return;
+        Platform.runLater(() -> {
+            if (artworkModels.removeIf(m -> id.equals(m.getId()))) applyFilters();
+        });
+    }
+
+    /** Import every image in a chosen folder (with its manifest.csv, if any) as artworks by the signed-in artist. */
+    @FXML
+    public void importFolder(ActionEvent event) {
+        javafx.stage.DirectoryChooser chooser = new javafx.stage.DirectoryChooser();
+        chooser.setTitle("Import Artworks From Folder");
+        java.io.File folder = chooser.showDialog(findStageFromEventOrUi(null));
+        if (folder == null) return;
+
+        final String idleText = importFolderBtn != null ? importFolderBtn.getText() : null;
+        if (importFolderBtn != null) importFolderBtn.setDisable(true);
+        java.util.concurrent.atomic.AtomicInteger shownPercent = new java.util.concurrent.atomic.AtomicInteger(-1);
+        CompletableFuture<CatalogImport.Result> work = ArtworkStore.getInstance().importCatalog(folder.toPath(), CurrentUser.getFullName(),
+                (done, total) -> {
+                    // one FX update per percent, not per image
+                    int percent = done * 100 / total;
+                    if (importFolderBtn != null && shownPercent.getAndSet(percent) != percent) {
+                        Platform.runLater(() -> importFolderBtn.setText("Importing " + percent + "%"));
+                    }
+                });
+        // leaving this screen drops the summary dialog but must not cancel the import
+        fx().deliver(work, result -> {
+            resetImportButton(idleText);
+            StringBuilder text = new StringBuilder();
+            text.append("Imported ").append(result.getImported().size()).append(" of ").append(result.getImageCount()).append(" images.");
+            List<String> skipped = result.getSkipped();
+            if (!skipped.isEmpty()) {
+                text.append("\n\nSkipped:");
+                for (int i = 0; i < Math.min(10, skipped.size()); i++) text.append("\n").append(skipped.get(i));
+                if (skipped.size() > 10) text.append("\n... and ").append(skipped.size() - 10).append(" more (see the log)");
+                skipped.forEach(line -> LOGGER.log(Level.INFO, "Import skipped {0}", line));
+            }
+            Alert done = new Alert(Alert.AlertType.INFORMATION, text.toString(), ButtonType.OK);
+            done.setHeaderText("Import finished");
+            done.showAndWait();
+        }, error -> {
+            resetImportButton(idleText);
+            LOGGER.log(Level.WARNING, "Import from " + folder + " failed", error);
+            Alert failed = new Alert(Alert.AlertType.ERROR, String.valueOf(error.getMessage()), ButtonType.OK);
+            failed.setHeaderText("Import failed");
+            failed.showAndWait();
+        });
+    }
+
+    private void resetImportButton(String idleText) {
+        if (importFolderBtn == null) return;
+        importFolderBtn.setText(idleText);
+        importFolderBtn.setDisable(false);
+    }
+
     // Navigation helpers: mark which sidebar item is selected (adds 'selected' style class)
     private void setSidebarSelected(HBox item) {
         try {
@@ -480,15 +591,15 @@ public class ArtistMyArtworkController {
 
     @FXML
     private void openDashboard(MouseEvent event) {
-        System.out.println("openDashboard called, source=" + (event == null ? "null" : event.getSource()) );
+        LOGGER.fine(() -> "openDashboard called, source=" + (event == null ? "null" : event.getSource()) );
         setSidebarSelected(dashboardHBox);
         // load ArtistDashboard.fxml into current stage and tell it to highlight dashboard
         try {
             Stage stage = findStageFromEventOrUi(event);
-            System.out.println("openDashboard: resolved stage=" + stage);
+            LOGGER.fine(() -> "openDashboard: resolved stage=" + stage);
             if (stage == null) return;
             URL res = getClass().getResource("/com/example/artflow/ArtistDashboard.fxml");
-            System.out.println("openDashboard: loading resource=" + res);
+            LOGGER.fine(() -> "openDashboard: loading resource=" + res);
             if (res == null) return;
             FXMLLoader loader = new FXMLLoader(res);
             Scene s = new Scene(loader.load(), stage.getWidth(), stage.getHeight());
@@ -512,16 +623,16 @@ public class ArtistMyArtworkController {
 
     @FXML
     private void openOrders(MouseEvent event) {
-        System.out.println("openOrders called, source=" + (event == null ? "null" : event.getSource()) );
+        LOGGER.fine(() -> "openOrders called, source=" + (event == null ? "null" : event.getSource()) );
         setSidebarSelected(ordersHBox);
         try {
             Stage stage = findStageFromEventOrUi(event);
-            System.out.println("openOrders: resolved stage=" + stage);
+            LOGGER.fine(() -> "openOrders: resolved stage=" + stage);
             if (stage == null) return;
             URL res = getClass().getResource("/com/example/artflow/ArtistCompletedOrders.fxml");
-            System.out.println("openOrders: loading resource=" + res);
+            LOGGER.fine(() -> "openOrders: loading resource=" + res);
             if (res == null) {
-                System.err.println("ArtistCompletedOrders.fxml not found");
+                LOGGER.warning("ArtistCompletedOrders.fxml not found");
                 return;
             }
             FXMLLoader loader = new FXMLLoader(res);
@@ -538,20 +649,20 @@ public class ArtistMyArtworkController {
     private void openEarnings(MouseEvent event) {
         setSidebarSelected(earningsHBox);
         // stub: implement navigation to earnings page if exists
-        System.out.println("Open Earnings (not implemented).");
+        LOGGER.fine("Open Earnings (not implemented).");
     }
 
     @FXML
     private void openProfile(MouseEvent event) {
         setSidebarSelected(profileHBox);
         // stub: implement profile navigation if exists
-        System.out.println("Open Profile (not implemented).");
+        LOGGER.fine("Open Profile (not implemented).");
     }
 
     @FXML
     private void handleLogout(MouseEvent event) {
         // delegate to ArtistDashboardController's logout flow if possible; otherwise load Select or login
-        System.out.println("Logout clicked from MyArtworks");
+        LOGGER.fine("Logout clicked from MyArtworks");
         // try to find the Dashboard controller on scene and call its handleLogout
         try {
             if (event != null && event.getSource() instanceof javafx.scene.Node node) {
@@ -49,37 +49,21 @@ public class ArtistProfileController {
     private Button saveButton;
 
     private static final Logger LOGGER = Logger.getLogger(ArtistProfileController.class.getName());
+    private FxAsync fx;
 
     @FXML
     public void initialize() {
+        if (saveButton != null) fx = FxAsync.forNode(saveButton);
         try {
-            // Set profile name from current user
-            String fullName = CurrentUser.getFullName();
-            String email = CurrentUser.getEmail();
-            
-            if (fullName != null) {
-                if (profileNameLabel != null) {
-                    profileNameLabel.setText(fullName);
-                }
-                
-                // Populate fields
+            // Everything comes from the session loaded at login: no users query per visit
+            UserModel user = CurrentUser.get();
+            if (user != null) {
+                String fullName = user.getDisplayName();
+                if (profileNameLabel != null) profileNameLabel.setText(fullName);
                 if (nameField != null) nameField.setText(fullName);
-            }
-            
-            if (email != null && emailField != null) {
-                emailField.setText(email);
-            }
-            
-            // Load additional profile data from database
-            if (email != null) {
-                DatabaseHelper dbHelper = DatabaseHelper.getInstance();
-                java.util.Map<String, String> profile = dbHelper.getUserProfile(email);
-                if (profile != null) {
-                    String phone = profile.get("phone");
-                    String address = profile.get("address");
-                    if (phone != null && phoneField != null) phoneField.setText(phone);
-                    if (address != null && addressField != null) addressField.setText(address);
-                }
+                if (emailField != null && user.getEmail() != null) emailField.setText(user.getEmail());
+                if (phoneField != null && user.getPhone() != null) phoneField.setText(user.getPhone());
+                if (addressField != null && user.getAddress() != null) addressField.setText(user.getAddress());
             }
             
             // Add listeners to text fields to enable save button when any field changes
@@ -125,51 +109,31 @@ public class ArtistProfileController {
             return;
         }
 
-        try {
-            DatabaseHelper dbHelper = DatabaseHelper.getInstance();
-            
-            // Check if email is being changed and if the new email already exists
-            if (!email.equals(currentEmail)) {
-                // Check if the new email is already in use
-                String existingUser = dbHelper.getUserDebugInfo(email);
-                if (existingUser != null && !existingUser.equals("NO_USER")) {
+        // Save off the FX thread; the unique email index rejects an address another account uses,
+        // and on success CurrentUser is refreshed with the stored values. deliver: leaving the screen
+        // must not cancel the update
+        saveButton.setDisable(true);
+        fx.deliver(DatabaseHelper.getInstance().async().saveUserProfile(currentEmail, name, email, phone, address), result -> {
+            switch (result) {
+                case SAVED:
+                    if (profileNameLabel != null) {
+                        profileNameLabel.setText(CurrentUser.getFullName());
+                    }
+                    showAlert("Success", "Profile updated successfully!");
+                    break;
+                case EMAIL_IN_USE:
+                    saveButton.setDisable(false);
                     showAlert("Error", "This email is already in use by another account.");
-                    return;
-                }
+                    break;
+                default:
+                    saveButton.setDisable(false);
+                    showAlert("Error", "Failed to update profile. Please try again.");
             }
-            
-            // Update the current user's name in the CurrentUser class
-            CurrentUser.setFullName(name);
-            
-            // Update the profile name label
-            if (profileNameLabel != null) {
-                profileNameLabel.setText(name);
-            }
-            
-            // Save to database
-            boolean success = dbHelper.updateUserProfile(
-                currentEmail, // current email
-                name,
-                email,
-                phone,
-                address
-            );
-            
-            if (success) {
-                // Update the email in CurrentUser if it was changed
-                if (!email.equals(currentEmail)) {
-                    CurrentUser.setEmail(email);
-                }
-                
-                showAlert("Success", "Profile updated successfully!");
-                saveButton.setDisable(true);
-            } else {
-                showAlert("Error", "Failed to update profile. Please try again.");
-            }
-        } catch (Exception e) {
+        }, e -> {
             LOGGER.log(Level.SEVERE, "Error updating profile", e);
+            saveButton.setDisable(false);
             showAlert("Error", "An error occurred while updating your profile: " + e.getMessage());
-        }
+        });
     }
 
     private void showAlert(String title, String message) {
@@ -211,9 +175,7 @@ public class ArtistProfileController {
     @FXML
     private void handleLogout(MouseEvent e) {
         try {
-            CurrentUser.setFullName(null);
-            CurrentUser.setUserType(null);
-            CurrentUser.setEmail(null);
+            CurrentUser.clear();
             navigateTo("/com/example/artflow/ArtistLogin.fxml", e);
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "Logout failed", ex);
@@ -82,7 +82,7 @@ public class ArtistSidebarController {
             if (stage == null) return;
             URL res = getClass().getResource("/com/example/artflow/ArtistLogin.fxml");
             if (res == null) {
-                System.err.println("ArtistLogin.fxml not found");
+                LOGGER.warning("ArtistLogin.fxml not found");
                 return;
             }
             FXMLLoader loader = new FXMLLoader(res);
@@ -99,7 +99,7 @@ public class ArtistSidebarController {
             if (stage == null) return;
             URL res = getClass().getResource(resourcePath);
             if (res == null) {
-                System.err.println(resourcePath + " not found");
+                LOGGER.warning(resourcePath + " not found");
                 return;
             }
             FXMLLoader loader = new FXMLLoader(res);
@@ -8,8 +8,11 @@ import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class ArtistSignupController {
+    private static final Logger LOGGER = Logger.getLogger(ArtistSignupController.class.getName());
 
     @FXML
     private Button signup3;
@@ -29,9 +32,11 @@ public class ArtistSignupController {
     private PasswordField confirmPasswordField;
     
     private DatabaseHelper dbHelper;
+    private FxAsync fx;
 
     public void initialize() {
         dbHelper = DatabaseHelper.getInstance();
+        fx = FxAsync.forNode(signup3);
         
         signup3.setOnAction(e -> handleSignup());
 
@@ -77,37 +82,39 @@ public class ArtistSignupController {
 
         String fullName = (firstName + " " + lastName).trim();
 
-        System.out.println("=== Starting Signup Process ===");
-        System.out.println("Name: " + fullName);
-        System.out.println("Email: " + email);
+        LOGGER.fine("=== Starting Signup Process ===");
+        LOGGER.fine(() -> "Name: " + fullName);
+        LOGGER.fine(() -> "Email: " + email);
         
         // Basic validation
         if (firstName.isEmpty() || lastName.isEmpty() || email.isEmpty() || password.isEmpty() || confirmPassword.isEmpty()) {
             String errorMsg = "All fields are required!";
-            System.out.println("Validation failed: " + errorMsg);
+            LOGGER.fine(() -> "Validation failed: " + errorMsg);
             showAlert(Alert.AlertType.ERROR, "Error", errorMsg);
             return;
         }
 
         if (!password.equals(confirmPassword)) {
             String errorMsg = "Passwords do not match!";
-            System.out.println("Validation failed: " + errorMsg);
+            LOGGER.fine(() -> "Validation failed: " + errorMsg);
             showAlert(Alert.AlertType.ERROR, "Error", errorMsg);
             return;
         }
 
         if (password.length() < 6) {
             String errorMsg = "Password must be at least 6 characters";
-            System.out.println("Validation failed: " + errorMsg);
+            LOGGER.fine(() -> "Validation failed: " + errorMsg);
             showAlert(Alert.AlertType.ERROR, "Error", errorMsg);
             return;
         }
 
-        // Email format and signup via DatabaseHelper
-        try {
-            boolean success = dbHelper.signupUser(firstName, lastName, email.toLowerCase(), password, "artist");
+        // Email format and signup via DatabaseHelper, off the FX thread; deliver: the account is
+        // created even if the screen is left meanwhile
+        signup3.setDisable(true);
+        fx.deliver(dbHelper.async().signupUser(firstName, lastName, email.toLowerCase(), password, "artist"), success -> {
+            signup3.setDisable(false);
             if (success) {
-                System.out.println("User signup successful!");
+                LOGGER.fine("User signup successful!");
                 showShortAlert("Sign up complete");
                 // Clear the form
                 firstNameField.clear();
@@ -115,24 +122,31 @@ public class ArtistSignupController {
                 emailField.clear();
                 passwordField.clear();
                 confirmPasswordField.clear();
-                // Navigate to login page
-                Stage stage = (Stage) signup3.getScene().getWindow();
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("ArtistLogin.fxml"));
-                Scene scene= new Scene(loader.load(),600,400);
-                double width = stage.getWidth();
-                double height = stage.getHeight();
-                stage.setScene(scene);
-                stage.setHeight(height);
-                stage.setWidth(width);
+                if (!fx.isLeft()) openLogin();
             } else {
                 String errorMsg = "Sign up failed. Email may already be registered.";
-                System.out.println(errorMsg);
+                LOGGER.fine(() -> errorMsg);
                 showAlert(Alert.AlertType.ERROR, "Error", errorMsg);
             }
-        } catch (Exception e) {
-            System.err.println("Unexpected error during sign up:");
-            e.printStackTrace();
+        }, e -> {
+            signup3.setDisable(false);
+            LOGGER.log(Level.WARNING, "Unexpected error during sign up", e);
             showAlert(Alert.AlertType.ERROR, "Error", "An unexpected error occurred: " + e.getMessage());
+        });
+    }
+
+    private void openLogin() {
+        try {
+            Stage stage = (Stage) signup3.getScene().getWindow();
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("ArtistLogin.fxml"));
+            Scene scene= new Scene(loader.load(),600,400);
+            double width = stage.getWidth();
+            double height = stage.getHeight();
+            stage.setScene(scene);
+            stage.setHeight(height);
+            stage.setWidth(width);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to open Artist Login", ex);
         }
     }
 
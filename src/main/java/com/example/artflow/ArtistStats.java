@@ -0,0 +1,31 @@
+package com.example.artflow;
+
+/** Dashboard figures for one artist, read together so they are consistent with each other. */
+public class ArtistStats {
+    private final int artworkCount;
+    private final int orderCount;
+    private final int pendingCount;
+    private final int completedCount;
+    private final int rejectedCount;
+    private final long completedEarningsCents;
+
+    public ArtistStats(int artworkCount, int orderCount, int pendingCount, int completedCount, int rejectedCount, long completedEarningsCents) {
+        this.artworkCount = artworkCount;
+        this.orderCount = orderCount;
+        this.pendingCount = pendingCount;
+        this.completedCount = completedCount;
+        this.rejectedCount = rejectedCount;
+        this.completedEarningsCents = completedEarningsCents;
+    }
+
+    public static ArtistStats empty() {
+        return new ArtistStats(0, 0, 0, 0, 0, 0L);
+    }
+
+    public int getArtworkCount() { return artworkCount; }
+    public int getOrderCount() { return orderCount; }
+    public int getPendingCount() { return pendingCount; }
+    public int getCompletedCount() { return completedCount; }
+    public int getRejectedCount() { return rejectedCount; }
+    public long getCompletedEarningsCents() { return completedEarningsCents; }
+}
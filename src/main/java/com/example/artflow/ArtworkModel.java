@@ -5,29 +5,29 @@ import java.util.UUID;
 public class ArtworkModel {
     private final String id;
     private final String title;
-    private final String price;
+    private final long priceCents;
     private final String category;
     private final String imagePath; // file URI or null
     private final String artistName;
     private final String description;
 
-    public ArtworkModel(String title, String price, String category, String imagePath) {
-        this(UUID.randomUUID().toString(), title, price, category, imagePath, null, null);
+    public ArtworkModel(String title, long priceCents, String category, String imagePath) {
+        this(UUID.randomUUID().toString(), title, priceCents, category, imagePath, null, null);
     }
 
     // Convenience constructor to include artist name and description when creating a new artwork
-    public ArtworkModel(String title, String price, String category, String imagePath, String artistName, String description) {
-        this(UUID.randomUUID().toString(), title, price, category, imagePath, artistName, description);
+    public ArtworkModel(String title, long priceCents, String category, String imagePath, String artistName, String description) {
+        this(UUID.randomUUID().toString(), title, priceCents, category, imagePath, artistName, description);
     }
 
-    public ArtworkModel(String id, String title, String price, String category, String imagePath) {
-        this(id, title, price, category, imagePath, null, null);
+    public ArtworkModel(String id, String title, long priceCents, String category, String imagePath) {
+        this(id, title, priceCents, category, imagePath, null, null);
     }
 
-    public ArtworkModel(String id, String title, String price, String category, String imagePath, String artistName, String description) {
+    public ArtworkModel(String id, String title, long priceCents, String category, String imagePath, String artistName, String description) {
         this.id = id != null ? id : UUID.randomUUID().toString();
         this.title = title;
-        this.price = price;
+        this.priceCents = priceCents;
         this.category = category;
         this.imagePath = imagePath;
         this.artistName = artistName;
@@ -40,7 +40,10 @@ public class ArtworkModel {
 
     public String getId() { return id; }
     public String getTitle() { return title; }
-    public String getPrice() { return price; }
+    /** Price in cents (see {@link Money}). */
+    public long getPriceCents() { return priceCents; }
+    /** Price as display text, e.g. "120.00". */
+    public String getPrice() { return Money.format(priceCents); }
     public String getCategory() { return category; }
     public String getImagePath() { return imagePath; }
 }
@@ -0,0 +1,349 @@
+package com.example.artflow;
+
+import org.sqlite.SQLiteException;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind queue for artwork changes. Callers record a change and return immediately; a single
+ * background thread writes everything pending as one transaction (group commit), waiting a few
+ * milliseconds first so a burst of clicks shares one commit.
+ *
+ * Pending changes are kept per artwork id and only the latest one is written: an edit followed by a
+ * delete becomes just the delete. A commit that fails on a busy or locked database is retried with
+ * backoff; newer changes to the same artwork replace the failed one. After {@link #MAX_ATTEMPTS}
+ * failures in a row, or at once on an error retrying cannot fix (a constraint, a malformed row), the
+ * batch is written one change at a time and the changes that still fail are dropped, logged and
+ * handed to the {@code onDropped} callback so the caller can reload those artworks.
+ *
+ * Durability is weaker than a direct write: pending changes live only in memory, so a crash or kill
+ * loses whatever has not committed yet (at most the group window's worth, more while the database is
+ * failing). {@link #close} flushes before a normal shutdown.
+ */
+public class ArtworkOutbox implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ArtworkOutbox.class.getName());
+    private static final long DEFAULT_GROUP_WINDOW_MS = 20;
+    // end the group window early once this many changes are waiting
+    private static final int FLUSH_EARLY_AT = 500;
+    private static final long INITIAL_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 5000;
+    // failed commits in a row before the batch is split up and its bad changes dropped
+    static final int MAX_ATTEMPTS = 5;
+
+    private final DatabaseHelper db;
+    private final long groupWindowMs;
+    private final Consumer<Set<String>> onDropped;
+    private Thread flusher;
+
+    private final Object lock = new Object();
+    // latest pending change per artwork id, in arrival order; a null model means "delete"
+    private LinkedHashMap<String, ArtworkModel> pending = new LinkedHashMap<>();
+    // the batch being committed, until its transaction ends
+    private Map<String, ArtworkModel> writing = Map.of();
+    private boolean inFlight = false;
+    private int flushWaiters = 0;
+    private boolean closed = false;
+
+    // metrics: updated under lock, read without it
+    private volatile long submitted;
+    private volatile long coalesced;
+    private volatile long flushes;
+    private volatile long flushedChanges;
+    private volatile long failedFlushes;
+    private volatile long droppedChanges;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile long totalFlushNanos;
+
+    /** Outbox with the default group window; {@code onDropped} gets the ids of changes given up on. */
+    public static ArtworkOutbox open(DatabaseHelper db, Consumer<Set<String>> onDropped) {
+        return open(db, DEFAULT_GROUP_WINDOW_MS, onDropped);
+    }
+
+    /** Outbox writing to {@code db}, with its flusher thread running. */
+    public static ArtworkOutbox open(DatabaseHelper db, long groupWindowMs, Consumer<Set<String>> onDropped) {
+        ArtworkOutbox outbox = new ArtworkOutbox(db, groupWindowMs, onDropped);
+        outbox.startFlusher();
+        return outbox;
+    }
+
+    private ArtworkOutbox(DatabaseHelper db, long groupWindowMs, Consumer<Set<String>> onDropped) {
+        this.db = db;
+        this.groupWindowMs = Math.max(0, groupWindowMs);
+        this.onDropped = onDropped;
+    }
+
+    private void startFlusher() {
+        flusher = new Thread(this::runFlusher, "artwork-outbox");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /** Queue an insert-or-update of this artwork. */
+    public void upsert(ArtworkModel model) {
+        if (model == null || model.getId() == null) return;
+        enqueue(model.getId(), model);
+    }
+
+    /** Queue removal of the artwork with this id. */
+    public void delete(String id) {
+        if (id == null) return;
+        enqueue(id, null);
+    }
+
+    private void enqueue(String id, ArtworkModel model) {
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Artwork outbox is closed");
+            submitted++;
+            if (pending.containsKey(id)) {
+                coalesced++;
+                pending.remove(id); // re-append so the map stays in arrival order
+            }
+            pending.put(id, model);
+            if (pending.size() == 1 || pending.size() == FLUSH_EARLY_AT) lock.notifyAll();
+        }
+    }
+
+    /**
+     * Write everything queued so far and wait up to {@code timeoutMs} for it to commit. Returns true
+     * once nothing is pending, false on timeout (e.g. while the database keeps failing).
+     */
+    public boolean flush(long timeoutMs) {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        synchronized (lock) {
+            flushWaiters++;
+            lock.notifyAll();
+            try {
+                while (!pending.isEmpty() || inFlight) {
+                    long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+                    if (remainingMs <= 0) return false;
+                    lock.wait(remainingMs);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                flushWaiters--;
+            }
+        }
+    }
+
+    /** Stop accepting changes and flush what is queued, waiting up to {@code timeoutMs}. */
+    public boolean close(long timeoutMs) {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        boolean flushed = flush(timeoutMs);
+        if (!flushed) {
+            LOGGER.log(Level.SEVERE, "{0} artwork changes could not be written before shutdown", getQueueDepth());
+        }
+        return flushed;
+    }
+
+    @Override
+    public void close() {
+        close(5000);
+    }
+
+    private void runFlusher() {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        int failures = 0;
+        while (true) {
+            Map<String, ArtworkModel> batch;
+            synchronized (lock) {
+                try {
+                    while (pending.isEmpty()) {
+                        if (closed) return;
+                        lock.wait();
+                    }
+                    // group window: let the rest of a burst join this commit unless someone is waiting
+                    long deadline = System.nanoTime() + groupWindowMs * 1_000_000L;
+                    while (!closed && flushWaiters == 0 && pending.size() < FLUSH_EARLY_AT) {
+                        long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+                        if (remainingMs <= 0) break;
+                        lock.wait(remainingMs);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                writing = batch;
+                inFlight = true;
+            }
+
+            long start = System.nanoTime();
+            Exception failure = write(batch);
+            long elapsed = System.nanoTime() - start;
+            Set<String> dropped = Set.of();
+            if (failure != null && (++failures >= MAX_ATTEMPTS || !isTransient(failure))) {
+                LOGGER.log(Level.WARNING, "Commit of " + batch.size() + " artwork changes failed (attempt " + failures
+                        + "), writing them one at a time", failure);
+                dropped = writeEach(batch);
+                failure = null;
+            }
+
+            boolean stopping;
+            synchronized (lock) {
+                // with changes dropped, stay in flight until they are reported so a flush sees the report
+                inFlight = !dropped.isEmpty();
+                writing = Map.of();
+                if (failure == null) {
+                    flushes++;
+                    flushedChanges += batch.size() - dropped.size();
+                    droppedChanges += dropped.size();
+                    lastFlushNanos = elapsed;
+                    totalFlushNanos += elapsed;
+                    if (elapsed > maxFlushNanos) maxFlushNanos = elapsed;
+                } else {
+                    failedFlushes++;
+                    // retry the batch, except artworks that have been changed again since
+                    LinkedHashMap<String, ArtworkModel> retry = new LinkedHashMap<>(batch);
+                    for (Map.Entry<String, ArtworkModel> e : pending.entrySet()) {
+                        retry.remove(e.getKey());
+                        retry.put(e.getKey(), e.getValue());
+                    }
+                    pending = retry;
+                }
+                stopping = closed;
+                lock.notifyAll();
+            }
+
+            if (!dropped.isEmpty()) {
+                LOGGER.log(Level.SEVERE, "Dropped {0} artwork changes the database rejected: {1}", new Object[] { dropped.size(), dropped });
+                try {
+                    onDropped.accept(dropped);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Dropped-changes callback failed", e);
+                }
+                synchronized (lock) {
+                    inFlight = false;
+                    lock.notifyAll();
+                }
+            }
+            if (failure == null) {
+                backoffMs = INITIAL_BACKOFF_MS;
+                failures = 0;
+            } else {
+                LOGGER.log(Level.WARNING, "Commit of {0} artwork changes failed ({1}), retrying in {2} ms",
+                        new Object[] { batch.size(), failure.getMessage(), backoffMs });
+                try {
+                    Thread.sleep(stopping ? INITIAL_BACKOFF_MS : backoffMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+        }
+    }
+
+    // null once committed; a RuntimeException (a model the statement cannot bind) counts as a bad row
+    private Exception write(Map<String, ArtworkModel> changes) {
+        List<ArtworkModel> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (Map.Entry<String, ArtworkModel> e : changes.entrySet()) {
+            if (e.getValue() == null) deletes.add(e.getKey()); else upserts.add(e.getValue());
+        }
+        try {
+            db.writeArtworkChanges(upserts, deletes);
+            return null;
+        } catch (SQLException | RuntimeException e) {
+            return e;
+        }
+    }
+
+    // each change in its own transaction, so one bad row no longer holds back the rest; returns the ids that failed
+    private Set<String> writeEach(Map<String, ArtworkModel> batch) {
+        Set<String> failed = new LinkedHashSet<>();
+        for (Map.Entry<String, ArtworkModel> e : batch.entrySet()) {
+            Exception failure = write(Collections.singletonMap(e.getKey(), e.getValue()));
+            if (failure != null) {
+                LOGGER.log(Level.FINE, "Artwork change for " + e.getKey() + " failed", failure);
+                failed.add(e.getKey());
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Whether waiting can fix this failure: a busy, locked or full database, an I/O error, or a closed
+     * pool. Constraint violations, malformed rows and anything that is not a SQLException are not.
+     */
+    static boolean isTransient(Exception e) {
+        if (!(e instanceof SQLException)) return false;
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLiteException) {
+                switch (((SQLiteException) t).getResultCode().code & 0xff) {
+                    case 5:  // SQLITE_BUSY
+                    case 6:  // SQLITE_LOCKED
+                    case 10: // SQLITE_IOERR
+                    case 13: // SQLITE_FULL
+                    case 14: // SQLITE_CANTOPEN
+                        return true;
+                    default:
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True while a change to this artwork is queued or being committed, i.e. the in-memory copy may be
+     * newer than the database row.
+     */
+    public boolean isPending(String id) {
+        synchronized (lock) {
+            return pending.containsKey(id) || writing.containsKey(id);
+        }
+    }
+
+    /** Changes recorded but not yet picked up by a commit (a batch being written is not counted). */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getSubmittedCount() { return submitted; }
+
+    /** Changes that replaced an earlier pending change to the same artwork and so were never written separately. */
+    public long getCoalescedCount() { return coalesced; }
+
+    public long getFlushCount() { return flushes; }
+
+    public long getFlushedChangeCount() { return flushedChanges; }
+
+    public long getFailedFlushCount() { return failedFlushes; }
+
+    /** Changes given up on after {@link #MAX_ATTEMPTS} failed commits or an error retrying cannot fix. */
+    public long getDroppedChangeCount() { return droppedChanges; }
+
+    public double getLastFlushMillis() { return lastFlushNanos / 1e6; }
+
+    public double getMaxFlushMillis() { return maxFlushNanos / 1e6; }
+
+    public double getMeanFlushMillis() {
+        long n = flushes;
+        return n == 0 ? 0.0 : totalFlushNanos / 1e6 / n;
+    }
+
+    /** One-line metrics summary for logs and benchmarks. */
+    public String metricsSummary() {
+        return String.format("depth=%d submitted=%d coalesced=%d flushes=%d changes=%d failed=%d dropped=%d flush ms last=%.2f mean=%.2f max=%.2f",
+                getQueueDepth(), submitted, coalesced, flushes, flushedChanges, failedFlushes, droppedChanges,
+                getLastFlushMillis(), getMeanFlushMillis(), getMaxFlushMillis());
+    }
+}
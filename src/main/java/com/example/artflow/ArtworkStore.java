@@ -2,47 +2,63 @@ package com.example.artflow;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class ArtworkStore {
+    private static final Logger LOGGER = Logger.getLogger(ArtworkStore.class.getName());
+
     public interface Listener {
         void onArtworkAdded(ArtworkModel model);
         default void onArtworkUpdated(ArtworkModel model) {}
         default void onArtworkRemoved(String id) {}
+        /** Many artworks added at once (a catalog import); override to refresh once instead of per artwork. */
+        default void onArtworksAdded(List<ArtworkModel> models) {
+            for (ArtworkModel m : models) onArtworkAdded(m);
+        }
     }
 
     private static final ArtworkStore INSTANCE = new ArtworkStore();
+    // how long a search waits for queued changes to reach the index before running anyway
+    private static final long SEARCH_FLUSH_TIMEOUT_MS = 200;
 
     private final List<ArtworkModel> items = new ArrayList<>();
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final DatabaseHelper db;
+    private final ArtworkOutbox outbox;
 
     private ArtworkStore() {
+        db = DatabaseHelper.getInstance();
+        // a change the database keeps rejecting is dropped; show the stored row again instead
+        outbox = ArtworkOutbox.open(db, ids -> reconcile(ids, db.getArtworksByIds(ids)));
         // initialize from DB
         try {
-            DatabaseHelper db = DatabaseHelper.getInstance();
             List<ArtworkModel> fromDb = db.listArtworks();
             if (fromDb != null && !fromDb.isEmpty()) {
                 items.addAll(fromDb);
             }
         } catch (Exception e) {
-            System.err.println("ArtworkStore: failed to load from DB: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Failed to load artworks from DB", e);
         }
+        // writes from other instances sharing the file; the watcher's cursor predates the load above
+        db.getWatcher().addListener(this::applyChanges);
     }
 
     public static ArtworkStore getInstance() { return INSTANCE; }
 
+    // Mutations update the in-memory list and listeners immediately; the outbox writes them to
+    // SQLite in the background (group-committed and retried; see ArtworkOutbox for what a crash loses).
+
     public synchronized void add(ArtworkModel model) {
         if (model == null) return;
-        try {
-            DatabaseHelper db = DatabaseHelper.getInstance();
-            boolean ok = db.insertArtwork(model);
-            if (!ok) {
-                System.err.println("ArtworkStore: DB insert failed for " + model.getId());
-            }
-        } catch (Exception e) {
-            System.err.println("ArtworkStore: DB insert error: " + e.getMessage());
-        }
+        outbox.upsert(model);
         items.add(model);
         // notify listeners
         for (Listener l : listeners) {
@@ -52,17 +68,7 @@ public class ArtworkStore {
 
     public synchronized void update(ArtworkModel model) {
         if (model == null) return;
-        try {
-            DatabaseHelper db = DatabaseHelper.getInstance();
-            boolean ok = db.updateArtwork(model);
-            if (!ok) {
-                // try insert if update didn't affect rows
-                ok = db.insertArtwork(model);
-            }
-            if (!ok) System.err.println("ArtworkStore: DB update/insert failed for " + model.getId());
-        } catch (Exception e) {
-            System.err.println("ArtworkStore: DB update error: " + e.getMessage());
-        }
+        outbox.upsert(model);
 
         for (int i = 0; i < items.size(); i++) {
             if (items.get(i).getId().equals(model.getId())) {
@@ -77,19 +83,120 @@ public class ArtworkStore {
 
     public synchronized void removeById(String id) {
         if (id == null) return;
-        try {
-            DatabaseHelper db = DatabaseHelper.getInstance();
-            boolean ok = db.deleteArtwork(id);
-            if (!ok) System.err.println("ArtworkStore: DB delete failed for " + id);
-        } catch (Exception e) {
-            System.err.println("ArtworkStore: DB delete error: " + e.getMessage());
-        }
+        outbox.delete(id);
         items.removeIf(a -> id.equals(a.getId()));
         for (Listener l : listeners) {
             try { l.onArtworkRemoved(id); } catch (Exception ignored) {}
         }
     }
 
+    /**
+     * Import a folder of images in the background (see {@link CatalogImport}); its manifest is found
+     * with {@link CatalogImport#findManifest}. The rows are saved in one transaction by the import
+     * itself, not through the outbox, and listeners then hear about all of them in one
+     * {@link Listener#onArtworksAdded} call.
+     */
+    public CompletableFuture<CatalogImport.Result> importCatalog(java.nio.file.Path folder, String artistName,
+                                                                 CatalogImport.ProgressListener progress) {
+        return DbExecutor.supply(() -> {
+            CatalogImport.Result result = new CatalogImport(db).run(folder, CatalogImport.findManifest(folder), artistName, progress);
+            addSaved(result.getImported());
+            return result;
+        });
+    }
+
+    // artworks already in the database: list and listeners only
+    private synchronized void addSaved(List<ArtworkModel> models) {
+        if (models.isEmpty()) return;
+        items.addAll(models);
+        List<ArtworkModel> batch = Collections.unmodifiableList(new ArrayList<>(models));
+        for (Listener l : listeners) {
+            try { l.onArtworksAdded(batch); } catch (Exception ignored) {}
+        }
+    }
+
+    /**
+     * Bring the list in line with artwork rows changed through any connection (see {@link DatabaseWatcher}):
+     * only the changed ids are re-read, or the whole catalog when the change set is truncated. Rows
+     * whose in-memory copy is still waiting in the outbox are left alone, and rows that already match
+     * (this instance's own writes) are not announced again.
+     */
+    void applyChanges(ChangeSet changes) {
+        Set<String> ids = changes.isTruncated() ? null : changes.idsOf(ChangeSet.Entity.ARTWORK);
+        if (ids != null && ids.isEmpty()) return;
+        List<ArtworkModel> rows = ids == null ? db.listArtworks() : db.getArtworksByIds(ids);
+        reconcile(ids, rows);
+    }
+
+    // ids == null: rows is the whole catalog
+    private void reconcile(Set<String> ids, List<ArtworkModel> rows) {
+        List<ArtworkModel> added = new ArrayList<>();
+        List<ArtworkModel> updated = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        synchronized (this) {
+            Map<String, ArtworkModel> fresh = new LinkedHashMap<>();
+            for (ArtworkModel m : rows) fresh.put(m.getId(), m);
+            for (int i = items.size() - 1; i >= 0; i--) {
+                String id = items.get(i).getId();
+                if (ids != null && !ids.contains(id)) continue;
+                ArtworkModel now = fresh.remove(id);
+                if (outbox.isPending(id)) continue;
+                if (now == null) {
+                    items.remove(i);
+                    removed.add(id);
+                } else if (!sameContent(items.get(i), now)) {
+                    items.set(i, now);
+                    updated.add(now);
+                }
+            }
+            // what is left is new to this instance
+            for (ArtworkModel m : fresh.values()) {
+                if (outbox.isPending(m.getId())) continue;
+                items.add(m);
+                added.add(m);
+            }
+        }
+        if (added.isEmpty() && updated.isEmpty() && removed.isEmpty()) return;
+        LOGGER.log(Level.FINE, "Artworks changed in the database: {0} added, {1} updated, {2} removed",
+                new Object[] { added.size(), updated.size(), removed.size() });
+        List<ArtworkModel> batch = Collections.unmodifiableList(added);
+        for (Listener l : listeners) {
+            try {
+                for (String id : removed) l.onArtworkRemoved(id);
+                for (ArtworkModel m : updated) l.onArtworkUpdated(m);
+                if (batch.size() == 1) l.onArtworkAdded(batch.get(0));
+                else if (!batch.isEmpty()) l.onArtworksAdded(batch);
+            } catch (Exception ignored) {}
+        }
+    }
+
+    private static boolean sameContent(ArtworkModel a, ArtworkModel b) {
+        return Objects.equals(a.getTitle(), b.getTitle()) && a.getPriceCents() == b.getPriceCents()
+                && Objects.equals(a.getCategory(), b.getCategory()) && Objects.equals(a.getImagePath(), b.getImagePath())
+                && Objects.equals(a.getArtistName(), b.getArtistName()) && Objects.equals(a.getDescription(), b.getDescription());
+    }
+
+    /**
+     * Full-text search of the catalog in the background (see {@link DatabaseHelper#searchArtworks}).
+     * Changes still queued in the outbox are written first so a just-added or edited artwork is found.
+     */
+    public CompletableFuture<List<ArtworkModel>> search(String query, String category, int limit, int offset) {
+        return DbExecutor.supply(() -> {
+            outbox.flush(SEARCH_FLUSH_TIMEOUT_MS);
+            return db.searchArtworks(query, category, limit, offset);
+        });
+    }
+
+    /** Pending-write queue, for metrics (queue depth, flush latency). */
+    public ArtworkOutbox getOutbox() {
+        return outbox;
+    }
+
+    /** Write every queued change to the database, waiting up to {@code timeoutMs}; call before exit. */
+    public boolean shutdown(long timeoutMs) {
+        return outbox.close(timeoutMs);
+    }
+
     public synchronized List<ArtworkModel> getAll() {
         return Collections.unmodifiableList(new ArrayList<>(items));
     }
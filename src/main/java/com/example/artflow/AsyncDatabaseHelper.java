@@ -0,0 +1,115 @@
+package com.example.artflow;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of {@link DatabaseHelper}: the same operations, run on {@link DbExecutor} and
+ * completed with the same result the blocking call would return (false/null/empty on SQL errors).
+ * Controllers should consume these through {@link FxAsync} so callbacks land on the FX thread.
+ */
+public class AsyncDatabaseHelper {
+    private final DatabaseHelper db;
+
+    AsyncDatabaseHelper(DatabaseHelper db) {
+        this.db = db;
+    }
+
+    // users
+
+    public CompletableFuture<Boolean> signupUser(String firstName, String lastName, String email, String password, String userType) {
+        return DbExecutor.supply(() -> db.signupUser(firstName, lastName, email, password, userType));
+    }
+
+    public CompletableFuture<UserModel> authenticate(String email, String password, String userType) {
+        return DbExecutor.supply(() -> db.authenticate(email, password, userType));
+    }
+
+    public CompletableFuture<String> loginUser(String email, String password, String userType) {
+        return DbExecutor.supply(() -> db.loginUser(email, password, userType));
+    }
+
+    public CompletableFuture<String> checkCredentials(String email, String password, String expectedUserType) {
+        return DbExecutor.supply(() -> db.checkCredentials(email, password, expectedUserType));
+    }
+
+    public CompletableFuture<Map<String, String>> getUserProfile(String email) {
+        return DbExecutor.supply(() -> db.getUserProfile(email));
+    }
+
+    public CompletableFuture<DatabaseHelper.ProfileUpdate> saveUserProfile(String currentEmail, String newFullName, String newEmail, String phone, String address) {
+        return DbExecutor.supply(() -> db.saveUserProfile(currentEmail, newFullName, newEmail, phone, address));
+    }
+
+    public CompletableFuture<Boolean> updateUserProfile(String currentEmail, String newFullName, String newEmail, String phone, String address) {
+        return DbExecutor.supply(() -> db.updateUserProfile(currentEmail, newFullName, newEmail, phone, address));
+    }
+
+    // artworks
+
+    public CompletableFuture<List<ArtworkModel>> listArtworks() {
+        return DbExecutor.supply(db::listArtworks);
+    }
+
+    public CompletableFuture<List<ArtworkModel>> searchArtworks(String query, String category, int limit, int offset) {
+        return DbExecutor.supply(() -> db.searchArtworks(query, category, limit, offset));
+    }
+
+    public CompletableFuture<List<ArtworkModel>> listArtworksByPrice(long minCents, long maxCents, int limit, int offset) {
+        return DbExecutor.supply(() -> db.listArtworksByPrice(minCents, maxCents, limit, offset));
+    }
+
+    public CompletableFuture<Boolean> insertArtwork(ArtworkModel m) {
+        return DbExecutor.supply(() -> db.insertArtwork(m));
+    }
+
+    public CompletableFuture<Boolean> upsertArtwork(ArtworkModel m) {
+        return DbExecutor.supply(() -> db.upsertArtwork(m));
+    }
+
+    public CompletableFuture<Boolean> deleteArtwork(String id) {
+        return DbExecutor.supply(() -> db.deleteArtwork(id));
+    }
+
+    // orders
+
+    public CompletableFuture<Boolean> insertOrder(OrderModel o) {
+        return DbExecutor.supply(() -> db.insertOrder(o));
+    }
+
+    public CompletableFuture<Boolean> updateOrderStatus(String orderId, String newStatus) {
+        return DbExecutor.supply(() -> db.updateOrderStatus(orderId, newStatus));
+    }
+
+    public CompletableFuture<ArtistStats> getArtistStats(String artistName) {
+        return DbExecutor.supply(() -> db.getArtistStats(artistName));
+    }
+
+    public CompletableFuture<OrderPage> listOrdersPage(OrderPage.Query query, OrderPage.Cursor after, int limit) {
+        return DbExecutor.supply(() -> db.listOrdersPage(query, after, limit));
+    }
+
+    public CompletableFuture<List<OrderModel>> listOrdersForArtist(String artistName, String status) {
+        return DbExecutor.supply(() -> db.listOrdersForArtist(artistName, status));
+    }
+
+    public CompletableFuture<List<OrderModel>> listOrdersForCustomer(String customerName) {
+        return DbExecutor.supply(() -> db.listOrdersForCustomer(customerName));
+    }
+
+    public CompletableFuture<List<OrderModel>> listOrdersByIds(OrderPage.Query query, Collection<String> ids) {
+        return DbExecutor.supply(() -> db.listOrdersByIds(query, ids));
+    }
+
+    // change log
+
+    public CompletableFuture<Long> latestChangeSeq() {
+        return DbExecutor.supply(db::latestChangeSeq);
+    }
+
+    public CompletableFuture<ChangeSet> changesSince(long afterSeq, int limit) {
+        return DbExecutor.supply(() -> db.changesSince(afterSeq, limit));
+    }
+}
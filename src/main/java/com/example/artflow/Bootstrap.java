@@ -0,0 +1,204 @@
+package com.example.artflow;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup work, run on background threads while the splash screen is up. Each step is a named task:
+ * <ul>
+ *   <li>database (critical): open the file and apply schema migrations</li>
+ *   <li>select-screen (critical): load Select.fxml, the first screen after the splash</li>
+ *   <li>artworks: fill {@link ArtworkStore} from the database</li>
+ *   <li>thumbnails: decode the first customer card images into {@link ThumbnailCache}</li>
+ *   <li>backups: start the scheduled database backups ({@link DatabaseBackup#scheduleFromSettings})</li>
+ *   <li>maintenance: start idle-time ANALYZE and vacuum ({@link DatabaseMaintenance#scheduleFromSettings})</li>
+ *   <li>archive: attach the order archive and schedule moving old orders into it ({@link OrderArchive#scheduleFromSettings})</li>
+ *   <li>watcher: once the artworks are loaded, follow writes from other instances ({@link DatabaseWatcher#startFromSettings})</li>
+ *   <li>fxml: load the classes the login and dashboard FXML import, and their controllers</li>
+ * </ul>
+ * The splash progress bar follows finished tasks, and the splash is left as soon as the critical ones
+ * are done; the rest keep running behind the Select screen. A task whose prerequisite failed is
+ * skipped. Login and dashboard screens are not loaded here because their controllers set up
+ * {@link FxAsync} and session state, which belong on the FX thread.
+ */
+public final class Bootstrap {
+    private static final Logger LOGGER = Logger.getLogger(Bootstrap.class.getName());
+
+    /** Told about each finished task, on the thread that finished it. */
+    public interface ProgressListener {
+        void progress(int done, int total);
+    }
+
+    private static final int THREADS = 3;
+    private static final int THUMBNAILS_TO_PRIME = 48;
+    private static final List<String> WARM_FXML = List.of(
+            "CustomerLogin.fxml", "ArtistLogin.fxml", "CustomerDashboard.fxml", "ArtistDashboard.fxml",
+            "CustomerArtcard.fxml", "ArtistArtcard.fxml", "ArtistSidebar.fxml");
+    private static final Pattern FXML_IMPORT = Pattern.compile("<\\?import\\s+([\\w.$]+)\\s*\\?>");
+    private static final Pattern FXML_CONTROLLER = Pattern.compile("fx:controller=\"([\\w.$]+)\"");
+
+    private static Bootstrap instance;
+
+    private final long startNanos = System.nanoTime();
+    private final ExecutorService executor;
+    private final CompletableFuture<Void> go = new CompletableFuture<>();
+    private final List<CompletableFuture<?>> tasks = new ArrayList<>();
+    private final AtomicInteger done = new AtomicInteger();
+    private final List<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<Parent> selectScreen;
+    private final CompletableFuture<Void> critical;
+
+    private Bootstrap() {
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "bootstrap-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        CompletableFuture<DatabaseHelper> database = task("database", go, Bootstrap::openDatabase);
+        selectScreen = task("select-screen", go, () -> FXMLLoader.<Parent>load(resource("Select.fxml")));
+        CompletableFuture<ArtworkStore> artworks = task("artworks", database, ArtworkStore::getInstance);
+        task("thumbnails", artworks, () -> ThumbnailCache.prime(artworks.join().getAll(), THUMBNAILS_TO_PRIME));
+        task("backups", database, () -> {
+            database.join().getBackups().scheduleFromSettings();
+            return null;
+        });
+        task("maintenance", database, () -> {
+            database.join().getMaintenance().scheduleFromSettings();
+            return null;
+        });
+        task("archive", database, () -> {
+            database.join().getArchive().scheduleFromSettings();
+            return null;
+        });
+        task("watcher", artworks, () -> {
+            database.join().getWatcher().startFromSettings();
+            return null;
+        });
+        task("fxml", go, Bootstrap::warmFxml);
+
+        critical = CompletableFuture.allOf(database, selectScreen);
+        critical.whenComplete((ok, e) -> LOGGER.log(Level.INFO, "Startup critical tasks done in {0} ms", elapsedMs()));
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).whenComplete((ok, e) -> {
+            LOGGER.log(Level.INFO, "Startup: {0} tasks finished in {1} ms", new Object[] { tasks.size(), elapsedMs() });
+            executor.shutdown();
+        });
+        // the task list is complete, so progress totals are fixed from here on
+        go.complete(null);
+    }
+
+    /** Start the startup tasks once; later calls return the same run. */
+    public static synchronized Bootstrap start() {
+        if (instance == null) instance = new Bootstrap();
+        return instance;
+    }
+
+    /** Completes when the database is ready and the Select screen is loaded (exceptionally if either failed). */
+    public CompletableFuture<Void> critical() { return critical; }
+
+    /** Select.fxml loaded off the FX thread; attach it to a scene at most once. */
+    public CompletableFuture<Parent> selectScreen() { return selectScreen; }
+
+    public int getTaskCount() { return tasks.size(); }
+
+    /** Register for progress updates; {@code l} is called at once with the current count. */
+    public void addProgressListener(ProgressListener l) {
+        listeners.add(l);
+        l.progress(done.get(), tasks.size());
+    }
+
+    public void removeProgressListener(ProgressListener l) {
+        listeners.remove(l);
+    }
+
+    private <T> CompletableFuture<T> task(String name, CompletableFuture<?> after, Callable<T> work) {
+        CompletableFuture<T> f = after.thenApplyAsync(ignored -> {
+            long t0 = System.nanoTime();
+            try {
+                T result = work.call();
+                LOGGER.log(Level.FINE, "Startup task {0} took {1} ms", new Object[] { name, (System.nanoTime() - t0) / 1_000_000 });
+                return result;
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Startup task " + name + " failed", e);
+                throw new CompletionException(e);
+            }
+        }, executor);
+        tasks.add(f);
+        f.whenComplete((r, e) -> {
+            int n = done.incrementAndGet();
+            for (ProgressListener l : listeners) l.progress(n, tasks.size());
+        });
+        return f;
+    }
+
+    private static DatabaseHelper openDatabase() {
+        DatabaseHelper db = DatabaseHelper.getInstance();
+        if (LOGGER.isLoggable(Level.FINE)) {
+            String info = db.getUserDebugInfo("artist@test.local");
+            LOGGER.fine(() -> "DB debug on startup: " + info);
+            String cred = db.checkCredentials("artist@test.local", "password", "artist");
+            LOGGER.fine(() -> "DB credential check (artist@test.local/password): " + cred);
+        }
+        return db;
+    }
+
+    /**
+     * The first FXMLLoader.load of a screen spends most of its time loading and initializing the
+     * control classes it imports. Do that here, from each document's import lines and fx:controller,
+     * so opening the login and dashboard screens later only builds nodes. Returns the classes loaded.
+     */
+    private static int warmFxml() throws IOException {
+        ClassLoader loader = Bootstrap.class.getClassLoader();
+        int loaded = 0;
+        for (String fxml : WARM_FXML) {
+            URL url = resource(fxml);
+            String text;
+            try (InputStream in = url.openStream()) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            List<String> classes = new ArrayList<>();
+            Matcher m = FXML_IMPORT.matcher(text);
+            while (m.find()) classes.add(m.group(1));
+            m = FXML_CONTROLLER.matcher(text);
+            if (m.find()) classes.add(m.group(1));
+            for (String name : classes) {
+                try {
+                    Class.forName(name, true, loader);
+                    loaded++;
+                } catch (ClassNotFoundException | LinkageError e) {
+                    LOGGER.log(Level.FINE, "Could not preload {0} for {1}: {2}", new Object[] { name, fxml, e });
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static URL resource(String fxml) throws IOException {
+        URL url = Bootstrap.class.getResource(fxml);
+        if (url == null) throw new IOException(fxml + " not found");
+        return url;
+    }
+
+    private long elapsedMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
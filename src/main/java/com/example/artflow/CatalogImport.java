@@ -0,0 +1,421 @@
+package com.example.artflow;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bulk import of a folder of images into the catalog. Each image becomes one artwork; an optional CSV
+ * manifest gives the title, price, category and description per file (see {@link #readManifest}).
+ * <p>
+ * Images are decoded on a small fixed pool, one thread short of the CPU count so the FX thread keeps a
+ * core, and each gets a JPEG thumbnail in {@link ThumbnailCache#getDirectory()}. A file that cannot be
+ * decoded is skipped, not imported. Large images are decoded with subsampling, so a thread never
+ * holds a full-resolution bitmap. All rows are then written in one batched transaction. The caller
+ * decides how to announce them; {@link ArtworkStore#importCatalog} sends the whole import to its
+ * listeners as one event.
+ */
+public final class CatalogImport {
+    private static final Logger LOGGER = Logger.getLogger(CatalogImport.class.getName());
+
+    /** Told about each image as it finishes, on the importing thread. */
+    public interface ProgressListener {
+        void progress(int done, int total);
+    }
+
+    /** Read from the chosen folder when present; otherwise the folder's only .csv file, if it has exactly one. */
+    public static final String MANIFEST_NAME = "manifest.csv";
+    /** Category of an artwork the manifest does not categorize; the Add Artwork dialog's default too. */
+    public static final String DEFAULT_CATEGORY = "All";
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "bmp");
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final DatabaseHelper db;
+    private final Path thumbnailDir;
+    private final int threads;
+
+    public CatalogImport(DatabaseHelper db) {
+        this(db, ThumbnailCache.getDirectory(), Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    CatalogImport(DatabaseHelper db, Path thumbnailDir, int threads) {
+        this.db = db;
+        this.thumbnailDir = thumbnailDir;
+        this.threads = Math.max(1, threads);
+    }
+
+    /** What an import did: the artworks saved, in file name order, and why any file was left out. */
+    public static final class Result {
+        private final int imageCount;
+        private final List<ArtworkModel> imported;
+        private final List<String> skipped;
+        private final long prepareMs;
+        private final long insertMs;
+
+        Result(int imageCount, List<ArtworkModel> imported, List<String> skipped, long prepareMs, long insertMs) {
+            this.imageCount = imageCount;
+            this.imported = Collections.unmodifiableList(imported);
+            this.skipped = Collections.unmodifiableList(skipped);
+            this.prepareMs = prepareMs;
+            this.insertMs = insertMs;
+        }
+
+        /** Image files found in the folder. */
+        public int getImageCount() { return imageCount; }
+        public List<ArtworkModel> getImported() { return imported; }
+        /** One line per file or manifest row left out, e.g. "scan.png: not a readable image". */
+        public List<String> getSkipped() { return skipped; }
+        /** Time spent reading the manifest, decoding and writing thumbnails. */
+        public long getPrepareMs() { return prepareMs; }
+        /** Time spent in the database transaction. */
+        public long getInsertMs() { return insertMs; }
+    }
+
+    /** The manifest to use for {@code folder}, or null if it has none; see {@link #MANIFEST_NAME}. */
+    public static Path findManifest(Path folder) throws IOException {
+        Path named = folder.resolve(MANIFEST_NAME);
+        if (Files.isRegularFile(named)) return named;
+        Path only = null;
+        try (DirectoryStream<Path> csv = Files.newDirectoryStream(folder, "*.{csv,CSV}")) {
+            for (Path p : csv) {
+                if (only != null) return null;
+                only = p;
+            }
+        }
+        return only;
+    }
+
+    /**
+     * Import every image in {@code folder} (not subfolders) as an artwork by {@code artistName}.
+     * {@code manifest} may be null. Throws IOException if the folder cannot be read or the rows could
+     * not be saved; in that case nothing was added to the catalog.
+     */
+    public Result run(Path folder, Path manifest, String artistName, ProgressListener progress) throws IOException, InterruptedException {
+        long t0 = System.nanoTime();
+        List<Path> images = listImages(folder);
+        List<String> skipped = new ArrayList<>();
+        Map<String, Row> rows = manifest == null ? Map.of() : readManifest(manifest, images, skipped);
+        Files.createDirectories(thumbnailDir);
+
+        ArtworkModel[] models = new ArtworkModel[images.size()];
+        String[] problems = new String[images.size()];
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "catalog-import-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            CompletionService<Integer> done = new ExecutorCompletionService<>(pool);
+            for (int i = 0; i < images.size(); i++) {
+                int index = i;
+                done.submit(() -> {
+                    Path image = images.get(index);
+                    try {
+                        models[index] = prepare(image, rows.get(image.getFileName().toString()), artistName);
+                    } catch (IOException | RuntimeException e) {
+                        problems[index] = image.getFileName() + ": " + describe(e);
+                        LOGGER.log(Level.FINE, "Import skipped " + image, e);
+                    }
+                    return index;
+                });
+            }
+            for (int n = 1; n <= images.size(); n++) {
+                try {
+                    done.take().get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Import task failed", e.getCause()); // prepare catches what it expects
+                }
+                if (progress != null) progress.progress(n, images.size());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<ArtworkModel> imported = new ArrayList<>(images.size());
+        for (int i = 0; i < models.length; i++) {
+            if (models[i] != null) imported.add(models[i]);
+            else if (problems[i] != null) skipped.add(problems[i]);
+        }
+        long t1 = System.nanoTime();
+        if (!imported.isEmpty() && !db.insertArtworks(imported)) {
+            throw new IOException("Could not save the imported artworks; see the log for the database error");
+        }
+        long t2 = System.nanoTime();
+        Result result = new Result(images.size(), imported, skipped, (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000);
+        LOGGER.log(Level.INFO, "Imported {0} of {1} images from {2} ({3} skipped) in {4} ms, {5} ms of it saving",
+                new Object[] { imported.size(), images.size(), folder, skipped.size(), (t2 - t0) / 1_000_000, result.getInsertMs() });
+        return result;
+    }
+
+    /** Image files directly in {@code folder}, sorted by name. */
+    static List<Path> listImages(Path folder) throws IOException {
+        List<Path> images = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(folder)) {
+            for (Path p : entries) {
+                String name = p.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                if (dot > 0 && IMAGE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT)) && Files.isRegularFile(p)) {
+                    images.add(p);
+                }
+            }
+        }
+        images.sort((a, b) -> a.getFileName().toString().compareToIgnoreCase(b.getFileName().toString()));
+        return images;
+    }
+
+    /** Manifest values for one image; null fields fall back to the file name, 0, or {@link #DEFAULT_CATEGORY}. */
+    static final class Row {
+        final String title;
+        final long priceCents;
+        final String category;
+        final String description;
+        /** Set when the row is unusable; the image is then skipped rather than imported with wrong values. */
+        final String problem;
+
+        Row(String title, long priceCents, String category, String description, String problem) {
+            this.title = title;
+            this.priceCents = priceCents;
+            this.category = category;
+            this.description = description;
+            this.problem = problem;
+        }
+    }
+
+    /**
+     * Read a manifest whose first line names its columns: title, price, category and description, in any
+     * order and case, and optionally file (or filename, image). With a file column each row describes
+     * the image of that name; without one, rows describe the images in file name order. Returns rows
+     * keyed by file name; rows for files that are not in the folder are reported in {@code skipped}.
+     */
+    static Map<String, Row> readManifest(Path manifest, List<Path> images, List<String> skipped) throws IOException {
+        List<List<String>> lines;
+        try (BufferedReader in = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            lines = readCsv(in);
+        }
+        if (lines.isEmpty()) return Map.of();
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = lines.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (name.equals("filename") || name.equals("image")) name = "file";
+            columns.putIfAbsent(name, i);
+        }
+        Integer fileCol = columns.get("file");
+        Map<String, Path> byName = new HashMap<>();
+        for (Path p : images) byName.put(p.getFileName().toString(), p);
+
+        Map<String, Row> rows = new HashMap<>();
+        for (int i = 1; i < lines.size(); i++) {
+            List<String> line = lines.get(i);
+            String file;
+            if (fileCol != null) {
+                file = field(line, fileCol);
+                if (file == null) continue;
+                if (!byName.containsKey(file)) {
+                    skipped.add(MANIFEST_NAME + " line " + (i + 1) + ": no image named " + file);
+                    continue;
+                }
+            } else {
+                if (i > images.size()) {
+                    skipped.add(MANIFEST_NAME + " line " + (i + 1) + ": more rows than images");
+                    continue;
+                }
+                file = images.get(i - 1).getFileName().toString();
+            }
+            String price = field(line, columns.get("price"));
+            long cents = 0;
+            String problem = null;
+            if (price != null) {
+                try {
+                    cents = Money.parseCents(price);
+                } catch (IllegalArgumentException e) {
+                    problem = e.getMessage() + " (" + MANIFEST_NAME + " line " + (i + 1) + ")";
+                }
+            }
+            rows.put(file, new Row(field(line, columns.get("title")), cents, field(line, columns.get("category")),
+                    field(line, columns.get("description")), problem));
+        }
+        return rows;
+    }
+
+    private static String field(List<String> line, Integer col) {
+        if (col == null || col >= line.size()) return null;
+        String v = line.get(col).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    /**
+     * RFC 4180 CSV: comma separated, fields optionally in double quotes, a doubled quote inside quotes
+     * is one quote, and quoted fields may span lines. Blank lines are dropped, as is a leading BOM.
+     */
+    static List<List<String>> readCsv(BufferedReader in) throws IOException {
+        List<List<String>> lines = new ArrayList<>();
+        List<String> line = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        boolean started = false;
+        int c = in.read();
+        if (c == '\uFEFF') c = in.read();
+        for (; c != -1; c = in.read()) {
+            if (quoted) {
+                if (c != '"') {
+                    cur.append((char) c);
+                    continue;
+                }
+                in.mark(1);
+                int next = in.read();
+                if (next == '"') {
+                    cur.append('"');
+                } else {
+                    quoted = false;
+                    if (next == -1) break;
+                    in.reset();
+                }
+            } else if (c == '"') {
+                quoted = true;
+                started = true;
+            } else if (c == ',') {
+                line.add(cur.toString());
+                cur.setLength(0);
+                started = true;
+            } else if (c == '\n' || c == '\r') {
+                if (started || cur.length() > 0) {
+                    line.add(cur.toString());
+                    lines.add(line);
+                    line = new ArrayList<>();
+                    cur.setLength(0);
+                    started = false;
+                }
+            } else {
+                cur.append((char) c);
+            }
+        }
+        if (started || cur.length() > 0) {
+            line.add(cur.toString());
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private ArtworkModel prepare(Path image, Row row, String artistName) throws IOException {
+        if (row != null && row.problem != null) throw new IOException(row.problem);
+        String imagePath = image.toUri().toString();
+        writeThumbnail(image, ThumbnailCache.fileFor(thumbnailDir, imagePath));
+        String title = row != null && row.title != null ? row.title : titleFromFileName(image);
+        return new ArtworkModel(title, row != null ? row.priceCents : 0,
+                row != null && row.category != null ? row.category : DEFAULT_CATEGORY,
+                imagePath, artistName, row != null ? row.description : null);
+    }
+
+    /** "blue_harbor-at-dusk.jpg" -> "blue harbor at dusk" */
+    static String titleFromFileName(Path image) {
+        String name = image.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) name = name.substring(0, dot);
+        return name.replace('_', ' ').replace('-', ' ').trim();
+    }
+
+    /**
+     * Decode {@code image} and write it scaled to fit {@link ThumbnailCache#FILE_WIDTH} x
+     * {@link ThumbnailCache#FILE_HEIGHT} as a JPEG at {@code target}. Images already smaller are not
+     * enlarged. Throws IOException if no ImageIO reader accepts the file or decoding fails.
+     */
+    static void writeThumbnail(Path image, Path target) throws IOException {
+        BufferedImage src;
+        try (ImageInputStream in = ImageIO.createImageInputStream(image.toFile())) {
+            if (in == null) throw new IOException("cannot be opened");
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) throw new IOException("not a readable image");
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int w = reader.getWidth(0);
+                int h = reader.getHeight(0);
+                double scale = Math.min(1.0, Math.min((double) ThumbnailCache.FILE_WIDTH / w, (double) ThumbnailCache.FILE_HEIGHT / h));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // read every n-th pixel of each n-th row, so the decoded bitmap is at most twice the thumbnail size
+                int step = (int) (1 / scale);
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                src = reader.read(0, param);
+                int tw = Math.max(1, (int) Math.round(w * scale));
+                int th = Math.max(1, (int) Math.round(h * scale));
+                src = scale(src, tw, th);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        // write beside the target and move it into place, so a reader never sees half a file
+        Path tmp = Files.createTempFile(target.getParent(), "thumb", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(src, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // JPEG has no alpha: transparent areas become white, as they look on the white cards
+    private static BufferedImage scale(BufferedImage src, int width, int height) {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(src, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static String describe(Exception e) {
+        String msg = e.getMessage();
+        return msg == null || msg.isBlank() ? e.getClass().getSimpleName() : msg;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.artflow;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rows of the {@code changes} table after a reader's cursor, oldest first. Triggers append one row
+ * for every artwork and order insert, update and delete, so a screen that remembers {@link #getCursor()}
+ * can re-read just the rows that changed instead of reloading everything.
+ */
+public class ChangeSet {
+
+    public enum Entity {
+        ARTWORK("artwork"),
+        ORDER("order");
+
+        final String value;
+
+        Entity(String value) { this.value = value; }
+
+        static Entity of(String value) {
+            return ORDER.value.equals(value) ? ORDER : ARTWORK;
+        }
+    }
+
+    public enum Op {
+        INSERT, UPDATE, DELETE;
+
+        static Op of(String value) {
+            if ("insert".equals(value)) return INSERT;
+            if ("delete".equals(value)) return DELETE;
+            return UPDATE;
+        }
+    }
+
+    /** One row of the change log. {@code artistName} is the row's artist after the change (before it, for a delete). */
+    public static final class Change {
+        private final long seq;
+        private final Entity entity;
+        private final String entityId;
+        private final Op op;
+        private final String artistName;
+        private final long changedAtMs;
+
+        Change(long seq, Entity entity, String entityId, Op op, String artistName, long changedAtMs) {
+            this.seq = seq;
+            this.entity = entity;
+            this.entityId = entityId;
+            this.op = op;
+            this.artistName = artistName;
+            this.changedAtMs = changedAtMs;
+        }
+
+        public long getSeq() { return seq; }
+        public Entity getEntity() { return entity; }
+        public String getEntityId() { return entityId; }
+        public Op getOp() { return op; }
+        public String getArtistName() { return artistName; }
+        public long getChangedAtMs() { return changedAtMs; }
+    }
+
+    private final List<Change> changes;
+    private final long cursor;
+    private final boolean more;
+    private final boolean truncated;
+
+    ChangeSet(List<Change> changes, long cursor, boolean more, boolean truncated) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.cursor = cursor;
+        this.more = more;
+        this.truncated = truncated;
+    }
+
+    static ChangeSet empty(long cursor) {
+        return new ChangeSet(Collections.emptyList(), cursor, false, false);
+    }
+
+    public List<Change> getChanges() { return changes; }
+
+    /** Sequence number to pass to the next {@link DatabaseHelper#changesSince} call. */
+    public long getCursor() { return cursor; }
+
+    /** True when the limit was reached and more changes follow the cursor. */
+    public boolean hasMore() { return more; }
+
+    /**
+     * True when changes after the caller's cursor have already been pruned from the log: the caller
+     * has to reload in full, then carry on from {@link #getCursor()}. No changes are returned then.
+     */
+    public boolean isTruncated() { return truncated; }
+
+    public boolean isEmpty() { return changes.isEmpty() && !truncated; }
+
+    /** Distinct ids of the changed rows of one kind, in the order they first changed. */
+    public Set<String> idsOf(Entity entity) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Change ch : changes) {
+            if (ch.entity == entity) ids.add(ch.entityId);
+        }
+        return ids;
+    }
+
+    /** True when any change in this set touched a row belonging to the given artist (case-insensitive). */
+    public boolean touchesArtist(String artistName) {
+        if (truncated) return true;
+        for (Change ch : changes) {
+            if (ch.artistName != null && ch.artistName.equalsIgnoreCase(artistName)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.artflow;
+
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * SQLite connections for one database file: a single writer connection (serialized on a lock)
+ * and a small pool of read-only connections. The file is opened in WAL journal mode so readers
+ * never wait on each other or on the writer.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+
+    /** Unit of work run against a borrowed connection. */
+    public interface SqlWork<T> {
+        T run(Connection c) throws SQLException;
+    }
+
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
+    private final String dbUrl;
+    private final Connection writer;
+    // a lock, not a monitor: a virtual thread blocked on synchronized pins its carrier. Reentrant,
+    // since transaction() and OrderArchive nest writes on the same thread
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BlockingQueue<Connection> idleReaders;
+    private final List<Connection> allReaders = new ArrayList<>();
+    private final Map<Connection, StatementCache> statementCaches = new IdentityHashMap<>();
+    private final QueryStats queryStats = new QueryStats();
+    private final AtomicLong longestWriteNanos = new AtomicLong();
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String dbUrl, int readerCount) throws SQLException {
+        this.dbUrl = dbUrl;
+        int n = Math.max(1, readerCount);
+
+        // writer first: it switches the file to WAL so the read-only connections can attach to it
+        SQLiteConfig writerConfig = baseConfig();
+        writerConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        writerConfig.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        // INSERT OR REPLACE must fire the DELETE triggers that keep summary tables in step
+        writerConfig.enableRecursiveTriggers(true);
+        writerConfig.enforceForeignKeys(true);
+        this.writer = writerConfig.createConnection(dbUrl);
+        statementCaches.put(writer, new StatementCache(writer, queryStats));
+
+        this.idleReaders = new ArrayBlockingQueue<>(n);
+        for (int i = 0; i < n; i++) {
+            SQLiteConfig readerConfig = baseConfig();
+            readerConfig.setReadOnly(true);
+            Connection c = readerConfig.createConnection(dbUrl);
+            allReaders.add(c);
+            statementCaches.put(c, new StatementCache(c, queryStats));
+            idleReaders.add(c);
+        }
+    }
+
+    private static SQLiteConfig baseConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        return config;
+    }
+
+    /** Default reader count: one per core, clamped to 2..4 (overridable with -Dartflow.db.readers). */
+    public static int defaultReaderCount() {
+        Integer configured = Integer.getInteger("artflow.db.readers");
+        if (configured != null && configured > 0) return configured;
+        return Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public String getDbUrl() { return dbUrl; }
+
+    public int getReaderCount() { return allReaders.size(); }
+
+    /**
+     * A new read-only connection outside the pool, for long reads such as a backup that should not
+     * hold one of the pooled readers. The caller closes it.
+     */
+    public Connection openReader() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        SQLiteConfig config = baseConfig();
+        config.setReadOnly(true);
+        return config.createConnection(dbUrl);
+    }
+
+    /**
+     * Prepared-statement cache of a connection handed out by {@link #read} or {@link #write}.
+     * Only valid while the caller still holds that connection.
+     */
+    public StatementCache statements(Connection c) {
+        StatementCache cache = statementCaches.get(c);
+        if (cache == null) throw new IllegalArgumentException("Connection does not belong to this pool");
+        return cache;
+    }
+
+    /**
+     * A new plain Statement on {@code c}, timed by {@link #getQueryStats}. Usually a connection handed
+     * out by {@link #read}, {@link #write} or {@link #openReader}; a backup also times the statements it
+     * runs on its copy this way. Close it as usual.
+     */
+    public Statement createStatement(Connection c) throws SQLException {
+        return queryStats.instrument(c.createStatement());
+    }
+
+    /** Timings, row counts and open statement / result-set gauges for everything run through this pool. */
+    public QueryStats getQueryStats() { return queryStats; }
+
+    public long getStatementCacheHits() {
+        long total = 0;
+        for (StatementCache cache : statementCaches.values()) total += cache.getHits();
+        return total;
+    }
+
+    public long getStatementCacheMisses() {
+        long total = 0;
+        for (StatementCache cache : statementCaches.values()) total += cache.getMisses();
+        return total;
+    }
+
+    /** Run read-only work on a pooled reader connection; blocks while all readers are busy. */
+    public <T> T read(SqlWork<T> work) throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        Connection c;
+        try {
+            c = idleReaders.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection", e);
+        }
+        try {
+            return work.run(c);
+        } finally {
+            idleReaders.offer(c);
+        }
+    }
+
+    /** Run work on the single writer connection. Writers are serialized; readers are not blocked. */
+    public <T> T write(SqlWork<T> work) throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            return work.run(writer);
+        } finally {
+            writeLock.unlock();
+            longestWriteNanos.accumulateAndGet(System.nanoTime() - start, Math::max);
+        }
+    }
+
+    /**
+     * Longest {@link #write} call, waiting for the lock included, since the previous call to this
+     * method; then starts over. Shows how long writers stalled during an operation such as a backup.
+     */
+    public long takeLongestWriteNanos() {
+        return longestWriteNanos.getAndSet(0);
+    }
+
+    /**
+     * Run work on the writer connection inside one transaction: committed if it returns normally,
+     * rolled back if it throws. Nested calls on the same thread join the outer transaction.
+     */
+    public <T> T transaction(SqlWork<T> work) throws SQLException {
+        return write(c -> {
+            if (!c.getAutoCommit()) {
+                return work.run(c);
+            }
+            c.setAutoCommit(false);
+            try {
+                T result = work.run(c);
+                c.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try { c.rollback(); } catch (SQLException rollbackError) { e.addSuppressed(rollbackError); }
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        });
+    }
+
+    /**
+     * ATTACH another database file as {@code schema} on the writer and on every pooled reader, so
+     * queries on any of them can name {@code schema.table}. The writer attaches first and can create
+     * the file; {@code prepareWriter} then runs on it (e.g. to create tables) before the readers, which
+     * attach read-only, see it. Reads wait while the readers are being attached.
+     */
+    public void attach(String schema, String file, SqlWork<Void> prepareWriter) throws SQLException {
+        String sql = "ATTACH DATABASE ? AS \"" + schema.replace("\"", "\"\"") + "\"";
+        write(c -> {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setString(1, file);
+                ps.execute();
+            }
+            if (prepareWriter != null) prepareWriter.run(c);
+            return null;
+        });
+        List<Connection> taken = new ArrayList<>();
+        try {
+            while (taken.size() < allReaders.size()) taken.add(idleReaders.take());
+            for (Connection c : taken) {
+                try (PreparedStatement ps = c.prepareStatement(sql)) {
+                    ps.setString(1, file);
+                    ps.execute();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for reader connections", e);
+        } finally {
+            idleReaders.addAll(taken);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        writeLock.lock();
+        try {
+            statementCaches.get(writer).close();
+            try { writer.close(); } catch (SQLException e) { LOGGER.log(Level.WARNING, "Error closing writer connection", e); }
+        } finally {
+            writeLock.unlock();
+        }
+        for (Connection c : allReaders) {
+            statementCaches.get(c).close();
+            try { c.close(); } catch (SQLException e) { LOGGER.log(Level.WARNING, "Error closing reader connection", e); }
+        }
+    }
+}
@@ -1,17 +1,40 @@
 package com.example.artflow;
 
+/**
+ * The signed-in user for this session. The whole users row is loaded by the login query and kept
+ * here, so screens read name, email, phone and address from memory instead of querying users on
+ * every visit. {@link DatabaseHelper#updateUserProfile} refreshes it when the signed-in user's row
+ * changes; logout clears it.
+ */
 public class CurrentUser {
-    private static String fullName;
-    private static String userType;
-    private static String email;
+    private static volatile UserModel user;
 
     private CurrentUser() {}
 
-    public static void setFullName(String name) { fullName = name; }
-    public static String getFullName() { return fullName; }
-    public static void setUserType(String type) { userType = type; }
-    public static String getUserType() { return userType; }
-    public static void setEmail(String userEmail) { email = userEmail; }
-    public static String getEmail() { return email; }
-}
+    public static void start(UserModel signedIn) { user = signedIn; }
+    public static void clear() { user = null; }
+
+    /** The signed-in user, or null when nobody is logged in. */
+    public static UserModel get() { return user; }
+
+    public static String getFullName() {
+        UserModel u = user;
+        return u == null ? null : u.getDisplayName();
+    }
 
+    public static String getUserType() {
+        UserModel u = user;
+        return u == null ? null : u.getUserType();
+    }
+
+    public static String getEmail() {
+        UserModel u = user;
+        return u == null ? null : u.getEmail();
+    }
+
+    /** Called after a profile update commits; only the signed-in user's own row is mirrored here. */
+    static void profileSaved(long userId, String fullName, String email, String phone, String address) {
+        UserModel u = user;
+        if (u != null && u.getId() == userId) user = u.withProfile(fullName, email, phone, address);
+    }
+}
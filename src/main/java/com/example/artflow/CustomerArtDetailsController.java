@@ -43,6 +43,7 @@ public class CustomerArtDetailsController {
     private static final Logger LOGGER = Logger.getLogger(CustomerArtDetailsController.class.getName());
     private ArtworkModel model;
     private int quantity = 1;
+    private FxAsync fx;
 
     public void setModel(ArtworkModel m) {
         this.model = m;
@@ -91,75 +92,81 @@ public class CustomerArtDetailsController {
         }
 
         if (buyButton != null) {
+            fx = FxAsync.forNode(buyButton);
             buyButton.setOnAction(e -> {
                 try {
                     // Get quantity from the quantity label
                     int qty = quantity;
-                    double unit = 0.0;
-                    if (model != null && model.getPrice() != null) {
-                        try { unit = Double.parseDouble(model.getPrice().replaceAll("[^0-9.\\-]", "")); } catch (Exception ignored) {}
-                    }
-                    double total = unit * qty;
+                    long total = totalCents(qty);
 
                     String customer = CurrentUser.getFullName() == null ? "Guest" : CurrentUser.getFullName();
                     String artist = model == null ? "" : (model.getArtistName() == null ? "" : model.getArtistName());
                     String title = model == null ? "" : model.getTitle();
 
-                    // Create order with the selected quantity
-                    OrderModel order = new OrderModel(customer, artist, title, qty, total, "pending");
-                    boolean ok = DatabaseHelper.getInstance().insertOrder(order);
-                    if (ok) {
-                        // derive DB path same as DatabaseHelper uses (relative project artflow.db)
-                        String dbPath = "artflow.db";
-                        try { dbPath = java.nio.file.Paths.get("artflow.db").toAbsolutePath().toString(); } catch (Exception ignored) {}
-                        // derive CSV path next to the DB
-                        String csvPathStr = "orders_log.csv";
-                        try {
-                            java.nio.file.Path dbPathP = java.nio.file.Paths.get(dbPath);
-                            java.nio.file.Path csvPath = (dbPathP.getParent() == null ? java.nio.file.Paths.get("orders_log.csv") : dbPathP.getParent().resolve("orders_log.csv"));
-                            csvPathStr = csvPath.toAbsolutePath().toString();
-                        } catch (Exception ignored) {}
-                        Alert a = new Alert(Alert.AlertType.INFORMATION);
-                        a.setTitle("Order placed");
-                        a.setHeaderText(null);
-                        a.setContentText("Order placed successfully!\nQuantity: " + qty + "\nTotal: $" + String.format("%.2f", total) + "\nOrder ID: " + order.getId() + "\n\nDatabase: " + dbPath);
-                        a.showAndWait();
-                        System.out.println("Order created: id=" + order.getId() + ", quantity=" + qty + ", total=$" + total + ", db=" + dbPath + ", csv=" + csvPathStr);
-                      } else {
-                         Alert a = new Alert(Alert.AlertType.ERROR);
-                         a.setTitle("Order failed");
-                         a.setHeaderText(null);
-                         a.setContentText("Failed to place the order. Please try again.");
-                         a.showAndWait();
-                     }
+                    // Create order with the selected quantity; the insert runs off the FX thread
+                    OrderModel order = new OrderModel(customer, artist, title, qty, total, "pending")
+                            .withArtworkId(model == null ? null : model.getId())
+                            .withCustomerEmail(CurrentUser.getEmail());
+                    buyButton.setDisable(true);
+                    // deliver: closing this window must not cancel the order insert
+                    fx.deliver(DatabaseHelper.getInstance().async().insertOrder(order), ok -> {
+                        if (ok) {
+                            showOrderPlaced(order, qty, total);
+                        } else {
+                            Alert a = new Alert(Alert.AlertType.ERROR);
+                            a.setTitle("Order failed");
+                            a.setHeaderText(null);
+                            a.setContentText("Failed to place the order. Please try again.");
+                            a.showAndWait();
+                        }
+                        closeWindow();
+                    }, ex -> {
+                        showOrderError(ex);
+                        closeWindow();
+                    });
                 } catch (Exception ex) {
-                    ex.printStackTrace();
-                    Alert a = new Alert(Alert.AlertType.ERROR);
-                    a.setTitle("Order error");
-                    a.setHeaderText(null);
-                    a.setContentText("Unexpected error: " + ex.getMessage());
-                    a.showAndWait();
-                } finally {
-                    Stage s = (Stage) buyButton.getScene().getWindow();
-                    s.close();
+                    showOrderError(ex);
+                    closeWindow();
                 }
             });
         }
     }
 
+    private void showOrderPlaced(OrderModel order, int qty, long total) {
+        OrderJournal journal = DatabaseHelper.getInstance().getOrderJournal();
+        String where = journal == null ? DatabaseHelper.getInstance().getDbFilePath() : journal.getFile().toString();
+        Alert a = new Alert(Alert.AlertType.INFORMATION);
+        a.setTitle("Order placed");
+        a.setHeaderText(null);
+        a.setContentText("Order placed successfully!\nQuantity: " + qty + "\nTotal: $" + Money.format(total) + "\nOrder ID: " + order.getId() + "\n\nRecorded in: " + where);
+        a.showAndWait();
+        LOGGER.fine(() -> "Order created: id=" + order.getId() + ", quantity=" + qty + ", total=$" + Money.format(total));
+    }
+
+    private void showOrderError(Throwable ex) {
+        LOGGER.log(Level.WARNING, "Order could not be placed", ex);
+        Alert a = new Alert(Alert.AlertType.ERROR);
+        a.setTitle("Order error");
+        a.setHeaderText(null);
+        a.setContentText("Unexpected error: " + ex.getMessage());
+        a.showAndWait();
+    }
+
+    private void closeWindow() {
+        Stage s = (Stage) buyButton.getScene().getWindow();
+        s.close();
+    }
+
     private void updateTotalFromSpinner() {
         if (detailTotal == null) return;
         int qty = 1;
         if (quantitySpinner != null && quantitySpinner.getValue() != null) qty = quantitySpinner.getValue();
-        double unit = 0.0;
-        if (model != null && model.getPrice() != null) {
-            try {
-                String p = model.getPrice().replaceAll("[^0-9.\\-]", "");
-                if (!p.isBlank()) unit = Double.parseDouble(p);
-            } catch (Exception ignored) { unit = 0.0; }
-        }
-        double total = unit * qty;
-        detailTotal.setText(String.format("$%.2f", total));
+        detailTotal.setText("$" + Money.format(totalCents(qty)));
+    }
+
+    // the price was parsed to cents when the artwork was saved; a total is one multiplication
+    private long totalCents(int qty) {
+        return model == null ? 0L : Math.multiplyExact(model.getPriceCents(), (long) qty);
     }
     
     @FXML
@@ -182,14 +189,6 @@ public class CustomerArtDetailsController {
         if (quantityLabel != null) {
             quantityLabel.setText(String.valueOf(quantity));
         }
-        // Update price display if exists
-        if (model != null && model.getPrice() != null) {
-            try {
-                double unit = Double.parseDouble(model.getPrice().replaceAll("[^0-9.\\-]", ""));
-                double total = unit * quantity;
-                // You can add a total label if needed
-            } catch (Exception ignored) {}
-        }
     }
 
     @FXML
@@ -210,8 +209,7 @@ public class CustomerArtDetailsController {
     @FXML
     private void handleLogout(MouseEvent e) {
         try {
-            CurrentUser.setFullName(null);
-            CurrentUser.setUserType(null);
+            CurrentUser.clear();
             navigateTo("/com/example/artflow/CustomerLogin.fxml", e);
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "Logout failed", ex);
@@ -15,13 +15,16 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.io.File;
 import java.net.URL;
 import java.util.Locale;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class CustomerDashboardController {
+    private static final Logger LOGGER = Logger.getLogger(CustomerDashboardController.class.getName());
 
     @FXML private HBox dashboardHBox;
     @FXML private HBox artworksHBox;
@@ -42,6 +45,11 @@ public class CustomerDashboardController {
     private final List<ArtworkModel> allArtworks = new ArrayList<>();
     private String activeCategory = "All";
 
+    // search results shown per query; the catalog can be far larger than a screenful of cards
+    private static final int SEARCH_RESULT_LIMIT = 100;
+    private CompletableFuture<List<ArtworkModel>> pendingSearch;
+    private FxAsync fx;
+
     private String currentUserType;
 
     @FXML
@@ -79,12 +87,11 @@ public class CustomerDashboardController {
         // Clear current user and return to CustomerLogin scene
         try {
             // clear global user
-            CurrentUser.setFullName(null);
-            CurrentUser.setUserType(null);
+            CurrentUser.clear();
 
             navigateTo("/com/example/artflow/CustomerLogin.fxml");
         } catch (Exception ex) {
-            ex.printStackTrace();
+            LOGGER.log(Level.WARNING, "Logout failed", ex);
         }
     }
 
@@ -92,15 +99,14 @@ public class CustomerDashboardController {
         try {
             Stage stage = (Stage) (dashboardHBox == null ? null : dashboardHBox.getScene().getWindow());
             if (stage == null) {
-                System.err.println("CustomerDashboardController: unable to get stage for navigation");
+                LOGGER.warning("unable to get stage for navigation");
                 return;
             }
             FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
             Scene scene = new Scene(loader.load(), stage.getWidth(), stage.getHeight());
             stage.setScene(scene);
         } catch (Exception ex) {
-            System.err.println("Navigation failed to " + fxmlPath);
-            ex.printStackTrace();
+            LOGGER.log(Level.WARNING, "Navigation failed to " + fxmlPath, ex);
         }
     }
 
@@ -170,11 +176,39 @@ public class CustomerDashboardController {
         applyFilters();
 
         // Listen for new artworks and update master list then re-apply filters
-        ArtworkStore.getInstance().addListener(model -> {
-            Platform.runLater(() -> {
-                allArtworks.add(model);
-                applyFilters();
-            });
+        ArtworkStore.getInstance().addListener(new ArtworkStore.Listener() {
+            @Override
+            public void onArtworkAdded(ArtworkModel model) {
+                Platform.runLater(() -> {
+                    allArtworks.add(model);
+                    applyFilters();
+                });
+            }
+
+            // a catalog import arrives as one batch: one rebuild, not one per artwork
+            @Override
+            public void onArtworksAdded(List<ArtworkModel> models) {
+                Platform.runLater(() -> {
+                    allArtworks.addAll(models);
+                    applyFilters();
+                });
+            }
+
+            // edits and deletes, from this instance or another one sharing the database
+            @Override
+            public void onArtworkUpdated(ArtworkModel model) {
+                Platform.runLater(() -> {
+                    allArtworks.replaceAll(m -> m.getId().equals(model.getId()) ? model : m);
+                    applyFilters();
+                });
+            }
+
+            @Override
+            public void onArtworkRemoved(String id) {
+                Platform.runLater(() -> {
+                    if (allArtworks.removeIf(m -> id.equals(m.getId()))) applyFilters();
+                });
+            }
         });
     }
 
@@ -183,7 +217,7 @@ public class CustomerDashboardController {
             URL fxmlUrl = getClass().getResource("/com/example/artflow/CustomerArtcard.fxml");
             if (fxmlUrl == null) fxmlUrl = getClass().getResource("/com/example/artflow/CustomerArtCard.fxml");
             if (fxmlUrl == null) {
-                System.err.println("Customer artcard FXML not found (tried CustomerArtcard.fxml and CustomerArtCard.fxml)");
+                LOGGER.warning("Customer artcard FXML not found (tried CustomerArtcard.fxml and CustomerArtCard.fxml)");
                 return null;
             }
             FXMLLoader loader = new FXMLLoader(fxmlUrl);
@@ -191,7 +225,7 @@ public class CustomerDashboardController {
             // set title/category/price/image
             javafx.scene.Node iv = card.lookup("#cardImageView");
             if (iv instanceof ImageView) {
-                javafx.scene.image.Image img = tryLoadImage(m.getImagePath(), 220, 160);
+                javafx.scene.image.Image img = ThumbnailCache.get(m.getImagePath(), ThumbnailCache.CARD_WIDTH, ThumbnailCache.CARD_HEIGHT);
                 if (img != null) ((ImageView) iv).setImage(img);
             }
             javafx.scene.Node title = card.lookup("#cardTitleLabel"); if (title instanceof Label) ((Label) title).setText(m.getTitle());
@@ -205,7 +239,7 @@ public class CustomerDashboardController {
                     try {
                         var fxml = getClass().getResource("/com/example/artflow/CustomerArtDetails.fxml");
                         if (fxml == null) {
-                            System.err.println("CustomerArtDetails.fxml not found");
+                            LOGGER.warning("CustomerArtDetails.fxml not found");
                             return;
                         }
                         javafx.fxml.FXMLLoader l = new javafx.fxml.FXMLLoader(fxml);
@@ -220,13 +254,13 @@ public class CustomerDashboardController {
                         stage.setResizable(false);
                         stage.showAndWait();
                     } catch (Exception ex) {
-                        ex.printStackTrace();
+                        LOGGER.log(Level.WARNING, "Failed to open artwork details", ex);
                     }
                 });
             }
             return card;
         } catch (IOException e) {
-            System.err.println("Failed to create customer art card: " + e.getMessage());
+            LOGGER.warning("Failed to create customer art card: " + e.getMessage());
             return null;
         }
     }
@@ -234,22 +268,38 @@ public class CustomerDashboardController {
     // Apply current search text and active category to the master artwork list, and render matching cards
     private void applyFilters() {
         if (customerFlow == null) return;
-        customerFlow.getChildren().clear();
-        String q = (searchField == null || searchField.getText() == null) ? "" : searchField.getText().trim().toLowerCase();
-        final String query = q;
+        String q = (searchField == null || searchField.getText() == null) ? "" : searchField.getText().trim();
+        if (pendingSearch != null) pendingSearch.cancel(true);
+        pendingSearch = null;
+        if (!q.isEmpty()) {
+            // typed text goes to the full-text index; the newest keystroke's results win
+            CompletableFuture<List<ArtworkModel>> search = ArtworkStore.getInstance().search(q, activeCategory, SEARCH_RESULT_LIMIT, 0);
+            pendingSearch = search;
+            fx().handle(search, results -> {
+                if (search == pendingSearch) showCards(results);
+            });
+            return;
+        }
+        List<ArtworkModel> matches = new ArrayList<>();
         for (ArtworkModel m : allArtworks) {
-            boolean matchesQuery = query.isEmpty() || (
-                    (m.getTitle() != null && m.getTitle().toLowerCase().contains(query)) ||
-                    (m.getCategory() != null && m.getCategory().toLowerCase().contains(query)) ||
-                    (m.getArtistName() != null && m.getArtistName().toLowerCase().contains(query))
-            );
             boolean matchesCategory = (activeCategory == null || activeCategory.isEmpty() || "All".equalsIgnoreCase(activeCategory)) ||
                     (m.getCategory() != null && m.getCategory().equalsIgnoreCase(activeCategory));
-            if (matchesQuery && matchesCategory) {
-                Parent card = createCardFor(m);
-                if (card != null) customerFlow.getChildren().add(card);
-            }
+            if (matchesCategory) matches.add(m);
         }
+        showCards(matches);
+    }
+
+    private void showCards(List<ArtworkModel> models) {
+        customerFlow.getChildren().clear();
+        for (ArtworkModel m : models) {
+            Parent card = createCardFor(m);
+            if (card != null) customerFlow.getChildren().add(card);
+        }
+    }
+
+    private FxAsync fx() {
+        if (fx == null) fx = FxAsync.forNode(customerFlow);
+        return fx;
     }
 
     private void setActiveCategory(String category) {
@@ -270,55 +320,6 @@ public class CustomerDashboardController {
         applyFilters();
     }
 
-    // Try loading an image from multiple possible path formats:
-    // - null/empty: return null
-    // - resource path (exists on classpath): use getResource
-    // - absolute file path or windows path: create File and toURI
-    // - already a URL (starts with file:, http:, etc.)
-    private javafx.scene.image.Image tryLoadImage(String path, double reqWidth, double reqHeight) {
-        if (path == null || path.isBlank()) return null;
-
-        // 1) If it's already a URL (file:, http:), try directly
-        try {
-            String trimmed = path.trim();
-            if (trimmed.startsWith("file:") || trimmed.startsWith("http:") || trimmed.startsWith("https:")) {
-                return new javafx.scene.image.Image(trimmed, reqWidth, reqHeight, true, true);
-            }
-        } catch (Exception ignored) {}
-
-        // 2) Try resource lookup on classpath
-        try {
-            URL res = getClass().getResource(path.startsWith("/") ? path : "/" + path);
-            if (res == null) {
-                // sometimes stored as relative resource under /com/example/artflow/img/...
-                res = getClass().getResource("/com/example/artflow/" + path);
-            }
-            if (res != null) {
-                return new javafx.scene.image.Image(res.toExternalForm(), reqWidth, reqHeight, true, true);
-            }
-        } catch (Exception ignored) {}
-
-        // 3) Try treating path as filesystem path
-        try {
-            File f = new File(path);
-            if (!f.exists()) {
-                // if Windows absolute with spaces encoded (%20), try decode
-                String decoded = path.replace("%20", " ");
-                f = new File(decoded);
-            }
-            if (f.exists()) {
-                return new javafx.scene.image.Image(f.toURI().toString(), reqWidth, reqHeight, true, true);
-            }
-        } catch (Exception ignored) {}
-
-        // 4) last resort: try loading as-is (may throw)
-        try {
-            return new javafx.scene.image.Image(path, reqWidth, reqHeight, true, true);
-        } catch (Exception ignored) {}
-
-        return null;
-    }
-
     // Allow external callers (e.g. login) to set display name and user type
     public void setProfileName(String fullName) {
         if (profileNameLabel != null && fullName != null) profileNameLabel.setText(fullName);
@@ -34,10 +34,12 @@ public class CustomerLoginController {
         private PasswordField passwordField;
 
         private DatabaseHelper dbHelper;
+        private FxAsync fx;
 
         public void initialize()
         {
             dbHelper = DatabaseHelper.getInstance();
+            fx = FxAsync.forNode(login2);
 
             signup2.setOnMouseClicked(e->{
                 try {
@@ -84,12 +86,22 @@ public class CustomerLoginController {
                 return;
             }
 
-            String fullName = dbHelper.loginUser(email, password, "customer");
-            if (fullName == null) {
-                showAlert(Alert.AlertType.ERROR, "Login failed", "Invalid credentials or user not found.");
-                return;
-            }
+            login2.setDisable(true);
+            fx.handle(dbHelper.async().authenticate(email, password, "customer"), user -> {
+                login2.setDisable(false);
+                if (user == null) {
+                    showAlert(Alert.AlertType.ERROR, "Login failed", "Invalid credentials or user not found.");
+                    return;
+                }
+                openDashboard(user);
+            }, ex -> {
+                login2.setDisable(false);
+                LOGGER.log(Level.SEVERE, "Login failed", ex);
+                showAlert(Alert.AlertType.ERROR, "Error", "Login failed due to internal error.");
+            });
+        }
 
+        private void openDashboard(UserModel user) {
             // Try to load CustomerDashboard.fxml and configure controller
             try {
                 URL fxmlUrl = getClass().getResource("/com/example/artflow/CustomerDashboard.fxml");
@@ -111,14 +123,13 @@ public class CustomerLoginController {
                 }
 
                 CustomerDashboardController controller = (CustomerDashboardController) ctrl;
+                String fullName = user.getDisplayName();
                 controller.setProfileName(fullName);
                 String firstName = fullName.split(" ")[0];
                 controller.setWelcomeFirstName(firstName);
                 controller.setCurrentUserType("customer");
                 // record current user globally for other controllers (e.g., AddArtworkController)
-                CurrentUser.setFullName(fullName);
-                CurrentUser.setUserType("customer");
-                CurrentUser.setEmail(email);
+                CurrentUser.start(user);
 
                 Stage stage = (Stage) login2.getScene().getWindow();
                 double width = stage.getWidth();
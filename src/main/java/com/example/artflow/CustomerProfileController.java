@@ -45,37 +45,21 @@ public class CustomerProfileController {
     private Button saveButton;
 
     private static final Logger LOGGER = Logger.getLogger(CustomerProfileController.class.getName());
+    private FxAsync fx;
 
     @FXML
     public void initialize() {
+        if (saveButton != null) fx = FxAsync.forNode(saveButton);
         try {
-            // Set profile name from current user
-            String fullName = CurrentUser.getFullName();
-            String email = CurrentUser.getEmail();
-            
-            if (fullName != null) {
-                if (profileNameLabel != null) {
-                    profileNameLabel.setText(fullName);
-                }
-                
-                // Populate fields
+            // Everything comes from the session loaded at login: no users query per visit
+            UserModel user = CurrentUser.get();
+            if (user != null) {
+                String fullName = user.getDisplayName();
+                if (profileNameLabel != null) profileNameLabel.setText(fullName);
                 if (nameField != null) nameField.setText(fullName);
-            }
-            
-            if (email != null && emailField != null) {
-                emailField.setText(email);
-            }
-            
-            // Load additional profile data from database
-            if (email != null) {
-                DatabaseHelper dbHelper = DatabaseHelper.getInstance();
-                java.util.Map<String, String> profile = dbHelper.getUserProfile(email);
-                if (profile != null) {
-                    String phone = profile.get("phone");
-                    String address = profile.get("address");
-                    if (phone != null && phoneField != null) phoneField.setText(phone);
-                    if (address != null && addressField != null) addressField.setText(address);
-                }
+                if (emailField != null && user.getEmail() != null) emailField.setText(user.getEmail());
+                if (phoneField != null && user.getPhone() != null) phoneField.setText(user.getPhone());
+                if (addressField != null && user.getAddress() != null) addressField.setText(user.getAddress());
             }
             
             // Add listeners to text fields to enable save button when any field changes
@@ -104,64 +88,53 @@ public class CustomerProfileController {
     
     @FXML
     private void handleSave() {
-        try {
-            // Save the updated profile information
-            String name = nameField != null ? nameField.getText() : "";
-            String email = emailField != null ? emailField.getText() : "";
-            String phone = phoneField != null ? phoneField.getText() : "";
-            String address = addressField != null ? addressField.getText() : "";
-            
-            // Update the current user's name and email
-            String currentEmail = CurrentUser.getEmail();
-            if (name != null && !name.trim().isEmpty()) {
-                CurrentUser.setFullName(name.trim());
+        // Save the updated profile information
+        String name = nameField != null ? nameField.getText() : "";
+        String email = emailField != null ? emailField.getText() : "";
+        String phone = phoneField != null ? phoneField.getText() : "";
+        String address = addressField != null ? addressField.getText() : "";
+
+        String currentEmail = CurrentUser.getEmail();
+
+        // Save off the FX thread; on success CurrentUser is refreshed with the stored values.
+        // deliver: leaving the screen must not cancel the update
+        saveButton.setDisable(true);
+        fx.deliver(DatabaseHelper.getInstance().async().saveUserProfile(
+            currentEmail,
+            name.trim(),
+            email.trim(),
+            phone.trim(),
+            address.trim()
+        ), result -> {
+            if (result == DatabaseHelper.ProfileUpdate.SAVED) {
                 if (profileNameLabel != null) {
-                    profileNameLabel.setText(name.trim());
+                    profileNameLabel.setText(CurrentUser.getFullName());
                 }
-            }
-            if (email != null && !email.trim().isEmpty()) {
-                CurrentUser.setEmail(email.trim());
-            }
-            
-            // Save to database
-            DatabaseHelper dbHelper = DatabaseHelper.getInstance();
-            boolean success = dbHelper.updateUserProfile(
-                currentEmail,
-                name.trim(),
-                email.trim(),
-                phone.trim(),
-                address.trim()
-            );
-            
-            if (success) {
                 Alert alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("Profile Updated");
                 alert.setHeaderText(null);
                 alert.setContentText("Your profile has been updated successfully!");
                 alert.showAndWait();
+                LOGGER.info("Profile updated successfully for user: " + name);
             } else {
+                saveButton.setDisable(false);
                 Alert alert = new Alert(Alert.AlertType.ERROR);
                 alert.setTitle("Update Failed");
                 alert.setHeaderText(null);
-                alert.setContentText("Failed to update profile in database. Please try again.");
+                alert.setContentText(result == DatabaseHelper.ProfileUpdate.EMAIL_IN_USE
+                        ? "This email is already in use by another account."
+                        : "Failed to update profile in database. Please try again.");
                 alert.showAndWait();
-                return;
             }
-            
-            // Disable save button after saving
-            if (saveButton != null) {
-                saveButton.setDisable(true);
-            }
-            
-            LOGGER.info("Profile updated successfully for user: " + name);
-        } catch (Exception ex) {
+        }, ex -> {
             LOGGER.log(Level.SEVERE, "Failed to save profile", ex);
+            saveButton.setDisable(false);
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Save Failed");
             alert.setHeaderText(null);
             alert.setContentText("Failed to save profile changes. Please try again.");
             alert.showAndWait();
-        }
+        });
     }
 
     @FXML
@@ -182,8 +155,7 @@ public class CustomerProfileController {
     @FXML
     private void handleLogout(MouseEvent e) {
         try {
-            CurrentUser.setFullName(null);
-            CurrentUser.setUserType(null);
+            CurrentUser.clear();
             navigateTo("/com/example/artflow/CustomerLogin.fxml", e);
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "Logout failed", ex);
@@ -8,8 +8,11 @@ import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class CustomerSignupController {
+    private static final Logger LOGGER = Logger.getLogger(CustomerSignupController.class.getName());
 
         @FXML
         private Button signup4;
@@ -30,10 +33,12 @@ public class CustomerSignupController {
         private PasswordField confirmPasswordField;
 
         private DatabaseHelper dbHelper;
+        private FxAsync fx;
 
         public void initialize()
         {
             dbHelper = DatabaseHelper.getInstance();
+            fx = FxAsync.forNode(signup4);
 
             signup4.setOnAction(e-> handleSignup());
 
@@ -91,25 +96,36 @@ public class CustomerSignupController {
                 return;
             }
 
-            try {
-                boolean success = dbHelper.signupUser(firstName, lastName, email.toLowerCase(), password, "customer");
+            // off the FX thread; deliver: the account is created even if the screen is left meanwhile
+            signup4.setDisable(true);
+            fx.deliver(dbHelper.async().signupUser(firstName, lastName, email.toLowerCase(), password, "customer"), success -> {
+                signup4.setDisable(false);
                 if (success) {
                     showShortAlert("Sign up complete");
                     // navigate to login (customer currently uses CustomerLogin view)
-                    Stage stage = (Stage) signup4.getScene().getWindow();
-                    FXMLLoader loader = new FXMLLoader(getClass().getResource("CustomerLogin.fxml"));
-                    Scene scene= new Scene(loader.load(),600,400);
-                    double width = stage.getWidth();
-                    double height = stage.getHeight();
-                    stage.setScene(scene);
-                    stage.setHeight(height);
-                    stage.setWidth(width);
+                    if (!fx.isLeft()) openLogin();
                 } else {
                     showAlert("Error", "Sign up failed. Email may already be registered.");
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
+            }, e -> {
+                signup4.setDisable(false);
+                LOGGER.log(Level.WARNING, "Unexpected error during sign up", e);
                 showAlert("Error", "Unexpected error: " + e.getMessage());
+            });
+        }
+
+        private void openLogin() {
+            try {
+                Stage stage = (Stage) signup4.getScene().getWindow();
+                FXMLLoader loader = new FXMLLoader(getClass().getResource("CustomerLogin.fxml"));
+                Scene scene= new Scene(loader.load(),600,400);
+                double width = stage.getWidth();
+                double height = stage.getHeight();
+                stage.setScene(scene);
+                stage.setHeight(height);
+                stage.setWidth(width);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Unable to open Customer Login", ex);
             }
         }
 
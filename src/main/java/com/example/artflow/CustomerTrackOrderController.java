@@ -12,7 +12,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,7 +46,7 @@ public class CustomerTrackOrderController {
     @FXML
     private TableColumn<OrderModel, String> colOrderedOn;
     @FXML
-    private TableColumn<OrderModel, Double> colAmount;
+    private TableColumn<OrderModel, String> colAmount;
     @FXML
     private TableColumn<OrderModel, String> colStatus;
 
@@ -86,18 +85,15 @@ public class CustomerTrackOrderController {
                 return;
             }
 
-            List<OrderModel> allOrders = DatabaseHelper.getInstance().listOrders();
-            
-            if (allOrders != null) {
-                ordersTable.getItems().clear();
-                for (OrderModel order : allOrders) {
-                    // Filter orders by customer name
-                    if (order != null && customerName.equalsIgnoreCase(order.getCustomerName())) {
-                        ordersTable.getItems().add(order);
-                    }
-                }
-                LOGGER.info("Loaded " + ordersTable.getItems().size() + " orders for customer: " + customerName);
-            }
+            // by account key when signed in, so history follows a renamed profile
+            UserModel user = CurrentUser.get();
+            OrderPage.Query query = user != null
+                    ? OrderPage.Query.forCustomerAccount(user.getId())
+                    : OrderPage.Query.forCustomer(customerName);
+            PagedOrderTable orders = PagedOrderTable.attach(ordersTable, query);
+            orders.bindSortColumns(PagedOrderTable.sortMap(colOrderedOn, colAmount, colStatus));
+            orders.reload();
+            LOGGER.info("Paging orders for customer: " + customerName);
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "Failed to load customer orders", ex);
         }
@@ -121,8 +117,7 @@ public class CustomerTrackOrderController {
     @FXML
     private void handleLogout(MouseEvent e) {
         try {
-            CurrentUser.setFullName(null);
-            CurrentUser.setUserType(null);
+            CurrentUser.clear();
             navigateTo("/com/example/artflow/CustomerLogin.fxml", e);
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "Logout failed", ex);
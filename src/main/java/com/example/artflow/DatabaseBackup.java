@@ -0,0 +1,348 @@
+package com.example.artflow;
+
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Online backups of the database file with SQLite's backup API, while the app keeps running.
+ * <p>
+ * A backup reads from its own read-only connection inside one read transaction, so it copies a single
+ * consistent snapshot: in WAL mode the writer carries on committing meanwhile, and the copy is never
+ * restarted by those commits. Pages are copied {@link #PAGES_PER_STEP} at a time, each step timed;
+ * the copy goes to a {@code .part} file that is renamed only once complete, so a crash mid-backup never
+ * leaves something that looks like a good backup.
+ * <p>
+ * Backups are kept in {@code backups/} next to the database as {@code <name>-yyyyMMdd-HHmmss.db}.
+ * {@link #scheduleFromSettings} takes one every {@code -Dartflow.backup.intervalMinutes} (default 60,
+ * 0 turns it off) and keeps the newest {@code -Dartflow.backup.keep} (default 24). {@link #restore}
+ * copies a backup back over the live database. From the command line:
+ * {@code DatabaseBackup backup | list | restore <file>}.
+ */
+public final class DatabaseBackup implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(DatabaseBackup.class.getName());
+
+    /** Pages copied per backup step: 1 MB at the default 4 KB page size. */
+    static final int PAGES_PER_STEP = 256;
+    // restore needs the write lock on the live file; retry a busy step this often, this far apart
+    private static final int BUSY_RETRIES = 100;
+    private static final int BUSY_SLEEP_MS = 50;
+    private static final long FIRST_SCHEDULED_DELAY_MINUTES = 2;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /** One finished backup and what it cost. */
+    public static final class Snapshot {
+        private final Path file;
+        private final long bytes;
+        private final int pages;
+        private final int steps;
+        private final long elapsedMs;
+        private final double longestStepMs;
+        private final double longestWriteMs;
+
+        Snapshot(Path file, long bytes, int pages, int steps, long elapsedMs, double longestStepMs, double longestWriteMs) {
+            this.file = file;
+            this.bytes = bytes;
+            this.pages = pages;
+            this.steps = steps;
+            this.elapsedMs = elapsedMs;
+            this.longestStepMs = longestStepMs;
+            this.longestWriteMs = longestWriteMs;
+        }
+
+        public Path getFile() { return file; }
+        public long getBytes() { return bytes; }
+        public int getPages() { return pages; }
+        public int getSteps() { return steps; }
+        public long getElapsedMs() { return elapsedMs; }
+        /** Longest single copy step. */
+        public double getLongestStepMs() { return longestStepMs; }
+        /** Longest write to the live database while the backup ran, waiting for the writer included. */
+        public double getLongestWriteMs() { return longestWriteMs; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %,d pages (%.1f MB) in %d steps, %d ms; longest step %.2f ms, longest writer call %.2f ms",
+                    file.getFileName(), pages, bytes / 1e6, steps, elapsedMs, longestStepMs, longestWriteMs);
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final Path backupDir;
+    private final String baseName;
+    private final Pattern backupName;
+    private final Object backupLock = new Object();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduled;
+    private volatile Snapshot last;
+
+    DatabaseBackup(ConnectionPool pool, Path dbFile, Path backupDir) {
+        this.pool = pool;
+        this.backupDir = backupDir;
+        String name = dbFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.baseName = dot > 0 ? name.substring(0, dot) : name;
+        this.backupName = Pattern.compile(Pattern.quote(baseName) + "-(\\d{8}-\\d{6})(?:-(\\d+))?\\.db");
+    }
+
+    public Path getBackupDir() { return backupDir; }
+
+    /** The most recent backup taken by this instance, or null. */
+    public Snapshot getLast() { return last; }
+
+    /** Take a backup into the backup directory. One backup runs at a time; a second caller waits. */
+    public Snapshot backup() throws SQLException, IOException {
+        synchronized (backupLock) {
+            Files.createDirectories(backupDir);
+            String stamp = LocalDateTime.now().format(STAMP);
+            Path target = backupDir.resolve(baseName + "-" + stamp + ".db");
+            for (int n = 2; Files.exists(target); n++) target = backupDir.resolve(baseName + "-" + stamp + "-" + n + ".db");
+            Snapshot s = backupTo(target);
+            last = s;
+            return s;
+        }
+    }
+
+    /** {@link #backup} on a {@link DbExecutor} thread. */
+    public CompletableFuture<Snapshot> backupAsync() {
+        return DbExecutor.supply(this::backup);
+    }
+
+    /** Copy the live database to {@code target}, replacing it. */
+    Snapshot backupTo(Path target) throws SQLException, IOException {
+        synchronized (backupLock) {
+            Path part = target.resolveSibling(target.getFileName() + ".part");
+            Files.deleteIfExists(part);
+            StepTimer timer = new StepTimer();
+            long t0 = System.nanoTime();
+            pool.takeLongestWriteNanos();
+            try (Connection c = pool.openReader()) {
+                c.setAutoCommit(false);
+                try {
+                    // start the read transaction now: every step copies from this snapshot
+                    try (Statement st = pool.createStatement(c); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM sqlite_master")) {
+                        rs.next();
+                    }
+                    timer.start();
+                    int rc = c.unwrap(SQLiteConnection.class).getDatabase()
+                            .backup("main", part.toString(), timer, BUSY_SLEEP_MS, BUSY_RETRIES, PAGES_PER_STEP);
+                    if (rc != 0) throw new SQLException("Backup to " + part + " failed (SQLite code " + rc + ")");
+                } finally {
+                    c.rollback();
+                }
+            }
+            long elapsed = System.nanoTime() - t0;
+            long longestWrite = pool.takeLongestWriteNanos();
+            // the copy carries the live file's WAL flag; make it one self-contained file
+            try (Connection c = new SQLiteConfig().createConnection("jdbc:sqlite:" + part);
+                 Statement st = pool.createStatement(c)) {
+                st.execute("PRAGMA journal_mode = DELETE");
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Snapshot s = new Snapshot(target, Files.size(target), timer.pages, timer.steps, elapsed / 1_000_000,
+                    timer.longestNanos / 1e6, longestWrite / 1e6);
+            LOGGER.log(Level.INFO, "Backup {0}", s);
+            return s;
+        }
+    }
+
+    // told by the native copy loop after each step; times the step that just finished
+    private static final class StepTimer implements DB.ProgressObserver {
+        private long stepStart;
+        private long longestNanos;
+        private int steps;
+        private int pages;
+
+        void start() {
+            stepStart = System.nanoTime();
+        }
+
+        @Override
+        public void progress(int remaining, int pageCount) {
+            long now = System.nanoTime();
+            longestNanos = Math.max(longestNanos, now - stepStart);
+            steps++;
+            pages = pageCount;
+            stepStart = now;
+        }
+    }
+
+    /** Backups in the backup directory, newest first. */
+    public List<Path> list() throws IOException {
+        List<Path> found = new ArrayList<>();
+        if (!Files.isDirectory(backupDir)) return found;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(backupDir)) {
+            for (Path p : entries) {
+                if (backupName.matcher(p.getFileName().toString()).matches()) found.add(p);
+            }
+        }
+        // the timestamp in the name sorts in time order; -2, -3, ... are later backups in the same second
+        found.sort(Comparator.comparing((Path p) -> backupOrder(p.getFileName().toString())).reversed());
+        return found;
+    }
+
+    private String backupOrder(String fileName) {
+        Matcher m = backupName.matcher(fileName);
+        if (!m.matches()) return fileName;
+        return m.group(1) + String.format("-%06d", m.group(2) == null ? 1 : Integer.parseInt(m.group(2)));
+    }
+
+    /** Delete all but the newest {@code keep} backups; returns how many were deleted. */
+    public int prune(int keep) throws IOException {
+        List<Path> all = list();
+        int deleted = 0;
+        for (int i = Math.max(0, keep); i < all.size(); i++) {
+            if (Files.deleteIfExists(all.get(i))) deleted++;
+        }
+        if (deleted > 0) LOGGER.log(Level.FINE, "Deleted {0} old backups", deleted);
+        return deleted;
+    }
+
+    /**
+     * Take a backup every {@code intervalMinutes} (the first a couple of minutes from now, out of the
+     * way of startup) and keep the newest {@code keep}. Replaces any earlier schedule; 0 minutes stops it.
+     */
+    public synchronized void schedule(long intervalMinutes, int keep) {
+        if (scheduled != null) scheduled.cancel(false);
+        scheduled = null;
+        if (intervalMinutes <= 0) return;
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-backup");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        scheduled = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                backup();
+                prune(keep);
+            } catch (SQLException | IOException | RuntimeException e) {
+                // the next run tries again
+                LOGGER.log(Level.WARNING, "Scheduled backup failed", e);
+            }
+        }, Math.min(FIRST_SCHEDULED_DELAY_MINUTES, intervalMinutes), intervalMinutes, TimeUnit.MINUTES);
+        LOGGER.log(Level.INFO, "Backing up every {0} min to {1}, keeping {2}", new Object[] { intervalMinutes, backupDir, keep });
+    }
+
+    /** {@link #schedule} with -Dartflow.backup.intervalMinutes (default 60) and -Dartflow.backup.keep (default 24). */
+    public void scheduleFromSettings() {
+        schedule(Long.getLong("artflow.backup.intervalMinutes", 60), Integer.getInteger("artflow.backup.keep", 24));
+    }
+
+    /**
+     * Replace the live database with the contents of {@code backupFile}. The backup is checked first
+     * (quick_check, and not from a newer schema than this app knows), and the current database is
+     * backed up to {@code <name>-pre-restore-<time>.db} so the restore can be undone. Runs on the writer
+     * connection, so other writes wait for it; older backups are migrated to the current schema.
+     * In-memory state loaded from the old contents, such as {@link ArtworkStore}, is not reloaded.
+     */
+    public void restore(Path backupFile) throws SQLException, IOException {
+        if (!Files.isRegularFile(backupFile)) throw new IOException("No backup at " + backupFile);
+        int version = check(backupFile);
+        synchronized (backupLock) {
+            Files.createDirectories(backupDir);
+            Snapshot undo = backupTo(backupDir.resolve(baseName + "-pre-restore-" + LocalDateTime.now().format(STAMP) + ".db"));
+            long t0 = System.nanoTime();
+            pool.write(c -> {
+                int rc = c.unwrap(SQLiteConnection.class).getDatabase()
+                        .restore("main", backupFile.toAbsolutePath().toString(), null, BUSY_SLEEP_MS, BUSY_RETRIES, PAGES_PER_STEP);
+                if (rc != 0) throw new SQLException("Restore from " + backupFile + " failed (SQLite code " + rc + ")");
+                SchemaMigrations.migrate(pool, c);
+                return null;
+            });
+            LOGGER.log(Level.INFO, "Restored {0} (schema version {1}) in {2} ms; the previous contents are in {3}",
+                    new Object[] { backupFile, version, (System.nanoTime() - t0) / 1_000_000, undo.getFile() });
+        }
+    }
+
+    // open the backup read-only; returns its schema version or throws if it should not be restored
+    private int check(Path backupFile) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        try (Connection c = config.createConnection("jdbc:sqlite:" + backupFile.toAbsolutePath());
+             Statement st = pool.createStatement(c)) {
+            try (ResultSet rs = st.executeQuery("PRAGMA quick_check")) {
+                String result = rs.next() ? rs.getString(1) : "no result";
+                if (!"ok".equalsIgnoreCase(result)) throw new SQLException(backupFile + " failed quick_check: " + result);
+            }
+            int version = SchemaMigrations.userVersion(pool, c);
+            if (version > SchemaMigrations.latestVersion()) {
+                throw new SQLException(backupFile + " is schema version " + version + ", newer than this app ("
+                        + SchemaMigrations.latestVersion() + ")");
+            }
+            return version;
+        }
+    }
+
+    /** Stop scheduled backups, waiting up to {@code timeoutMs} for one in progress. */
+    public synchronized void close(long timeoutMs) {
+        if (scheduler == null) return;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                LOGGER.warning("A backup was still running at shutdown; its .part file is left unfinished");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(5000);
+    }
+
+    /** {@code backup}, {@code list} or {@code restore <file>} against artflow.db in the working directory. */
+    public static void main(String[] args) throws Exception {
+        AppLogging.install();
+        String command = args.length > 0 ? args[0] : "";
+        DatabaseHelper db = DatabaseHelper.getInstance();
+        try {
+            DatabaseBackup backups = db.getBackups();
+            switch (command) {
+                case "backup":
+                    System.out.println(backups.backup());
+                    break;
+                case "list":
+                    for (Path p : backups.list()) System.out.printf("%s  %,d bytes%n", p, Files.size(p));
+                    break;
+                case "restore":
+                    if (args.length < 2) throw new IllegalArgumentException("restore needs a backup file");
+                    backups.restore(Path.of(args[1]));
+                    System.out.println("Restored " + args[1]);
+                    break;
+                default:
+                    System.err.println("Usage: DatabaseBackup backup | list | restore <file>");
+                    System.exit(2);
+            }
+        } finally {
+            db.close();
+            AppLogging.shutdown(1000);
+        }
+    }
+}
@@ -2,48 +2,101 @@ package com.example.artflow;
 
 import java.sql.*;
 import java.nio.file.Paths;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.regex.Pattern;
 
 
 public class DatabaseHelper {
+    private static final Logger LOGGER = Logger.getLogger(DatabaseHelper.class.getName());
     private final String dbUrl;
     private static DatabaseHelper instance;
-    private Connection connection;
+    private final ConnectionPool pool;
+    private final AsyncDatabaseHelper async;
+    private final OrderJournal orderJournal;
+    private final DatabaseBackup backups;
+    private final DatabaseMaintenance maintenance;
+    private final DatabaseWatcher watcher;
+    private final OrderArchive archive;
 
     private static final Pattern EMAIL_PATTERN =
             Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
 
-    private boolean hasUsernameColumn = false;
+    private volatile Boolean hasUsernameColumn;
+
+    // user lookups compare canonical emails / name keys with plain =, so each is an index search (checked by UserLookupPlanTest)
+    static final String LOGIN_SQL =
+            "SELECT id, user_type, first_name, last_name, full_name, email, phone, address FROM users WHERE email = ? AND password = ? AND user_type = ?";
+    static final String CREDENTIALS_SQL = "SELECT password, user_type FROM users WHERE email = ?";
+    static final String USER_BY_EMAIL_SQL = "SELECT id, full_name, user_type FROM users WHERE email = ?";
+    static final String PROFILE_SQL = "SELECT full_name, email, phone, address FROM users WHERE email = ?";
+    static final String EMAIL_BY_NAME_SQL = "SELECT email FROM users WHERE name_key = ? ORDER BY id LIMIT 1";
+    static final java.util.List<String> USER_LOOKUP_SQL =
+            java.util.List.of(LOGIN_SQL, CREDENTIALS_SQL, USER_BY_EMAIL_SQL, PROFILE_SQL, EMAIL_BY_NAME_SQL);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int BATCH_SIZE = 500;
+    // an upsert rather than INSERT OR REPLACE: a REPLACE deletes the old row, which would null out
+    // orders.artwork_id through its ON DELETE SET NULL foreign key
+    private static final String UPSERT_ARTWORK_SQL =
+            "INSERT INTO artworks(id, title, price_cents, category, image_path, artist_name, description) VALUES(?,?,?,?,?,?,?) " +
+            "ON CONFLICT(id) DO UPDATE SET title = excluded.title, price_cents = excluded.price_cents, category = excluded.category, " +
+            "image_path = excluded.image_path, artist_name = excluded.artist_name, description = excluded.description";
+    private static final String ORDER_COLUMNS_SQL =
+            "SELECT id, customer_name, artist_name, art_title, quantity, amount_cents, ordered_on, status, artwork_id FROM main.orders WHERE 1=1";
+    // an order caught in both files between an archiving batch's two commits is listed once, as its live copy
+    private static final String ARCHIVED_ORDER_COLUMNS_SQL =
+            "SELECT id, customer_name, artist_name, art_title, quantity, amount_cents, ordered_on, status, artwork_id FROM " + OrderArchive.SCHEMA + ".orders a " +
+            "WHERE NOT EXISTS (SELECT 1 FROM main.orders m WHERE m.id = a.id)";
+    // the foreign keys are resolved from the names when the caller does not know them
+    static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders(id, customer_name, artist_name, art_title, quantity, amount_cents, ordered_on, status, customer_id, artist_id, artwork_id) " +
+            "VALUES(?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, " +
+            "COALESCE((SELECT id FROM users WHERE email = ?10), (SELECT MIN(id) FROM users WHERE full_name = ?2 COLLATE NOCASE AND user_type = 'customer')), " +
+            "(SELECT MIN(id) FROM users WHERE full_name = ?3 COLLATE NOCASE AND user_type = 'artist'), " +
+            "COALESCE(?9, (SELECT MIN(id) FROM artworks WHERE artist_name = ?3 COLLATE NOCASE AND title = ?4)))";
 
     private DatabaseHelper() {
+        this(Paths.get("artflow.db"), ConnectionPool.defaultReaderCount());
+    }
+
+    /** Open (or create) a database at an arbitrary path, e.g. for benchmarks against a seeded copy. */
+    DatabaseHelper(java.nio.file.Path dbFile, int readerCount) {
         try {
-            String dbPath = Paths.get("artflow.db").toAbsolutePath().toString();
+            String dbPath = dbFile.toAbsolutePath().toString();
             dbUrl = "jdbc:sqlite:" + dbPath;
 
-            System.out.println("================================================");
-            System.out.println("DATABASE INITIALIZATION");
-            System.out.println("================================================");
-            System.out.println("Database URL: " + dbUrl);
-            System.out.println("Working Directory: " + System.getProperty("user.dir"));
-            System.out.println("Database full path: " + dbPath);
-            System.out.println("Database file exists: " + new java.io.File(dbPath).exists());
-            System.out.println("================================================");
+            LOGGER.log(Level.INFO, "Opening database {0} (exists: {1})", new Object[] { dbPath, new java.io.File(dbPath).exists() });
+            LOGGER.log(Level.FINE, "Working directory: {0}", System.getProperty("user.dir"));
 
             Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(dbUrl);
-            System.out.println("Database connection established successfully!");
-
-            createTablesIfMissing();
-            ensureSchemaUpToDate();
-            
+            pool = new ConnectionPool(dbUrl, readerCount);
+            async = new AsyncDatabaseHelper(this);
+            // orders_log.csv next to the database; -Dartflow.orderJournal=false turns it off
+            orderJournal = Boolean.parseBoolean(System.getProperty("artflow.orderJournal", "true"))
+                    ? OrderJournal.open(dbFile.toAbsolutePath().resolveSibling("orders_log.csv")) : null;
+            // backups/ next to the database unless -Dartflow.backup.dir says otherwise; nothing is scheduled here
+            String backupDir = System.getProperty("artflow.backup.dir");
+            backups = new DatabaseBackup(pool, dbFile.toAbsolutePath(),
+                    backupDir != null ? Paths.get(backupDir) : dbFile.toAbsolutePath().resolveSibling("backups"));
+            maintenance = new DatabaseMaintenance(pool);
+            // <name>-archive.db next to the database unless -Dartflow.archive.file says otherwise; attached later
+            String archiveFile = System.getProperty("artflow.archive.file");
+            String baseName = dbFile.getFileName().toString().replaceFirst("\\.db$", "");
+            archive = new OrderArchive(pool, archiveFile != null ? Paths.get(archiveFile)
+                    : dbFile.toAbsolutePath().resolveSibling(baseName + "-archive.db"));
+            LOGGER.log(Level.FINE, "Connection pool ready (WAL, {0} readers)", pool.getReaderCount());
 
-            debugPrintTableCounts();
+            long start = System.nanoTime();
+            int applied = pool.write(c -> SchemaMigrations.migrate(pool, c));
+            double migrateMs = (System.nanoTime() - start) / 1e6;
+            LOGGER.info(() -> String.format("Database schema at version %d (%d migrations applied, %.1f ms)",
+                    SchemaMigrations.latestVersion(), applied, migrateMs));
+            // after the migrations, so its cursor starts at the change log's current end; not polling yet
+            watcher = new DatabaseWatcher(this, pool);
 
         } catch (Exception e) {
-            System.err.println("Error initializing database:");
-            e.printStackTrace();
+            LOGGER.log(Level.SEVERE, "Error initializing database", e);
             throw new RuntimeException(e);
         }
     }
@@ -55,50 +108,104 @@ public class DatabaseHelper {
         return instance;
     }
 
+    /** The same operations returning CompletableFutures, for callers on the FX thread. */
+    public AsyncDatabaseHelper async() {
+        return async;
+    }
+
     /**
-     * Debug helper: print DB path and list existing tables.
+     * Debug helper: log the DB path and existing tables at FINE. Does not touch the database when
+     * FINE is off for this logger.
      */
     public void debugPrintTables() {
-        System.out.println("Database URL: " + dbUrl);
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type='table' ORDER BY name")) {
-            System.out.println("Existing tables:");
-            while (rs.next()) {
-                System.out.println(" - " + rs.getString("name"));
-            }
+        if (!LOGGER.isLoggable(Level.FINE)) return;
+        try {
+            String tables = pool.read(c -> {
+                StringBuilder names = new StringBuilder();
+                try (Statement stmt = pool.createStatement(c); ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type='table' ORDER BY name")) {
+                    while (rs.next()) {
+                        if (names.length() > 0) names.append(", ");
+                        names.append(rs.getString("name"));
+                    }
+                }
+                return names.toString();
+            });
+            LOGGER.fine("Tables in " + dbUrl + ": " + tables);
         } catch (SQLException e) {
-            System.err.println("Failed to list tables: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.log(Level.WARNING, "Failed to list tables", e);
         }
     }
     
     /**
-     * Debug helper: print row counts for all tables
+     * Debug helper: log row counts for the main tables at FINE. The COUNT(*) scans only run when
+     * FINE is on for this logger.
      */
     public void debugPrintTableCounts() {
-        System.out.println("------------------------------------------------");
-        System.out.println("DATABASE TABLE CONTENTS:");
-        System.out.println("------------------------------------------------");
-        try (Statement stmt = connection.createStatement()) {
-            // Count users
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM users");
-            if (rs.next()) {
-                System.out.println("Users table: " + rs.getInt("count") + " records");
-            }
-            
-            // Count artworks
-            rs = stmt.executeQuery("SELECT COUNT(*) as count FROM artworks");
-            if (rs.next()) {
-                System.out.println("Artworks table: " + rs.getInt("count") + " records");
-            }
-            
-            // Count orders
-            rs = stmt.executeQuery("SELECT COUNT(*) as count FROM orders");
-            if (rs.next()) {
-                System.out.println("Orders table: " + rs.getInt("count") + " records");
-            }
-            System.out.println("------------------------------------------------");
+        if (!LOGGER.isLoggable(Level.FINE)) return;
+        try {
+            String counts = pool.read(c -> {
+                try (Statement stmt = pool.createStatement(c)) {
+                    return "users " + countRows(stmt, "users") + ", artworks " + countRows(stmt, "artworks")
+                            + ", orders " + countRows(stmt, "orders");
+                }
+            });
+            LOGGER.fine("Table rows: " + counts);
         } catch (SQLException e) {
-            System.err.println("Failed to count table rows: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Failed to count table rows", e);
+        }
+    }
+
+    /** Cached prepared statement for the connection currently held; never close it, only its ResultSets. */
+    private PreparedStatement prepare(Connection c, String sql) throws SQLException {
+        return pool.statements(c).prepare(sql);
+    }
+
+    /**
+     * Unit of work: run several writes on the writer connection as one transaction. Any DatabaseHelper
+     * write method called from inside {@code work} on the same thread joins it. Rolled back on exception.
+     */
+    public <T> T inTransaction(ConnectionPool.SqlWork<T> work) throws SQLException {
+        return pool.transaction(work);
+    }
+
+    static void bindArtwork(PreparedStatement ps, ArtworkModel m) throws SQLException {
+        ps.setString(1, m.getId());
+        ps.setString(2, m.getTitle());
+        ps.setLong(3, m.getPriceCents());
+        ps.setString(4, m.getCategory());
+        ps.setString(5, m.getImagePath());
+        ps.setString(6, m.getArtistName());
+        ps.setString(7, m.getDescription());
+    }
+
+    static void bindOrder(PreparedStatement ps, OrderModel o) throws SQLException {
+        ps.setString(1, o.getId());
+        ps.setString(2, o.getCustomerName());
+        ps.setString(3, o.getArtistName());
+        ps.setString(4, o.getArtTitle());
+        ps.setInt(5, o.getQuantity());
+        ps.setLong(6, o.getAmountCents());
+        ps.setString(7, o.getOrderedOn());
+        ps.setString(8, o.getStatus());
+        ps.setString(9, o.getArtworkId());
+        ps.setString(10, canonicalEmail(o.getCustomerEmail()));
+    }
+
+    public long getStatementCacheHits() { return pool.getStatementCacheHits(); }
+
+    public long getStatementCacheMisses() { return pool.getStatementCacheMisses(); }
+
+    /** Per-statement latency percentiles, row counts, the slow-query log and open statement / ResultSet gauges. */
+    public QueryStats getQueryStats() { return pool.getQueryStats(); }
+
+    /** Connection pool backing this helper (package-private for benchmarks and maintenance tasks). */
+    ConnectionPool pool() {
+        return pool;
+    }
+
+    private static int countRows(Statement stmt, String table) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM " + table)) {
+            return rs.next() ? rs.getInt("count") : 0;
         }
     }
 
@@ -110,271 +217,196 @@ public class DatabaseHelper {
         return p;
     }
 
-    private void createTablesIfMissing() {
-        String sql = "CREATE TABLE IF NOT EXISTS users (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "password TEXT NOT NULL," +
-                "email TEXT UNIQUE NOT NULL," +
-                "user_type TEXT NOT NULL," +
-                "first_name TEXT," +
-                "last_name TEXT," +
-                "full_name TEXT," +
-                "phone TEXT," +
-                "address TEXT" +
-                ")";
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
-            System.out.println("Ensured users table exists (non-destructive).");
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        
-        // Ensure phone and address columns exist for older DBs
-        try (Statement stmt = connection.createStatement()) {
-            ResultSet rs = stmt.executeQuery("PRAGMA table_info(users)");
-            boolean hasPhone = false;
-            boolean hasAddress = false;
-            while (rs.next()) {
-                String name = rs.getString("name");
-                if ("phone".equalsIgnoreCase(name)) hasPhone = true;
-                if ("address".equalsIgnoreCase(name)) hasAddress = true;
-            }
-            if (!hasPhone) {
-                try {
-                    stmt.execute("ALTER TABLE users ADD COLUMN phone TEXT");
-                    System.out.println("Added missing column: phone");
-                } catch (SQLException ex) { }
-            }
-            if (!hasAddress) {
-                try {
-                    stmt.execute("ALTER TABLE users ADD COLUMN address TEXT");
-                    System.out.println("Added missing column: address");
-                } catch (SQLException ex) { }
-            }
-        } catch (SQLException ignored) {}
-
-
-        // create artworks table for persisting artworks
-        String artSql = "CREATE TABLE IF NOT EXISTS artworks (" +
-                "id TEXT PRIMARY KEY, " +
-                "title TEXT, " +
-                "price TEXT, " +
-                "category TEXT, " +
-                "image_path TEXT, " +
-                "artist_name TEXT, " +
-                "description TEXT" +
-                ")";
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(artSql);
-            System.out.println("Ensured artworks table exists.");
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        // ensure artist_name column exists for older DBs
-        try (Statement stmt = connection.createStatement()) {
-            ResultSet rs = stmt.executeQuery("PRAGMA table_info(artworks)");
-            boolean hasArtist = false;
-            while (rs.next()) {
-                String name = rs.getString("name");
-                if ("artist_name".equalsIgnoreCase(name)) { hasArtist = true; break; }
-            }
-            if (!hasArtist) {
-                try {
-                    stmt.execute("ALTER TABLE artworks ADD COLUMN artist_name TEXT");
-                    System.out.println("Added missing column: artist_name");
-                } catch (SQLException ex) { }
-            }
+    // orders in the archive file are still counted in artist_stats (see OrderArchive); an order caught in
+    // both files between an archiving batch's two commits counts once, as its live copy
+    private static final String ARCHIVED_ORDERS_SQL =
+            "SELECT artist_name, status, amount_cents FROM " + OrderArchive.SCHEMA + ".orders a WHERE NOT EXISTS (SELECT 1 FROM main.orders m WHERE m.id = a.id)";
 
-            boolean hasDesc = false;
-            rs = stmt.executeQuery("PRAGMA table_info(artworks)");
-            while (rs.next()) {
-                String name = rs.getString("name");
-                if ("description".equalsIgnoreCase(name)) { hasDesc = true; break; }
-            }
-            if (!hasDesc) {
-                try { stmt.execute("ALTER TABLE artworks ADD COLUMN description TEXT"); System.out.println("Added missing column: description"); } catch (SQLException ex) { }
-            }
-        } catch (SQLException ignored) {}
-        // create orders table
-        String ordersSql = "CREATE TABLE IF NOT EXISTS orders (" +
-                "id TEXT PRIMARY KEY, " +
-                "customer_name TEXT, " +
-                "artist_name TEXT, " +
-                "art_title TEXT, " +
-                "quantity INTEGER, " +
-                "amount REAL, " +
-                "ordered_on TEXT, " +
-                "status TEXT" +
-                ")";
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(ordersSql);
-            System.out.println("Ensured orders table exists.");
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private void ensureSchemaUpToDate() {
-        try (Statement stmt = connection.createStatement()) {
-            ResultSet rs = stmt.executeQuery("PRAGMA table_info(users)");
-            Set<String> cols = new HashSet<>();
-            while (rs.next()) {
-                String name = rs.getString("name");
-                if (name != null) cols.add(name.toLowerCase());
-            }
+    /** Every artist's artist_stats row computed from the tables, counting archived orders when {@code withArchive}. */
+    private static String artistStatsFromScratchSql(boolean withArchive) {
+        String orders = withArchive ? "(SELECT artist_name, status, amount_cents FROM main.orders UNION ALL " + ARCHIVED_ORDERS_SQL + ")" : "main.orders";
+        return "SELECT artist_name, SUM(artworks) AS artwork_count, SUM(orders) AS order_count, SUM(pending) AS pending_count, " +
+                "SUM(completed) AS completed_count, SUM(rejected) AS rejected_count, SUM(earnings) AS completed_earnings_cents FROM (" +
+                "  SELECT COALESCE(artist_name, '') COLLATE NOCASE AS artist_name, 1 AS artworks, 0 AS orders, 0 AS pending, 0 AS completed, 0 AS rejected, 0 AS earnings FROM main.artworks" +
+                "  UNION ALL" +
+                "  SELECT COALESCE(artist_name, '') COLLATE NOCASE, 0, 1, (status = 'pending'), (status = 'completed'), (status = 'rejected')," +
+                "         CASE WHEN status = 'completed' THEN amount_cents ELSE 0 END FROM " + orders +
+                ") GROUP BY artist_name COLLATE NOCASE";
+    }
 
-            hasUsernameColumn = cols.contains("username");
+    /** Recompute artist_stats from artworks and orders (runs on the writer, inside the caller's transaction). */
+    static void rebuildArtistStats(ConnectionPool pool, Connection connection, boolean withArchive) throws SQLException {
+        try (Statement stmt = pool.createStatement(connection)) {
+            stmt.execute("DELETE FROM artist_stats");
+            stmt.execute("INSERT INTO artist_stats(artist_name, artwork_count, order_count, pending_count, completed_count, rejected_count, completed_earnings_cents) " +
+                    artistStatsFromScratchSql(withArchive));
+        }
+    }
 
-            if (!cols.contains("first_name")) {
-                try {
-                    stmt.execute("ALTER TABLE users ADD COLUMN first_name TEXT");
-                    System.out.println("Added missing column: first_name");
-                } catch (SQLException ex) {
-                }
-            }
-            if (!cols.contains("last_name")) {
-                try {
-                    stmt.execute("ALTER TABLE users ADD COLUMN last_name TEXT");
-                    System.out.println("Added missing column: last_name");
-                } catch (SQLException ex) {
-                }
-            }
-            if (!cols.contains("full_name")) {
-                try {
-                    stmt.execute("ALTER TABLE users ADD COLUMN full_name TEXT");
-                    System.out.println("Added missing column: full_name");
-                } catch (SQLException ex) {
-                }
+    /**
+     * Some databases from early builds have a NOT NULL {@code username} column on users. Checked on
+     * first signup rather than at startup, since only signup needs to know.
+     */
+    private boolean hasUsernameColumn(Connection c) throws SQLException {
+        Boolean known = hasUsernameColumn;
+        if (known == null) {
+            known = SchemaMigrations.hasColumn(pool, c, "users", "username");
+            hasUsernameColumn = known;
+            if (known) {
+                LOGGER.info("Existing 'username' column detected; signup will continue to populate it for compatibility.");
             }
+        }
+        return known;
+    }
 
-            if (hasUsernameColumn) {
-                System.out.println("Existing 'username' column detected; signup will continue to populate it for compatibility.");
-            }
+    /** Emails are stored trimmed and lower-cased; every lookup normalizes its argument the same way. */
+    static String canonicalEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(java.util.Locale.ROOT);
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /** users.name_key: the full name in NFKC, trimmed, inner whitespace collapsed, lower-cased. */
+    static String nameKey(String fullName) {
+        if (fullName == null) return null;
+        String nfkc = java.text.Normalizer.normalize(fullName, java.text.Normalizer.Form.NFKC).trim();
+        return WHITESPACE.matcher(nfkc).replaceAll(" ").toLowerCase(java.util.Locale.ROOT);
     }
 
     public boolean signupUser(String firstName, String lastName, String email, String password, String userType) {
         String fullName = (firstName + " " + lastName).trim();
-        System.out.println("Attempting to sign up user: " + email + " (" + fullName + ")");
+        LOGGER.log(Level.FINE, "Attempting to sign up user: {0} ({1})", new Object[] { email, fullName });
 
         if (firstName == null || firstName.trim().isEmpty() || lastName == null || lastName.trim().isEmpty()) {
-            System.out.println("Sign up error: first and last name required");
+            LOGGER.info("Sign up rejected: first and last name required");
             return false;
         }
         if (password == null || password.length() < 6) {
-            System.out.println("Sign up error: password must be at least 6 characters");
+            LOGGER.info("Sign up rejected: password must be at least 6 characters");
             return false;
         }
         if (email == null || !EMAIL_PATTERN.matcher(email).matches()) {
-            System.out.println("Sign up error: invalid email format");
+            LOGGER.info("Sign up rejected: invalid email format");
             return false;
         }
 
-        String normalizedEmail = email.trim().toLowerCase();
-
-        String sql;
-        if (hasUsernameColumn) {
-            sql = "INSERT INTO users(username, password, email, user_type, first_name, last_name, full_name) VALUES(?,?,?,?,?,?,?)";
-        } else {
-            sql = "INSERT INTO users(password, email, user_type, first_name, last_name, full_name) VALUES(?,?,?,?,?,?)";
-        }
+        String normalizedEmail = canonicalEmail(email);
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            int idx = 1;
-            if (hasUsernameColumn) {
+        try {
+            int rowsAffected = pool.write(c -> {
+                boolean withUsername = hasUsernameColumn(c);
+                String sql;
+                if (withUsername) {
+                    sql = "INSERT INTO users(username, password, email, user_type, first_name, last_name, full_name, name_key) VALUES(?,?,?,?,?,?,?,?)";
+                } else {
+                    sql = "INSERT INTO users(password, email, user_type, first_name, last_name, full_name, name_key) VALUES(?,?,?,?,?,?,?)";
+                }
+                PreparedStatement pstmt = prepare(c, sql);
+                int idx = 1;
+                if (withUsername) {
+                    pstmt.setString(idx++, normalizedEmail);
+                }
+                pstmt.setString(idx++, password);
                 pstmt.setString(idx++, normalizedEmail);
-            }
-            pstmt.setString(idx++, password);
-            pstmt.setString(idx++, normalizedEmail);
-            pstmt.setString(idx++, userType);
-            pstmt.setString(idx++, firstName.trim());
-            pstmt.setString(idx++, lastName.trim());
-            pstmt.setString(idx++, fullName);
-
-            int rowsAffected = pstmt.executeUpdate();
+                pstmt.setString(idx++, userType);
+                pstmt.setString(idx++, firstName.trim());
+                pstmt.setString(idx++, lastName.trim());
+                pstmt.setString(idx++, fullName);
+                pstmt.setString(idx++, nameKey(fullName));
+                return pstmt.executeUpdate();
+            });
             if (rowsAffected > 0) {
-                System.out.println("Sign up complete for: " + normalizedEmail);
+                LOGGER.log(Level.INFO, "Sign up complete for: {0}", normalizedEmail);
                 return true;
             } else {
-                System.out.println("Sign up failed: no rows inserted");
+                LOGGER.warning("Sign up failed: no rows inserted");
                 return false;
             }
         } catch (SQLException e) {
             String msg = e.getMessage() == null ? "" : e.getMessage().toLowerCase();
             if (msg.contains("unique") && msg.contains("email")) {
-                System.out.println("Sign up error: email already registered");
+                LOGGER.info("Sign up rejected: email already registered");
             } else {
-                System.err.println("Error signing up user:");
-                e.printStackTrace();
+                LOGGER.log(Level.WARNING, "Error signing up user", e);
             }
             return false;
         }
     }
 
-    public String loginUser(String email, String password, String userType) {
+    /**
+     * Check the credentials and load the whole users row in the same query. The result is what
+     * {@link CurrentUser#start} keeps for the session; null when the login does not match.
+     */
+    public UserModel authenticate(String email, String password, String userType) {
         if (email == null || password == null) return null;
-        String normalizedEmail = email.trim().toLowerCase();
-        String sql = "SELECT first_name, last_name, full_name FROM users WHERE email = ? COLLATE NOCASE AND password = ? AND user_type = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, normalizedEmail);
-            pstmt.setString(2, password);
-            pstmt.setString(3, userType);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String fullName = rs.getString("full_name");
-                String first = rs.getString("first_name");
-                String last = rs.getString("last_name");
-                if ((fullName == null || fullName.trim().isEmpty()) && first != null) {
-                    fullName = (first + (last != null && !last.trim().isEmpty() ? " " + last : "")).trim();
-                }
-                if (fullName == null || fullName.trim().isEmpty()) {
-                    fullName = normalizedEmail;
+        String normalizedEmail = canonicalEmail(email);
+        try {
+            UserModel user = pool.read(c -> {
+                PreparedStatement pstmt = prepare(c, LOGIN_SQL);
+                pstmt.setString(1, normalizedEmail);
+                pstmt.setString(2, password);
+                pstmt.setString(3, userType);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) return null;
+                    return new UserModel(rs.getLong("id"), rs.getString("user_type"), rs.getString("first_name"),
+                            rs.getString("last_name"), rs.getString("full_name"), rs.getString("email"),
+                            rs.getString("phone"), rs.getString("address"));
                 }
-                System.out.println("Login successful for: " + normalizedEmail + " (" + fullName + ")");
-                return fullName;
+            });
+            if (user != null) {
+                LOGGER.log(Level.INFO, "Login successful for: {0} ({1})", new Object[] { normalizedEmail, user.getDisplayName() });
             } else {
-                System.out.println("Login failed for: " + normalizedEmail);
-                return null;
+                LOGGER.log(Level.INFO, "Login failed for: {0}", normalizedEmail);
             }
+            return user;
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            LOGGER.log(Level.WARNING, "Error logging in", e);
             return null;
         }
     }
 
+    /** Display name of the user these credentials log in as, or null. */
+    public String loginUser(String email, String password, String userType) {
+        UserModel user = authenticate(email, password, userType);
+        return user == null ? null : user.getDisplayName();
+    }
+
     public String getUserDebugInfo(String email) {
         if (email == null) return "email==null";
-        String normalized = email.trim().toLowerCase();
-        String sql = "SELECT password, user_type FROM users WHERE email = ? COLLATE NOCASE";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, normalized);
-            ResultSet rs = ps.executeQuery();
-            if (!rs.next()) return "NO_USER";
-            String storedPw = rs.getString("password");
-            String ut = rs.getString("user_type");
-            if (ut == null) ut = "";
-            if (!ut.equalsIgnoreCase("artist") && !ut.equalsIgnoreCase("buyer")) return "WRONG_TYPE:" + ut;
-            if (storedPw == null) storedPw = "";
-            return "OK";
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String normalized = canonicalEmail(email);
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, CREDENTIALS_SQL);
+                ps.setString(1, normalized);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return "NO_USER";
+                    String ut = rs.getString("user_type");
+                    if (ut == null) ut = "";
+                    if (!ut.equalsIgnoreCase("artist") && !ut.equalsIgnoreCase("buyer")) return "WRONG_TYPE:" + ut;
+                    return "OK";
+                }
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading user debug info", e);
             return "ERROR:" + e.getMessage();
         }
     }
 
 
+    /**
+     * Email of the (oldest) user with this full name, compared on the normalized name_key, so case and
+     * spacing differences still match. An exact name rather than a substring, so it is an index search.
+     */
     public String getEmailForFullName(String fullName) {
         if (fullName == null || fullName.trim().isEmpty()) return null;
-        String sql = "SELECT email FROM users WHERE full_name LIKE ? COLLATE NOCASE LIMIT 1";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, "%" + fullName.trim() + "%");
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) return rs.getString("email");
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, EMAIL_BY_NAME_SQL);
+                ps.setString(1, nameKey(fullName));
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getString("email") : null;
+                }
+            });
         } catch (SQLException e) {
-            System.err.println("Error getting email for full name: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error getting email for full name", e);
         }
         return null;
     }
@@ -382,21 +414,24 @@ public class DatabaseHelper {
 
     public String checkCredentials(String email, String password, String expectedUserType) {
         if (email == null) return "NO_USER";
-        String normalized = email.trim().toLowerCase();
-        String sql = "SELECT password, user_type FROM users WHERE email = ? COLLATE NOCASE";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, normalized);
-            ResultSet rs = ps.executeQuery();
-            if (!rs.next()) return "NO_USER";
-            String storedPw = rs.getString("password");
-            String ut = rs.getString("user_type");
-            if (ut == null) ut = "";
-            if (!ut.equalsIgnoreCase(expectedUserType)) return "WRONG_TYPE:" + ut;
-            if (storedPw == null) storedPw = "";
-            if (!storedPw.equals(password)) return "WRONG_PASSWORD";
-            return "OK";
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String normalized = canonicalEmail(email);
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, CREDENTIALS_SQL);
+                ps.setString(1, normalized);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return "NO_USER";
+                    String storedPw = rs.getString("password");
+                    String ut = rs.getString("user_type");
+                    if (ut == null) ut = "";
+                    if (!ut.equalsIgnoreCase(expectedUserType)) return "WRONG_TYPE:" + ut;
+                    if (storedPw == null) storedPw = "";
+                    if (!storedPw.equals(password)) return "WRONG_PASSWORD";
+                    return "OK";
+                }
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error checking credentials", e);
             return "ERROR:" + e.getMessage();
         }
     }
@@ -406,194 +441,963 @@ public class DatabaseHelper {
     }
 
 
-    public synchronized boolean updateUserProfile(String currentEmail, String newFullName, String newEmail, String phone, String address) {
-        if (currentEmail == null) return false;
+    /** Outcome of {@link #saveUserProfile}. */
+    public enum ProfileUpdate { SAVED, EMAIL_IN_USE, NOT_FOUND, FAILED }
+
+    /** {@link #saveUserProfile} for callers that only need to know whether it was saved. */
+    public boolean updateUserProfile(String currentEmail, String newFullName, String newEmail, String phone, String address) {
+        return saveUserProfile(currentEmail, newFullName, newEmail, phone, address) == ProfileUpdate.SAVED;
+    }
+
+    /**
+     * Update a user's profile. A new full name is copied to the display names on their orders, archived
+     * ones included (found through the customer_id / artist_id keys), and for artists on their artworks
+     * and artist_stats row, in the same transaction, so renaming never orphans order history. An email
+     * that belongs to another account is rejected by the unique index, with no separate lookup first.
+     * Once committed, the stored values are mirrored into {@link CurrentUser} if this is the signed-in user.
+     */
+    public ProfileUpdate saveUserProfile(String currentEmail, String newFullName, String newEmail, String phone, String address) {
+        if (currentEmail == null) return ProfileUpdate.NOT_FOUND;
         
-        String sql = "UPDATE users SET full_name = ?, email = ?, phone = ?, address = ? WHERE email = ? COLLATE NOCASE";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, newFullName);
-            ps.setString(2, newEmail != null ? newEmail.trim().toLowerCase() : currentEmail);
-            ps.setString(3, phone);
-            ps.setString(4, address);
-            ps.setString(5, currentEmail.trim().toLowerCase());
-            
-            int rows = ps.executeUpdate();
-            if (rows > 0) {
-                System.out.println("Profile updated in database for user: " + newFullName);
-                return true;
-            }
-            return false;
+        String sql = "UPDATE users SET full_name = ?, email = ?, phone = ?, address = ?, name_key = ? WHERE id = ?";
+        String storedEmail = canonicalEmail(newEmail != null ? newEmail : currentEmail);
+        try {
+            Long updatedId = inTransaction(c -> {
+                long userId;
+                String oldName;
+                String userType;
+                PreparedStatement find = prepare(c, USER_BY_EMAIL_SQL);
+                find.setString(1, canonicalEmail(currentEmail));
+                try (ResultSet rs = find.executeQuery()) {
+                    if (!rs.next()) return null;
+                    userId = rs.getLong("id");
+                    oldName = rs.getString("full_name");
+                    userType = rs.getString("user_type");
+                }
+
+                PreparedStatement ps = prepare(c, sql);
+                ps.setString(1, newFullName);
+                ps.setString(2, storedEmail);
+                ps.setString(3, phone);
+                ps.setString(4, address);
+                ps.setString(5, nameKey(newFullName));
+                ps.setLong(6, userId);
+                if (ps.executeUpdate() == 0) return null;
+
+                if (newFullName != null && !newFullName.equals(oldName)) {
+                    boolean artist = "artist".equalsIgnoreCase(userType);
+                    PreparedStatement orders = prepare(c, artist
+                            ? "UPDATE orders SET artist_name = ? WHERE artist_id = ?"
+                            : "UPDATE orders SET customer_name = ? WHERE customer_id = ?");
+                    orders.setString(1, newFullName);
+                    orders.setLong(2, userId);
+                    int moved = orders.executeUpdate();
+                    if (archive.isAttached()) renameArchivedOrders(c, userId, artist, newFullName);
+                    if (artist && oldName != null) {
+                        PreparedStatement arts = prepare(c, "UPDATE artworks SET artist_name = ? WHERE artist_name = ? COLLATE NOCASE");
+                        arts.setString(1, newFullName);
+                        arts.setString(2, oldName);
+                        arts.executeUpdate();
+                    }
+                    LOGGER.log(Level.INFO, "Renamed ''{0}'' to ''{1}'' on {2} orders", new Object[] { oldName, newFullName, moved });
+                }
+                return userId;
+            });
+            if (updatedId == null) return ProfileUpdate.NOT_FOUND;
+            CurrentUser.profileSaved(updatedId, newFullName, storedEmail, phone, address);
+            LOGGER.log(Level.INFO, "Profile updated in database for user: {0}", newFullName);
+            return ProfileUpdate.SAVED;
         } catch (SQLException e) {
-            System.err.println("Error updating user profile: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            String msg = e.getMessage() == null ? "" : e.getMessage().toLowerCase();
+            if (msg.contains("unique") && msg.contains("email")) {
+                LOGGER.log(Level.INFO, "Profile update rejected: email already registered: {0}", storedEmail);
+                return ProfileUpdate.EMAIL_IN_USE;
+            }
+            LOGGER.log(Level.WARNING, "Error updating user profile", e);
+            return ProfileUpdate.FAILED;
         }
     }
-    
 
-    public synchronized java.util.Map<String, String> getUserProfile(String email) {
+    /**
+     * The archived side of a rename: the display name on the account's archived orders, and for an
+     * artist the archived orders' share of artist_stats, which the live orders' triggers do not move.
+     */
+    private void renameArchivedOrders(Connection c, long userId, boolean artist, String newFullName) throws SQLException {
+        if (artist) {
+            PreparedStatement out = prepare(c, OrderArchive.ARTIST_ARCHIVED_STATS_SQL);
+            out.setInt(1, -1);
+            out.setLong(2, userId);
+            out.executeUpdate();
+            PreparedStatement row = prepare(c, "INSERT INTO artist_stats(artist_name) VALUES (COALESCE(?, '')) ON CONFLICT(artist_name) DO NOTHING");
+            row.setString(1, newFullName);
+            row.executeUpdate();
+        }
+        PreparedStatement names = prepare(c, artist
+                ? "UPDATE " + OrderArchive.SCHEMA + ".orders SET artist_name = ? WHERE artist_id = ?"
+                : "UPDATE " + OrderArchive.SCHEMA + ".orders SET customer_name = ? WHERE customer_id = ?");
+        names.setString(1, newFullName);
+        names.setLong(2, userId);
+        names.executeUpdate();
+        if (artist) {
+            PreparedStatement in = prepare(c, OrderArchive.ARTIST_ARCHIVED_STATS_SQL);
+            in.setInt(1, 1);
+            in.setLong(2, userId);
+            in.executeUpdate();
+        }
+    }
+
+    public java.util.Map<String, String> getUserProfile(String email) {
         if (email == null) return null;
         
-        String sql = "SELECT full_name, email, phone, address FROM users WHERE email = ? COLLATE NOCASE";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, email.trim().toLowerCase());
-            ResultSet rs = ps.executeQuery();
-            
-            if (rs.next()) {
-                java.util.Map<String, String> profile = new java.util.HashMap<>();
-                profile.put("full_name", rs.getString("full_name"));
-                profile.put("email", rs.getString("email"));
-                profile.put("phone", rs.getString("phone"));
-                profile.put("address", rs.getString("address"));
-                return profile;
-            }
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, PROFILE_SQL);
+                ps.setString(1, canonicalEmail(email));
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return null;
+                    java.util.Map<String, String> profile = new java.util.HashMap<>();
+                    profile.put("full_name", rs.getString("full_name"));
+                    profile.put("email", rs.getString("email"));
+                    profile.put("phone", rs.getString("phone"));
+                    profile.put("address", rs.getString("address"));
+                    return profile;
+                }
+            });
         } catch (SQLException e) {
-            System.err.println("Error getting user profile: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error getting user profile", e);
         }
         return null;
     }
 
     public void close() {
+        watcher.close(2000);
+        archive.close(2000);
+        maintenance.close(2000);
+        backups.close(5000);
+        if (orderJournal != null) orderJournal.close(5000);
+        pool.close();
+    }
+
+    /** Online backups, their schedule and restore. */
+    public DatabaseBackup getBackups() {
+        return backups;
+    }
+
+    /** ANALYZE, optimize and incremental vacuum, run in short steps when the user is idle. */
+    public DatabaseMaintenance getMaintenance() {
+        return maintenance;
+    }
+
+    /** Moves old completed and rejected orders to the archive file that history queries page on into. */
+    public OrderArchive getArchive() {
+        return archive;
+    }
+
+    /** Change notifications for writes from any connection, including other processes sharing the file. */
+    public DatabaseWatcher getWatcher() {
+        return watcher;
+    }
+
+    /** Journal of order creations and status changes, or null when disabled with -Dartflow.orderJournal=false. */
+    public OrderJournal getOrderJournal() {
+        return orderJournal;
+    }
+
+    // Artwork persistence helpers
+    public boolean insertArtwork(ArtworkModel m) {
+        if (m == null) return false;
         try {
-            if (connection != null) {
-                connection.close();
-            }
+            pool.write(c -> {
+                PreparedStatement ps = prepare(c, UPSERT_ARTWORK_SQL);
+                bindArtwork(ps, m);
+                return ps.executeUpdate();
+            });
+            return true;
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOGGER.log(Level.WARNING, "Error inserting artwork", e);
+            return false;
         }
     }
 
-    // Artwork persistence helpers
-    public synchronized boolean insertArtwork(ArtworkModel m) {
+    /** Insert (or replace) many artworks with one batched statement inside a single transaction. */
+    public boolean insertArtworks(java.util.List<ArtworkModel> models) {
+        if (models == null || models.isEmpty()) return models != null;
+        try {
+            inTransaction(c -> {
+                PreparedStatement ps = prepare(c, UPSERT_ARTWORK_SQL);
+                int pending = 0;
+                for (ArtworkModel m : models) {
+                    if (m == null) continue;
+                    bindArtwork(ps, m);
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) { ps.executeBatch(); pending = 0; }
+                }
+                if (pending > 0) ps.executeBatch();
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error inserting artworks batch", e);
+            return false;
+        }
+    }
+
+    /** Insert the artwork, or update every column of the existing row with the same id, in one statement. */
+    public boolean upsertArtwork(ArtworkModel m) {
         if (m == null) return false;
-        String sql = "INSERT OR REPLACE INTO artworks(id, title, price, category, image_path, artist_name, description) VALUES(?,?,?,?,?,?,?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, m.getId());
-            ps.setString(2, m.getTitle());
-            ps.setString(3, m.getPrice());
-            ps.setString(4, m.getCategory());
-            ps.setString(5, m.getImagePath());
-            ps.setString(6, m.getArtistName());
-            ps.setString(7, m.getDescription());
-            ps.executeUpdate();
+        try {
+            int rows = pool.write(c -> {
+                PreparedStatement ps = prepare(c, UPSERT_ARTWORK_SQL);
+                bindArtwork(ps, m);
+                return ps.executeUpdate();
+            });
+            return rows > 0;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error upserting artwork", e);
+            return false;
+        }
+    }
+
+    /**
+     * Apply a group of artwork changes in one transaction: every model in {@code upserts} is inserted
+     * or updated, every id in {@code deletes} removed. All or nothing; false if it was rolled back.
+     */
+    public boolean applyArtworkChanges(java.util.Collection<ArtworkModel> upserts, java.util.Collection<String> deletes) {
+        try {
+            writeArtworkChanges(upserts, deletes);
             return true;
         } catch (SQLException e) {
-            System.err.println("Error inserting artwork: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error applying artwork changes", e);
             return false;
         }
     }
 
-    public synchronized boolean updateArtwork(ArtworkModel m) {
+    /** {@link #applyArtworkChanges}, throwing the failure so the caller can tell a busy database from a bad row. */
+    void writeArtworkChanges(java.util.Collection<ArtworkModel> upserts, java.util.Collection<String> deletes) throws SQLException {
+        inTransaction(c -> {
+            if (!upserts.isEmpty()) {
+                PreparedStatement ps = prepare(c, UPSERT_ARTWORK_SQL);
+                int pending = 0;
+                for (ArtworkModel m : upserts) {
+                    bindArtwork(ps, m);
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) { ps.executeBatch(); pending = 0; }
+                }
+                if (pending > 0) ps.executeBatch();
+            }
+            if (!deletes.isEmpty()) {
+                PreparedStatement ps = prepare(c, "DELETE FROM artworks WHERE id = ?");
+                int pending = 0;
+                for (String id : deletes) {
+                    ps.setString(1, id);
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) { ps.executeBatch(); pending = 0; }
+                }
+                if (pending > 0) ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    public boolean updateArtwork(ArtworkModel m) {
         if (m == null) return false;
-        String sql = "UPDATE artworks SET title = ?, price = ?, category = ?, image_path = ?, artist_name = ?, description = ? WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, m.getTitle());
-            ps.setString(2, m.getPrice());
-            ps.setString(3, m.getCategory());
-            ps.setString(4, m.getImagePath());
-            ps.setString(5, m.getArtistName());
-            ps.setString(6, m.getDescription());
-            ps.setString(7, m.getId());
-            int rows = ps.executeUpdate();
+        String sql = "UPDATE artworks SET title = ?, price_cents = ?, category = ?, image_path = ?, artist_name = ?, description = ? WHERE id = ?";
+        try {
+            int rows = pool.write(c -> {
+                PreparedStatement ps = prepare(c, sql);
+                ps.setString(1, m.getTitle());
+                ps.setLong(2, m.getPriceCents());
+                ps.setString(3, m.getCategory());
+                ps.setString(4, m.getImagePath());
+                ps.setString(5, m.getArtistName());
+                ps.setString(6, m.getDescription());
+                ps.setString(7, m.getId());
+                return ps.executeUpdate();
+            });
             return rows > 0;
         } catch (SQLException e) {
-            System.err.println("Error updating artwork: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error updating artwork", e);
             return false;
         }
     }
 
-    public synchronized boolean deleteArtwork(String id) {
+    public boolean deleteArtwork(String id) {
         if (id == null) return false;
         String sql = "DELETE FROM artworks WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, id);
-            int rows = ps.executeUpdate();
+        try {
+            int rows = pool.write(c -> {
+                PreparedStatement ps = prepare(c, sql);
+                ps.setString(1, id);
+                return ps.executeUpdate();
+            });
             return rows > 0;
         } catch (SQLException e) {
-            System.err.println("Error deleting artwork: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error deleting artwork", e);
             return false;
         }
     }
 
-    public synchronized java.util.List<ArtworkModel> listArtworks() {
-        java.util.List<ArtworkModel> out = new java.util.ArrayList<>();
-        String sql = "SELECT id, title, price, category, image_path, artist_name, description FROM artworks";
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                String id = rs.getString("id");
-                String title = rs.getString("title");
-                String price = rs.getString("price");
-                String category = rs.getString("category");
-                String imagePath = rs.getString("image_path");
-                String artistName = null;
-                String description = null;
-                try { artistName = rs.getString("artist_name"); } catch (Exception ignored) {}
-                try { description = rs.getString("description"); } catch (Exception ignored) {}
-                out.add(new ArtworkModel(id, title, price, category, imagePath, artistName, description));
+    public java.util.List<ArtworkModel> listArtworks() {
+        String sql = "SELECT id, title, price_cents, category, image_path, artist_name, description FROM artworks";
+        try {
+            return pool.read(c -> {
+                java.util.List<ArtworkModel> out = new java.util.ArrayList<>();
+                try (ResultSet rs = prepare(c, sql).executeQuery()) {
+                    while (rs.next()) out.add(readArtwork(rs));
+                }
+                return out;
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading artworks from DB", e);
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    // newest matches first; ranking happens on this bounded candidate set (see searchArtworks)
+    private static final String SEARCH_ARTWORKS_SQL =
+            "SELECT a.id, a.title, a.price_cents, a.category, a.image_path, a.artist_name, a.description " +
+            "FROM (SELECT rowid FROM artworks_fts WHERE artworks_fts MATCH ?1 ORDER BY rowid DESC LIMIT ?3) hit " +
+            "JOIN artworks a ON a.rowid = hit.rowid " +
+            "WHERE ?2 IS NULL OR a.category = ?2 COLLATE NOCASE";
+    private static final int SEARCH_CANDIDATES = 500;
+    private static final String BROWSE_ARTWORKS_SQL =
+            "SELECT id, title, price_cents, category, image_path, artist_name, description FROM artworks " +
+            "WHERE ?1 IS NULL OR category = ?1 COLLATE NOCASE ORDER BY rowid LIMIT ?2 OFFSET ?3";
+
+    /**
+     * Full-text search over title, category, artist name and description using the artworks_fts
+     * index. Words match in any column and order; the last word also matches as a prefix, so
+     * "ocean bl" finds "Blue Ocean" while the user is still typing.
+     * {@code category} restricts results to one category; null, blank or "All" means any. An empty
+     * query lists the catalog (optionally by category) in insertion order.
+     *
+     * Results are ranked by where the words matched (title, then artist, category, description),
+     * newest first within a rank. Ranking looks at the newest {@code max(500, limit + offset)}
+     * matches only: FTS5's bm25 re-counts every row containing each term on every query, which
+     * costs tens of milliseconds for a short prefix at 1M artworks, while a bounded candidate set
+     * keeps each keystroke under a frame. Broad queries narrow as the user keeps typing.
+     */
+    public java.util.List<ArtworkModel> searchArtworks(String query, String category, int limit, int offset) {
+        java.util.List<String> words = searchWords(query);
+        String cat = category == null || category.isBlank() || "All".equalsIgnoreCase(category.trim()) ? null : category.trim();
+        int lim = Math.max(1, limit);
+        int off = Math.max(0, offset);
+        try {
+            return pool.read(c -> {
+                java.util.List<ArtworkModel> out = new java.util.ArrayList<>();
+                if (words.isEmpty()) {
+                    PreparedStatement ps = prepare(c, BROWSE_ARTWORKS_SQL);
+                    ps.setString(1, cat);
+                    ps.setInt(2, lim);
+                    ps.setInt(3, off);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) out.add(readArtwork(rs));
+                    }
+                    return out;
+                }
+                // the category also goes into the MATCH as a column filter so FTS5 narrows the
+                // candidates itself; the join re-checks the exact value
+                String match = toFtsQuery(words);
+                PreparedStatement ps = prepare(c, SEARCH_ARTWORKS_SQL);
+                ps.setString(1, cat == null ? match : "(" + match + ") AND category : " + quoteFtsPhrase(cat));
+                ps.setString(2, cat);
+                ps.setInt(3, Math.max(SEARCH_CANDIDATES, lim + off));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) out.add(readArtwork(rs));
+                }
+                // stable sort: equal scores keep the newest-first order of the candidates
+                java.util.Map<ArtworkModel, Integer> scores = new java.util.IdentityHashMap<>();
+                for (ArtworkModel m : out) scores.put(m, searchScore(m, words));
+                out.sort((x, y) -> Integer.compare(scores.get(y), scores.get(x)));
+                return off >= out.size() ? new java.util.ArrayList<>() : new java.util.ArrayList<>(out.subList(off, Math.min(out.size(), off + lim)));
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error searching artworks", e);
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    /**
+     * Artworks priced between {@code minCents} and {@code maxCents} inclusive, cheapest first, read
+     * through the price_cents index. A negative bound means unbounded on that side.
+     */
+    public java.util.List<ArtworkModel> listArtworksByPrice(long minCents, long maxCents, int limit, int offset) {
+        String sql = "SELECT id, title, price_cents, category, image_path, artist_name, description FROM artworks " +
+                "WHERE price_cents BETWEEN ? AND ? ORDER BY price_cents, rowid LIMIT ? OFFSET ?";
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, sql);
+                ps.setLong(1, Math.max(0, minCents));
+                ps.setLong(2, maxCents < 0 ? Long.MAX_VALUE : maxCents);
+                ps.setInt(3, Math.max(1, limit));
+                ps.setInt(4, Math.max(0, offset));
+                java.util.List<ArtworkModel> out = new java.util.ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) out.add(readArtwork(rs));
+                }
+                return out;
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading artworks by price", e);
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /** Lower-cased, accent-free words of a search text, split the way the unicode61 tokenizer splits. */
+    static java.util.List<String> searchWords(String text) {
+        java.util.List<String> words = new java.util.ArrayList<>();
+        if (text == null) return words;
+        if (!isAscii(text)) {
+            String decomposed = java.text.Normalizer.normalize(text, java.text.Normalizer.Form.NFD);
+            String folded = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(java.util.Locale.ROOT);
+            for (String word : NON_WORD.split(folded)) {
+                if (!word.isEmpty()) words.add(word);
+            }
+            return words;
+        }
+        // plain ASCII (most titles and names): split by hand, it is scored for hundreds of rows per keystroke
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char ch = i < text.length() ? text.charAt(i) : ' ';
+            boolean wordChar = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9');
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(java.util.Locale.ROOT));
+                start = -1;
             }
+        }
+        return words;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 128) return false;
+        }
+        return true;
+    }
+
+    /**
+     * FTS5 expression for the words, ANDed: the last word is a prefix term ("oce"*) because it is the
+     * one still being typed, the others must match whole words. Quoting keeps user input from being
+     * read as FTS5 syntax.
+     */
+    static String toFtsQuery(java.util.List<String> words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(quoteFtsPhrase(words.get(i)));
+            if (i == words.size() - 1) sb.append('*');
+        }
+        return sb.toString();
+    }
+
+    // per word: a prefix match in the title counts most, then artist, category, description
+    private static int searchScore(ArtworkModel m, java.util.List<String> words) {
+        java.util.List<String> title = searchWords(m.getTitle());
+        java.util.List<String> artist = searchWords(m.getArtistName());
+        java.util.List<String> category = searchWords(m.getCategory());
+        java.util.List<String> description = searchWords(m.getDescription());
+        int score = 0;
+        for (String word : words) {
+            if (hasWordWithPrefix(title, word)) score += 8;
+            else if (hasWordWithPrefix(artist, word)) score += 4;
+            else if (hasWordWithPrefix(category, word)) score += 2;
+            else if (hasWordWithPrefix(description, word)) score += 1;
+        }
+        return score;
+    }
+
+    private static boolean hasWordWithPrefix(java.util.List<String> fieldWords, String prefix) {
+        for (String word : fieldWords) {
+            if (word.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static String quoteFtsPhrase(String s) {
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Rebuild artworks_fts from the artworks table. The triggers keep it current, so this is only
+     * needed after a full VACUUM, which may renumber the artworks rowids the index is keyed on.
+     */
+    public boolean rebuildArtworkSearch() {
+        try {
+            pool.write(c -> {
+                try (Statement stmt = pool.createStatement(c)) {
+                    stmt.execute("INSERT INTO artworks_fts(artworks_fts) VALUES('rebuild')");
+                }
+                return null;
+            });
+            return true;
         } catch (SQLException e) {
-            System.err.println("Error reading artworks from DB: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error rebuilding artwork search index", e);
+            return false;
         }
-        return out;
     }
 
-    public synchronized boolean insertOrder(OrderModel o) {
+    private static ArtworkModel readArtwork(ResultSet rs) throws SQLException {
+        String id = rs.getString("id");
+        String title = rs.getString("title");
+        long priceCents = rs.getLong("price_cents");
+        String category = rs.getString("category");
+        String imagePath = rs.getString("image_path");
+        String artistName = rs.getString("artist_name");
+        String description = rs.getString("description");
+        return new ArtworkModel(id, title, priceCents, category, imagePath, artistName, description);
+    }
+
+    public boolean insertOrder(OrderModel o) {
         if (o == null) return false;
-        String sql = "INSERT INTO orders(id, customer_name, artist_name, art_title, quantity, amount, ordered_on, status) VALUES(?,?,?,?,?,?,?,?)";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, o.getId());
-            ps.setString(2, o.getCustomerName());
-            ps.setString(3, o.getArtistName());
-            ps.setString(4, o.getArtTitle());
-            ps.setInt(5, o.getQuantity());
-            ps.setDouble(6, o.getAmount());
-            ps.setString(7, o.getOrderedOn());
-            ps.setString(8, o.getStatus());
-            ps.executeUpdate();
-            // Debug: print DB path
-            try { System.out.println("Order inserted into DB file: " + getDbFilePath() + " (id=" + o.getId() + ")"); }
-            catch (Exception ignored) {}
+        try {
+            pool.write(c -> {
+                PreparedStatement ps = prepare(c, INSERT_ORDER_SQL);
+                bindOrder(ps, o);
+                return ps.executeUpdate();
+            });
+            LOGGER.log(Level.FINE, "Order {0} inserted", o.getId());
+            if (orderJournal != null) orderJournal.orderCreated(o);
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error inserting order", e);
+            return false;
+        }
+    }
+
+    /** Insert many orders with one batched statement inside a single transaction (all or nothing). */
+    public boolean insertOrders(java.util.List<OrderModel> orders) {
+        if (orders == null || orders.isEmpty()) return orders != null;
+        try {
+            inTransaction(c -> {
+                PreparedStatement ps = prepare(c, INSERT_ORDER_SQL);
+                int pending = 0;
+                for (OrderModel o : orders) {
+                    if (o == null) continue;
+                    bindOrder(ps, o);
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) { ps.executeBatch(); pending = 0; }
+                }
+                if (pending > 0) ps.executeBatch();
+                return null;
+            });
+            if (orderJournal != null) {
+                for (OrderModel o : orders) orderJournal.orderCreated(o);
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error inserting orders batch", e);
+            return false;
+        }
+    }
 
+    public java.util.List<OrderModel> listOrders() {
+        String sql = ORDER_COLUMNS_SQL + " ORDER BY ordered_on DESC";
+        try {
+            return pool.read(c -> readOrders(prepare(c, sql)));
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading orders from DB", e);
+            return new java.util.ArrayList<>();
+        }
+    }
 
+    /**
+     * Dashboard figures for one artist: a single primary-key read of the artist_stats rollup, so the
+     * cost does not grow with the number of orders and all figures come from the same row.
+     */
+    public ArtistStats getArtistStats(String artistName) {
+        if (artistName == null) return ArtistStats.empty();
+        String sql = "SELECT artwork_count, order_count, pending_count, completed_count, rejected_count, completed_earnings_cents " +
+                "FROM artist_stats WHERE artist_name = ?";
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, sql);
+                ps.setString(1, artistName.trim());
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? readArtistStats(rs) : ArtistStats.empty();
+                }
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading artist stats", e);
+            return ArtistStats.empty();
+        }
+    }
+
+    private static ArtistStats readArtistStats(ResultSet rs) throws SQLException {
+        return new ArtistStats(rs.getInt("artwork_count"), rs.getInt("order_count"), rs.getInt("pending_count"),
+                rs.getInt("completed_count"), rs.getInt("rejected_count"), rs.getLong("completed_earnings_cents"));
+    }
+
+    /**
+     * Consistency check for the artist_stats rollup: recompute every artist's totals from artworks
+     * and orders, archived ones included (one read snapshot), and describe each artist whose stored row
+     * differs. Empty means no drift.
+     */
+    public java.util.List<String> checkArtistStats() {
+        boolean withArchive = archive.isAttached();
+        String sql = "SELECT s.artist_name AS artist_name, " +
+                "s.artwork_count, s.order_count, s.pending_count, s.completed_count, s.rejected_count, s.completed_earnings_cents, " +
+                "a.artwork_count AS x_artwork_count, a.order_count AS x_order_count, a.pending_count AS x_pending_count, " +
+                "a.completed_count AS x_completed_count, a.rejected_count AS x_rejected_count, a.completed_earnings_cents AS x_completed_earnings_cents " +
+                "FROM (" + artistStatsFromScratchSql(withArchive) + ") a LEFT JOIN artist_stats s ON s.artist_name = a.artist_name " +
+                "UNION ALL " +
+                "SELECT s.artist_name, s.artwork_count, s.order_count, s.pending_count, s.completed_count, s.rejected_count, s.completed_earnings_cents, " +
+                "0, 0, 0, 0, 0, 0 FROM artist_stats s " +
+                "WHERE (s.artwork_count <> 0 OR s.order_count <> 0) AND s.artist_name NOT IN (" +
+                "  SELECT COALESCE(artist_name, '') FROM main.artworks UNION SELECT COALESCE(artist_name, '') FROM main.orders" +
+                (withArchive ? " UNION SELECT COALESCE(artist_name, '') FROM " + OrderArchive.SCHEMA + ".orders)" : ")");
+        java.util.List<String> drift = new java.util.ArrayList<>();
+        try {
+            pool.read(c -> {
+                try (Statement stmt = pool.createStatement(c); ResultSet rs = stmt.executeQuery(sql)) {
+                    while (rs.next()) {
+                        String artist = rs.getString("artist_name");
+                        String[] cols = { "artwork_count", "order_count", "pending_count", "completed_count", "rejected_count", "completed_earnings_cents" };
+                        StringBuilder diff = new StringBuilder();
+                        for (String col : cols) {
+                            long stored = rs.getLong(col);
+                            long actual = rs.getLong("x_" + col);
+                            if (stored != actual) diff.append(' ').append(col).append(' ').append(stored).append("!=").append(actual);
+                        }
+                        if (artist == null) diff.insert(0, " (no summary row)");
+                        if (diff.length() > 0) drift.add((artist == null ? "?" : artist) + ":" + diff);
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error checking artist stats", e);
+            drift.add("ERROR: " + e.getMessage());
+        }
+        return drift;
+    }
+
+    /** Recompute the artist_stats rollup from scratch (e.g. after {@link #checkArtistStats} reports drift). */
+    public boolean repairArtistStats() {
+        try {
+            inTransaction(c -> {
+                rebuildArtistStats(pool, c, archive.isAttached());
+                return null;
+            });
             return true;
         } catch (SQLException e) {
-            System.err.println("Error inserting order: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error rebuilding artist stats", e);
             return false;
         }
     }
 
-    public synchronized java.util.List<OrderModel> listOrders() {
+    /**
+     * Orders for one artist (case-insensitive name match), newest first. {@code status} narrows the
+     * result to pending/completed/rejected; pass null for every status.
+     */
+    public java.util.List<OrderModel> listOrdersForArtist(String artistName, String status) {
+        if (artistName == null) return new java.util.ArrayList<>();
+        String sql = status == null
+                ? ORDER_COLUMNS_SQL + " AND artist_name = ? COLLATE NOCASE ORDER BY ordered_on DESC"
+                : ORDER_COLUMNS_SQL + " AND artist_name = ? COLLATE NOCASE AND status = ? ORDER BY ordered_on DESC";
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, sql);
+                ps.setString(1, artistName.trim());
+                if (status != null) ps.setString(2, status.toLowerCase());
+                return readOrders(ps);
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading orders for artist", e);
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    /** Orders placed by one customer (case-insensitive name match), newest first. */
+    public java.util.List<OrderModel> listOrdersForCustomer(String customerName) {
+        if (customerName == null) return new java.util.ArrayList<>();
+        String sql = ORDER_COLUMNS_SQL + " AND customer_name = ? COLLATE NOCASE ORDER BY ordered_on DESC";
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, sql);
+                ps.setString(1, customerName.trim());
+                return readOrders(ps);
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading orders for customer", e);
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    /**
+     * Keyset-paginated orders: at most {@code limit} rows strictly after {@code after} (null for the
+     * first page) in the query's sort order. Cost depends on the page size, not on how deep the page is.
+     * When the {@link OrderArchive} is attached and can hold the query's status, archived rows are merged
+     * into the same order: each file gives its next {@code limit + 1} rows from its own index, and the
+     * page is the first of those.
+     */
+    public OrderPage listOrdersPage(OrderPage.Query query, OrderPage.Cursor after, int limit) {
+        if (query == null || limit <= 0) return new OrderPage(new java.util.ArrayList<>(), null);
+        OrderPage.Sort sort = pageSort(query);
+        java.util.List<Object> args = new java.util.ArrayList<>();
+        String pageSql = orderPageSql(query, after, limit + 1, archive.isAttached() && OrderArchive.mayHold(query.status), args);
+        try {
+            java.util.List<OrderModel> rows = pool.read(c -> {
+                PreparedStatement ps = prepare(c, pageSql);
+                for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+                return readOrders(ps);
+            });
+            return toPage(rows, limit, sort);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading order page", e);
+            return new OrderPage(new java.util.ArrayList<>(), null);
+        }
+    }
+
+    // with a fixed status every row ties on status, so order those pages by date instead
+    private static OrderPage.Sort pageSort(OrderPage.Query query) {
+        return (query.sort == OrderPage.Sort.STATUS && query.status != null) ? OrderPage.Sort.DATE : query.sort;
+    }
+
+    /** Up to {@code max} rows of {@code query} after the cursor, merged with the archive's when {@code withArchive}. */
+    static String orderPageSql(OrderPage.Query query, OrderPage.Cursor after, int max, boolean withArchive, java.util.List<Object> args) {
+        OrderPage.Sort sort = pageSort(query);
+        String sql = orderRowsSql(ORDER_COLUMNS_SQL, query, sort, after, max, args);
+        if (!withArchive) return sql;
+        String dir = query.descending ? " DESC" : " ASC";
+        String archived = orderRowsSql(ARCHIVED_ORDER_COLUMNS_SQL, query, sort, after, max, args);
+        args.add(max);
+        return "SELECT * FROM (" + sql + ") UNION ALL SELECT * FROM (" + archived + ")" +
+                " ORDER BY " + sort.column + dir + ", id" + dir + " LIMIT ?";
+    }
+
+    // up to max rows of one order table, strictly after the cursor; select ends in a WHERE clause
+    private static String orderRowsSql(String select, OrderPage.Query query, OrderPage.Sort sort, OrderPage.Cursor after, int max,
+                                       java.util.List<Object> args) {
+        String col = sort.column;
+        String cmp = query.descending ? "<" : ">";
+        String dir = query.descending ? " DESC" : " ASC";
+
+        StringBuilder sql = new StringBuilder(select);
+        appendOrderFilter(query, sql, args);
+        if (after != null) {
+            // written as a range on the sort column plus a tie-break so the index can seek to the cursor
+            sql.append(" AND ").append(col).append(' ').append(cmp).append("= ?")
+               .append(" AND (").append(col).append(' ').append(cmp).append(" ? OR id ").append(cmp).append(" ?)");
+            args.add(after.sortValue);
+            args.add(after.sortValue);
+            args.add(after.id);
+        }
+        sql.append(" ORDER BY ").append(col).append(dir).append(", id").append(dir).append(" LIMIT ?");
+        args.add(max);
+        return sql.toString();
+    }
+
+    // rows holds up to limit + 1 rows; the extra one only says there is a next page
+    private static OrderPage toPage(java.util.List<OrderModel> rows, int limit, OrderPage.Sort sort) {
+        if (rows.size() <= limit) return new OrderPage(rows, null);
+        rows.remove(rows.size() - 1);
+        OrderModel last = rows.get(rows.size() - 1);
+        return new OrderPage(rows, new OrderPage.Cursor(sortValueOf(last, sort), last.getId()));
+    }
+
+    private static void appendOrderFilter(OrderPage.Query query, StringBuilder sql, java.util.List<Object> args) {
+        // account filters resolve the user id once (unique email index) and then seek the integer FK indexes
+        if (query.artistEmail != null) { sql.append(" AND artist_id = (SELECT id FROM users WHERE email = ?)"); args.add(canonicalEmail(query.artistEmail)); }
+        if (query.customerEmail != null) { sql.append(" AND customer_id = (SELECT id FROM users WHERE email = ?)"); args.add(canonicalEmail(query.customerEmail)); }
+        if (query.artistId != null) { sql.append(" AND artist_id = ?"); args.add(query.artistId); }
+        if (query.customerId != null) { sql.append(" AND customer_id = ?"); args.add(query.customerId); }
+        if (query.artistName != null) { sql.append(" AND artist_name = ? COLLATE NOCASE"); args.add(query.artistName.trim()); }
+        if (query.customerName != null) { sql.append(" AND customer_name = ? COLLATE NOCASE"); args.add(query.customerName.trim()); }
+        if (query.status != null) { sql.append(" AND status = ?"); args.add(query.status.toLowerCase()); }
+    }
+
+    /**
+     * The orders among {@code ids} that still match {@code query}, by primary key. A screen showing
+     * the query applies a {@link ChangeSet} with this: changed ids that come back are updated or
+     * added, the rest have left the query (or were deleted) and are removed.
+     */
+    public java.util.List<OrderModel> listOrdersByIds(OrderPage.Query query, java.util.Collection<String> ids) {
+        if (query == null || ids == null || ids.isEmpty()) return new java.util.ArrayList<>();
+        try {
+            java.util.List<OrderModel> rows = ordersByIds("orders", query, ids);
+            if (rows.size() < ids.size() && archive.isAttached() && OrderArchive.mayHold(query.status)) {
+                // an order that was archived is still part of a history query
+                java.util.Set<String> missing = new java.util.LinkedHashSet<>(ids);
+                for (OrderModel o : rows) missing.remove(o.getId());
+                rows.addAll(ordersByIds(OrderArchive.SCHEMA + ".orders", query, missing));
+            }
+            return rows;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading orders by id", e);
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    private java.util.List<OrderModel> ordersByIds(String table, OrderPage.Query query, java.util.Collection<String> ids) throws SQLException {
+        // CROSS JOIN keeps the id list as the outer loop: one primary-key seek per id, whatever the filter
+        StringBuilder sql = new StringBuilder("SELECT o.id, o.customer_name, o.artist_name, o.art_title, o.quantity, o.amount_cents, " +
+                "o.ordered_on, o.status, o.artwork_id FROM json_each(?) AS ids CROSS JOIN " + table + " AS o ON o.id = ids.value WHERE 1=1");
+        java.util.List<Object> args = new java.util.ArrayList<>();
+        args.add(jsonArray(ids));
+        appendOrderFilter(query, sql, args);
+        return pool.read(c -> {
+            PreparedStatement ps = prepare(c, sql.toString());
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            return readOrders(ps);
+        });
+    }
+
+    /** Artworks with the given ids, by primary key; ids that no longer exist are simply missing. */
+    public java.util.List<ArtworkModel> getArtworksByIds(java.util.Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) return new java.util.ArrayList<>();
+        String sql = "SELECT a.id, a.title, a.price_cents, a.category, a.image_path, a.artist_name, a.description " +
+                "FROM json_each(?) AS ids CROSS JOIN artworks AS a ON a.id = ids.value";
+        try {
+            return pool.read(c -> {
+                PreparedStatement ps = prepare(c, sql);
+                ps.setString(1, jsonArray(ids));
+                java.util.List<ArtworkModel> out = new java.util.ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) out.add(readArtwork(rs));
+                }
+                return out;
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading artworks by id", e);
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    // one bound JSON array instead of a variable-length IN list, so the statement cache gets one entry
+    private static String jsonArray(java.util.Collection<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (String v : values) {
+            if (json.length() > 1) json.append(',');
+            json.append('"');
+            for (int i = 0; i < v.length(); i++) {
+                char ch = v.charAt(i);
+                if (ch == '"' || ch == '\\') json.append('\\').append(ch);
+                else if (ch < 0x20) json.append(String.format("\\u%04x", (int) ch));
+                else json.append(ch);
+            }
+            json.append('"');
+        }
+        return json.append(']').toString();
+    }
+
+    private static Object sortValueOf(OrderModel o, OrderPage.Sort sort) {
+        switch (sort) {
+            case AMOUNT: return o.getAmountCents();
+            case STATUS: return o.getStatus();
+            default: return o.getOrderedOn();
+        }
+    }
+
+    private static java.util.List<OrderModel> readOrders(PreparedStatement ps) throws SQLException {
         java.util.List<OrderModel> out = new java.util.ArrayList<>();
-        String sql = "SELECT id, customer_name, artist_name, art_title, quantity, amount, ordered_on, status FROM orders ORDER BY ordered_on DESC";
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                String id = rs.getString("id");
-                String customer = rs.getString("customer_name");
-                String artist = rs.getString("artist_name");
-                String title = rs.getString("art_title");
-                int qty = rs.getInt("quantity");
-                double amount = rs.getDouble("amount");
-                String orderedOn = rs.getString("ordered_on");
-                String status = rs.getString("status");
-                out.add(new OrderModel(id, customer, artist, title, qty, amount, orderedOn, status));
+                out.add(readOrder(rs));
             }
-        } catch (SQLException e) {
-            System.err.println("Error reading orders from DB: " + e.getMessage());
         }
         return out;
     }
 
-    public synchronized boolean updateOrderStatus(String orderId, String newStatus) {
+    private static OrderModel readOrder(ResultSet rs) throws SQLException {
+        String id = rs.getString("id");
+        String customer = rs.getString("customer_name");
+        String artist = rs.getString("artist_name");
+        String title = rs.getString("art_title");
+        int qty = rs.getInt("quantity");
+        long amountCents = rs.getLong("amount_cents");
+        String orderedOn = rs.getString("ordered_on");
+        String status = rs.getString("status");
+        return new OrderModel(id, customer, artist, title, qty, amountCents, orderedOn, status).withArtworkId(rs.getString("artwork_id"));
+    }
+
+    public boolean updateOrderStatus(String orderId, String newStatus) {
         if (orderId == null || newStatus == null) return false;
         String sql = "UPDATE orders SET status = ? WHERE id = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, newStatus);
-            ps.setString(2, orderId);
-            int rows = ps.executeUpdate();
+        try {
+            int rows = pool.write(c -> {
+                PreparedStatement ps = prepare(c, sql);
+                ps.setString(1, newStatus);
+                ps.setString(2, orderId);
+                return ps.executeUpdate();
+            });
+            if (rows > 0 && orderJournal != null) orderJournal.statusChanged(orderId, newStatus);
             return rows > 0;
         } catch (SQLException e) {
-            System.err.println("Error updating order status: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Error updating order status", e);
             return false;
         }
     }
+
+    // --- change log ------------------------------------------------------------------------------
+
+    // sqlite_sequence still holds the high-water mark when every row has been pruned
+    private static final String LATEST_CHANGE_SQL = "SELECT COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'changes'), 0)";
+    // deletes (up to ?2 rows of) the oldest prefix of the log recorded before ?1, epoch ms; always a prefix,
+    // so changesSince can tell a pruned cursor from the smallest seq still in the table
+    static final String PRUNE_CHANGES_SQL = "DELETE FROM changes WHERE seq <= (SELECT MAX(seq) FROM (" +
+            "SELECT seq FROM changes WHERE seq <= (SELECT MAX(seq) FROM changes WHERE changed_at < ?1) ORDER BY seq LIMIT ?2))";
+
+    /** Sequence number of the newest change; a reader starting now passes this to {@link #changesSince}. */
+    public long latestChangeSeq() {
+        try {
+            return pool.read(c -> {
+                try (ResultSet rs = prepare(c, LATEST_CHANGE_SQL).executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading change log position", e);
+            return 0L;
+        }
+    }
+
+    /**
+     * Artwork and order changes with a sequence number above {@code afterSeq}, oldest first, at most
+     * {@code limit} of them. The cost is a range seek on the log's primary key, so it follows the
+     * number of changes rather than the size of the tables. When the log no longer reaches back to
+     * {@code afterSeq} the result is {@link ChangeSet#isTruncated() truncated}.
+     */
+    public ChangeSet changesSince(long afterSeq, int limit) {
+        if (limit <= 0) return ChangeSet.empty(afterSeq);
+        String sql = "SELECT seq, entity, entity_id, op, artist_name, changed_at FROM changes WHERE seq > ? ORDER BY seq LIMIT ?";
+        String firstSql = "SELECT COALESCE((SELECT MIN(seq) FROM changes), (SELECT seq + 1 FROM sqlite_sequence WHERE name = 'changes'), 1)";
+        try {
+            return pool.read(c -> {
+                java.util.List<ChangeSet.Change> changes = new java.util.ArrayList<>();
+                PreparedStatement ps = prepare(c, sql);
+                ps.setLong(1, afterSeq);
+                ps.setInt(2, limit + 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        changes.add(new ChangeSet.Change(rs.getLong(1), ChangeSet.Entity.of(rs.getString(2)), rs.getString(3),
+                                ChangeSet.Op.of(rs.getString(4)), rs.getString(5), rs.getLong(6)));
+                    }
+                }
+                if (changes.isEmpty() || changes.get(0).getSeq() != afterSeq + 1) {
+                    // the next change is not the one right after the cursor: check it was not pruned
+                    long first;
+                    try (ResultSet rs = prepare(c, firstSql).executeQuery()) {
+                        first = rs.next() ? rs.getLong(1) : 1L;
+                    }
+                    if (afterSeq + 1 < first) {
+                        try (ResultSet rs = prepare(c, LATEST_CHANGE_SQL).executeQuery()) {
+                            return new ChangeSet(new java.util.ArrayList<>(), rs.next() ? rs.getLong(1) : afterSeq, false, true);
+                        }
+                    }
+                }
+                boolean more = changes.size() > limit;
+                if (more) changes.remove(changes.size() - 1);
+                long cursor = changes.isEmpty() ? afterSeq : changes.get(changes.size() - 1).getSeq();
+                return new ChangeSet(changes, cursor, more, false);
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error reading change log", e);
+            return ChangeSet.empty(afterSeq);
+        }
+    }
 }
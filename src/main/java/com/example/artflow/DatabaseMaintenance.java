@@ -0,0 +1,432 @@
+package com.example.artflow;
+
+import javafx.collections.ListChangeListener;
+import javafx.event.EventHandler;
+import javafx.scene.input.InputEvent;
+import javafx.stage.Window;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the database file tidy while the app runs: refreshes planner statistics (ANALYZE per index,
+ * then {@code PRAGMA optimize}) and hands free pages back to the file system with
+ * {@code PRAGMA incremental_vacuum}. Change log rows older than {@code -Dartflow.changes.retentionDays}
+ * (default 7) are pruned first; see {@link DatabaseHelper#changesSince}.
+ * <p>
+ * A run is a sequence of short write steps on the writer connection with a pause between them, so
+ * app writes interleave. ANALYZE samples at most {@link #ANALYSIS_LIMIT} rows per index, and
+ * each vacuum step frees only as many pages as fit in {@code -Dartflow.maintenance.stepMs} (default 5)
+ * at the last measured rate. The scheduler starts a run only when the user has not touched
+ * the app for {@code -Dartflow.maintenance.idleSeconds} (default 60), and a run stops between steps as
+ * soon as they do. Each run records file size, free pages and a few probe queries' latency before and
+ * after; see {@link #getReports()}.
+ * <p>
+ * Incremental vacuum needs {@code auto_vacuum=INCREMENTAL}. New databases get it from
+ * {@link SchemaMigrations}; on an older file runs skip the vacuum until it is converted with
+ * {@link #convertToIncrementalVacuum}. That is one full VACUUM holding the write lock throughout, so it
+ * is never part of a run: it happens only when asked for, e.g. at exit with
+ * {@code -Dartflow.maintenance.convertOnExit=true}.
+ */
+public final class DatabaseMaintenance implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(DatabaseMaintenance.class.getName());
+
+    /** Rows ANALYZE samples per index: enough for the planner, and keeps each table to a few ms. */
+    static final int ANALYSIS_LIMIT = 400;
+    private static final long PAUSE_BETWEEN_STEPS_MS = 20;
+    private static final int MAX_PAGES_PER_STEP = 4096;
+    private static final int PRUNE_ROWS_PER_STEP = 2000;
+    private static final int PROBE_RUNS = 5;
+    private static final int REPORTS_KEPT = 20;
+    private static final long FIRST_RUN_DELAY_MINUTES = 5;
+    private static final long CHECK_EVERY_SECONDS = 30;
+
+    // the queries whose latency a run reports: the order and catalog screens' common reads
+    private static final String[][] PROBES = {
+            { "pending orders", "SELECT id, ordered_on FROM orders WHERE status = 'pending' ORDER BY ordered_on DESC LIMIT 50" },
+            { "artist orders", "SELECT id FROM orders WHERE artist_id = (SELECT MIN(id) FROM users WHERE user_type = 'artist') ORDER BY ordered_on DESC LIMIT 50" },
+            { "catalog by category", "SELECT id FROM artworks WHERE category = 'Digital Art' ORDER BY title LIMIT 100" },
+            { "catalog by price", "SELECT id FROM artworks WHERE price_cents BETWEEN 1000 AND 5000 ORDER BY price_cents LIMIT 100" },
+    };
+
+    private static volatile long lastInputNanos = System.nanoTime();
+
+    /** What one run did and how the file and the probe queries changed. */
+    public static final class Report {
+        private final long bytesBefore;
+        private final long bytesAfter;
+        private final long freePagesBefore;
+        private final long freePagesAfter;
+        private final double[] probeMsBefore;
+        private final double[] probeMsAfter;
+        private final int analyzed;
+        private final long changesPruned;
+        private final long pagesVacuumed;
+        private final int steps;
+        private final double longestStepMs;
+        private final long elapsedMs;
+        private final boolean finished;
+
+        Report(long bytesBefore, long bytesAfter, long freePagesBefore, long freePagesAfter, double[] probeMsBefore, double[] probeMsAfter,
+               int analyzed, long changesPruned, long pagesVacuumed, int steps, double longestStepMs, long elapsedMs, boolean finished) {
+            this.bytesBefore = bytesBefore;
+            this.bytesAfter = bytesAfter;
+            this.freePagesBefore = freePagesBefore;
+            this.freePagesAfter = freePagesAfter;
+            this.probeMsBefore = probeMsBefore;
+            this.probeMsAfter = probeMsAfter;
+            this.analyzed = analyzed;
+            this.changesPruned = changesPruned;
+            this.pagesVacuumed = pagesVacuumed;
+            this.steps = steps;
+            this.longestStepMs = longestStepMs;
+            this.elapsedMs = elapsedMs;
+            this.finished = finished;
+        }
+
+        public long getBytesBefore() { return bytesBefore; }
+        public long getBytesAfter() { return bytesAfter; }
+        public long getFreePagesBefore() { return freePagesBefore; }
+        public long getFreePagesAfter() { return freePagesAfter; }
+        /** Median latency of each probe query, in probe order; NaN where the probe failed. */
+        public double[] getProbeMsBefore() { return probeMsBefore.clone(); }
+        public double[] getProbeMsAfter() { return probeMsAfter.clone(); }
+        /** Indexes, and tables without one, whose statistics were refreshed. */
+        public int getAnalyzed() { return analyzed; }
+        /** Change log rows deleted for being older than the retention period. */
+        public long getChangesPruned() { return changesPruned; }
+        public long getPagesVacuumed() { return pagesVacuumed; }
+        public int getSteps() { return steps; }
+        /** Longest write step, i.e. the longest the run held the writer. */
+        public double getLongestStepMs() { return longestStepMs; }
+        public long getElapsedMs() { return elapsedMs; }
+        /** False if the run stopped early because the user came back. */
+        public boolean isFinished() { return finished; }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(256);
+            sb.append(String.format("%.1f MB -> %.1f MB, free pages %,d -> %,d; analyzed %d indexes and tables, pruned %,d changes, vacuumed %,d pages in %d steps (longest %.2f ms), %d ms%s",
+                    bytesBefore / 1e6, bytesAfter / 1e6, freePagesBefore, freePagesAfter, analyzed, changesPruned, pagesVacuumed, steps,
+                    longestStepMs, elapsedMs, finished ? "" : ", stopped early"));
+            for (int i = 0; i < PROBES.length; i++) {
+                sb.append(String.format("; %s %.2f -> %.2f ms", PROBES[i][0], probeMsBefore[i], probeMsAfter[i]));
+            }
+            return sb.toString();
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final Object runLock = new Object();
+    private final Deque<Report> reports = new ArrayDeque<>();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduled;
+    private volatile long nextDueNanos;
+
+    DatabaseMaintenance(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Note user input in every app window, so scheduled runs wait for the user to go idle. Call once
+     * on the FX thread; windows opened later are covered too.
+     */
+    public static void watchUserInput() {
+        EventHandler<InputEvent> touch = e -> lastInputNanos = System.nanoTime();
+        for (Window w : Window.getWindows()) w.addEventFilter(InputEvent.ANY, touch);
+        Window.getWindows().addListener((ListChangeListener<Window>) change -> {
+            while (change.next()) {
+                for (Window w : change.getAddedSubList()) w.addEventFilter(InputEvent.ANY, touch);
+            }
+        });
+    }
+
+    /** Milliseconds since the last user input in any window. */
+    static long idleMs() {
+        return (System.nanoTime() - lastInputNanos) / 1_000_000;
+    }
+
+    /** Recent runs, oldest first. */
+    public List<Report> getReports() {
+        synchronized (reports) {
+            return new ArrayList<>(reports);
+        }
+    }
+
+    /** Run all jobs now, idle or not; still in short steps. */
+    public Report runNow() throws SQLException {
+        return run(() -> true);
+    }
+
+    /** Run the jobs in steps while {@code keepGoing} says so, checked between steps. */
+    Report run(BooleanSupplier keepGoing) throws SQLException {
+        synchronized (runLock) {
+            long stepTargetNanos = Long.getLong("artflow.maintenance.stepMs", 5) * 1_000_000L;
+            long t0 = System.nanoTime();
+            long[] before = fileStats();
+            double[] probesBefore = probe();
+            Steps steps = new Steps();
+            boolean finished = true;
+
+            // pruned first, so the pages the old changes held are vacuumed in this same run
+            long pruned = 0;
+            long keepMs = TimeUnit.DAYS.toMillis(Long.getLong("artflow.changes.retentionDays", 7));
+            long beforeMs = System.currentTimeMillis() - keepMs;
+            while (finished) {
+                if (!keepGoing.getAsBoolean()) { finished = false; break; }
+                int[] deleted = new int[1];
+                steps.write(c -> {
+                    PreparedStatement ps = pool.statements(c).prepare(DatabaseHelper.PRUNE_CHANGES_SQL);
+                    ps.setLong(1, beforeMs);
+                    ps.setInt(2, PRUNE_ROWS_PER_STEP);
+                    deleted[0] = ps.executeUpdate();
+                    return null;
+                });
+                pruned += deleted[0];
+                if (deleted[0] < PRUNE_ROWS_PER_STEP) break;
+            }
+
+            int analyzed = 0;
+            for (String target : analyzeTargets()) {
+                if (!keepGoing.getAsBoolean()) { finished = false; break; }
+                steps.write(c -> {
+                    try (Statement st = pool.createStatement(c)) {
+                        st.execute("PRAGMA analysis_limit = " + ANALYSIS_LIMIT);
+                        st.execute("ANALYZE \"" + target.replace("\"", "\"\"") + "\"");
+                    }
+                    return null;
+                });
+                analyzed++;
+            }
+            if (finished && keepGoing.getAsBoolean()) {
+                steps.write(c -> {
+                    try (Statement st = pool.createStatement(c)) {
+                        st.execute("PRAGMA optimize");
+                    }
+                    return null;
+                });
+            }
+
+            long vacuumed = 0;
+            // incremental_vacuum does nothing on a file that is not auto_vacuum=INCREMENTAL (2)
+            if (autoVacuumMode() == 2) {
+                // sized from the last step's rate, so each step frees about as many pages as fit in the target time
+                int pages = 64;
+                long free = pragma("freelist_count");
+                while (free > 0 && finished) {
+                    if (!keepGoing.getAsBoolean()) { finished = false; break; }
+                    int n = (int) Math.min(pages, free);
+                    long took = steps.write(c -> {
+                        // each execution steps the pragma once, and each step frees one page
+                        try (PreparedStatement ps = c.prepareStatement("PRAGMA incremental_vacuum")) {
+                            for (int i = 0; i < n; i++) ps.execute();
+                        }
+                        return null;
+                    });
+                    vacuumed += n;
+                    free -= n;
+                    // grow at most twofold per step: page moves cost more as the step reaches busier parts of the file
+                    long perPage = Math.max(1, took / n);
+                    pages = (int) Math.max(1, Math.min(Math.min(MAX_PAGES_PER_STEP, 2L * n), stepTargetNanos / perPage));
+                }
+            }
+
+            long[] after = fileStats();
+            double[] probesAfter = probe();
+            Report r = new Report(before[0] * before[1], after[0] * after[1], before[2], after[2], probesBefore, probesAfter,
+                    analyzed, pruned, vacuumed, steps.count, steps.longestNanos / 1e6, (System.nanoTime() - t0) / 1_000_000, finished);
+            synchronized (reports) {
+                reports.addLast(r);
+                while (reports.size() > REPORTS_KEPT) reports.removeFirst();
+            }
+            LOGGER.log(Level.INFO, "Database maintenance: {0}", r);
+            return r;
+        }
+    }
+
+    /**
+     * Switch a file created before incremental vacuum to {@code auto_vacuum=INCREMENTAL}, so later runs
+     * can free its pages a few at a time. This is a full VACUUM: it rewrites the whole file and holds the
+     * write lock until done (seconds on a large file), so call it only where nobody is waiting on
+     * writes, such as at exit. Returns false if the file already was incremental.
+     */
+    public boolean convertToIncrementalVacuum() throws SQLException {
+        synchronized (runLock) {
+            if (autoVacuumMode() == 2) return false;
+            long t0 = System.nanoTime();
+            pool.write(c -> {
+                try (Statement st = pool.createStatement(c)) {
+                    st.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                    st.execute("VACUUM");
+                }
+                return null;
+            });
+            LOGGER.log(Level.INFO, "Converted the database to incremental vacuum ({0} ms)", (System.nanoTime() - t0) / 1_000_000);
+            return true;
+        }
+    }
+
+    /** {@link #convertToIncrementalVacuum} if -Dartflow.maintenance.convertOnExit is true (default false); for app exit. */
+    public void convertOnExitFromSettings() {
+        if (!Boolean.getBoolean("artflow.maintenance.convertOnExit")) return;
+        try {
+            convertToIncrementalVacuum();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Converting the database to incremental vacuum failed", e);
+        }
+    }
+
+    // times write steps and pauses after each so app writes get the lock in between
+    private final class Steps {
+        int count;
+        long longestNanos;
+
+        long write(ConnectionPool.SqlWork<Void> work) throws SQLException {
+            long t0 = System.nanoTime();
+            pool.write(work);
+            long took = System.nanoTime() - t0;
+            count++;
+            longestNanos = Math.max(longestNanos, took);
+            LOGGER.log(Level.FINE, "Maintenance step {0}: {1} us", new Object[] { count, took / 1000 });
+            try {
+                Thread.sleep(PAUSE_BETWEEN_STEPS_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Maintenance interrupted", e);
+            }
+            return took;
+        }
+    }
+
+    // one ANALYZE step per index, and per table that has none (its row count is still worth having)
+    private List<String> analyzeTargets() throws SQLException {
+        return pool.read(c -> {
+            List<String> names = new ArrayList<>();
+            try (Statement st = pool.createStatement(c);
+                 ResultSet rs = st.executeQuery("SELECT COALESCE(i.name, t.name) FROM sqlite_master t"
+                         + " LEFT JOIN sqlite_master i ON i.type = 'index' AND i.tbl_name = t.name"
+                         + " WHERE t.type = 'table' AND t.name NOT LIKE 'sqlite_%' AND t.sql NOT LIKE 'CREATE VIRTUAL%'"
+                         + " ORDER BY t.name, i.name")) {
+                while (rs.next()) names.add(rs.getString(1));
+            }
+            return names;
+        });
+    }
+
+    private long pragma(String name) throws SQLException {
+        return pool.read(c -> {
+            try (Statement st = pool.createStatement(c); ResultSet rs = st.executeQuery("PRAGMA " + name)) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        });
+    }
+
+    // on the writer: a reader connection can keep reporting the mode it saw before a conversion
+    private long autoVacuumMode() throws SQLException {
+        return pool.write(c -> {
+            try (Statement st = pool.createStatement(c); ResultSet rs = st.executeQuery("PRAGMA auto_vacuum")) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        });
+    }
+
+    // page_count, page_size, freelist_count
+    private long[] fileStats() throws SQLException {
+        return new long[] { pragma("page_count"), pragma("page_size"), pragma("freelist_count") };
+    }
+
+    // median of a few runs per probe; a probe that fails (e.g. a table not there yet) reports NaN
+    private double[] probe() {
+        double[] medians = new double[PROBES.length];
+        for (int i = 0; i < PROBES.length; i++) {
+            String sql = PROBES[i][1];
+            try {
+                double[] runs = new double[PROBE_RUNS];
+                for (int k = 0; k < PROBE_RUNS; k++) {
+                    runs[k] = pool.read(c -> {
+                        long t0 = System.nanoTime();
+                        try (PreparedStatement ps = c.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) { /* read every row */ }
+                        }
+                        return (System.nanoTime() - t0) / 1e6;
+                    });
+                }
+                Arrays.sort(runs);
+                medians[i] = runs[PROBE_RUNS / 2];
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Maintenance probe " + PROBES[i][0] + " failed", e);
+                medians[i] = Double.NaN;
+            }
+        }
+        return medians;
+    }
+
+    /**
+     * Check every half minute and run when a run is due ({@code intervalMinutes} after the last, the
+     * first a few minutes after startup) and the user has been idle {@code idleSeconds}. 0 minutes stops it.
+     */
+    public synchronized void schedule(long intervalMinutes, long idleSeconds) {
+        if (scheduled != null) scheduled.cancel(false);
+        scheduled = null;
+        if (intervalMinutes <= 0) return;
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-maintenance");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+        }
+        long idleMs = idleSeconds * 1000;
+        long intervalNanos = TimeUnit.MINUTES.toNanos(intervalMinutes);
+        nextDueNanos = System.nanoTime() + TimeUnit.MINUTES.toNanos(Math.min(FIRST_RUN_DELAY_MINUTES, intervalMinutes));
+        scheduled = scheduler.scheduleWithFixedDelay(() -> {
+            if (System.nanoTime() - nextDueNanos < 0 || idleMs() < idleMs) return;
+            try {
+                Report r = run(() -> idleMs() >= idleMs);
+                // a run cut short by the user is picked up again at the next idle spell
+                if (r.isFinished()) nextDueNanos = System.nanoTime() + intervalNanos;
+            } catch (SQLException | RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) return; // shutting down
+                nextDueNanos = System.nanoTime() + intervalNanos;
+                LOGGER.log(Level.WARNING, "Database maintenance failed", e);
+            }
+        }, CHECK_EVERY_SECONDS, CHECK_EVERY_SECONDS, TimeUnit.SECONDS);
+        LOGGER.log(Level.FINE, "Database maintenance every {0} min when idle {1} s", new Object[] { intervalMinutes, idleSeconds });
+    }
+
+    /** {@link #schedule} with -Dartflow.maintenance.intervalMinutes (default 360) and .idleSeconds (default 60). */
+    public void scheduleFromSettings() {
+        schedule(Long.getLong("artflow.maintenance.intervalMinutes", 360), Long.getLong("artflow.maintenance.idleSeconds", 60));
+    }
+
+    /** Stop scheduling, waiting up to {@code timeoutMs} for a run in progress to reach the end of a step. */
+    public synchronized void close(long timeoutMs) {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(2000);
+    }
+}
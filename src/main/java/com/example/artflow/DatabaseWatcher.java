@@ -0,0 +1,172 @@
+package com.example.artflow;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Notices commits to the database file from any connection: another ArtFlow instance sharing the
+ * file, or this process's own writer. Listeners are handed the new change log rows
+ * ({@link DatabaseHelper#changesSince}), so caches such as {@link ArtworkStore} re-read only the rows
+ * that changed instead of reloading.
+ * <p>
+ * A poll is one {@code PRAGMA data_version} on a dedicated read-only connection. The value moves only
+ * when some other connection has committed, so an idle poll reads no table at all. The change log
+ * is read when it moves, from the cursor where the last read stopped; that cursor starts at the log
+ * position when the database was opened, so nothing committed between loading a cache and starting
+ * the watcher is missed.
+ */
+public final class DatabaseWatcher implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(DatabaseWatcher.class.getName());
+
+    /** Told about new changes, oldest first, on the watcher thread. */
+    public interface Listener {
+        /**
+         * {@code changes} may be {@link ChangeSet#isTruncated() truncated} when the watcher fell behind
+         * the change log's retention; a listener then reloads what it caches.
+         */
+        void onChanges(ChangeSet changes);
+    }
+
+    private static final int CHANGES_PER_READ = 1000;
+
+    private final DatabaseHelper db;
+    private final ConnectionPool pool;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile long cursor;
+    // the poll connection and last data_version; touched only inside poll()
+    private Connection connection;
+    private long dataVersion = -1;
+    private volatile long polls;
+    private volatile long wakeups;
+    private volatile long delivered;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduled;
+
+    DatabaseWatcher(DatabaseHelper db, ConnectionPool pool) {
+        this.db = db;
+        this.pool = pool;
+        this.cursor = db.latestChangeSeq();
+    }
+
+    public void addListener(Listener l) {
+        if (l != null) listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        if (l != null) listeners.remove(l);
+    }
+
+    /** Change log position up to which listeners have been told. */
+    public long getCursor() { return cursor; }
+
+    public long getPollCount() { return polls; }
+
+    /** Polls that found data_version moved and read the change log. */
+    public long getWakeupCount() { return wakeups; }
+
+    public long getDeliveredCount() { return delivered; }
+
+    /**
+     * Check data_version once and, if it moved, hand every change after the cursor to the listeners.
+     * Returns the number of changes delivered.
+     */
+    synchronized int poll() throws SQLException {
+        if (connection == null) connection = pool.openReader();
+        long version;
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery("PRAGMA data_version")) {
+            version = rs.next() ? rs.getLong(1) : 0L;
+        }
+        polls++;
+        if (version == dataVersion) return 0;
+        dataVersion = version;
+        wakeups++;
+        int n = 0;
+        ChangeSet changes;
+        do {
+            changes = db.changesSince(cursor, CHANGES_PER_READ);
+            // a commit that touched neither artworks nor orders (users, the log pruning itself)
+            if (changes.isEmpty()) break;
+            for (Listener l : listeners) {
+                try {
+                    l.onChanges(changes);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Change listener failed", e);
+                }
+            }
+            cursor = changes.getCursor();
+            n += changes.getChanges().size();
+        } while (changes.hasMore());
+        delivered += n;
+        if (n > 0) LOGGER.log(Level.FINE, "Delivered {0} changes, cursor now {1}", new Object[] { n, cursor });
+        return n;
+    }
+
+    /** Poll every {@code intervalMs}; 0 stops polling. */
+    public synchronized void start(long intervalMs) {
+        if (scheduled != null) scheduled.cancel(false);
+        scheduled = null;
+        if (intervalMs <= 0) return;
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-watcher");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        scheduled = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (SQLException | RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) return; // shutting down
+                LOGGER.log(Level.WARNING, "Database watcher poll failed", e);
+                closeConnection();
+            }
+        }, 0, intervalMs, TimeUnit.MILLISECONDS);
+        LOGGER.log(Level.FINE, "Watching the database for changes every {0} ms", intervalMs);
+    }
+
+    /** {@link #start} with -Dartflow.watch.intervalMs (default 1000). */
+    public void startFromSettings() {
+        start(Long.getLong("artflow.watch.intervalMs", 1000));
+    }
+
+    // a fresh connection on the next poll; data_version is only comparable on the same connection
+    private synchronized void closeConnection() {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing watcher connection", e);
+        }
+        connection = null;
+        dataVersion = -1;
+    }
+
+    /** Stop polling, waiting up to {@code timeoutMs} for a poll in progress, and close the poll connection. */
+    public void close(long timeoutMs) {
+        synchronized (this) {
+            if (scheduler != null) scheduler.shutdownNow();
+        }
+        try {
+            if (scheduler != null) scheduler.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeConnection();
+    }
+
+    @Override
+    public void close() {
+        close(2000);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.artflow;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared executor for database work kept off the JavaFX Application Thread. One virtual thread per
+ * task: blocking on a pooled connection is cheap, and {@link ConnectionPool} already bounds how many
+ * tasks actually touch SQLite at once.
+ */
+public final class DbExecutor {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private DbExecutor() {}
+
+    /**
+     * Run {@code work} on a virtual thread. Cancelling the returned future interrupts the task if it
+     * is still waiting (e.g. for a reader connection).
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> work) {
+        TaskFuture<T> result = new TaskFuture<>();
+        result.task = EXECUTOR.submit(() -> {
+            if (result.isDone()) return;
+            try {
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    public static CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stop accepting work and wait up to {@code timeoutMs} for submitted tasks (e.g. artwork saves)
+     * to finish. Returns false if some were still running.
+     */
+    public static boolean shutdown(long timeoutMs) {
+        EXECUTOR.shutdown();
+        try {
+            return EXECUTOR.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class TaskFuture<T> extends CompletableFuture<T> {
+        private volatile Future<?> task;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> t = task;
+            if (cancelled && t != null) t.cancel(true);
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.artflow;
+
+import javafx.application.Platform;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.stage.Window;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers background results to a screen on the FX thread. Bound to one node of the screen: once
+ * that node's scene is taken off its window (the app navigates with {@code stage.setScene}), every
+ * pending {@link #handle} task (a read for the screen) is cancelled and late results are dropped
+ * instead of touching a dead screen. Writes go through {@link #deliver}: they always run to the end,
+ * and leaving the screen only skips their callbacks.
+ *
+ * Create one per controller, from the FX thread, e.g. in {@code initialize()}.
+ */
+public class FxAsync {
+    private static final Logger LOGGER = Logger.getLogger(FxAsync.class.getName());
+
+    // touched only on the FX thread
+    private final Set<CompletableFuture<?>> pending = new HashSet<>();
+    private boolean shown = false;
+    private boolean left = false;
+
+    private FxAsync(Node owner) {
+        ObservableValue<Window> window = owner.sceneProperty().flatMap(s -> s.windowProperty());
+        window.addListener((obs, oldW, newW) -> onWindowChanged(newW));
+        onWindowChanged(window.getValue());
+    }
+
+    public static FxAsync forNode(Node owner) {
+        return new FxAsync(owner);
+    }
+
+    private void onWindowChanged(Window w) {
+        if (w != null) {
+            shown = true;
+        } else if (shown) {
+            left = true;
+            cancelAll();
+        }
+    }
+
+    /** True once the screen has been navigated away from; further results are ignored. */
+    public boolean isLeft() {
+        return left;
+    }
+
+    /**
+     * Run {@code onSuccess} or {@code onError} on the FX thread when {@code work} completes, unless the
+     * screen was left first. Errors with no handler are logged.
+     */
+    public <T> CompletableFuture<T> handle(CompletableFuture<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        if (left) {
+            work.cancel(true);
+            return work;
+        }
+        pending.add(work);
+        whenDone(work, onSuccess, onError);
+        return work;
+    }
+
+    public <T> CompletableFuture<T> handle(CompletableFuture<T> work, Consumer<? super T> onSuccess) {
+        return handle(work, onSuccess, null);
+    }
+
+    /**
+     * Like {@link #handle}, for work that must not be lost with the screen, such as placing an order or
+     * changing its status: {@code work} is never cancelled here, and once the screen is left it still
+     * runs to the end; only {@code onSuccess} / {@code onError} are skipped (a failure is then logged).
+     */
+    public <T> CompletableFuture<T> deliver(CompletableFuture<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        whenDone(work, onSuccess, onError);
+        return work;
+    }
+
+    private <T> void whenDone(CompletableFuture<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        work.whenComplete((value, error) -> Platform.runLater(() -> {
+            pending.remove(work);
+            if (work.isCancelled()) return;
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CancellationException) return;
+            if (left) {
+                if (cause != null) LOGGER.log(Level.WARNING, "Background task failed after its screen was closed", cause);
+                return;
+            }
+            if (cause == null) {
+                if (onSuccess != null) onSuccess.accept(value);
+            } else if (onError != null) {
+                onError.accept(cause);
+            } else {
+                LOGGER.log(Level.SEVERE, "Background task failed", cause);
+            }
+        }));
+    }
+
+    /** Cancel every {@link #handle} task still running for this screen; {@link #deliver} work is left to finish. */
+    public void cancelAll() {
+        for (CompletableFuture<?> f : new HashSet<>(pending)) f.cancel(true);
+        pending.clear();
+    }
+}
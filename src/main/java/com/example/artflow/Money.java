@@ -0,0 +1,38 @@
+package com.example.artflow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices and order totals are whole cents in a {@code long} (artworks.price_cents,
+ * orders.amount_cents). Text is parsed once, where the user types it; everything after that is
+ * integer arithmetic, and {@link #format} turns cents back into text for labels.
+ */
+public final class Money {
+
+    private Money() {}
+
+    /**
+     * Parse a price as typed, e.g. "120", "120.5", "$1,200.00", into cents. More than two decimals
+     * round half-up. Throws IllegalArgumentException for blank, negative or non-numeric text.
+     */
+    public static long parseCents(String text) {
+        if (text == null || text.isBlank()) throw new IllegalArgumentException("Price is empty");
+        String cleaned = text.trim().replace(",", "");
+        if (cleaned.startsWith("$")) cleaned = cleaned.substring(1).trim();
+        try {
+            BigDecimal value = new BigDecimal(cleaned);
+            if (value.signum() < 0) throw new IllegalArgumentException("Price cannot be negative: " + text);
+            return value.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Not a price: " + text, e);
+        }
+    }
+
+    /** Cents as plain decimal text with two places ("1200.00"), without a currency sign. */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + (abs / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.artflow;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hot/cold storage for orders. Orders in a terminal status (completed, rejected) placed more than
+ * {@code -Dartflow.archive.afterDays} (default 180) days ago are moved out of {@code orders} into the
+ * same table in a second file ({@code -Dartflow.archive.file}, default {@code <db>-archive.db} next to
+ * the database), attached to every pooled connection as {@code archive}. The live table keeps the
+ * pending orders and recent history, so the screens that read it stay on small indexes.
+ * <p>
+ * A run moves the oldest eligible orders in batches, one transaction each on the writer connection,
+ * and pauses between batches so app writes interleave. Batches are sized by time: each is measured and
+ * the next holds only as many orders as fit in {@code -Dartflow.archive.batchMs} (default 5) at the last
+ * batch's rate, at most {@code -Dartflow.archive.batchSize} (default 1000). Each batch copies the rows (a row
+ * already in the archive is left as it is, so a batch repeated after a crash does no harm), adds their
+ * counts back into artist_stats ahead of the delete trigger that takes them out, and deletes them from
+ * the live table: dashboard totals keep counting archived orders. The copy is committed first and the
+ * delete after it, both while the batch holds the writer, so if the app dies in between an order is in
+ * both files (and counted once) until the next run deletes the live copy; it is never in neither.
+ * <p>
+ * {@link DatabaseHelper#listOrdersPage} merges archived orders into a history query's sort order, so
+ * history screens reach them by scrolling as if they had never moved; queries for a non-terminal
+ * status never touch the archive. The archive file is not part of {@link DatabaseBackup}'s snapshots.
+ */
+public final class OrderArchive implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(OrderArchive.class.getName());
+
+    /** Schema name the archive file is attached under. */
+    static final String SCHEMA = "archive";
+    static final List<String> TERMINAL_STATUSES = List.of("completed", "rejected");
+    private static final long PAUSE_BETWEEN_BATCHES_MS = 20;
+    private static final int FIRST_BATCH_SIZE = 64;
+    private static final long FIRST_RUN_DELAY_MINUTES = 2;
+
+    private static final String COLUMNS =
+            "id, customer_name, artist_name, art_title, quantity, amount_cents, ordered_on, status, customer_id, artist_id, artwork_id";
+    private static final String IN_BATCH = "id IN (SELECT id FROM temp.archive_batch)";
+    // oldest first: one idx_orders_status_date range per status, merged on ordered_on, so the
+    // LIMIT stops both scans without sorting (checked by OrderArchiveTest)
+    static final String PICK_SQL =
+            "INSERT INTO temp.archive_batch(id) SELECT id FROM (" +
+            "SELECT id, ordered_on FROM main.orders WHERE status = 'completed' AND ordered_on < ?1 " +
+            "UNION ALL SELECT id, ordered_on FROM main.orders WHERE status = 'rejected' AND ordered_on < ?1 " +
+            "ORDER BY ordered_on LIMIT ?2)";
+    private static final String COPY_SQL =
+            "INSERT INTO archive.orders(" + COLUMNS + ", archived_at) " +
+            "SELECT " + COLUMNS + ", CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER) FROM main.orders " +
+            "WHERE " + IN_BATCH + " ON CONFLICT(id) DO NOTHING";
+    // the order delete trigger subtracts these again, so the totals keep including archived orders
+    private static final String KEEP_STATS_SQL =
+            "UPDATE artist_stats SET order_count = order_count + b.n, completed_count = completed_count + b.completed, " +
+            "rejected_count = rejected_count + b.rejected, completed_earnings_cents = completed_earnings_cents + b.earnings " +
+            "FROM (SELECT COALESCE(artist_name, '') COLLATE NOCASE AS artist, COUNT(*) AS n, SUM(status = 'completed') AS completed, " +
+            "SUM(status = 'rejected') AS rejected, SUM(CASE WHEN status = 'completed' THEN amount_cents ELSE 0 END) AS earnings " +
+            "FROM main.orders WHERE " + IN_BATCH + " GROUP BY 1) AS b " +
+            "WHERE artist_stats.artist_name = b.artist";
+    private static final String DELETE_SQL = "DELETE FROM main.orders WHERE " + IN_BATCH;
+    // ?1 = -1 or +1 times one artist's (?2, users.id) archived orders, per stored name; an order still
+    // in the live table as well is counted through its live copy, so it is left out
+    static final String ARTIST_ARCHIVED_STATS_SQL =
+            "UPDATE artist_stats SET order_count = order_count + ?1 * b.n, pending_count = pending_count + ?1 * b.pending, " +
+            "completed_count = completed_count + ?1 * b.completed, rejected_count = rejected_count + ?1 * b.rejected, " +
+            "completed_earnings_cents = completed_earnings_cents + ?1 * b.earnings " +
+            "FROM (SELECT COALESCE(artist_name, '') COLLATE NOCASE AS artist, COUNT(*) AS n, SUM(status = 'pending') AS pending, " +
+            "SUM(status = 'completed') AS completed, SUM(status = 'rejected') AS rejected, " +
+            "SUM(CASE WHEN status = 'completed' THEN amount_cents ELSE 0 END) AS earnings " +
+            "FROM archive.orders a WHERE artist_id = ?2 AND NOT EXISTS (SELECT 1 FROM main.orders m WHERE m.id = a.id) GROUP BY 1) AS b " +
+            "WHERE artist_stats.artist_name = b.artist";
+
+    /** One archiving run. */
+    public static final class Result {
+        private final String cutoff;
+        private final long moved;
+        private final int batches;
+        private final double longestBatchMs;
+        private final long elapsedMs;
+
+        Result(String cutoff, long moved, int batches, double longestBatchMs, long elapsedMs) {
+            this.cutoff = cutoff;
+            this.moved = moved;
+            this.batches = batches;
+            this.longestBatchMs = longestBatchMs;
+            this.elapsedMs = elapsedMs;
+        }
+
+        /** Orders placed before this ordered_on value were eligible. */
+        public String getCutoff() { return cutoff; }
+        public long getMoved() { return moved; }
+        public int getBatches() { return batches; }
+        /** Longest single batch transaction, i.e. the longest the writer was held. */
+        public double getLongestBatchMs() { return longestBatchMs; }
+        public long getElapsedMs() { return elapsedMs; }
+
+        @Override
+        public String toString() {
+            return String.format("moved %,d orders placed before %s in %d batches (longest %.1f ms), %d ms",
+                    moved, cutoff, batches, longestBatchMs, elapsedMs);
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final Path file;
+    private final Object runLock = new Object();
+    private volatile boolean attached;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduled;
+
+    OrderArchive(ConnectionPool pool, Path file) {
+        this.pool = pool;
+        this.file = file;
+    }
+
+    public Path getFile() { return file; }
+
+    /** True once the archive file is attached and order queries page on into it. */
+    public boolean isAttached() { return attached; }
+
+    /** True when orders with this status (null: any status) can be in the archive. */
+    static boolean mayHold(String status) {
+        return status == null || TERMINAL_STATUSES.contains(status.toLowerCase());
+    }
+
+    /** Attach the archive file, creating it and its table on first use; later calls do nothing. */
+    public void open() throws SQLException {
+        if (attached) return;
+        synchronized (this) {
+            if (!attached) attach();
+        }
+    }
+
+    private void attach() throws SQLException {
+        pool.attach(SCHEMA, file.toAbsolutePath().toString(), c -> {
+            try (Statement st = pool.createStatement(c)) {
+                st.execute("PRAGMA archive.journal_mode = WAL");
+                st.execute("CREATE TABLE IF NOT EXISTS archive.orders (" +
+                        "id TEXT PRIMARY KEY, " +
+                        "customer_name TEXT, " +
+                        "artist_name TEXT, " +
+                        "art_title TEXT, " +
+                        "quantity INTEGER, " +
+                        "amount_cents INTEGER NOT NULL DEFAULT 0, " +
+                        "ordered_on TEXT, " +
+                        "status TEXT, " +
+                        "customer_id INTEGER, " +
+                        "artist_id INTEGER, " +
+                        "artwork_id TEXT, " +
+                        "archived_at INTEGER NOT NULL" +
+                        ")");
+                // the live table's paging indexes, for the history queries that page on into the archive;
+                // archive.user_version 1 marks a file whose indexes already end in id
+                int version;
+                try (ResultSet rs = st.executeQuery("PRAGMA archive.user_version")) {
+                    version = rs.next() ? rs.getInt(1) : 0;
+                }
+                SchemaMigrations.createPagingIndexes(st, SCHEMA, version < 1);
+                if (version < 1) st.execute("PRAGMA archive.user_version = 1");
+                st.execute("CREATE TEMP TABLE IF NOT EXISTS archive_batch(id TEXT PRIMARY KEY)");
+            }
+            return null;
+        });
+        attached = true;
+        LOGGER.log(Level.INFO, "Order archive attached: {0}", file.toAbsolutePath());
+    }
+
+    /** Archive terminal orders placed more than {@code days} days ago. */
+    public Result archiveOlderThan(long days) throws SQLException {
+        String cutoff = LocalDateTime.now().minusDays(days).truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return archiveBefore(cutoff);
+    }
+
+    /** Archive terminal orders whose ordered_on sorts before {@code orderedBefore} (ISO date-time text). */
+    public Result archiveBefore(String orderedBefore) throws SQLException {
+        synchronized (runLock) {
+            open();
+            int maxBatch = Math.max(1, Integer.getInteger("artflow.archive.batchSize", 1000));
+            long batchTargetNanos = Math.max(1, Long.getLong("artflow.archive.batchMs", 5)) * 1_000_000L;
+            long t0 = System.nanoTime();
+            long moved = 0;
+            int batches = 0;
+            long longest = 0;
+            int batchSize = Math.min(FIRST_BATCH_SIZE, maxBatch);
+            long[] began = new long[1];
+            while (true) {
+                int size = batchSize;
+                int n = pool.write(w -> {
+                    // timed from inside, so waiting for the writer is not counted as holding it
+                    began[0] = System.nanoTime();
+                    // the copy commits before the delete: one transaction would commit main first, and
+                    // dying before the archive's commit would lose the batch. No other write comes in between
+                    int picked = pool.transaction(c -> {
+                        try (Statement st = pool.createStatement(c)) {
+                            st.execute("DELETE FROM temp.archive_batch");
+                        }
+                        PreparedStatement pick = pool.statements(c).prepare(PICK_SQL);
+                        pick.setString(1, orderedBefore);
+                        pick.setInt(2, size);
+                        int p = pick.executeUpdate();
+                        if (p > 0) pool.statements(c).prepare(COPY_SQL).executeUpdate();
+                        return p;
+                    });
+                    if (picked == 0) return 0;
+                    return pool.transaction(c -> {
+                        pool.statements(c).prepare(KEEP_STATS_SQL).executeUpdate();
+                        return pool.statements(c).prepare(DELETE_SQL).executeUpdate();
+                    });
+                });
+                if (n == 0) break;
+                long took = System.nanoTime() - began[0];
+                longest = Math.max(longest, took);
+                moved += n;
+                batches++;
+                if (n < size) break;
+                // sized from the last batch's rate, growing at most twofold: the trigger and index work per row varies
+                long perRow = Math.max(1, took / n);
+                batchSize = (int) Math.max(1, Math.min(Math.min(maxBatch, 2L * n), batchTargetNanos / perRow));
+                try {
+                    Thread.sleep(PAUSE_BETWEEN_BATCHES_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Archiving interrupted", e);
+                }
+            }
+            Result r = new Result(orderedBefore, moved, batches, longest / 1e6, (System.nanoTime() - t0) / 1_000_000);
+            LOGGER.log(moved > 0 ? Level.INFO : Level.FINE, "Order archive: {0}", r);
+            return r;
+        }
+    }
+
+    /** Archive orders older than {@code afterDays} every {@code intervalMinutes}; 0 minutes stops it. */
+    public synchronized void schedule(long intervalMinutes, long afterDays) {
+        if (scheduled != null) scheduled.cancel(false);
+        scheduled = null;
+        if (intervalMinutes <= 0 || afterDays <= 0) return;
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "order-archive");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+        }
+        scheduled = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archiveOlderThan(afterDays);
+            } catch (SQLException | RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) return; // shutting down
+                LOGGER.log(Level.WARNING, "Order archiving failed", e);
+            }
+        }, Math.min(FIRST_RUN_DELAY_MINUTES, intervalMinutes), intervalMinutes, TimeUnit.MINUTES);
+        LOGGER.log(Level.FINE, "Archiving orders older than {0} days every {1} min", new Object[] { afterDays, intervalMinutes });
+    }
+
+    /**
+     * Attach the archive when archiving is on ({@code -Dartflow.archive.afterDays}, default 180; 0 turns it
+     * off) or an archive file already exists, and schedule runs every {@code -Dartflow.archive.intervalMinutes}
+     * (default 60).
+     */
+    public void scheduleFromSettings() throws SQLException {
+        long afterDays = Long.getLong("artflow.archive.afterDays", 180);
+        if (afterDays <= 0 && !Files.exists(file)) return;
+        open();
+        schedule(Long.getLong("artflow.archive.intervalMinutes", 60), afterDays);
+    }
+
+    /** Stop scheduling, waiting up to {@code timeoutMs} for a run in progress to finish its batch. */
+    public synchronized void close(long timeoutMs) {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(2000);
+    }
+}
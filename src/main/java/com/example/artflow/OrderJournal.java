@@ -0,0 +1,596 @@
+package com.example.artflow;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Append-only journal of order events: every order created and every status change, one CSV line
+ * each, in {@code orders_log.csv} next to the database. Recording an event only queues it; a single
+ * background thread formats the queue in batches and appends them through a buffered stream, so
+ * placing an order never waits on file I/O. Events reach the OS after at most one group window
+ * (and are forced to disk on {@link #close}); a failed write is retried with backoff, never dropped.
+ *
+ * When the active file would pass {@code maxBytes} it is renamed to {@code orders_log.000001.csv},
+ * {@code .000002.csv}, ... and a new one started; only the newest {@code maxSegments} rotated files
+ * are kept. {@link #forEach} streams the journal oldest first and {@link #tail} reads the newest
+ * entries from the end, both without loading whole files. Line breaks inside names and titles are
+ * written as spaces, so every entry is exactly one line.
+ */
+public final class OrderJournal implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(OrderJournal.class.getName());
+
+    public enum Event { CREATED, STATUS }
+
+    static final String HEADER =
+            "seq,at,event,order_id,status,customer,artist,title,quantity,amount_cents,ordered_on,artwork_id";
+    private static final int COLUMNS = 12;
+    private static final long DEFAULT_MAX_MB = 64;
+    private static final int DEFAULT_MAX_SEGMENTS = 50;
+    private static final long GROUP_WINDOW_MS = 50;
+    // end the group window early once this many events are waiting
+    private static final int FLUSH_EARLY_AT = 4096;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final long INITIAL_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 5000;
+
+    private final Path file;
+    private final String baseName;
+    private final Pattern segmentName;
+    private final long maxBytes;
+    private final int maxSegments;
+    private Thread writer;
+
+    private final Object lock = new Object();
+    private ArrayList<Entry> pending = new ArrayList<>();
+    private long nextSeq;
+    private boolean inFlight = false;
+    private int flushWaiters = 0;
+    private boolean closed = false;
+
+    // touched only by the writer thread
+    private OutputStream out;
+    private long fileBytes;
+
+    // metrics: updated by the writer, read without a lock
+    private volatile long written;
+    private volatile long rotations;
+    private volatile long failedWrites;
+
+    /** Journal at {@code file}, sized by -Dartflow.orderJournal.segmentMB (64) and .segments (50). */
+    public static OrderJournal open(Path file) {
+        return open(file, Long.getLong("artflow.orderJournal.segmentMB", DEFAULT_MAX_MB) * 1024 * 1024,
+                Integer.getInteger("artflow.orderJournal.segments", DEFAULT_MAX_SEGMENTS));
+    }
+
+    /** Journal at {@code file}, continuing its sequence numbers, with its writer thread running. */
+    public static OrderJournal open(Path file, long maxBytes, int maxSegments) {
+        OrderJournal journal = new OrderJournal(file, maxBytes, maxSegments);
+        journal.startWriter();
+        return journal;
+    }
+
+    private OrderJournal(Path file, long maxBytes, int maxSegments) {
+        this.file = file.toAbsolutePath();
+        String name = this.file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.baseName = dot < 0 ? name : name.substring(0, dot);
+        String ext = dot < 0 ? "" : name.substring(dot);
+        this.segmentName = Pattern.compile(Pattern.quote(baseName) + "\\.(\\d{6})" + Pattern.quote(ext));
+        this.maxBytes = Math.max(BUFFER_BYTES, maxBytes);
+        this.maxSegments = Math.max(1, maxSegments);
+        List<Entry> last = tail(1);
+        this.nextSeq = last.isEmpty() ? 1 : last.get(0).getSeq() + 1;
+    }
+
+    private void startWriter() {
+        writer = new Thread(this::runWriter, "order-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public Path getFile() { return file; }
+
+    /** Journal a new order; call after its insert has committed. */
+    public void orderCreated(OrderModel o) {
+        if (o == null) return;
+        append(new Entry(0, 0, Event.CREATED, o.getId(), o.getStatus(), o.getCustomerName(), o.getArtistName(),
+                o.getArtTitle(), o.getQuantity(), o.getAmountCents(), o.getOrderedOn(), o.getArtworkId()));
+    }
+
+    /** Journal a status transition; call after the update has committed. */
+    public void statusChanged(String orderId, String status) {
+        if (orderId == null) return;
+        append(new Entry(0, 0, Event.STATUS, orderId, status, null, null, null, 0, 0, null, null));
+    }
+
+    private void append(Entry e) {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            if (closed) {
+                LOGGER.log(Level.WARNING, "Order journal closed; {0} event for order {1} not journaled", new Object[] { e.event, e.orderId });
+                return;
+            }
+            e.seq = nextSeq++;
+            e.atMillis = now;
+            pending.add(e);
+            if (pending.size() == 1 || pending.size() == FLUSH_EARLY_AT) lock.notifyAll();
+        }
+    }
+
+    /**
+     * Write everything queued so far and wait up to {@code timeoutMs} for it to reach the file.
+     * Returns true once nothing is pending, false on timeout.
+     */
+    public boolean flush(long timeoutMs) {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        synchronized (lock) {
+            flushWaiters++;
+            lock.notifyAll();
+            try {
+                while (!pending.isEmpty() || inFlight) {
+                    long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+                    if (remainingMs <= 0) return false;
+                    lock.wait(remainingMs);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                flushWaiters--;
+            }
+        }
+    }
+
+    /** Stop accepting events, write what is queued and close the file, waiting up to {@code timeoutMs}. */
+    public boolean close(long timeoutMs) {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        if (!flush(timeoutMs)) {
+            LOGGER.log(Level.SEVERE, "{0} order journal events could not be written before shutdown", getQueueDepth());
+            return false;
+        }
+        try {
+            writer.join(timeoutMs); // the writer forces the file to disk and closes it on the way out
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        close(5000);
+    }
+
+    private void runWriter() {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        List<Entry> batch = null;
+        while (true) {
+            if (batch == null) {
+                synchronized (lock) {
+                    try {
+                        while (pending.isEmpty()) {
+                            if (closed) {
+                                closeStream(true);
+                                return;
+                            }
+                            lock.wait();
+                        }
+                        long deadline = System.nanoTime() + GROUP_WINDOW_MS * 1_000_000L;
+                        while (!closed && flushWaiters == 0 && pending.size() < FLUSH_EARLY_AT) {
+                            long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+                            if (remainingMs <= 0) break;
+                            lock.wait(remainingMs);
+                        }
+                    } catch (InterruptedException e) {
+                        closeStream(false);
+                        return;
+                    }
+                    batch = pending;
+                    pending = new ArrayList<>();
+                    inFlight = true;
+                }
+            }
+
+            boolean ok = writeBatch(batch);
+            boolean stopping;
+            synchronized (lock) {
+                if (ok) {
+                    inFlight = false;
+                    written += batch.size();
+                    batch = null;
+                } else {
+                    failedWrites++;
+                }
+                stopping = closed;
+                lock.notifyAll();
+            }
+            if (ok) {
+                backoffMs = INITIAL_BACKOFF_MS;
+            } else {
+                // keep the batch and try again on a fresh stream; a partly written batch may repeat lines (same seq)
+                closeStream(false);
+                try {
+                    Thread.sleep(stopping ? INITIAL_BACKOFF_MS : backoffMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+        }
+    }
+
+    private boolean writeBatch(List<Entry> batch) {
+        StringBuilder sb = new StringBuilder(160);
+        try {
+            if (out == null) openStream();
+            for (Entry e : batch) {
+                sb.setLength(0);
+                e.appendCsv(sb);
+                byte[] line = sb.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+                if (fileBytes + line.length > maxBytes && fileBytes > HEADER.length() + 1) rotate();
+                out.write(line);
+                fileBytes += line.length;
+            }
+            out.flush();
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error writing " + batch.size() + " order journal events to " + file, e);
+            return false;
+        }
+    }
+
+    private void openStream() throws IOException {
+        Files.createDirectories(file.getParent());
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), BUFFER_BYTES);
+        fileBytes = Files.size(file);
+        if (fileBytes == 0) {
+            byte[] header = (HEADER + "\n").getBytes(StandardCharsets.UTF_8);
+            out.write(header);
+            fileBytes = header.length;
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeStream(false);
+        TreeMap<Integer, Path> segments = segments();
+        int next = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Path target = file.resolveSibling(String.format("%s.%06d%s", baseName, next,
+                file.getFileName().toString().substring(baseName.length())));
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        segments.put(next, target);
+        while (segments.size() > maxSegments) Files.deleteIfExists(segments.pollFirstEntry().getValue());
+        rotations++;
+        LOGGER.log(Level.INFO, "Order journal rotated to {0}", target.getFileName());
+        openStream();
+    }
+
+    private void closeStream(boolean force) {
+        if (out == null) return;
+        try {
+            out.flush();
+            if (force) {
+                try (var channel = java.nio.channels.FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                }
+            }
+            out.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error closing order journal " + file, e);
+        }
+        out = null;
+    }
+
+    /** Rotated segments by number, oldest first. */
+    private TreeMap<Integer, Path> segments() throws IOException {
+        TreeMap<Integer, Path> found = new TreeMap<>();
+        Path dir = file.getParent();
+        if (dir == null || !Files.isDirectory(dir)) return found;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, baseName + ".*")) {
+            for (Path p : files) {
+                Matcher m = segmentName.matcher(p.getFileName().toString());
+                if (m.matches()) found.put(Integer.parseInt(m.group(1)), p);
+            }
+        }
+        return found;
+    }
+
+    /** Every journal file, oldest first: the rotated segments, then the active file. */
+    private List<Path> files() throws IOException {
+        List<Path> all = new ArrayList<>(segments().values());
+        if (Files.exists(file)) all.add(file);
+        return all;
+    }
+
+    // --- reading ---
+
+    /**
+     * Stream every entry with {@code seq >= fromSeq} to {@code sink}, oldest first, one line at a
+     * time. Segments that end before {@code fromSeq} are skipped without being read. Entries still
+     * queued are not included; {@link #flush} first to see them. Returns the number of entries passed on.
+     */
+    public long forEach(long fromSeq, Consumer<Entry> sink) throws IOException {
+        List<Path> all = files();
+        long count = 0;
+        for (int i = 0; i < all.size(); i++) {
+            if (i + 1 < all.size()) {
+                Entry nextFirst = firstEntry(all.get(i + 1));
+                if (nextFirst != null && nextFirst.getSeq() <= fromSeq) continue;
+            }
+            try (LineReader in = new LineReader(all.get(i))) {
+                StringBuilder line = new StringBuilder(160);
+                while (in.next(line)) {
+                    Entry e = Entry.parse(line);
+                    if (e != null && e.getSeq() >= fromSeq) {
+                        sink.accept(e);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /** The newest {@code n} entries, oldest first, read backwards from the end of the journal. */
+    public List<Entry> tail(int n) {
+        Deque<Entry> newestFirst = new ArrayDeque<>();
+        if (n <= 0) return new ArrayList<>();
+        try {
+            List<Path> all = files();
+            for (int i = all.size() - 1; i >= 0 && newestFirst.size() < n; i--) {
+                readBackwards(all.get(i), n, newestFirst);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error reading order journal " + file, e);
+        }
+        List<Entry> out = new ArrayList<>(newestFirst);
+        Collections.reverse(out);
+        return out;
+    }
+
+    private static void readBackwards(Path p, int n, Deque<Entry> newestFirst) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(p.toFile(), "r")) {
+            long pos = raf.length();
+            byte[] block = new byte[BUFFER_BYTES];
+            // bytes of a line whose start lies in an earlier block, newest block first
+            java.io.ByteArrayOutputStream carry = new java.io.ByteArrayOutputStream();
+            boolean seenNewline = false; // anything after the last newline is a line still being written
+            while (pos > 0 && newestFirst.size() < n) {
+                int len = (int) Math.min(block.length, pos);
+                pos -= len;
+                raf.seek(pos);
+                raf.readFully(block, 0, len);
+                int end = len;
+                for (int i = len - 1; i >= 0 && newestFirst.size() < n; i--) {
+                    if (block[i] != '\n') continue;
+                    if (seenNewline) addLine(block, i + 1, end, carry, newestFirst);
+                    seenNewline = true;
+                    carry.reset();
+                    end = i;
+                }
+                byte[] rest = carry.toByteArray();
+                carry.reset();
+                carry.write(block, 0, end);
+                carry.write(rest, 0, rest.length);
+            }
+            if (pos == 0 && seenNewline && newestFirst.size() < n && carry.size() > 0) {
+                Entry e = Entry.parse(new String(carry.toByteArray(), StandardCharsets.UTF_8));
+                if (e != null) newestFirst.addLast(e);
+            }
+        }
+    }
+
+    private static void addLine(byte[] block, int from, int to, java.io.ByteArrayOutputStream carry, Deque<Entry> newestFirst) {
+        String line = new String(block, from, to - from, StandardCharsets.UTF_8);
+        if (carry.size() > 0) line += new String(carry.toByteArray(), StandardCharsets.UTF_8);
+        Entry e = Entry.parse(line);
+        if (e != null) newestFirst.addLast(e);
+    }
+
+    private static Entry firstEntry(Path p) throws IOException {
+        try (LineReader in = new LineReader(p)) {
+            StringBuilder line = new StringBuilder(160);
+            while (in.next(line)) {
+                Entry e = Entry.parse(line);
+                if (e != null) return e;
+            }
+        }
+        return null;
+    }
+
+    /** Newline-terminated lines from a file, read in 64 KB chunks. */
+    private static final class LineReader implements AutoCloseable {
+        private final java.io.Reader in;
+        private final char[] buf = new char[BUFFER_BYTES];
+        private int pos;
+        private int len;
+
+        LineReader(Path p) throws IOException {
+            in = new java.io.InputStreamReader(Files.newInputStream(p), StandardCharsets.UTF_8);
+        }
+
+        /** Next line into {@code line}; false at the end, including when the last line is still being written. */
+        boolean next(StringBuilder line) throws IOException {
+            line.setLength(0);
+            while (true) {
+                if (pos == len) {
+                    len = in.read(buf, 0, buf.length);
+                    pos = 0;
+                    if (len <= 0) {
+                        len = 0;
+                        return false;
+                    }
+                }
+                int start = pos;
+                while (pos < len && buf[pos] != '\n') pos++;
+                line.append(buf, start, pos - start);
+                if (pos < len) {
+                    pos++;
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // --- metrics ---
+
+    /** Events recorded but not yet picked up by the writer (a batch being written is not counted). */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getWrittenCount() { return written; }
+
+    public long getRotationCount() { return rotations; }
+
+    public long getFailedWriteCount() { return failedWrites; }
+
+    /** One journal line. Fields that do not apply to the event (e.g. customer on a status change) are null. */
+    public static final class Entry {
+        private long seq;
+        private long atMillis;
+        private final Event event;
+        private final String orderId;
+        private final String status;
+        private final String customer;
+        private final String artist;
+        private final String title;
+        private final int quantity;
+        private final long amountCents;
+        private final String orderedOn;
+        private final String artworkId;
+
+        Entry(long seq, long atMillis, Event event, String orderId, String status, String customer, String artist,
+              String title, int quantity, long amountCents, String orderedOn, String artworkId) {
+            this.seq = seq;
+            this.atMillis = atMillis;
+            this.event = event;
+            this.orderId = orderId;
+            this.status = status;
+            this.customer = customer;
+            this.artist = artist;
+            this.title = title;
+            this.quantity = quantity;
+            this.amountCents = amountCents;
+            this.orderedOn = orderedOn;
+            this.artworkId = artworkId;
+        }
+
+        public long getSeq() { return seq; }
+        public long getAtMillis() { return atMillis; }
+        public Event getEvent() { return event; }
+        public String getOrderId() { return orderId; }
+        public String getStatus() { return status; }
+        public String getCustomer() { return customer; }
+        public String getArtist() { return artist; }
+        public String getTitle() { return title; }
+        public int getQuantity() { return quantity; }
+        public long getAmountCents() { return amountCents; }
+        public String getOrderedOn() { return orderedOn; }
+        public String getArtworkId() { return artworkId; }
+
+        void appendCsv(StringBuilder sb) {
+            sb.append(seq).append(',').append(Instant.ofEpochMilli(atMillis)).append(',')
+              .append(event == Event.CREATED ? "created" : "status").append(',');
+            field(sb, orderId).append(',');
+            field(sb, status).append(',');
+            field(sb, customer).append(',');
+            field(sb, artist).append(',');
+            field(sb, title).append(',');
+            if (event == Event.CREATED) sb.append(quantity).append(',').append(amountCents);
+            else sb.append(',');
+            sb.append(',');
+            field(sb, orderedOn).append(',');
+            field(sb, artworkId);
+        }
+
+        private static StringBuilder field(StringBuilder sb, String value) {
+            if (value == null) return sb;
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) return sb.append(value);
+            sb.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') sb.append("\"\"");
+                else if (c == '\n' || c == '\r') sb.append(' ');
+                else sb.append(c);
+            }
+            return sb.append('"');
+        }
+
+        /** Parse one journal line; null for the header or a malformed line. */
+        static Entry parse(CharSequence line) {
+            if (line.length() == 0 || line.charAt(0) < '0' || line.charAt(0) > '9') return null;
+            List<String> f = new ArrayList<>(COLUMNS);
+            StringBuilder cur = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') cur.append(c);
+                    else if (i + 1 < line.length() && line.charAt(i + 1) == '"') { cur.append('"'); i++; }
+                    else quoted = false;
+                } else if (c == '"') {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    f.add(cur.length() == 0 && !wasQuoted ? null : cur.toString());
+                    cur.setLength(0);
+                    wasQuoted = false;
+                } else {
+                    cur.append(c);
+                }
+            }
+            f.add(cur.length() == 0 && !wasQuoted ? null : cur.toString());
+            if (f.size() != COLUMNS) return null;
+            try {
+                Event event = "created".equals(f.get(2)) ? Event.CREATED : Event.STATUS;
+                return new Entry(Long.parseLong(f.get(0)), Instant.parse(f.get(1)).toEpochMilli(), event,
+                        f.get(3), f.get(4), f.get(5), f.get(6), f.get(7),
+                        f.get(8) == null ? 0 : Integer.parseInt(f.get(8)),
+                        f.get(9) == null ? 0 : Long.parseLong(f.get(9)), f.get(10), f.get(11));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(160);
+            appendCsv(sb);
+            return sb.toString();
+        }
+    }
+}
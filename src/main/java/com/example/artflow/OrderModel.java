@@ -10,24 +10,43 @@ public class OrderModel {
     private final String artistName;
     private final String artTitle;
     private final int quantity;
-    private final double amount; // total amount
+    private final long amountCents; // total, in cents
     private final String orderedOn; // ISO string
     private final String status; // pending/completed
+    private final String artworkId; // artworks.id of the ordered piece, null if unknown
+    private final String customerEmail; // account that placed the order, null if unknown (not stored)
 
-    public OrderModel(String customerName, String artistName, String artTitle, int quantity, double amount, String status) {
-        this(UUID.randomUUID().toString(), customerName, artistName, artTitle, quantity, amount,
+    public OrderModel(String customerName, String artistName, String artTitle, int quantity, long amountCents, String status) {
+        this(UUID.randomUUID().toString(), customerName, artistName, artTitle, quantity, amountCents,
                 LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME), status);
     }
 
-    public OrderModel(String id, String customerName, String artistName, String artTitle, int quantity, double amount, String orderedOn, String status) {
+    public OrderModel(String id, String customerName, String artistName, String artTitle, int quantity, long amountCents, String orderedOn, String status) {
+        this(id, customerName, artistName, artTitle, quantity, amountCents, orderedOn, status, null, null);
+    }
+
+    private OrderModel(String id, String customerName, String artistName, String artTitle, int quantity, long amountCents, String orderedOn, String status,
+                       String artworkId, String customerEmail) {
         this.id = id == null ? UUID.randomUUID().toString() : id;
         this.customerName = customerName;
         this.artistName = artistName;
         this.artTitle = artTitle;
         this.quantity = quantity;
-        this.amount = amount;
+        this.amountCents = amountCents;
         this.orderedOn = orderedOn;
         this.status = status;
+        this.artworkId = artworkId;
+        this.customerEmail = customerEmail;
+    }
+
+    /** Copy of this order linked to a specific artwork (stored as the orders.artwork_id foreign key). */
+    public OrderModel withArtworkId(String artworkId) {
+        return new OrderModel(id, customerName, artistName, artTitle, quantity, amountCents, orderedOn, status, artworkId, customerEmail);
+    }
+
+    /** Copy of this order placed by the account with this email; used to set orders.customer_id exactly. */
+    public OrderModel withCustomerEmail(String customerEmail) {
+        return new OrderModel(id, customerName, artistName, artTitle, quantity, amountCents, orderedOn, status, artworkId, customerEmail);
     }
 
     public String getId() { return id; }
@@ -35,8 +54,12 @@ public class OrderModel {
     public String getArtistName() { return artistName; }
     public String getArtTitle() { return artTitle; }
     public int getQuantity() { return quantity; }
-    public double getAmount() { return amount; }
+    public long getAmountCents() { return amountCents; }
+    /** Total as display text, e.g. "240.00" (the order tables bind to this). */
+    public String getAmount() { return Money.format(amountCents); }
     public String getOrderedOn() { return orderedOn; }
     public String getStatus() { return status; }
+    public String getArtworkId() { return artworkId; }
+    public String getCustomerEmail() { return customerEmail; }
 }
 
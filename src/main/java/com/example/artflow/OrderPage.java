@@ -0,0 +1,111 @@
+package com.example.artflow;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated order query. The cursor remembers the sort value and id of the
+ * last row, so the next page starts right after it no matter how many rows came before.
+ */
+public class OrderPage {
+
+    /** Server-side sort orders; every sort is tie-broken by order id so the cursor is unique. */
+    public enum Sort {
+        DATE("ordered_on"),
+        AMOUNT("amount_cents"),
+        STATUS("status");
+
+        final String column;
+
+        Sort(String column) { this.column = column; }
+    }
+
+    /** Position after the last row of a page. */
+    public static final class Cursor {
+        final Object sortValue;
+        final String id;
+
+        Cursor(Object sortValue, String id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+    }
+
+    /** Immutable description of which orders to page through and in what order. */
+    public static final class Query {
+        final String artistName;
+        final String customerName;
+        final String artistEmail;
+        final String customerEmail;
+        final Long artistId;
+        final Long customerId;
+        final String status;
+        final Sort sort;
+        final boolean descending;
+
+        private Query(String artistName, String customerName, String artistEmail, String customerEmail,
+                      Long artistId, Long customerId, String status, Sort sort, boolean descending) {
+            this.artistName = artistName;
+            this.customerName = customerName;
+            this.artistEmail = artistEmail;
+            this.customerEmail = customerEmail;
+            this.artistId = artistId;
+            this.customerId = customerId;
+            this.status = status;
+            this.sort = sort == null ? Sort.DATE : sort;
+            this.descending = descending;
+        }
+
+        /** Orders for one artist (matched by display name), optionally narrowed to a status; newest first. */
+        public static Query forArtist(String artistName, String status) {
+            return new Query(artistName, null, null, null, null, null, status, Sort.DATE, true);
+        }
+
+        /** Orders placed by one customer (matched by display name); newest first. */
+        public static Query forCustomer(String customerName) {
+            return new Query(null, customerName, null, null, null, null, null, Sort.DATE, true);
+        }
+
+        /** Orders for the artist account with this email, through the artist_id key; survives renames. */
+        public static Query forArtistAccount(String email, String status) {
+            return new Query(null, null, email, null, null, null, status, Sort.DATE, true);
+        }
+
+        /** Orders for the artist with this users.id (e.g. the signed-in session's), with no users lookup at all. */
+        public static Query forArtistAccount(long artistId, String status) {
+            return new Query(null, null, null, null, artistId, null, status, Sort.DATE, true);
+        }
+
+        /** Orders placed by the customer account with this email, through the customer_id key. */
+        public static Query forCustomerAccount(String email) {
+            return new Query(null, null, null, email, null, null, null, Sort.DATE, true);
+        }
+
+        /** Orders placed by the customer with this users.id, straight off the customer_id index. */
+        public static Query forCustomerAccount(long customerId) {
+            return new Query(null, null, null, null, null, customerId, null, Sort.DATE, true);
+        }
+
+        public Query sortedBy(Sort sort, boolean descending) {
+            return new Query(artistName, customerName, artistEmail, customerEmail, artistId, customerId, status, sort, descending);
+        }
+
+        public Sort getSort() { return sort; }
+        public boolean isDescending() { return descending; }
+    }
+
+    private final List<OrderModel> items;
+    private final Cursor next;
+
+    OrderPage(List<OrderModel> items, Cursor next) {
+        this.items = Collections.unmodifiableList(items);
+        this.next = next;
+    }
+
+    public List<OrderModel> getItems() { return items; }
+
+    /** Cursor for the following page, or null when this was the last one. */
+    public Cursor getNext() { return next; }
+
+    public boolean hasMore() { return next != null; }
+}
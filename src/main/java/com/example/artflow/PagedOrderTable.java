@@ -0,0 +1,294 @@
+package com.example.artflow;
+
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lazily paged data source for an order TableView. Only the first page is loaded when the screen
+ * opens; further pages are fetched with {@link DatabaseHelper#listOrdersPage} as the user scrolls
+ * near the bottom. Column header clicks re-query the database in the new order instead of sorting
+ * the rows already loaded. {@link #refreshChanges()} brings the loaded rows up to date from the
+ * change log, re-reading only the orders that changed since the rows were loaded.
+ */
+public class PagedOrderTable {
+    private static final Logger LOGGER = Logger.getLogger(PagedOrderTable.class.getName());
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    // start fetching the next page when the scroll bar passes this fraction of its range
+    private static final double PREFETCH_AT = 0.85;
+    private static final int CHANGES_PER_READ = 500;
+
+    private final TableView<OrderModel> table;
+    private final int pageSize;
+    private final Map<TableColumn<OrderModel, ?>, OrderPage.Sort> sortColumns = new HashMap<>();
+
+    private OrderPage.Query query;
+    private OrderPage.Cursor next;
+    private boolean exhausted = false;
+    private boolean loading = false;
+    // bumped on every reload so pages of a superseded query are dropped
+    private int generation = 0;
+    private ScrollBar verticalBar;
+    private final FxAsync fx;
+    // change log position the loaded rows reflect; -1 until the first page has arrived
+    private long changeCursor = -1;
+    private boolean refreshing = false;
+    private boolean refreshAgain = false;
+
+    public static PagedOrderTable attach(TableView<OrderModel> table, OrderPage.Query query) {
+        return attach(table, query, DEFAULT_PAGE_SIZE);
+    }
+
+    /** Paging for {@code table}, with its sort policy and scroll bar hooked up; nothing is loaded until {@link #reload()}. */
+    public static PagedOrderTable attach(TableView<OrderModel> table, OrderPage.Query query, int pageSize) {
+        PagedOrderTable paged = new PagedOrderTable(table, query, pageSize);
+        paged.hookTable();
+        return paged;
+    }
+
+    private PagedOrderTable(TableView<OrderModel> table, OrderPage.Query query, int pageSize) {
+        this.table = table;
+        this.query = query;
+        this.pageSize = Math.max(1, pageSize);
+        this.fx = FxAsync.forNode(table);
+    }
+
+    private void hookTable() {
+        table.setSortPolicy(t -> {
+            applySortFromTable();
+            return true;
+        });
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> Platform.runLater(this::attachScrollBar));
+        if (table.getSkin() != null) attachScrollBar();
+    }
+
+    /**
+     * Map table columns to server-side sort orders. Columns that are not mapped are made
+     * non-sortable, since sorting only the loaded rows would be misleading.
+     */
+    public void bindSortColumns(Map<TableColumn<OrderModel, ?>, OrderPage.Sort> columns) {
+        sortColumns.clear();
+        if (columns != null) sortColumns.putAll(columns);
+        for (TableColumn<OrderModel, ?> col : table.getColumns()) {
+            col.setSortable(sortColumns.containsKey(col));
+        }
+    }
+
+    /** Standard mapping for the order screens; any of the columns may be null. */
+    public static Map<TableColumn<OrderModel, ?>, OrderPage.Sort> sortMap(TableColumn<OrderModel, ?> dateCol,
+                                                                         TableColumn<OrderModel, ?> amountCol,
+                                                                         TableColumn<OrderModel, ?> statusCol) {
+        Map<TableColumn<OrderModel, ?>, OrderPage.Sort> m = new HashMap<>();
+        if (dateCol != null) m.put(dateCol, OrderPage.Sort.DATE);
+        if (amountCol != null) m.put(amountCol, OrderPage.Sort.AMOUNT);
+        if (statusCol != null) m.put(statusCol, OrderPage.Sort.STATUS);
+        return m;
+    }
+
+    public OrderPage.Query getQuery() { return query; }
+
+    /** Switch to a different filter, keeping the current sort order. */
+    public void setFilter(OrderPage.Query filter) {
+        if (filter == null) return;
+        setQuery(query == null ? filter : filter.sortedBy(query.getSort(), query.isDescending()));
+    }
+
+    public void setQuery(OrderPage.Query query) {
+        this.query = query;
+        reload();
+    }
+
+    /** Drop everything loaded so far and fetch the first page again. */
+    public void reload() {
+        generation++;
+        fx.cancelAll();
+        next = null;
+        exhausted = false;
+        loading = false;
+        changeCursor = -1;
+        refreshing = false;
+        refreshAgain = false;
+        table.getItems().clear();
+        loadNextPage();
+    }
+
+    /**
+     * Apply the order changes made since the rows were loaded: changed rows are re-read by id and
+     * updated, moved to their new sort position, added when they now match the query (and fall
+     * within the pages already loaded), or removed when they no longer do. The cost follows the
+     * number of changes, not the number of rows shown. Falls back to {@link #reload()} when the
+     * change log has been pruned past the table's position.
+     */
+    public void refreshChanges() {
+        if (query == null) return;
+        if (refreshing || loading || changeCursor < 0) {
+            // picked up once the refresh or page load in flight has landed
+            refreshAgain = true;
+            return;
+        }
+        refreshing = true;
+        refreshAgain = false;
+        final int gen = generation;
+        final OrderPage.Query q = query;
+        final long after = changeCursor;
+        DatabaseHelper db = DatabaseHelper.getInstance();
+        CompletableFuture<Delta> work = db.async().changesSince(after, CHANGES_PER_READ).thenCompose(changes -> {
+            Set<String> ids = changes.idsOf(ChangeSet.Entity.ORDER);
+            if (ids.isEmpty()) return CompletableFuture.completedFuture(new Delta(changes, ids, List.of()));
+            return db.async().listOrdersByIds(q, ids).thenApply(rows -> new Delta(changes, ids, rows));
+        });
+        fx.handle(work, delta -> {
+            if (gen != generation) return;
+            refreshing = false;
+            if (delta.changes.isTruncated()) {
+                reload();
+                return;
+            }
+            apply(delta);
+            changeCursor = delta.changes.getCursor();
+            if (delta.changes.hasMore() || refreshAgain) refreshChanges();
+        }, ex -> {
+            LOGGER.log(Level.WARNING, "Failed to apply order changes", ex);
+            if (gen == generation) refreshing = false;
+        });
+    }
+
+    /**
+     * Apply order changes committed through any connection, e.g. orders entered by another instance
+     * sharing the database, as {@link DatabaseWatcher} reports them. Stops once the screen is left.
+     */
+    public void followDatabaseChanges() {
+        DatabaseWatcher watcher = DatabaseHelper.getInstance().getWatcher();
+        watcher.addListener(new DatabaseWatcher.Listener() {
+            @Override
+            public void onChanges(ChangeSet changes) {
+                if (!changes.isTruncated() && changes.idsOf(ChangeSet.Entity.ORDER).isEmpty()) return;
+                Platform.runLater(() -> {
+                    if (fx.isLeft()) {
+                        watcher.removeListener(this);
+                        return;
+                    }
+                    refreshChanges();
+                });
+            }
+        });
+    }
+
+    private void apply(Delta delta) {
+        if (delta.ids.isEmpty()) return;
+        List<OrderModel> items = table.getItems();
+        items.removeIf(o -> delta.ids.contains(o.getId()));
+        Comparator<OrderModel> order = comparator(query);
+        for (OrderModel o : delta.rows) {
+            int at = 0;
+            while (at < items.size() && order.compare(items.get(at), o) < 0) at++;
+            // past the last loaded row it belongs to a later page, which will fetch it
+            if (at == items.size() && !exhausted) continue;
+            items.add(at, o);
+        }
+    }
+
+    /** The row order {@link DatabaseHelper#listOrdersPage} uses for this query. */
+    private static Comparator<OrderModel> comparator(OrderPage.Query q) {
+        Comparator<OrderModel> bySort;
+        OrderPage.Sort sort = (q.sort == OrderPage.Sort.STATUS && q.status != null) ? OrderPage.Sort.DATE : q.sort;
+        switch (sort) {
+            case AMOUNT: bySort = Comparator.comparingLong(OrderModel::getAmountCents); break;
+            case STATUS: bySort = Comparator.comparing(OrderModel::getStatus, Comparator.nullsFirst(Comparator.naturalOrder())); break;
+            default: bySort = Comparator.comparing(OrderModel::getOrderedOn, Comparator.nullsFirst(Comparator.naturalOrder()));
+        }
+        Comparator<OrderModel> c = bySort.thenComparing(OrderModel::getId);
+        return q.isDescending() ? c.reversed() : c;
+    }
+
+    private static final class Delta {
+        final ChangeSet changes;
+        final Set<String> ids;
+        final List<OrderModel> rows;
+
+        Delta(ChangeSet changes, Set<String> ids, List<OrderModel> rows) {
+            this.changes = changes;
+            this.ids = ids;
+            this.rows = rows;
+        }
+    }
+
+    private void applySortFromTable() {
+        if (query == null) return;
+        OrderPage.Sort sort = OrderPage.Sort.DATE;
+        boolean descending = true;
+        if (!table.getSortOrder().isEmpty()) {
+            TableColumn<OrderModel, ?> first = table.getSortOrder().get(0);
+            OrderPage.Sort mapped = sortColumns.get(first);
+            if (mapped != null) {
+                sort = mapped;
+                descending = first.getSortType() == TableColumn.SortType.DESCENDING;
+            }
+        }
+        if (sort == query.getSort() && descending == query.isDescending()) return;
+        setQuery(query.sortedBy(sort, descending));
+    }
+
+    private void attachScrollBar() {
+        if (verticalBar != null) return;
+        for (Node n : table.lookupAll(".scroll-bar")) {
+            if (n instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                verticalBar = bar;
+                bar.valueProperty().addListener((obs, oldV, newV) -> maybeLoadMore());
+                bar.visibleProperty().addListener((obs, oldV, newV) -> maybeLoadMore());
+                break;
+            }
+        }
+        maybeLoadMore();
+    }
+
+    private void maybeLoadMore() {
+        if (loading || exhausted) return;
+        // nothing to scroll yet: keep filling until the viewport overflows
+        if (verticalBar == null || !verticalBar.isVisible()) {
+            if (verticalBar != null && !table.getItems().isEmpty()) loadNextPage();
+            return;
+        }
+        double range = verticalBar.getMax() - verticalBar.getMin();
+        if (range <= 0 || verticalBar.getValue() >= verticalBar.getMin() + range * PREFETCH_AT) {
+            loadNextPage();
+        }
+    }
+
+    private void loadNextPage() {
+        if (loading || exhausted || query == null) return;
+        loading = true;
+        final int gen = generation;
+        final OrderPage.Query q = query;
+        final OrderPage.Cursor after = next;
+        DatabaseHelper db = DatabaseHelper.getInstance();
+        // the change log position is read before the first page, so nothing committed in between is missed
+        CompletableFuture<Long> seq = after == null ? db.async().latestChangeSeq() : CompletableFuture.completedFuture(changeCursor);
+        CompletableFuture<OrderPage> work = seq.thenCompose(s -> db.async().listOrdersPage(q, after, pageSize));
+        fx.handle(work, page -> {
+            if (gen != generation) return;
+            loading = false;
+            if (after == null) changeCursor = seq.join();
+            table.getItems().addAll(page.getItems());
+            next = page.getNext();
+            exhausted = !page.hasMore();
+            if (refreshAgain) refreshChanges();
+            maybeLoadMore();
+        }, ex -> {
+            LOGGER.log(Level.SEVERE, "Failed to load order page", ex);
+            if (gen == generation) loading = false;
+        });
+    }
+}
@@ -0,0 +1,481 @@
+package com.example.artflow;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Timing for every statement run through a {@link ConnectionPool}: per-SQL latency histograms
+ * (p50/p95/p99), rows returned or changed, errors, and gauges of open statements and result sets for
+ * leak detection. Statements are wrapped once, when {@link StatementCache} prepares them (or by
+ * {@link ConnectionPool#createStatement}); each entry is labelled with the method that first
+ * prepared its SQL, e.g. {@code DatabaseHelper.listOrdersPage}.
+ *
+ * A query's time is the execute call plus every {@code next()} on its ResultSet, so the caller's own
+ * per-row work is not counted. Anything at or over the slow-query threshold
+ * ({@code -Dartflow.db.slowQueryMs}, default 100) is logged at WARNING to the {@code com.example.artflow.slowquery} logger
+ * with its EXPLAIN QUERY PLAN, and the most recent ones are kept for {@link #getSlowQueries}.
+ * {@code -Dartflow.db.queryStats=false} turns the wrapping off.
+ */
+public final class QueryStats {
+    private static final Logger SLOW_LOGGER = Logger.getLogger("com.example.artflow.slowquery");
+
+    private static final long DEFAULT_SLOW_QUERY_MS = 100;
+    private static final int SLOW_QUERY_HISTORY = 50;
+    // past this many distinct SQL texts new ones share one entry, so ad-hoc SQL cannot grow the maps forever
+    private static final int MAX_ENTRIES = 512;
+    private static final String OTHER_SQL = "(other)";
+
+    private final boolean enabled;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+    private final ArrayDeque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private final AtomicLong openStatements = new AtomicLong();
+    private final AtomicLong openResultSets = new AtomicLong();
+    private volatile long slowQueryNanos;
+
+    public QueryStats() {
+        this(!"false".equalsIgnoreCase(System.getProperty("artflow.db.queryStats")),
+                Long.getLong("artflow.db.slowQueryMs", DEFAULT_SLOW_QUERY_MS));
+    }
+
+    public QueryStats(boolean enabled, long slowQueryMs) {
+        this.enabled = enabled;
+        setSlowQueryThresholdMs(slowQueryMs);
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public long getSlowQueryThresholdMs() { return slowQueryNanos / 1_000_000L; }
+
+    /** Queries taking at least this long are logged with their plan; 0 logs every query. */
+    public void setSlowQueryThresholdMs(long ms) { slowQueryNanos = Math.max(0, ms) * 1_000_000L; }
+
+    /** Statements created and not yet closed. Cached statements stay open by design, so compare against the cache sizes. */
+    public long getOpenStatements() { return openStatements.get(); }
+
+    /** ResultSets handed out and not yet closed; above zero while the pool is idle means a leak. */
+    public long getOpenResultSets() { return openResultSets.get(); }
+
+    /** One line per SQL text, slowest total time first. */
+    public List<StatementStats> snapshot() {
+        List<StatementStats> out = new ArrayList<>(entries.size());
+        for (Entry e : entries.values()) out.add(e.snapshot());
+        out.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+        return out;
+    }
+
+    /** The most recent slow queries, oldest first. */
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    /** Forget the timings and the slow-query history; the open statement / result-set gauges are kept. */
+    public void reset() {
+        entries.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    /** Wrap a freshly prepared statement so its executions are timed; returns {@code ps} as-is when disabled. */
+    PreparedStatement instrument(PreparedStatement ps, String sql) {
+        if (!enabled) return ps;
+        entryFor(sql); // labels the entry with the preparing method
+        openStatements.incrementAndGet();
+        return (PreparedStatement) Proxy.newProxyInstance(QueryStats.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new StatementHandler(ps, sql));
+    }
+
+    /** Wrap a plain Statement; each SQL text passed to it gets its own entry. */
+    Statement instrument(Statement stmt) {
+        if (!enabled) return stmt;
+        openStatements.incrementAndGet();
+        return (Statement) Proxy.newProxyInstance(QueryStats.class.getClassLoader(),
+                new Class<?>[] { Statement.class }, new StatementHandler(stmt, null));
+    }
+
+    private Entry entryFor(String sql) {
+        Entry entry = entries.get(sql);
+        if (entry != null) return entry;
+        if (entries.size() >= MAX_ENTRIES) return entries.computeIfAbsent(OTHER_SQL, k -> new Entry(OTHER_SQL, "(various)"));
+        String label = callerLabel(); // walked once per SQL text, outside computeIfAbsent so the map is not on the stack
+        return entries.computeIfAbsent(sql, k -> new Entry(sql, label));
+    }
+
+    /** Class.method of the first frame outside the pool, the cache and this class; lambda frames map to their method. */
+    private static String callerLabel() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !isPlumbing(f.getClassName(), f.getMethodName()))
+                .findFirst()
+                .map(f -> label(f.getClassName(), f.getMethodName()))
+                .orElse("?"));
+    }
+
+    private static boolean isPlumbing(String className, String method) {
+        return className.startsWith(QueryStats.class.getName())
+                || className.equals(StatementCache.class.getName())
+                || className.equals(ConnectionPool.class.getName())
+                || className.contains("$Proxy")
+                || (className.equals(DatabaseHelper.class.getName()) && method.equals("prepare"));
+    }
+
+    private static String label(String className, String method) {
+        String simple = className.substring(className.lastIndexOf('.') + 1);
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            method = end < 0 ? method.substring(7) : method.substring(7, end);
+        }
+        return simple + "." + method;
+    }
+
+    private void record(Entry entry, long nanos, long rows, Statement target) {
+        entry.record(nanos, rows);
+        if (nanos >= slowQueryNanos) slowQuery(entry, nanos, rows, target);
+    }
+
+    private void slowQuery(Entry entry, long nanos, long rows, Statement target) {
+        String plan = plans.get(entry.sql);
+        if (plan == null) {
+            plan = explain(target, entry.sql);
+            if (plans.size() < MAX_ENTRIES) plans.put(entry.sql, plan);
+        }
+        SlowQuery slow = new SlowQuery(entry.label, entry.sql, nanos, rows, plan, System.currentTimeMillis());
+        synchronized (slowQueries) {
+            if (slowQueries.size() == SLOW_QUERY_HISTORY) slowQueries.removeFirst();
+            slowQueries.addLast(slow);
+        }
+        SLOW_LOGGER.log(Level.WARNING, slow::toString);
+    }
+
+    /** EXPLAIN QUERY PLAN on the statement's own connection, which the caller still holds. */
+    private static String explain(Statement target, String sql) {
+        String head = sql.trim().toUpperCase(Locale.ROOT);
+        if (!(head.startsWith("SELECT") || head.startsWith("WITH") || head.startsWith("INSERT")
+                || head.startsWith("UPDATE") || head.startsWith("DELETE") || head.startsWith("REPLACE"))) {
+            return "(no plan)";
+        }
+        StringBuilder plan = new StringBuilder();
+        try {
+            Connection c = target.getConnection();
+            try (Statement stmt = c.createStatement(); ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+                while (rs.next()) {
+                    if (plan.length() > 0) plan.append(" / ");
+                    plan.append(rs.getString("detail"));
+                }
+            }
+        } catch (SQLException e) {
+            return "(EXPLAIN failed: " + e.getMessage() + ")";
+        }
+        return plan.toString();
+    }
+
+    private static Object call(Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Times execute calls and hands out counted ResultSets; everything else goes straight to the target. */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql; // null for a plain Statement, which is given its SQL per execute call
+        private boolean closed;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "executeQuery":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "executeBatch":
+                case "executeLargeBatch":
+                case "execute":
+                    return execute(proxy, m, args);
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        openStatements.decrementAndGet();
+                    }
+                    return call(target, m, args);
+                default:
+                    return call(target, m, args);
+            }
+        }
+
+        private Object execute(Object proxy, Method m, Object[] args) throws Throwable {
+            String text = sql;
+            if (text == null) text = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : OTHER_SQL;
+            Entry e = entryFor(text);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(target, m, args);
+            } catch (Throwable t) {
+                e.errors.increment();
+                throw t;
+            }
+            long nanos = System.nanoTime() - start;
+            if (result instanceof ResultSet) {
+                openResultSets.incrementAndGet();
+                return Proxy.newProxyInstance(QueryStats.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                        new ResultSetHandler((ResultSet) result, target, (Statement) proxy, e, nanos));
+            }
+            record(e, nanos, rowsChanged(result), target);
+            return result;
+        }
+
+        private long rowsChanged(Object result) throws SQLException {
+            if (result instanceof Integer || result instanceof Long) return Math.max(0, ((Number) result).longValue());
+            long rows = 0;
+            if (result instanceof int[]) for (int n : (int[]) result) rows += Math.max(0, n);
+            else if (result instanceof long[]) for (long n : (long[]) result) rows += Math.max(0, n);
+            else if (Boolean.FALSE.equals(result)) rows = Math.max(0, target.getUpdateCount());
+            return rows;
+        }
+    }
+
+    /** Counts rows and the time spent in next(); the query is recorded once, when exhausted or closed. */
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Statement rawStatement;
+        private final Statement statement;
+        private final Entry entry;
+        private long nanos;
+        private long rows;
+        private boolean recorded;
+        private boolean closed;
+
+        ResultSetHandler(ResultSet target, Statement rawStatement, Statement statement, Entry entry, long executeNanos) {
+            this.target = target;
+            this.rawStatement = rawStatement;
+            this.statement = statement;
+            this.entry = entry;
+            this.nanos = executeNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    boolean more;
+                    try {
+                        more = (Boolean) call(target, m, args);
+                    } catch (Throwable t) {
+                        entry.errors.increment();
+                        throw t;
+                    } finally {
+                        nanos += System.nanoTime() - start;
+                    }
+                    if (more) rows++;
+                    else finish();
+                    return more;
+                }
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        openResultSets.decrementAndGet();
+                        finish();
+                    }
+                    return call(target, m, args);
+                case "getStatement":
+                    return statement;
+                default:
+                    return call(target, m, args);
+            }
+        }
+
+        private void finish() {
+            if (recorded) return;
+            recorded = true;
+            record(entry, nanos, rows, rawStatement);
+        }
+    }
+
+    /** Running totals for one SQL text. */
+    private static final class Entry {
+        final String sql;
+        final String label;
+        final Histogram latency = new Histogram();
+        final LongAdder calls = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        Entry(String sql, String label) {
+            this.sql = sql;
+            this.label = label;
+        }
+
+        void record(long nanos, long rowCount) {
+            calls.increment();
+            rows.add(rowCount);
+            totalNanos.add(nanos);
+            latency.record(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        StatementStats snapshot() {
+            long max = maxNanos.get();
+            return new StatementStats(label, sql, calls.sum(), rows.sum(), errors.sum(), totalNanos.sum(),
+                    Math.min(max, latency.percentile(0.50)), Math.min(max, latency.percentile(0.95)),
+                    Math.min(max, latency.percentile(0.99)), max);
+        }
+    }
+
+    /**
+     * Log-linear latency buckets: eight per power of two, so a percentile is reported as the upper
+     * edge of a bucket at most 12.5% wider than the values in it.
+     */
+    static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB);
+
+        void record(long nanos) {
+            counts.incrementAndGet(index(Math.max(0, nanos)));
+        }
+
+        /** Smallest bucket edge at or below which at least {@code fraction} of the recorded values fall; 0 when empty. */
+        long percentile(double fraction) {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+            if (total == 0) return 0;
+            long wanted = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= wanted) return upperBound(i);
+            }
+            return upperBound(counts.length() - 1);
+        }
+
+        static int index(long v) {
+            if (v < SUB) return (int) v;
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+            return (exp - SUB_BITS + 1) * SUB + sub;
+        }
+
+        static long upperBound(int index) {
+            if (index < SUB) return index;
+            int exp = index / SUB - 1 + SUB_BITS;
+            int sub = index % SUB;
+            return ((long) (SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+        }
+    }
+
+    /** Point-in-time figures for one SQL text; times are nanoseconds. */
+    public static final class StatementStats {
+        private final String label;
+        private final String sql;
+        private final long calls;
+        private final long rows;
+        private final long errors;
+        private final long totalNanos;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        StatementStats(String label, String sql, long calls, long rows, long errors, long totalNanos,
+                       long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+            this.label = label;
+            this.sql = sql;
+            this.calls = calls;
+            this.rows = rows;
+            this.errors = errors;
+            this.totalNanos = totalNanos;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /** The method that first prepared this SQL, e.g. {@code DatabaseHelper.authenticate}. */
+        public String getLabel() { return label; }
+        public String getSql() { return sql; }
+        public long getCalls() { return calls; }
+        /** Rows returned by queries, or rows changed by updates and batches. */
+        public long getRows() { return rows; }
+        public long getErrors() { return errors; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMeanNanos() { return calls == 0 ? 0 : totalNanos / calls; }
+        public long getP50Nanos() { return p50Nanos; }
+        public long getP95Nanos() { return p95Nanos; }
+        public long getP99Nanos() { return p99Nanos; }
+        public long getMaxNanos() { return maxNanos; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %,d calls, %,d rows, %d errors, p50 %s p95 %s p99 %s max %s",
+                    label, calls, rows, errors, millis(p50Nanos), millis(p95Nanos), millis(p99Nanos), millis(maxNanos));
+        }
+    }
+
+    /** One execution at or over the slow-query threshold. */
+    public static final class SlowQuery {
+        private final String label;
+        private final String sql;
+        private final long nanos;
+        private final long rows;
+        private final String plan;
+        private final long atMillis;
+
+        SlowQuery(String label, String sql, long nanos, long rows, String plan, long atMillis) {
+            this.label = label;
+            this.sql = sql;
+            this.nanos = nanos;
+            this.rows = rows;
+            this.plan = plan;
+            this.atMillis = atMillis;
+        }
+
+        public String getLabel() { return label; }
+        public String getSql() { return sql; }
+        public long getNanos() { return nanos; }
+        public long getRows() { return rows; }
+        /** EXPLAIN QUERY PLAN details joined with " / ". */
+        public String getPlan() { return plan; }
+        public long getAtMillis() { return atMillis; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Slow query in %s: %s, %,d rows: %s | plan: %s",
+                    label, millis(nanos), rows, sql, plan);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f ms", nanos / 1e6);
+    }
+}
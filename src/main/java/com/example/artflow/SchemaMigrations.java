@@ -0,0 +1,473 @@
+package com.example.artflow;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ordered schema migrations keyed on {@code PRAGMA user_version}. Each step runs in its own
+ * transaction together with the version bump, so a crash leaves the file at the last completed
+ * version. Steps are idempotent (IF NOT EXISTS, column checks) because databases created before
+ * versioning start at user_version 0 with some of the schema already in place.
+ *
+ * To change the schema, append a new {@link Migration}; never edit or reorder a released one.
+ */
+public final class SchemaMigrations {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrations.class.getName());
+
+    /** Body of a migration, run on the writer; statements come from {@code pool} so they are timed like any other. */
+    interface Step {
+        Void run(ConnectionPool pool, Connection c) throws SQLException;
+    }
+
+    /** One schema step; {@code version} is the user_version the file has once it has run. */
+    static final class Migration {
+        final int version;
+        final String description;
+        final Step apply;
+
+        Migration(int version, String description, Step apply) {
+            this.version = version;
+            this.description = description;
+            this.apply = apply;
+        }
+    }
+
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "base tables users, artworks, orders", SchemaMigrations::baseTables),
+            new Migration(2, "indexes for per-artist and per-customer screens", SchemaMigrations::screenIndexes),
+            new Migration(3, "artist_stats summary table and triggers", SchemaMigrations::artistStats),
+            new Migration(4, "order foreign keys to users and artworks", SchemaMigrations::orderForeignKeys),
+            new Migration(5, "artworks_fts full-text index and triggers", SchemaMigrations::artworkSearch),
+            new Migration(6, "integer cent prices and order amounts", SchemaMigrations::centAmounts),
+            new Migration(7, "canonical user emails and indexed name_key", SchemaMigrations::userLookupKeys),
+            new Migration(8, "changes table for change data capture", SchemaMigrations::changeLog),
+            new Migration(9, "status/date index for the order archiver", SchemaMigrations::archiveIndex),
+            new Migration(10, "order paging indexes ending in the id tie-break", SchemaMigrations::pagingIndexes)
+    );
+
+    private SchemaMigrations() {}
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Bring the database on the pool's writer connection {@code c} up to {@link #latestVersion()}.
+     * An up-to-date file costs a single pragma read. Returns the number of steps applied.
+     */
+    public static int migrate(ConnectionPool pool, Connection c) throws SQLException {
+        int current = userVersion(pool, c);
+        if (current >= latestVersion()) return 0;
+        if (current == 0 && !hasTables(pool, c)) {
+            // a new file: switch it to incremental auto-vacuum while that is still an instant VACUUM, so
+            // DatabaseMaintenance can free pages a few at a time instead of with a full VACUUM later
+            try (Statement stmt = pool.createStatement(c)) {
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                stmt.execute("VACUUM");
+            }
+        }
+        int applied = 0;
+        for (Migration m : MIGRATIONS) {
+            if (m.version <= current) continue;
+            long start = System.nanoTime();
+            c.setAutoCommit(false);
+            try {
+                m.apply.run(pool, c);
+                try (Statement stmt = pool.createStatement(c)) {
+                    stmt.execute("PRAGMA user_version = " + m.version);
+                }
+                c.commit();
+            } catch (SQLException | RuntimeException e) {
+                try { c.rollback(); } catch (SQLException rollbackError) { e.addSuppressed(rollbackError); }
+                throw new SQLException("Schema migration " + m.version + " (" + m.description + ") failed", e);
+            } finally {
+                c.setAutoCommit(true);
+            }
+            applied++;
+            double ms = (System.nanoTime() - start) / 1e6;
+            LOGGER.info(() -> String.format("Applied schema migration %d: %s (%.1f ms)", m.version, m.description, ms));
+        }
+        return applied;
+    }
+
+    public static int userVersion(ConnectionPool pool, Connection c) throws SQLException {
+        try (Statement stmt = pool.createStatement(c); ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static boolean hasTables(ConnectionPool pool, Connection c) throws SQLException {
+        try (Statement stmt = pool.createStatement(c); ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' LIMIT 1")) {
+            return rs.next();
+        }
+    }
+
+    static boolean hasColumn(ConnectionPool pool, Connection c, String table, String column) throws SQLException {
+        try (Statement stmt = pool.createStatement(c); ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) return true;
+            }
+        }
+        return false;
+    }
+
+    static void addColumnIfMissing(ConnectionPool pool, Connection c, String table, String column, String type) throws SQLException {
+        if (hasColumn(pool, c, table, column)) return;
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+        }
+        LOGGER.log(Level.INFO, "Added missing column: {0}.{1}", new Object[] { table, column });
+    }
+
+    // --- migration steps -------------------------------------------------------------------------
+
+    private static Void baseTables(ConnectionPool pool, Connection c) throws SQLException {
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "password TEXT NOT NULL," +
+                    "email TEXT UNIQUE NOT NULL," +
+                    "user_type TEXT NOT NULL," +
+                    "first_name TEXT," +
+                    "last_name TEXT," +
+                    "full_name TEXT," +
+                    "phone TEXT," +
+                    "address TEXT" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS artworks (" +
+                    "id TEXT PRIMARY KEY, " +
+                    "title TEXT, " +
+                    "price TEXT, " +
+                    "category TEXT, " +
+                    "image_path TEXT, " +
+                    "artist_name TEXT, " +
+                    "description TEXT" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS orders (" +
+                    "id TEXT PRIMARY KEY, " +
+                    "customer_name TEXT, " +
+                    "artist_name TEXT, " +
+                    "art_title TEXT, " +
+                    "quantity INTEGER, " +
+                    "amount REAL, " +
+                    "ordered_on TEXT, " +
+                    "status TEXT" +
+                    ")");
+        }
+        // columns added over time; older files may lack them
+        addColumnIfMissing(pool, c, "users", "first_name", "TEXT");
+        addColumnIfMissing(pool, c, "users", "last_name", "TEXT");
+        addColumnIfMissing(pool, c, "users", "full_name", "TEXT");
+        addColumnIfMissing(pool, c, "users", "phone", "TEXT");
+        addColumnIfMissing(pool, c, "users", "address", "TEXT");
+        addColumnIfMissing(pool, c, "artworks", "artist_name", "TEXT");
+        addColumnIfMissing(pool, c, "artworks", "description", "TEXT");
+        return null;
+    }
+
+    private static Void screenIndexes(ConnectionPool pool, Connection c) throws SQLException {
+        // NOCASE to match the case-insensitive lookups in DatabaseHelper
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_artworks_artist ON artworks(artist_name COLLATE NOCASE)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_artist_status_date ON orders(artist_name COLLATE NOCASE, status, ordered_on)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_customer_date ON orders(customer_name COLLATE NOCASE, ordered_on)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_artist_status_amount ON orders(artist_name COLLATE NOCASE, status, amount)");
+        }
+        return null;
+    }
+
+    private static Void artistStats(ConnectionPool pool, Connection c) throws SQLException {
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS artist_stats (" +
+                    "artist_name TEXT PRIMARY KEY COLLATE NOCASE, " +
+                    "artwork_count INTEGER NOT NULL DEFAULT 0, " +
+                    "order_count INTEGER NOT NULL DEFAULT 0, " +
+                    "pending_count INTEGER NOT NULL DEFAULT 0, " +
+                    "completed_count INTEGER NOT NULL DEFAULT 0, " +
+                    "rejected_count INTEGER NOT NULL DEFAULT 0, " +
+                    "completed_earnings REAL NOT NULL DEFAULT 0" +
+                    ")");
+            for (String trigger : artistStatsTriggers("amount", "completed_earnings")) stmt.execute(trigger);
+            // the version-3 rebuild; totals moved to cents in migration 6
+            stmt.execute("INSERT INTO artist_stats(artist_name, artwork_count, order_count, pending_count, completed_count, rejected_count, completed_earnings) " +
+                    "SELECT artist_name, SUM(artworks), SUM(orders), SUM(pending), SUM(completed), SUM(rejected), SUM(earnings) FROM (" +
+                    "  SELECT COALESCE(artist_name, '') COLLATE NOCASE AS artist_name, 1 AS artworks, 0 AS orders, 0 AS pending, 0 AS completed, 0 AS rejected, 0 AS earnings FROM artworks" +
+                    "  UNION ALL" +
+                    "  SELECT COALESCE(artist_name, '') COLLATE NOCASE, 0, 1, (status = 'pending'), (status = 'completed'), (status = 'rejected')," +
+                    "         CASE WHEN status = 'completed' THEN COALESCE(amount, 0) ELSE 0 END FROM orders" +
+                    ") GROUP BY artist_name COLLATE NOCASE");
+        }
+        return null;
+    }
+
+    /**
+     * orders.customer_id / artist_id reference users.id and orders.artwork_id references artworks.id
+     * (text, the artworks key). The name and title columns stay as display copies. Existing rows are
+     * matched by name; ambiguous names resolve to the oldest account of the right type.
+     */
+    private static Void orderForeignKeys(ConnectionPool pool, Connection c) throws SQLException {
+        addColumnIfMissing(pool, c, "orders", "customer_id", "INTEGER REFERENCES users(id) ON DELETE SET NULL");
+        addColumnIfMissing(pool, c, "orders", "artist_id", "INTEGER REFERENCES users(id) ON DELETE SET NULL");
+        addColumnIfMissing(pool, c, "orders", "artwork_id", "TEXT REFERENCES artworks(id) ON DELETE SET NULL");
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_full_name ON users(full_name COLLATE NOCASE, user_type)");
+            stmt.execute("UPDATE orders SET " +
+                    "customer_id = (SELECT MIN(u.id) FROM users u WHERE u.full_name = orders.customer_name COLLATE NOCASE AND u.user_type = 'customer'), " +
+                    "artist_id = (SELECT MIN(u.id) FROM users u WHERE u.full_name = orders.artist_name COLLATE NOCASE AND u.user_type = 'artist'), " +
+                    "artwork_id = (SELECT MIN(a.id) FROM artworks a WHERE a.artist_name = orders.artist_name COLLATE NOCASE AND a.title = orders.art_title) " +
+                    "WHERE customer_id IS NULL OR artist_id IS NULL OR artwork_id IS NULL");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_artist_id_status_date ON orders(artist_id, status, ordered_on)");
+            // migration 6 replaces amount with amount_cents and indexes that instead
+            if (hasColumn(pool, c, "orders", "amount")) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_artist_id_status_amount ON orders(artist_id, status, amount)");
+            }
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_customer_id_date ON orders(customer_id, ordered_on)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_artwork_id ON orders(artwork_id)");
+        }
+        return null;
+    }
+
+    /**
+     * FTS5 index over the artwork catalog. It is an external-content table: the text lives only in
+     * artworks, the index is keyed by artworks.rowid and kept current by triggers, so every write path
+     * (single upserts, outbox batches, deletes) updates it in the same transaction. Prefix indexes of
+     * 1 to 3 characters keep the first keystrokes of search-as-you-type cheap.
+     */
+    private static Void artworkSearch(ConnectionPool pool, Connection c) throws SQLException {
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS artworks_fts USING fts5(" +
+                    "title, category, artist_name, description, " +
+                    "content='artworks', content_rowid='rowid', " +
+                    "tokenize='unicode61 remove_diacritics 2', prefix='1 2 3')");
+            for (String trigger : ARTWORK_SEARCH_TRIGGERS) stmt.execute(trigger);
+            stmt.execute("INSERT INTO artworks_fts(artworks_fts) VALUES('rebuild')");
+        }
+        return null;
+    }
+
+    private static final String ARTWORK_SEARCH_COLUMNS = "title, category, artist_name, description";
+
+    private static final String[] ARTWORK_SEARCH_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS trg_artworks_fts_insert AFTER INSERT ON artworks BEGIN " +
+                    "INSERT INTO artworks_fts(rowid, " + ARTWORK_SEARCH_COLUMNS + ") " +
+                    "VALUES (NEW.rowid, NEW.title, NEW.category, NEW.artist_name, NEW.description); END",
+            "CREATE TRIGGER IF NOT EXISTS trg_artworks_fts_delete AFTER DELETE ON artworks BEGIN " +
+                    "INSERT INTO artworks_fts(artworks_fts, rowid, " + ARTWORK_SEARCH_COLUMNS + ") " +
+                    "VALUES ('delete', OLD.rowid, OLD.title, OLD.category, OLD.artist_name, OLD.description); END",
+            "CREATE TRIGGER IF NOT EXISTS trg_artworks_fts_update AFTER UPDATE OF " + ARTWORK_SEARCH_COLUMNS + " ON artworks BEGIN " +
+                    "INSERT INTO artworks_fts(artworks_fts, rowid, " + ARTWORK_SEARCH_COLUMNS + ") " +
+                    "VALUES ('delete', OLD.rowid, OLD.title, OLD.category, OLD.artist_name, OLD.description); " +
+                    "INSERT INTO artworks_fts(rowid, " + ARTWORK_SEARCH_COLUMNS + ") " +
+                    "VALUES (NEW.rowid, NEW.title, NEW.category, NEW.artist_name, NEW.description); END"
+    };
+
+    /**
+     * Prices and order totals become integer cents: artworks.price (free text) is replaced by an
+     * indexed price_cents, orders.amount (REAL) by amount_cents, and artist_stats sums
+     * completed_earnings_cents. Text that does not read as a price becomes 0. The amount indexes
+     * and artist_stats order triggers are recreated on the new columns before the old ones are dropped.
+     * Also widens the artworks artist index to (artist, title) for the artwork_id lookup on order insert.
+     */
+    private static Void centAmounts(ConnectionPool pool, Connection c) throws SQLException {
+        addColumnIfMissing(pool, c, "artworks", "price_cents", "INTEGER NOT NULL DEFAULT 0");
+        addColumnIfMissing(pool, c, "orders", "amount_cents", "INTEGER NOT NULL DEFAULT 0");
+        addColumnIfMissing(pool, c, "artist_stats", "completed_earnings_cents", "INTEGER NOT NULL DEFAULT 0");
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("DROP TRIGGER IF EXISTS trg_artist_stats_order_insert");
+            stmt.execute("DROP TRIGGER IF EXISTS trg_artist_stats_order_delete");
+            stmt.execute("DROP TRIGGER IF EXISTS trg_artist_stats_order_update");
+            stmt.execute("DROP INDEX IF EXISTS idx_orders_artist_status_amount");
+            stmt.execute("DROP INDEX IF EXISTS idx_orders_artist_id_status_amount");
+
+            if (hasColumn(pool, c, "artworks", "price")) {
+                // same clean-up the old purchase path applied on every click: drop "$", "," and spaces
+                stmt.execute("UPDATE artworks SET price_cents = MAX(0, COALESCE(CAST(ROUND(CAST(" +
+                        "REPLACE(REPLACE(REPLACE(TRIM(price), '$', ''), ',', ''), ' ', '') AS REAL) * 100) AS INTEGER), 0)) " +
+                        "WHERE price IS NOT NULL");
+                stmt.execute("ALTER TABLE artworks DROP COLUMN price");
+            }
+            if (hasColumn(pool, c, "orders", "amount")) {
+                stmt.execute("UPDATE orders SET amount_cents = CAST(ROUND(COALESCE(amount, 0) * 100) AS INTEGER)");
+                stmt.execute("ALTER TABLE orders DROP COLUMN amount");
+            }
+            if (hasColumn(pool, c, "artist_stats", "completed_earnings")) {
+                stmt.execute("ALTER TABLE artist_stats DROP COLUMN completed_earnings");
+            }
+
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_artworks_price_cents ON artworks(price_cents)");
+            // order inserts resolve artwork_id by (artist, title); on artist_name alone that scanned
+            // every artwork of the artist per order. The wider index also serves the artist lookups.
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_artworks_artist_title ON artworks(artist_name COLLATE NOCASE, title)");
+            stmt.execute("DROP INDEX IF EXISTS idx_artworks_artist");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_artist_status_amount_cents ON orders(artist_name COLLATE NOCASE, status, amount_cents)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_artist_id_status_amount_cents ON orders(artist_id, status, amount_cents)");
+            for (String trigger : artistStatsTriggers("amount_cents", "completed_earnings_cents")) {
+                if (trigger.contains(" ON orders ")) stmt.execute(trigger);
+            }
+        }
+        // before the archive existed, so there are no archived orders to count
+        DatabaseHelper.rebuildArtistStats(pool, c, false);
+        return null;
+    }
+
+    /**
+     * users.email had a BINARY unique index but was queried with COLLATE NOCASE, so every login
+     * scanned the table. Emails are now stored in canonical form ({@link DatabaseHelper#canonicalEmail})
+     * and compared with plain =, which the unique index serves. users.name_key holds the normalized
+     * full name ({@link DatabaseHelper#nameKey}) for indexed name lookups. Two legacy rows that differ
+     * only in case would collide on the unique index; the later one keeps its email as it was.
+     */
+    private static Void userLookupKeys(ConnectionPool pool, Connection c) throws SQLException {
+        addColumnIfMissing(pool, c, "users", "name_key", "TEXT");
+        try (Statement stmt = pool.createStatement(c)) {
+            // the email pattern is ASCII-only, so SQLite's lower() agrees with canonicalEmail here
+            int fixed = stmt.executeUpdate("UPDATE OR IGNORE users SET email = lower(trim(email)) WHERE email <> lower(trim(email))");
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users WHERE email <> lower(trim(email))")) {
+                int left = rs.next() ? rs.getInt(1) : 0;
+                if (fixed > 0 || left > 0) {
+                    LOGGER.log(Level.INFO, "Canonicalized {0} user emails; {1} left as they were (duplicates ignoring case)", new Object[] { fixed, left });
+                }
+            }
+        }
+        // name_key needs Java's Unicode-aware normalization, so it is filled row by row
+        try (Statement stmt = pool.createStatement(c);
+             ResultSet rs = stmt.executeQuery("SELECT id, full_name FROM users WHERE name_key IS NULL");
+             java.sql.PreparedStatement update = c.prepareStatement("UPDATE users SET name_key = ? WHERE id = ?")) {
+            int batched = 0;
+            while (rs.next()) {
+                update.setString(1, DatabaseHelper.nameKey(rs.getString(2)));
+                update.setLong(2, rs.getLong(1));
+                update.addBatch();
+                if (++batched % 1000 == 0) update.executeBatch();
+            }
+            if (batched % 1000 != 0) update.executeBatch();
+        }
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_name_key ON users(name_key)");
+        }
+        return null;
+    }
+
+    /**
+     * Change data capture: every insert, update and delete of an artwork or order appends a row to
+     * {@code changes} from a trigger, in the same transaction as the write, whichever path made it.
+     * {@code seq} is AUTOINCREMENT so sequence numbers are never reused after old rows are pruned,
+     * which lets a reader keep a cursor and ask for {@link DatabaseHelper#changesSince} later.
+     */
+    private static Void changeLog(ConnectionPool pool, Connection c) throws SQLException {
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS changes (" +
+                    "seq INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "entity TEXT NOT NULL, " +
+                    "entity_id TEXT NOT NULL, " +
+                    "op TEXT NOT NULL, " +
+                    "artist_name TEXT, " +
+                    "changed_at INTEGER NOT NULL" +
+                    ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_changes_changed_at ON changes(changed_at)");
+            for (String trigger : changeLogTriggers("artworks", "artwork")) stmt.execute(trigger);
+            for (String trigger : changeLogTriggers("orders", "order")) stmt.execute(trigger);
+        }
+        return null;
+    }
+
+    // epoch milliseconds, without unixepoch() so older SQLite builds can open the file
+    private static final String NOW_MS = "CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)";
+
+    private static String[] changeLogTriggers(String table, String entity) {
+        String[] trigger = new String[3];
+        String[][] ops = { { "insert", "NEW" }, { "update", "NEW" }, { "delete", "OLD" } };
+        for (int i = 0; i < ops.length; i++) {
+            String op = ops[i][0];
+            String row = ops[i][1];
+            trigger[i] = "CREATE TRIGGER IF NOT EXISTS trg_" + table + "_changes_" + op + " AFTER " + op.toUpperCase() + " ON " + table + " BEGIN " +
+                    "INSERT INTO changes(entity, entity_id, op, artist_name, changed_at) " +
+                    "VALUES ('" + entity + "', " + row + ".id, '" + op + "', " + row + ".artist_name, " + NOW_MS + "); END";
+        }
+        return trigger;
+    }
+
+    /** {@link OrderArchive} picks old orders in a terminal status; this keeps each batch an index range. */
+    private static Void archiveIndex(ConnectionPool pool, Connection c) throws SQLException {
+        try (Statement stmt = pool.createStatement(c)) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_status_date ON orders(status, ordered_on)");
+        }
+        return null;
+    }
+
+    /**
+     * Order history pages sort on a column and break ties on id, and keyset cursors seek on both. An
+     * index that stops at the sort column leaves SQLite a temp b-tree to order each run of equal
+     * values by id; ending every paging index in id lets the page be read straight off the index.
+     * The customer screens also get amount and status/date indexes matching the artist ones.
+     */
+    static final String[] PAGING_INDEXES = {
+            "idx_orders_artist_id_status_date ON orders(artist_id, status, ordered_on, id)",
+            "idx_orders_artist_id_status_amount_cents ON orders(artist_id, status, amount_cents, id)",
+            "idx_orders_customer_id_date ON orders(customer_id, ordered_on, id)",
+            "idx_orders_customer_id_amount_cents ON orders(customer_id, amount_cents, id)",
+            "idx_orders_customer_id_status_date ON orders(customer_id, status, ordered_on, id)",
+            "idx_orders_artist_status_date ON orders(artist_name COLLATE NOCASE, status, ordered_on, id)",
+            "idx_orders_artist_status_amount_cents ON orders(artist_name COLLATE NOCASE, status, amount_cents, id)",
+            "idx_orders_customer_date ON orders(customer_name COLLATE NOCASE, ordered_on, id)",
+    };
+
+    private static Void pagingIndexes(ConnectionPool pool, Connection c) throws SQLException {
+        try (Statement stmt = pool.createStatement(c)) {
+            createPagingIndexes(stmt, "main", true);
+        }
+        return null;
+    }
+
+    /** {@link #PAGING_INDEXES} on {@code schema}.orders; {@code replace} drops same-named older definitions first. */
+    static void createPagingIndexes(Statement stmt, String schema, boolean replace) throws SQLException {
+        for (String index : PAGING_INDEXES) {
+            if (replace) stmt.execute("DROP INDEX IF EXISTS " + schema + "." + index.substring(0, index.indexOf(' ')));
+            stmt.execute("CREATE INDEX IF NOT EXISTS " + schema + "." + index);
+        }
+    }
+
+    private static String ensureStatsRow(String artistExpr) {
+        return "INSERT INTO artist_stats(artist_name) VALUES (COALESCE(" + artistExpr + ", '')) ON CONFLICT(artist_name) DO NOTHING;";
+    }
+
+    /** SET clause adding ({@code sign} = +) or removing ({@code sign} = -) one order row from its artist's totals. */
+    private static String orderDelta(String row, String sign, String amount, String earnings) {
+        return "UPDATE artist_stats SET " +
+                "order_count = order_count " + sign + " 1, " +
+                "pending_count = pending_count " + sign + " (COALESCE(" + row + ".status, '') = 'pending'), " +
+                "completed_count = completed_count " + sign + " (COALESCE(" + row + ".status, '') = 'completed'), " +
+                "rejected_count = rejected_count " + sign + " (COALESCE(" + row + ".status, '') = 'rejected'), " +
+                earnings + " = " + earnings + " " + sign + " (CASE WHEN " + row + ".status = 'completed' THEN COALESCE(" + row + "." + amount + ", 0) ELSE 0 END) " +
+                "WHERE artist_name = COALESCE(" + row + ".artist_name, '');";
+    }
+
+    // triggers keep artist_stats current inside the same transaction as the write, whichever path made it;
+    // order totals add the amount column into the earnings column (REAL dollars before migration 6, cents after)
+    private static String[] artistStatsTriggers(String amount, String earnings) {
+        return new String[] {
+            "CREATE TRIGGER IF NOT EXISTS trg_artist_stats_order_insert AFTER INSERT ON orders BEGIN " +
+                    ensureStatsRow("NEW.artist_name") + orderDelta("NEW", "+", amount, earnings) + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_artist_stats_order_delete AFTER DELETE ON orders BEGIN " +
+                    ensureStatsRow("OLD.artist_name") + orderDelta("OLD", "-", amount, earnings) + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_artist_stats_order_update AFTER UPDATE OF artist_name, status, " + amount + " ON orders BEGIN " +
+                    ensureStatsRow("OLD.artist_name") + orderDelta("OLD", "-", amount, earnings) +
+                    ensureStatsRow("NEW.artist_name") + orderDelta("NEW", "+", amount, earnings) + " END",
+            "CREATE TRIGGER IF NOT EXISTS trg_artist_stats_artwork_insert AFTER INSERT ON artworks BEGIN " +
+                    ensureStatsRow("NEW.artist_name") +
+                    "UPDATE artist_stats SET artwork_count = artwork_count + 1 WHERE artist_name = COALESCE(NEW.artist_name, ''); END",
+            "CREATE TRIGGER IF NOT EXISTS trg_artist_stats_artwork_delete AFTER DELETE ON artworks BEGIN " +
+                    ensureStatsRow("OLD.artist_name") +
+                    "UPDATE artist_stats SET artwork_count = artwork_count - 1 WHERE artist_name = COALESCE(OLD.artist_name, ''); END",
+            "CREATE TRIGGER IF NOT EXISTS trg_artist_stats_artwork_update AFTER UPDATE OF artist_name ON artworks BEGIN " +
+                    ensureStatsRow("NEW.artist_name") +
+                    "UPDATE artist_stats SET artwork_count = artwork_count - 1 WHERE artist_name = COALESCE(OLD.artist_name, ''); " +
+                    "UPDATE artist_stats SET artwork_count = artwork_count + 1 WHERE artist_name = COALESCE(NEW.artist_name, ''); END"
+        };
+    }
+}
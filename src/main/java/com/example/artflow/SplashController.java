@@ -1,47 +1,50 @@
 package com.example.artflow;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.ProgressBar;
-import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
-import javafx.util.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class SplashController {
+    private static final Logger LOGGER = Logger.getLogger(SplashController.class.getName());
     @FXML
     private ProgressBar progressbar;
 
+    private Bootstrap bootstrap;
+    private final Bootstrap.ProgressListener progress =
+            (done, total) -> Platform.runLater(() -> progressbar.setProgress(total == 0 ? 1 : (double) done / total));
 
     public void initialize() {
         progressbar.setStyle("-fx-accent:#4a1d7c");
-        KeyValue kv = new KeyValue(progressbar.progressProperty(), 1);
-        KeyFrame kf = new KeyFrame(Duration.seconds(2), kv);
-        Timeline timeline = new Timeline(kf);
-
-        timeline.setOnFinished(e -> {
-            try {
-                Stage stage = (Stage) progressbar.getScene().getWindow();
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("Select.fxml"));
-                Scene scene = new Scene(loader.load(), 600, 400);
-                double width = stage.getWidth();
-                double height = stage.getHeight();
-                stage.setScene(scene);
-                stage.setHeight(height);
-                stage.setWidth(width);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
+        bootstrap = Bootstrap.start();
+        bootstrap.addProgressListener(progress);
+        // leave as soon as the database and the Select screen are ready; the other tasks keep running
+        FxAsync.forNode(progressbar).handle(bootstrap.critical(), ok -> openSelect(), e -> {
+            LOGGER.log(Level.SEVERE, "Startup did not complete; continuing to the Select screen", e);
+            openSelect();
         });
-
-
-        timeline.play();
-
-
     }
 
-
+    private void openSelect() {
+        bootstrap.removeProgressListener(progress);
+        try {
+            Stage stage = (Stage) progressbar.getScene().getWindow();
+            Parent root = bootstrap.selectScreen().isCompletedExceptionally()
+                    ? new FXMLLoader(getClass().getResource("Select.fxml")).load()
+                    : bootstrap.selectScreen().join();
+            Scene scene = new Scene(root, 600, 400);
+            double width = stage.getWidth();
+            double height = stage.getHeight();
+            stage.setScene(scene);
+            stage.setHeight(height);
+            stage.setWidth(width);
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, "Unable to open Select screen", ex);
+        }
+    }
 }
@@ -6,21 +6,22 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.logging.Logger;
 
 public class Splashscreen extends Application {
+    static {
+        // before any logger is used, so levels and the async handler apply from the first line
+        AppLogging.install();
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(Splashscreen.class.getName());
+
     @Override
     public void start(Stage stage) throws IOException {
-        // Diagnostic: ensure DB initialized and print test user info
-        try {
-            DatabaseHelper db = DatabaseHelper.getInstance();
-            String info = db.getUserDebugInfo("artist@test.local");
-            System.out.println("DB debug on startup: " + info);
-            String cred = db.checkCredentials("artist@test.local", "password", "artist");
-            System.out.println("DB credential check (artist@test.local/password): " + cred);
-        } catch (Exception e) {
-            System.err.println("Error initializing DB in Splashscreen: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // database, Select screen and caches load in the background; SplashController follows their progress
+        Bootstrap.start();
+        // scheduled database maintenance waits for the user to go idle
+        DatabaseMaintenance.watchUserInput();
 
         FXMLLoader fxmlLoader1 = new FXMLLoader(Splashscreen.class.getResource("splash.fxml"));
         Scene scene1 = new Scene(fxmlLoader1.load(), 1250, 650);
@@ -36,4 +37,22 @@ public class Splashscreen extends Application {
 
     }
 
+    @Override
+    public void stop() {
+        DatabaseHelper.getInstance().getWatcher().close(1000);
+        // let queued background writes reach the database before the JVM exits
+        ArtworkStore.getInstance().shutdown(5000);
+        if (!DbExecutor.shutdown(5000)) {
+            LOGGER.warning("Some database tasks were still running at exit");
+        }
+        DatabaseHelper.getInstance().getArchive().close(2000);
+        DatabaseHelper.getInstance().getMaintenance().close(1000);
+        DatabaseHelper.getInstance().getBackups().close(2000);
+        // after the background writers have stopped: a full VACUUM nobody is waiting on
+        DatabaseHelper.getInstance().getMaintenance().convertOnExitFromSettings();
+        OrderJournal journal = DatabaseHelper.getInstance().getOrderJournal();
+        if (journal != null) journal.close(2000);
+        AppLogging.shutdown(1000);
+    }
+
 }
@@ -0,0 +1,77 @@
+package com.example.artflow;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepared statements for one connection, keyed by SQL text and reused across calls.
+ * Not thread-safe: the owning {@link ConnectionPool} hands a connection (and its cache) to one
+ * thread at a time. Callers must NOT close the returned statement, but must close its ResultSets.
+ */
+public class StatementCache implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final Connection connection;
+    private final QueryStats queryStats;
+    private final int capacity;
+    private final Map<String, PreparedStatement> statements;
+    // single writer (the thread holding the connection); volatile so stats readers see fresh values
+    private volatile long hits;
+    private volatile long misses;
+
+    public StatementCache(Connection connection) {
+        this(connection, null, DEFAULT_CAPACITY);
+    }
+
+    /** Statements prepared here are timed by {@code queryStats} when it is non-null. */
+    public StatementCache(Connection connection, QueryStats queryStats) {
+        this(connection, queryStats, DEFAULT_CAPACITY);
+    }
+
+    public StatementCache(Connection connection, QueryStats queryStats, int capacity) {
+        this.connection = connection;
+        this.queryStats = queryStats;
+        this.capacity = Math.max(1, capacity);
+        // access-ordered so the least recently used statement is evicted (and closed) first
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /** Return a cached statement for this SQL, preparing it on first use. Parameters are cleared. */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps != null && !ps.isClosed()) {
+            hits++;
+            ps.clearParameters();
+            return ps;
+        }
+        misses++;
+        ps = connection.prepareStatement(sql);
+        if (queryStats != null) ps = queryStats.instrument(ps, sql);
+        statements.put(sql, ps);
+        if (statements.size() > capacity) evictEldest();
+        return ps;
+    }
+
+    private void evictEldest() {
+        var it = statements.entrySet().iterator();
+        if (!it.hasNext()) return;
+        PreparedStatement eldest = it.next().getValue();
+        it.remove();
+        try { eldest.close(); } catch (SQLException ignored) {}
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public int size() { return statements.size(); }
+
+    @Override
+    public void close() {
+        for (PreparedStatement ps : statements.values()) {
+            try { ps.close(); } catch (SQLException ignored) {}
+        }
+        statements.clear();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.artflow;
+
+import javafx.scene.image.Image;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoded artwork thumbnails keyed by image path and size, so a card that is rebuilt (filtering,
+ * returning to the dashboard) reuses the scaled image instead of reading and decoding the file again.
+ * Bounded and least-recently-used first out. Safe to call from any thread: {@link Bootstrap} fills it
+ * for the first customer cards while the splash screen is up.
+ * <p>
+ * Images brought in by {@link CatalogImport} also have a small JPEG rendered ahead of time in the
+ * thumbnail directory ({@code thumbnails/} next to the database, or {@code -Dartflow.thumbnailDir}).
+ * Card-sized requests read that file instead of decoding the full-size original.
+ */
+public final class ThumbnailCache {
+    /** Image size of a customer dashboard card. */
+    public static final double CARD_WIDTH = 220;
+    public static final double CARD_HEIGHT = 160;
+
+    /** Box the pre-rendered thumbnail files are scaled to fit; twice a card, so they stay sharp on HiDPI screens. */
+    public static final int FILE_WIDTH = 440;
+    public static final int FILE_HEIGHT = 360;
+
+    private static final int CAPACITY = 256;
+
+    private static volatile Path directory = Paths.get(System.getProperty("artflow.thumbnailDir", "thumbnails"));
+
+    private static final Map<String, Image> IMAGES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    private ThumbnailCache() {}
+
+    /** The image at {@code path} scaled to fit width x height, or null if it cannot be found or decoded. */
+    public static Image get(String path, double width, double height) {
+        if (path == null || path.isBlank()) return null;
+        String key = width + "x" + height + ":" + path;
+        synchronized (IMAGES) {
+            Image cached = IMAGES.get(key);
+            if (cached != null) return cached;
+        }
+        // decode outside the lock; two threads racing on one path both decode, and one result wins
+        Image img = load(path, width, height);
+        if (img == null) return null;
+        synchronized (IMAGES) {
+            IMAGES.put(key, img);
+        }
+        return img;
+    }
+
+    /** Decode the first {@code limit} artworks' card images; returns how many are now cached. */
+    static int prime(List<ArtworkModel> artworks, int limit) {
+        int loaded = 0;
+        for (ArtworkModel m : artworks) {
+            if (loaded >= limit) break;
+            if (get(m.getImagePath(), CARD_WIDTH, CARD_HEIGHT) != null) loaded++;
+        }
+        return loaded;
+    }
+
+    /** Directory holding the pre-rendered thumbnail files. */
+    public static Path getDirectory() {
+        return directory;
+    }
+
+    static void setDirectory(Path dir) {
+        directory = dir;
+    }
+
+    /** Where the pre-rendered thumbnail of {@code imagePath} is kept in {@code dir}, whether or not it exists yet. */
+    static Path fileFor(Path dir, String imagePath) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(imagePath.trim().getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(44);
+            for (byte b : digest) name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return dir.resolve(name.append(".jpg").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e); // required of every Java platform
+        }
+    }
+
+    private static Image load(String path, double width, double height) {
+        String url = null;
+        if (width <= FILE_WIDTH && height <= FILE_HEIGHT) {
+            Path file = fileFor(directory, path);
+            if (Files.isRegularFile(file)) url = file.toUri().toString();
+        }
+        if (url == null) url = resolve(path);
+        if (url == null) return null;
+        try {
+            Image img = new Image(url, width, height, true, true);
+            return img.isError() ? null : img;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // Image paths come in several forms:
+    // - already a URL (file:, http:, https:)
+    // - a classpath resource, possibly relative to /com/example/artflow/
+    // - an absolute file path, possibly Windows with %20 for spaces
+    // otherwise the path is passed through as-is
+    private static String resolve(String path) {
+        String trimmed = path.trim();
+        if (trimmed.startsWith("file:") || trimmed.startsWith("http:") || trimmed.startsWith("https:")) {
+            return trimmed;
+        }
+        URL res = ThumbnailCache.class.getResource(path.startsWith("/") ? path : "/" + path);
+        if (res == null) res = ThumbnailCache.class.getResource("/com/example/artflow/" + path);
+        if (res != null) return res.toExternalForm();
+        File f = new File(path);
+        if (!f.exists()) f = new File(path.replace("%20", " "));
+        if (f.exists()) return f.toURI().toString();
+        return path;
+    }
+}
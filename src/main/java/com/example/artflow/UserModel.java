@@ -0,0 +1,48 @@
+package com.example.artflow;
+
+/** One users row as the screens need it: loaded once at login and held by {@link CurrentUser}. */
+public class UserModel {
+    private final long id;
+    private final String userType;
+    private final String firstName;
+    private final String lastName;
+    private final String fullName;
+    private final String email;
+    private final String phone;
+    private final String address;
+
+    public UserModel(long id, String userType, String firstName, String lastName, String fullName,
+                     String email, String phone, String address) {
+        this.id = id;
+        this.userType = userType;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.fullName = fullName;
+        this.email = email;
+        this.phone = phone;
+        this.address = address;
+    }
+
+    /** Copy with the fields the profile screens edit replaced, as stored by updateUserProfile. */
+    public UserModel withProfile(String fullName, String email, String phone, String address) {
+        return new UserModel(id, userType, firstName, lastName, fullName, email, phone, address);
+    }
+
+    public long getId() { return id; }
+    public String getUserType() { return userType; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getFullName() { return fullName; }
+    public String getEmail() { return email; }
+    public String getPhone() { return phone; }
+    public String getAddress() { return address; }
+
+    /** Full name, else first + last name, else the email: what the sidebars and orders show. */
+    public String getDisplayName() {
+        if (fullName != null && !fullName.trim().isEmpty()) return fullName;
+        if (firstName != null && !firstName.trim().isEmpty()) {
+            return (firstName + (lastName != null && !lastName.trim().isEmpty() ? " " + lastName : "")).trim();
+        }
+        return email;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtistStatsTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHelper db;
+
+    @BeforeEach
+    void open() {
+        db = new DatabaseHelper(dir.resolve("stats.db"), 1);
+    }
+
+    @AfterEach
+    void close() {
+        db.close();
+    }
+
+    @Test
+    void triggersFollowInsertsStatusChangesAndDeletes() throws SQLException {
+        assertTrue(db.insertArtworks(List.of(
+                new ArtworkModel("a1", "Dawn", 5000, "Painting", null, "Mitu Das", null),
+                new ArtworkModel("a2", "Dusk", 7000, "Painting", null, "Mitu Das", null))));
+        assertTrue(db.insertOrders(List.of(
+                new OrderModel("o1", "Customer 1", "Mitu Das", "Dawn", 1, 5000, "2026-01-01T10:00:00", "pending"),
+                new OrderModel("o2", "Customer 2", "Mitu Das", "Dusk", 1, 7000, "2026-01-02T10:00:00", "pending"),
+                new OrderModel("o3", "Customer 3", "mitu das", "Dusk", 2, 14000, "2026-01-03T10:00:00", "completed"))));
+        assertTrue(db.updateOrderStatus("o1", "completed"));
+        assertTrue(db.updateOrderStatus("o2", "rejected"));
+        assertTrue(db.deleteArtwork("a2"));
+        db.pool().write(c -> {
+            try (Statement st = c.createStatement()) {
+                return st.executeUpdate("DELETE FROM orders WHERE id = 'o3'");
+            }
+        });
+
+        ArtistStats stats = db.getArtistStats("MITU DAS");
+        assertEquals(1, stats.getArtworkCount());
+        assertEquals(2, stats.getOrderCount());
+        assertEquals(0, stats.getPendingCount());
+        assertEquals(1, stats.getCompletedCount());
+        assertEquals(1, stats.getRejectedCount());
+        assertEquals(5000, stats.getCompletedEarningsCents());
+        assertEquals(List.of(), db.checkArtistStats());
+    }
+
+    @Test
+    void repairRebuildsADriftedRow() throws SQLException {
+        assertTrue(db.insertOrder(new OrderModel("o1", "Customer 1", "Rafi Karim", "Sea", 1, 2500, "2026-01-01T10:00:00", "completed")));
+        db.pool().write(c -> {
+            try (Statement st = c.createStatement()) {
+                return st.executeUpdate("UPDATE artist_stats SET completed_earnings_cents = 0 WHERE artist_name = 'Rafi Karim'");
+            }
+        });
+        assertFalse(db.checkArtistStats().isEmpty());
+
+        assertTrue(db.repairArtistStats());
+        assertEquals(List.of(), db.checkArtistStats());
+        assertEquals(2500, db.getArtistStats("Rafi Karim").getCompletedEarningsCents());
+    }
+}
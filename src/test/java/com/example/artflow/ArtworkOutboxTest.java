@@ -0,0 +1,78 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtworkOutboxTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHelper db;
+
+    @BeforeEach
+    void open() {
+        db = new DatabaseHelper(dir.resolve("outbox.db"), 1);
+    }
+
+    @AfterEach
+    void close() {
+        db.close();
+    }
+
+    @Test
+    void aRejectedChangeIsDroppedAndTheRestOfItsBatchWritten() throws SQLException {
+        db.pool().write(c -> {
+            try (Statement st = c.createStatement()) {
+                st.execute("CREATE TRIGGER reject_untitled BEFORE INSERT ON artworks WHEN NEW.title IS NULL "
+                        + "BEGIN SELECT RAISE(ABORT, 'artwork needs a title'); END");
+            }
+            return null;
+        });
+        List<Set<String>> dropped = new CopyOnWriteArrayList<>();
+        ArtworkOutbox outbox = ArtworkOutbox.open(db, 10_000, dropped::add);
+        outbox.upsert(new ArtworkModel("a1", "Dawn", 5000, "Painting", null, "Mitu Das", null));
+        outbox.upsert(new ArtworkModel("a2", null, 2500, "Painting", null, "Mitu Das", null));
+        outbox.upsert(new ArtworkModel("a3", "Sea", 7500, "Painting", null, "Rafi Karim", null));
+
+        // a constraint is not retried: the batch is split at once instead of backing off
+        assertTrue(outbox.flush(5000));
+        assertEquals(List.of(Set.of("a2")), dropped);
+        assertEquals(1, outbox.getDroppedChangeCount());
+        assertEquals(2, outbox.getFlushedChangeCount());
+        assertEquals(Set.of("a1", "a3"), ids(db.getArtworksByIds(List.of("a1", "a2", "a3"))));
+        assertFalse(outbox.isPending("a2"));
+        assertTrue(outbox.close(1000));
+    }
+
+    @Test
+    void onlyBusyAndIoErrorsAreRetried() {
+        assertTrue(ArtworkOutbox.isTransient(new SQLiteException("locked", SQLiteErrorCode.SQLITE_BUSY)));
+        assertTrue(ArtworkOutbox.isTransient(new SQLiteException("snapshot", SQLiteErrorCode.SQLITE_BUSY_SNAPSHOT)));
+        assertTrue(ArtworkOutbox.isTransient(new SQLException("Connection pool is closed")));
+        assertFalse(ArtworkOutbox.isTransient(new SQLiteException("no title", SQLiteErrorCode.SQLITE_CONSTRAINT_TRIGGER)));
+        assertFalse(ArtworkOutbox.isTransient(new IllegalArgumentException("bad row")));
+    }
+
+    private static Set<String> ids(List<ArtworkModel> models) {
+        Set<String> ids = new HashSet<>();
+        for (ArtworkModel m : models) ids.add(m.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHelper db;
+
+    @BeforeEach
+    void open() {
+        db = new DatabaseHelper(dir.resolve("changes.db"), 1);
+    }
+
+    @AfterEach
+    void close() {
+        db.close();
+    }
+
+    @Test
+    void cursorPagesThroughChangesInOrder() {
+        long start = db.latestChangeSeq();
+        assertTrue(db.insertArtwork(new ArtworkModel("a1", "Dawn", 5000, "Painting", null, "Mitu Das", null)));
+        assertTrue(db.insertOrders(List.of(
+                new OrderModel("o1", "Customer 1", "Mitu Das", "Dawn", 1, 5000, "2026-01-01T10:00:00", "pending"),
+                new OrderModel("o2", "Customer 2", "Mitu Das", "Dawn", 1, 5000, "2026-01-02T10:00:00", "pending"))));
+        assertTrue(db.updateOrderStatus("o1", "completed"));
+        long latest = db.latestChangeSeq();
+        assertTrue(latest > start);
+
+        ChangeSet first = db.changesSince(start, 2);
+        assertEquals(2, first.getChanges().size());
+        assertTrue(first.hasMore());
+        assertFalse(first.isTruncated());
+        assertEquals(start + 1, first.getChanges().get(0).getSeq());
+        assertEquals(ChangeSet.Entity.ARTWORK, first.getChanges().get(0).getEntity());
+        assertEquals(ChangeSet.Op.INSERT, first.getChanges().get(0).getOp());
+        assertEquals(first.getChanges().get(1).getSeq(), first.getCursor());
+
+        ChangeSet rest = db.changesSince(first.getCursor(), 100);
+        assertFalse(rest.hasMore());
+        assertEquals(latest, rest.getCursor());
+        ChangeSet.Change last = rest.getChanges().get(rest.getChanges().size() - 1);
+        assertEquals("o1", last.getEntityId());
+        assertEquals(ChangeSet.Op.UPDATE, last.getOp());
+        assertEquals(Set.of("o1", "o2"), db.changesSince(start, 100).idsOf(ChangeSet.Entity.ORDER));
+        assertTrue(rest.touchesArtist("MITU DAS"));
+
+        // caught up: nothing new, same cursor
+        ChangeSet none = db.changesSince(latest, 100);
+        assertTrue(none.isEmpty());
+        assertEquals(latest, none.getCursor());
+    }
+
+    @Test
+    void cursorBehindThePrunedLogIsTruncated() throws SQLException {
+        long start = db.latestChangeSeq();
+        assertTrue(db.insertOrder(new OrderModel("o1", "Customer 1", "Rafi Karim", "Sea", 1, 2500, "2026-01-01T10:00:00", "pending")));
+        long middle = db.latestChangeSeq();
+        assertTrue(db.updateOrderStatus("o1", "completed"));
+        long latest = db.latestChangeSeq();
+
+        // everything up to the middle is old enough to prune
+        db.pool().write(c -> {
+            try (PreparedStatement ps = c.prepareStatement("UPDATE changes SET changed_at = 0 WHERE seq <= ?")) {
+                ps.setLong(1, middle);
+                ps.executeUpdate();
+            }
+            return null;
+        });
+        assertEquals(middle - start, prune(1));
+
+        ChangeSet behind = db.changesSince(start, 100);
+        assertTrue(behind.isTruncated());
+        assertTrue(behind.getChanges().isEmpty());
+        assertEquals(latest, behind.getCursor());
+        assertTrue(behind.touchesArtist("anyone"));
+
+        // a reader that kept up still gets the rest
+        ChangeSet current = db.changesSince(middle, 100);
+        assertFalse(current.isTruncated());
+        assertEquals(Set.of("o1"), current.idsOf(ChangeSet.Entity.ORDER));
+
+        // with the whole log pruned the position survives: a caught-up cursor is not mistaken for a gap
+        db.pool().write(c -> {
+            try (Statement st = c.createStatement()) {
+                return st.executeUpdate("UPDATE changes SET changed_at = 0");
+            }
+        });
+        prune(1);
+        assertEquals(latest, db.latestChangeSeq());
+        assertFalse(db.changesSince(latest, 100).isTruncated());
+        assertTrue(db.changesSince(middle, 100).isTruncated());
+    }
+
+    private int prune(long beforeMs) throws SQLException {
+        return db.pool().write(c -> {
+            try (PreparedStatement ps = c.prepareStatement(DatabaseHelper.PRUNE_CHANGES_SQL)) {
+                ps.setLong(1, beforeMs);
+                ps.setInt(2, 10_000);
+                return ps.executeUpdate();
+            }
+        });
+    }
+}
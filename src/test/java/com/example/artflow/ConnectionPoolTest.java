@@ -0,0 +1,84 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConnectionPoolTest {
+
+    @TempDir
+    Path dir;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void open() throws SQLException {
+        pool = new ConnectionPool("jdbc:sqlite:" + dir.resolve("pool.db"), 2);
+        pool.write(c -> {
+            try (Statement st = c.createStatement()) {
+                st.execute("CREATE TABLE t(id INTEGER PRIMARY KEY, v TEXT)");
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    void close() {
+        pool.close();
+    }
+
+    @Test
+    void fileIsInWalMode() throws SQLException {
+        assertEquals("wal", pool.read(c -> queryString(c.createStatement(), "PRAGMA journal_mode")));
+    }
+
+    @Test
+    void readersAreReadOnly() {
+        assertThrows(SQLException.class, () -> pool.read(c -> {
+            try (Statement st = c.createStatement()) {
+                return st.executeUpdate("INSERT INTO t(v) VALUES('x')");
+            }
+        }));
+    }
+
+    @Test
+    void readersSeeCommittedWrites() throws SQLException {
+        pool.write(c -> {
+            try (Statement st = c.createStatement()) {
+                return st.executeUpdate("INSERT INTO t(v) VALUES('a'), ('b')");
+            }
+        });
+        for (int i = 0; i < pool.getReaderCount(); i++) {
+            assertEquals("2", pool.read(c -> queryString(c.createStatement(), "SELECT COUNT(*) FROM t")));
+        }
+    }
+
+    @Test
+    void failedTransactionIsRolledBack() throws SQLException {
+        assertThrows(SQLException.class, () -> pool.transaction(c -> {
+            try (Statement st = c.createStatement()) {
+                st.executeUpdate("INSERT INTO t(v) VALUES('a')");
+                st.executeUpdate("INSERT INTO missing(v) VALUES('b')");
+            }
+            return null;
+        }));
+        assertEquals("0", pool.read(c -> queryString(c.createStatement(), "SELECT COUNT(*) FROM t")));
+        // the writer is back in auto-commit for the next caller
+        assertEquals(Boolean.TRUE, pool.write(c -> c.getAutoCommit()));
+    }
+
+    private static String queryString(Statement st, String sql) throws SQLException {
+        try (st; ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseBackupTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHelper db;
+    private DatabaseBackup backups;
+
+    @BeforeEach
+    void open() {
+        db = new DatabaseHelper(dir.resolve("live.db"), 1);
+        backups = db.getBackups();
+    }
+
+    @AfterEach
+    void close() {
+        db.close();
+    }
+
+    @Test
+    void backupIsAStandaloneCopyOfTheLiveFile() throws Exception {
+        insertOrders(0, 300);
+        DatabaseBackup.Snapshot s = backups.backup();
+
+        assertEquals(List.of(s.getFile()), backups.list());
+        assertTrue(s.getSteps() >= 1 && s.getPages() > 0);
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + s.getFile())) {
+            assertEquals("delete", SchemaMigrationsTest.queryString(c, "PRAGMA journal_mode"));
+            assertEquals("ok", SchemaMigrationsTest.queryString(c, "PRAGMA quick_check"));
+            assertEquals("300", SchemaMigrationsTest.queryString(c, "SELECT COUNT(*) FROM orders"));
+            assertEquals(String.valueOf(SchemaMigrations.latestVersion()), SchemaMigrationsTest.queryString(c, "PRAGMA user_version"));
+        }
+        try (var files = Files.list(backups.getBackupDir())) {
+            assertTrue(files.noneMatch(p -> p.toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    void restoreBringsBackTheBackupAndKeepsTheReplacedContents() throws Exception {
+        insertOrders(0, 10);
+        DatabaseBackup.Snapshot s = backups.backup();
+        insertOrders(10, 5);
+        assertTrue(db.updateOrderStatus("order-0", "rejected"));
+
+        backups.restore(s.getFile());
+
+        // pooled readers see the restored contents straight away
+        assertEquals(10, db.listOrders().size());
+        assertEquals("pending", db.listOrdersByIds(OrderPage.Query.forArtist("Tanvir Ahmed", null), List.of("order-0")).get(0).getStatus());
+        assertEquals(List.of(), db.checkArtistStats());
+        Path undo;
+        try (var files = Files.list(backups.getBackupDir())) {
+            undo = files.filter(p -> p.getFileName().toString().startsWith("live-pre-restore-")).findFirst().orElseThrow();
+        }
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + undo)) {
+            assertEquals("15", SchemaMigrationsTest.queryString(c, "SELECT COUNT(*) FROM orders"));
+        }
+    }
+
+    @Test
+    void restoreRefusesAFileThatIsNotADatabase() throws Exception {
+        insertOrders(0, 3);
+        Path junk = dir.resolve("junk.db");
+        Files.writeString(junk, "not an SQLite file");
+
+        assertThrows(SQLException.class, () -> backups.restore(junk));
+        assertEquals(3, db.listOrders().size());
+    }
+
+    @Test
+    void pruneKeepsTheNewest() throws SQLException, IOException {
+        List<Path> taken = new java.util.ArrayList<>();
+        for (int i = 0; i < 4; i++) taken.add(0, backups.backup().getFile());
+        // newest first, also for backups taken within the same second
+        List<Path> all = backups.list();
+        assertEquals(taken, all);
+
+        assertEquals(2, backups.prune(2));
+        assertEquals(all.subList(0, 2), backups.list());
+    }
+
+    private void insertOrders(int from, int count) {
+        List<OrderModel> orders = new java.util.ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            orders.add(new OrderModel("order-" + i, "Customer " + (i % 7), "Tanvir Ahmed", "Piece " + (i % 3), 1, 1000 + i,
+                    String.format("2026-01-%02dT10:00:00", 1 + i % 28), "pending"));
+        }
+        assertTrue(db.insertOrders(orders));
+    }
+}
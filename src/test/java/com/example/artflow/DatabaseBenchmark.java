@@ -0,0 +1,1517 @@
+package com.example.artflow;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-alone benchmarks for the storage layer. Each scenario seeds a throw-away database in a temp
+ * directory, so the real artflow.db is never touched. Lives with the tests so it stays out of the
+ * application jar; surefire does not run it.
+ *
+ * Usage, after {@code mvn test-compile}:
+ *   java -cp target/classes:target/test-classes:&lt;sqlite-jdbc jar&gt; com.example.artflow.DatabaseBenchmark &lt;scenario&gt; [rows]
+ *   readers    - listOrders() throughput with 1, 2, 4 and 8 concurrent readers
+ *   statements - per-call prepareStatement vs cached statements for order inserts and logins
+ *   filter     - order screens at 500k orders: listOrders() + Java filter vs indexed SQL predicates
+ *   paging     - keyset page cost at the start vs deep into one artist's large order history
+ *   stats      - dashboard card refresh at 10k, 100k and 1M orders: load-everything vs getArtistStats,
+ *                then a burst of mixed writes followed by the artist_stats consistency check
+ *   startup    - DatabaseHelper construction time on a large (default 1M order) database, first and repeat opens
+ *   async      - caller-thread cost of the CompletableFuture API vs the blocking call, and 2,000 concurrent requests
+ *   outbox     - click-path cost of artwork saves: synchronous upsert vs the write-behind outbox, plus flush metrics
+ *   search     - catalog search at 1M artworks: per-keystroke lowercase + contains vs the FTS5 index, plus index sync
+ *   prices     - cent prices at 200k artworks/orders: per-click price parsing, price-range queries, migration from text/REAL
+ *   users      - user lookups at 1M users: plans, login and name lookup before/after canonical keys, migration time
+ *   logging    - caller-thread cost per log line: println, disabled FINE, and a file handler direct vs behind AsyncHandler
+ *   journal    - order journal: caller cost per event, writer throughput with rotation, tail and streaming reads
+ *   querystats - cost of QueryStats timing on page, stats and full-scan queries, then its percentiles, gauges and slow-query log
+ *   import     - catalog import of 5,000 images: parallel decode and thumbnails, one batched insert vs per-row commits
+ *   backup     - online backup of a 500k-order database under a steady insert load: duration, steps, writer stalls; restore
+ *   changes    - change log: insert cost with and without the capture triggers, full page reload vs changesSince deltas
+ *   watcher    - two helpers on one file: idle data_version poll cost, commit-to-listener latency, delta vs full catalog reload
+ *   archive    - moving old completed/rejected orders to the archive file: batches, writer stalls, stats kept, live vs archived paging
+ *   maintenance - after deleting half the catalog and the rejected orders: ANALYZE + incremental vacuum steps, file size and probe latency
+ *   keys       - order foreign keys at 200k orders: backfill migration time, name vs account-key lookups, rename
+ *   bulk       - rows/second for 1k, 10k and 100k inserts: per-row auto-commit vs batched transaction
+ */
+public class DatabaseBenchmark {
+
+    private static final String[] ARTISTS = { "Ayesha Rahman", "Naurina Haque", "Tanvir Ahmed", "Mitu Das", "Rafi Karim" };
+    private static final String[] STATUSES = { "pending", "completed", "rejected" };
+
+    public static void main(String[] args) throws Exception {
+        AppLogging.install();
+        // the other scenarios measure the database; the journal has its own scenario
+        if (System.getProperty("artflow.orderJournal") == null) System.setProperty("artflow.orderJournal", "false");
+        String scenario = args.length > 0 ? args[0] : "readers";
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        Path dir = Files.createTempDirectory("artflow-bench");
+        switch (scenario.toLowerCase(Locale.ROOT)) {
+            case "readers": readerScaling(dir, rows); break;
+            case "statements": statementCache(dir, rows); break;
+            case "bulk": bulkInsert(dir); break;
+            case "paging": keysetPaging(dir, rows); break;
+            case "stats": dashboardStats(dir); break;
+            case "keys": orderKeys(dir, args.length > 1 ? rows : 200_000); break;
+            case "outbox": artworkOutbox(dir, args.length > 1 ? rows : 5_000); break;
+            case "async": asyncApi(dir, rows); break;
+            case "startup": startupInit(dir, args.length > 1 ? rows : 1_000_000); break;
+            case "filter": orderFiltering(dir, args.length > 1 ? rows : 500_000); break;
+            case "search": artworkSearch(dir, args.length > 1 ? rows : 1_000_000); break;
+            case "prices": centPrices(dir, args.length > 1 ? rows : 200_000); break;
+            case "users": userLookups(dir, args.length > 1 ? rows : 1_000_000); break;
+            case "logging": logCost(dir, args.length > 1 ? rows : 200_000); break;
+            case "journal": orderJournal(dir, args.length > 1 ? rows : 2_000_000); break;
+            case "querystats": queryTiming(dir, args.length > 1 ? rows : 100_000); break;
+            case "import": catalogImport(dir, args.length > 1 ? rows : 5_000); break;
+            case "backup": onlineBackup(dir, args.length > 1 ? rows : 500_000); break;
+            case "maintenance": maintenance(dir, args.length > 1 ? rows : 300_000); break;
+            case "changes": changeLog(dir, args.length > 1 ? rows : 200_000); break;
+            case "watcher": watcher(dir, args.length > 1 ? rows : 100_000); break;
+            case "archive": orderArchive(dir, args.length > 1 ? rows : 500_000); break;
+            default:
+                System.err.println("Unknown scenario: " + scenario);
+                System.exit(2);
+        }
+    }
+
+    // --- scenarios ---
+
+    /** Full listOrders() scans from N threads against a pool of N readers, while one writer keeps inserting. */
+    static void readerScaling(Path dir, int rows) throws Exception {
+        long durationMs = 3000;
+        System.out.printf("readers: %,d seeded orders, %d ms per run%n", rows, durationMs);
+        for (int readers : new int[] { 1, 2, 4, 8 }) {
+            Path dbFile = dir.resolve("readers-" + readers + ".db");
+            DatabaseHelper db = new DatabaseHelper(dbFile, readers);
+            try {
+                seedOrders(db, rows);
+                AtomicLong reads = new AtomicLong();
+                AtomicLong writes = new AtomicLong();
+                long deadline = System.currentTimeMillis() + durationMs;
+                CountDownLatch done = new CountDownLatch(readers + 1);
+                for (int t = 0; t < readers; t++) {
+                    new Thread(() -> {
+                        while (System.currentTimeMillis() < deadline) {
+                            db.listOrders();
+                            reads.incrementAndGet();
+                        }
+                        done.countDown();
+                    }, "bench-reader-" + t).start();
+                }
+                new Thread(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        db.updateOrderStatus("bench-" + (writes.get() % rows), STATUSES[(int) (writes.get() % 3)]);
+                        writes.incrementAndGet();
+                    }
+                    done.countDown();
+                }, "bench-writer").start();
+                done.await();
+                double secs = durationMs / 1000.0;
+                System.out.printf("  %d reader(s): %8.1f full scans/s   %8.1f writes/s%n",
+                        readers, reads.get() / secs, writes.get() / secs);
+            } finally {
+                db.close();
+            }
+        }
+    }
+
+    private static final String INSERT_ORDER_SQL = DatabaseHelper.INSERT_ORDER_SQL;
+    private static final String LOGIN_SQL = DatabaseHelper.LOGIN_SQL;
+
+    /** Same statements DatabaseHelper runs, once re-prepared per call and once through the statement cache. */
+    static void statementCache(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("statements.db"), 1);
+        try {
+            db.pool().write(c -> {
+                try (PreparedStatement ps = c.prepareStatement(
+                        "INSERT INTO users(password, email, user_type, first_name, last_name, full_name) VALUES(?,?,?,?,?,?)")) {
+                    ps.setString(1, "password");
+                    ps.setString(2, "artist@bench.local");
+                    ps.setString(3, "artist");
+                    ps.setString(4, "Bench");
+                    ps.setString(5, "Artist");
+                    ps.setString(6, "Bench Artist");
+                    ps.executeUpdate();
+                }
+                return null;
+            });
+            List<OrderModel> orders = generateOrders(rows * 2);
+            System.out.printf("statements: %,d order inserts and %,d logins per path%n", rows, rows);
+
+            long t0 = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                OrderModel o = orders.get(i);
+                db.pool().write(c -> {
+                    try (PreparedStatement ps = c.prepareStatement(INSERT_ORDER_SQL)) {
+                        DatabaseHelper.bindOrder(ps, o);
+                        return ps.executeUpdate();
+                    }
+                });
+            }
+            long uncachedInsert = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            for (int i = rows; i < rows * 2; i++) {
+                OrderModel o = orders.get(i);
+                db.pool().write(c -> {
+                    PreparedStatement ps = db.pool().statements(c).prepare(INSERT_ORDER_SQL);
+                    DatabaseHelper.bindOrder(ps, o);
+                    return ps.executeUpdate();
+                });
+            }
+            long cachedInsert = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                db.pool().read(c -> {
+                    try (PreparedStatement ps = c.prepareStatement(LOGIN_SQL)) {
+                        return runLogin(ps);
+                    }
+                });
+            }
+            long uncachedLogin = System.nanoTime() - t0;
+
+            long hitsBefore = db.getStatementCacheHits();
+            t0 = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                db.pool().read(c -> runLogin(db.pool().statements(c).prepare(LOGIN_SQL)));
+            }
+            long cachedLogin = System.nanoTime() - t0;
+
+            System.out.printf("  insertOrder  per-call prepare: %8.1f us/op   cached: %8.1f us/op%n",
+                    uncachedInsert / 1000.0 / rows, cachedInsert / 1000.0 / rows);
+            System.out.printf("  loginUser    per-call prepare: %8.1f us/op   cached: %8.1f us/op%n",
+                    uncachedLogin / 1000.0 / rows, cachedLogin / 1000.0 / rows);
+            System.out.printf("  cache hits: %,d (login run: %,d)   misses: %,d%n",
+                    db.getStatementCacheHits(), db.getStatementCacheHits() - hitsBefore, db.getStatementCacheMisses());
+        } finally {
+            db.close();
+        }
+    }
+
+    private static String runLogin(PreparedStatement ps) throws SQLException {
+        ps.setString(1, "artist@bench.local");
+        ps.setString(2, "password");
+        ps.setString(3, "artist");
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getString("full_name") : null;
+        }
+    }
+
+    /** One commit (and WAL sync) per row through insertOrder/insertArtwork, against insertOrders/insertArtworks. */
+    static void bulkInsert(Path dir) throws Exception {
+        System.out.println("bulk: rows/second, per-row auto-commit vs one batched transaction");
+        for (int n : new int[] { 1_000, 10_000, 100_000 }) {
+            DatabaseHelper db = new DatabaseHelper(dir.resolve("bulk-" + n + ".db"), 1);
+            try {
+                List<OrderModel> orders = generateOrders(n);
+                long t0 = System.nanoTime();
+                for (OrderModel o : orders) db.insertOrder(o);
+                long perRowOrders = System.nanoTime() - t0;
+                db.pool().write(c -> {
+                    try (java.sql.Statement st = c.createStatement()) { return st.executeUpdate("DELETE FROM orders"); }
+                });
+                t0 = System.nanoTime();
+                db.insertOrders(orders);
+                long batchedOrders = System.nanoTime() - t0;
+
+                List<ArtworkModel> arts = generateArtworks(n, "row-");
+                t0 = System.nanoTime();
+                for (ArtworkModel m : arts) db.insertArtwork(m);
+                long perRowArts = System.nanoTime() - t0;
+                List<ArtworkModel> batchArts = generateArtworks(n, "batch-");
+                t0 = System.nanoTime();
+                db.insertArtworks(batchArts);
+                long batchedArts = System.nanoTime() - t0;
+
+                System.out.printf("  %,7d orders:   per-row %,10.0f rows/s   batched %,10.0f rows/s%n",
+                        n, rate(n, perRowOrders), rate(n, batchedOrders));
+                System.out.printf("  %,7d artworks: per-row %,10.0f rows/s   batched %,10.0f rows/s%n",
+                        n, rate(n, perRowArts), rate(n, batchedArts));
+            } finally {
+                db.close();
+            }
+        }
+    }
+
+    private static double rate(int rows, long nanos) {
+        return rows / (nanos / 1_000_000_000.0);
+    }
+
+    /** What the three order screens used to do (scan everything, filter in Java) vs the indexed queries. */
+    static void orderFiltering(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("filter.db"), 2);
+        try {
+            // 1,000 artists and 20,000 customers: a few hundred orders each
+            if (!db.insertOrders(generateOrders(rows, 1000, 20_000))) throw new IllegalStateException("seeding failed");
+            String artist = "Artist 42";
+            String customer = "Customer 42";
+            System.out.printf("filter: %,d orders, artist '%s', customer '%s'%n", rows, artist, customer);
+            for (String plan : new String[] {
+                    "SELECT * FROM orders WHERE artist_name = 'x' COLLATE NOCASE AND status = 'pending' ORDER BY ordered_on DESC",
+                    "SELECT * FROM orders WHERE customer_name = 'x' COLLATE NOCASE ORDER BY ordered_on DESC" }) {
+                System.out.println("  plan: " + explain(db, plan));
+            }
+
+            for (int run = 0; run < 3; run++) {
+                long t0 = System.nanoTime();
+                int scanned = 0;
+                for (OrderModel o : db.listOrders()) {
+                    if (artist.equalsIgnoreCase(o.getArtistName()) && "pending".equalsIgnoreCase(o.getStatus())) scanned++;
+                }
+                long fullScan = System.nanoTime() - t0;
+
+                t0 = System.nanoTime();
+                int pending = db.listOrdersForArtist(artist, "pending").size();
+                long byArtist = System.nanoTime() - t0;
+
+                t0 = System.nanoTime();
+                int completed = db.listOrdersForArtist(artist, "completed").size();
+                long byArtistCompleted = System.nanoTime() - t0;
+
+                t0 = System.nanoTime();
+                int forCustomer = db.listOrdersForCustomer(customer).size();
+                long byCustomer = System.nanoTime() - t0;
+
+                System.out.printf("  run %d: listOrders+filter %8.2f ms (%d rows) | artist pending %6.2f ms (%d) | artist completed %6.2f ms (%d) | customer %6.2f ms (%d)%n",
+                        run + 1, fullScan / 1e6, scanned, byArtist / 1e6, pending, byArtistCompleted / 1e6, completed, byCustomer / 1e6, forCustomer);
+            }
+        } finally {
+            db.close();
+        }
+    }
+
+    /** Walk every page of one artist's completed orders; page latency should not grow with depth. */
+    static void keysetPaging(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("paging.db"), 2);
+        try {
+            // 2 artists: each has rows/2 orders, a third of them completed
+            if (!db.insertOrders(generateOrders(rows, 2, 5000))) throw new IllegalStateException("seeding failed");
+            String artist = ARTISTS[0];
+            System.out.printf("paging: %,d orders, walking '%s' completed orders in pages of %d%n",
+                    rows, artist, PagedOrderTable.DEFAULT_PAGE_SIZE);
+            for (OrderPage.Sort sort : OrderPage.Sort.values()) {
+                OrderPage.Query q = OrderPage.Query.forArtist(artist, "completed").sortedBy(sort, true);
+                OrderPage.Cursor cursor = null;
+                int pages = 0;
+                long first = 0, worst = 0, total = 0;
+                do {
+                    long t0 = System.nanoTime();
+                    OrderPage page = db.listOrdersPage(q, cursor, PagedOrderTable.DEFAULT_PAGE_SIZE);
+                    long took = System.nanoTime() - t0;
+                    if (pages == 0) first = took;
+                    worst = Math.max(worst, took);
+                    total += took;
+                    pages++;
+                    cursor = page.getNext();
+                } while (cursor != null);
+                System.out.printf("  sort %-6s: %,5d pages, first %6.2f ms, mean %6.2f ms, worst %6.2f ms%n",
+                        sort, pages, first / 1e6, total / 1e6 / pages, worst / 1e6);
+            }
+        } finally {
+            db.close();
+        }
+    }
+
+    /** The old updateDashboardCards (listArtworks + listOrders + Java loops) against the artist_stats rollup. */
+    static void dashboardStats(Path dir) throws Exception {
+        System.out.println("stats: dashboard card refresh for one of 100 artists");
+        for (int n : new int[] { 10_000, 100_000, 1_000_000 }) {
+            DatabaseHelper db = new DatabaseHelper(dir.resolve("stats-" + n + ".db"), 2);
+            try {
+                if (!db.insertOrders(generateOrders(n, 100, 20_000))) throw new IllegalStateException("seeding failed");
+                List<ArtworkModel> arts = generateArtworks(n / 10, "art-");
+                List<ArtworkModel> spread = new ArrayList<>(arts.size());
+                for (int i = 0; i < arts.size(); i++) {
+                    ArtworkModel a = arts.get(i);
+                    spread.add(new ArtworkModel(a.getId(), a.getTitle(), a.getPriceCents(), a.getCategory(), null, "Artist " + (i % 100), null));
+                }
+                db.insertArtworks(spread);
+                String artist = "Artist 7";
+
+                long t0 = System.nanoTime();
+                int artworkCount = 0, orderCount = 0;
+                long earnings = 0;
+                for (ArtworkModel a : db.listArtworks()) if (artist.equalsIgnoreCase(a.getArtistName())) artworkCount++;
+                for (OrderModel o : db.listOrders()) {
+                    if (artist.equalsIgnoreCase(o.getArtistName())) {
+                        orderCount++;
+                        if ("completed".equalsIgnoreCase(o.getStatus())) earnings += o.getAmountCents();
+                    }
+                }
+                long old = System.nanoTime() - t0;
+
+                ArtistStats stats = null;
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < 5; i++) {
+                    t0 = System.nanoTime();
+                    stats = db.getArtistStats(artist);
+                    best = Math.min(best, System.nanoTime() - t0);
+                }
+                System.out.printf("  %,9d orders: load-everything %9.2f ms (%d/%d/%d) | getArtistStats %6.2f ms (%d/%d/%d)%n",
+                        n, old / 1e6, artworkCount, orderCount, earnings,
+                        best / 1e6, stats.getArtworkCount(), stats.getOrderCount(), stats.getCompletedEarningsCents());
+
+                // status changes, artwork re-assignment (upsert) and deletes all go through the triggers
+                t0 = System.nanoTime();
+                int writes = 0;
+                for (int i = 0; i < 1000; i++, writes++) db.updateOrderStatus("bench-" + (i * 7 % n), STATUSES[i % STATUSES.length]);
+                for (int i = 0; i < 200; i++, writes++) {
+                    ArtworkModel a = spread.get(i);
+                    db.upsertArtwork(new ArtworkModel(a.getId(), a.getTitle(), a.getPriceCents(), a.getCategory(), null, "Artist " + ((i + 1) % 100), null));
+                }
+                for (int i = 200; i < 300; i++, writes++) db.deleteArtwork(spread.get(i).getId());
+                long writeNs = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                List<String> drift = db.checkArtistStats();
+                long checkNs = System.nanoTime() - t0;
+                System.out.printf("  %,9d orders: %d maintained writes %.1f us each, consistency check %.1f ms, drift: %s%n",
+                        n, writes, writeNs / 1e3 / writes, checkNs / 1e6, drift.isEmpty() ? "none" : drift);
+            } finally {
+                db.close();
+            }
+        }
+    }
+
+    /** Integer order keys: how long the backfill takes, what lookups cost by name vs by key, and renames. */
+    static void orderKeys(Path dir, int rows) throws Exception {
+        Path file = dir.resolve("keys.db");
+        int artists = 100, customers = 2000;
+        DatabaseHelper seed = new DatabaseHelper(file, 2);
+        try {
+            seed.inTransaction(c -> {
+                PreparedStatement ps = seed.pool().statements(c).prepare(
+                        "INSERT INTO users(password, email, user_type, first_name, last_name, full_name) VALUES('secret', ?, ?, ?, ?, ?)");
+                for (int i = 0; i < artists + customers; i++) {
+                    boolean artist = i < artists;
+                    String first = artist ? "Artist" : "Customer";
+                    int n = artist ? i : i - artists;
+                    ps.setString(1, first.toLowerCase(Locale.ROOT) + n + "@bench.local");
+                    ps.setString(2, artist ? "artist" : "customer");
+                    ps.setString(3, first);
+                    ps.setString(4, String.valueOf(n));
+                    ps.setString(5, first + " " + n);
+                    ps.executeUpdate();
+                }
+                return null;
+            });
+            List<ArtworkModel> arts = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                arts.add(new ArtworkModel("art-" + i, "Artwork " + i, 2500, "Digital Art", null, "Artist " + (i % artists), null));
+            }
+            seed.insertArtworks(arts);
+            long t0 = System.nanoTime();
+            if (!seed.insertOrders(generateOrders(rows, artists, customers))) throw new IllegalStateException("seeding failed");
+            System.out.printf("keys: %,d orders inserted with keys resolved in %.0f ms%n", rows, (System.nanoTime() - t0) / 1e6);
+
+            // pretend the file predates the keys, so reopening runs the backfill migration
+            seed.inTransaction(c -> {
+                try (java.sql.Statement st = c.createStatement()) {
+                    st.executeUpdate("UPDATE orders SET customer_id = NULL, artist_id = NULL, artwork_id = NULL");
+                    for (String index : new String[] { "idx_users_full_name", "idx_orders_artist_id_status_date",
+                            "idx_orders_artist_id_status_amount_cents", "idx_orders_customer_id_date", "idx_orders_artwork_id" }) {
+                        st.execute("DROP INDEX " + index);
+                    }
+                    st.execute("PRAGMA user_version = 3");
+                }
+                return null;
+            });
+        } finally {
+            seed.close();
+        }
+
+        long t0 = System.nanoTime();
+        DatabaseHelper db = new DatabaseHelper(file, 2);
+        System.out.printf("  reopen with backfill migration: %.0f ms%n", (System.nanoTime() - t0) / 1e6);
+        try {
+            int unlinked = db.pool().read(c -> {
+                try (java.sql.Statement st = c.createStatement(); ResultSet rs = st.executeQuery(
+                        "SELECT COUNT(*) FROM orders WHERE customer_id IS NULL OR artist_id IS NULL OR artwork_id IS NULL")) {
+                    return rs.next() ? rs.getInt(1) : -1;
+                }
+            });
+            System.out.printf("  orders left without keys: %,d%n", unlinked);
+
+            String artist = "Artist 7", artistEmail = "artist7@bench.local";
+            String customer = "Customer 42", customerEmail = "customer42@bench.local";
+            OrderPage.Query[][] pairs = {
+                    { OrderPage.Query.forArtist(artist, "pending"), OrderPage.Query.forArtistAccount(artistEmail, "pending") },
+                    { OrderPage.Query.forCustomer(customer), OrderPage.Query.forCustomerAccount(customerEmail) },
+            };
+            for (OrderPage.Query[] pair : pairs) {
+                long[] best = { Long.MAX_VALUE, Long.MAX_VALUE };
+                int[] found = new int[2];
+                for (int round = 0; round < 20; round++) {
+                    for (int k = 0; k < 2; k++) {
+                        long s0 = System.nanoTime();
+                        found[k] = db.listOrdersPage(pair[k], null, PagedOrderTable.DEFAULT_PAGE_SIZE).getItems().size();
+                        best[k] = Math.min(best[k], System.nanoTime() - s0);
+                    }
+                }
+                System.out.printf("  first page by name %6.3f ms (%d rows) | by account key %6.3f ms (%d rows)%n",
+                        best[0] / 1e6, found[0], best[1] / 1e6, found[1]);
+            }
+            System.out.println("  plan: " + explain(db, "SELECT id FROM orders WHERE artist_id = (SELECT id FROM users WHERE email = 'x') " +
+                    "AND status = 'pending' ORDER BY ordered_on DESC LIMIT 101"));
+
+            int before = db.listOrdersForArtist(artist, null).size();
+            t0 = System.nanoTime();
+            db.updateUserProfile(artistEmail, "Artist Seven", artistEmail, null, null);
+            long rename = System.nanoTime() - t0;
+            int afterOld = db.listOrdersForArtist(artist, null).size();
+            int afterNew = db.listOrdersForArtist("Artist Seven", null).size();
+            System.out.printf("  rename artist: %.1f ms, orders under old name %,d -> %,d, under new name %,d, stats drift: %s%n",
+                    rename / 1e6, before, afterOld, afterNew, db.checkArtistStats().isEmpty() ? "none" : db.checkArtistStats());
+        } finally {
+            db.close();
+        }
+    }
+
+    /** Artwork publish/edit/delete as the FX thread sees it: blocking upserts vs queueing into ArtworkOutbox. */
+    static void artworkOutbox(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("outbox.db"), 1);
+        try {
+            List<ArtworkModel> arts = generateArtworks(rows, "sync-");
+            long t0 = System.nanoTime();
+            for (ArtworkModel a : arts) db.upsertArtwork(a);
+            long sync = System.nanoTime() - t0;
+
+            ArtworkOutbox outbox = ArtworkOutbox.open(db, ids -> { });
+            arts = generateArtworks(rows, "queued-");
+            t0 = System.nanoTime();
+            for (ArtworkModel a : arts) outbox.upsert(a);
+            // every fifth artwork edited again and every tenth deleted, as a user tidying a gallery would
+            for (int i = 0; i < arts.size(); i += 5) outbox.upsert(arts.get(i));
+            for (int i = 0; i < arts.size(); i += 10) outbox.delete(arts.get(i).getId());
+            long queued = System.nanoTime() - t0;
+            int ops = rows + rows / 5 + rows / 10;
+            boolean flushed = outbox.close(30_000);
+            long total = System.nanoTime() - t0;
+
+            int stored = db.pool().read(c -> {
+                try (java.sql.Statement st = c.createStatement();
+                     ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM artworks WHERE id LIKE 'queued-%'")) {
+                    return rs.next() ? rs.getInt(1) : -1;
+                }
+            });
+            System.out.printf("outbox: %,d artwork saves%n", rows);
+            System.out.printf("  synchronous upsert : %8.1f us per click%n", sync / 1e3 / rows);
+            System.out.printf("  outbox             : %8.2f us per click (%,d ops), all committed after %.1f ms, flushed=%b, rows=%,d (expected %,d)%n",
+                    queued / 1e3 / ops, ops, total / 1e6, flushed, stored, rows - (rows + 9) / 10);
+            System.out.println("  " + outbox.metricsSummary());
+        } finally {
+            db.close();
+        }
+    }
+
+    private static final String[] ADJECTIVES = { "Blue", "Golden", "Quiet", "Silver", "Crimson", "Misty", "Bright", "Hidden",
+            "Ancient", "Wild", "Frozen", "Gentle", "Broken", "Velvet", "Distant", "Burning", "Pale", "Endless", "Lonely", "Amber" };
+    private static final String[] NOUNS = { "Ocean", "Forest", "River", "Garden", "Harbor", "Mountain", "Meadow", "Lantern",
+            "Village", "Desert", "Bridge", "Orchard", "Island", "Window", "Market", "Temple", "Valley", "Storm", "Sparrow", "Lotus",
+            "Monsoon", "Boatman", "Delta", "Tiger", "Rickshaw" };
+    private static final String[] TIMES = { "at Dawn", "at Dusk", "in Rain", "by Night", "in Spring", "in Winter", "at Noon", "in Bloom" };
+    private static final String[] CATEGORIES = { "Painting", "Digital Art", "Photography", "Sculpture", "Illustration" };
+    private static final String[] FIRST_NAMES = { "Ayesha", "Naurina", "Tanvir", "Mitu", "Rafi", "Sadia", "Imran", "Farzana",
+            "Kamal", "Nusrat", "Jamil", "Rumana", "Shakil", "Tahmina", "Arif", "Lubna", "Hasan", "Sharmin", "Zahid", "Priya" };
+    private static final String[] LAST_NAMES = { "Rahman", "Haque", "Ahmed", "Das", "Karim", "Chowdhury", "Islam", "Hossain",
+            "Sarkar", "Begum", "Roy", "Alam", "Siddique", "Khan", "Mahmud", "Akter", "Bhuiyan", "Sen", "Paul", "Uddin" };
+
+    /**
+     * Search-as-you-type over a large catalog: the old per-keystroke scan (lowercase title, category and
+     * artist of every artwork, then contains) vs searchArtworks on the artworks_fts index, then a check
+     * that edits and deletes reach the index.
+     */
+    static void artworkSearch(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("search.db"), 1);
+        try {
+            java.util.Random rnd = new java.util.Random(42);
+            long t0 = System.nanoTime();
+            for (int done = 0; done < rows; ) {
+                int n = Math.min(50_000, rows - done);
+                List<ArtworkModel> chunk = new ArrayList<>(n);
+                for (int i = 0; i < n; i++, done++) {
+                    String title = ADJECTIVES[rnd.nextInt(ADJECTIVES.length)] + " " + NOUNS[rnd.nextInt(NOUNS.length)] + " " + TIMES[rnd.nextInt(TIMES.length)];
+                    String artist = FIRST_NAMES[rnd.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[rnd.nextInt(LAST_NAMES.length)];
+                    String description = "A " + ADJECTIVES[rnd.nextInt(ADJECTIVES.length)].toLowerCase(Locale.ROOT) + " study of the "
+                            + NOUNS[rnd.nextInt(NOUNS.length)].toLowerCase(Locale.ROOT) + ", no. " + done;
+                    chunk.add(new ArtworkModel("art-" + done, title, 100L * (10 + rnd.nextInt(990)),
+                            CATEGORIES[rnd.nextInt(CATEGORIES.length)], null, artist, description));
+                }
+                if (!db.insertArtworks(chunk)) throw new IllegalStateException("seeding failed");
+            }
+            System.out.printf("search: %,d artworks seeded and indexed in %.1f s%n", rows, (System.nanoTime() - t0) / 1e9);
+
+            List<ArtworkModel> all = db.listArtworks();
+            String[] keystrokes = { "m", "mo", "mon", "mons", "monso", "monsoo", "monsoon", "monsoon b", "monsoon bo", "monsoon boatman" };
+            int sink = 0;
+            System.out.println("  query                    scan ms   fts ms   fts+category ms   hits(limit 100)");
+            for (String q : keystrokes) {
+                long scan = Long.MAX_VALUE, fts = Long.MAX_VALUE, ftsCat = Long.MAX_VALUE;
+                int hits = 0;
+                for (int run = 0; run < 3; run++) {
+                    long s0 = System.nanoTime();
+                    String lower = q.toLowerCase();
+                    for (ArtworkModel m : all) {
+                        if ((m.getTitle() != null && m.getTitle().toLowerCase().contains(lower)) ||
+                                (m.getCategory() != null && m.getCategory().toLowerCase().contains(lower)) ||
+                                (m.getArtistName() != null && m.getArtistName().toLowerCase().contains(lower))) sink++;
+                    }
+                    scan = Math.min(scan, System.nanoTime() - s0);
+                    s0 = System.nanoTime();
+                    hits = db.searchArtworks(q, null, 100, 0).size();
+                    fts = Math.min(fts, System.nanoTime() - s0);
+                    s0 = System.nanoTime();
+                    db.searchArtworks(q, "Painting", 100, 0);
+                    ftsCat = Math.min(ftsCat, System.nanoTime() - s0);
+                }
+                System.out.printf("  %-22s %9.1f %8.2f %17.2f %17d%n", "\"" + q + "\"", scan / 1e6, fts / 1e6, ftsCat / 1e6, hits);
+            }
+            long s0 = System.nanoTime();
+            int browse = db.searchArtworks("", "Sculpture", 200, 0).size();
+            System.out.printf("  empty query, category only: %.2f ms (%d rows)%n", (System.nanoTime() - s0) / 1e6, browse);
+            List<ArtworkModel> top = db.searchArtworks("golden harbor", null, 3, 0);
+            for (ArtworkModel m : top) System.out.println("  top hit for \"golden harbor\": " + m.getTitle() + " by " + m.getArtistName());
+
+            // the index follows edits, outbox batches and deletes
+            ArtworkModel first = all.get(0);
+            db.updateArtwork(new ArtworkModel(first.getId(), "Zephyrine Quokka", first.getPriceCents(), first.getCategory(), null,
+                    first.getArtistName(), first.getDescription()));
+            boolean foundNew = db.searchArtworks("zephyr", null, 10, 0).stream().anyMatch(m -> m.getId().equals(first.getId()));
+            boolean oldGone = db.searchArtworks(first.getTitle() + " " + first.getDescription(), null, 10, 0).stream().noneMatch(m -> m.getId().equals(first.getId()));
+            ArtworkModel second = all.get(1);
+            db.applyArtworkChanges(List.of(), List.of(second.getId()));
+            boolean deleted = db.searchArtworks(second.getDescription(), null, 10, 0).stream().noneMatch(m -> m.getId().equals(second.getId()));
+            System.out.printf("  index sync: edited title found=%b, old text gone=%b, deleted artwork gone=%b%s%n",
+                    foundNew, oldGone, deleted, sink < 0 ? "" : "");
+        } finally {
+            db.close();
+        }
+    }
+
+    /**
+     * Integer cent prices: the purchase-path cost of the old regex + parseDouble vs multiplying cents,
+     * a price-range page via the price_cents index vs loading and parsing every artwork, and the
+     * migration of a file that still has text prices and REAL amounts.
+     */
+    static void centPrices(Path dir, int rows) throws Exception {
+        Path file = dir.resolve("prices.db");
+        DatabaseHelper db = new DatabaseHelper(file, 1);
+        try {
+            java.util.Random rnd = new java.util.Random(7);
+            List<ArtworkModel> arts = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                arts.add(new ArtworkModel("art-" + i, "Artwork " + i, 500L + rnd.nextInt(500_000), "Digital Art", null, ARTISTS[i % ARTISTS.length], null));
+            }
+            if (!db.insertArtworks(arts)) throw new IllegalStateException("seeding failed");
+            seedOrders(db, rows);
+
+            // purchase path: every spinner change and buy click
+            int clicks = 1_000_000;
+            String[] texts = new String[1024];
+            for (int i = 0; i < texts.length; i++) texts[i] = "$" + arts.get(i).getPrice();
+            double sinkD = 0;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < clicks; i++) sinkD += Double.parseDouble(texts[i & 1023].replaceAll("[^0-9.\\-]", "")) * (1 + i % 3);
+            long parse = System.nanoTime() - t0;
+            long sinkL = 0;
+            t0 = System.nanoTime();
+            for (int i = 0; i < clicks; i++) sinkL += Math.multiplyExact(arts.get(i & 1023).getPriceCents(), (long) (1 + i % 3));
+            long cents = System.nanoTime() - t0;
+            System.out.printf("prices: %,d artworks, %,d orders%n", rows, rows);
+            System.out.printf("  order total per click : regex + parseDouble %7.1f ns | cents multiply %5.1f ns%s%n",
+                    (double) parse / clicks, (double) cents / clicks, sinkD < 0 || sinkL < 0 ? "!" : "");
+
+            // "between $100 and $150, cheapest first", first page of 50
+            long best = Long.MAX_VALUE, scan = Long.MAX_VALUE;
+            int hits = 0;
+            for (int run = 0; run < 5; run++) {
+                t0 = System.nanoTime();
+                hits = db.listArtworksByPrice(10_000, 15_000, 50, 0).size();
+                best = Math.min(best, System.nanoTime() - t0);
+                t0 = System.nanoTime();
+                List<ArtworkModel> all = db.listArtworks();
+                List<ArtworkModel> inRange = new ArrayList<>();
+                for (ArtworkModel a : all) {
+                    double p = Double.parseDouble(a.getPrice().replaceAll("[^0-9.\\-]", ""));
+                    if (p >= 100 && p <= 150) inRange.add(a);
+                }
+                inRange.sort(java.util.Comparator.comparingDouble(a -> Double.parseDouble(a.getPrice())));
+                scan = Math.min(scan, System.nanoTime() - t0);
+            }
+            System.out.printf("  price range page      : load + parse + sort %7.1f ms | price_cents index %5.2f ms (%d rows)%n",
+                    scan / 1e6, best / 1e6, hits);
+
+            long amountBefore = sumLong(db, "SELECT SUM(amount_cents) FROM orders");
+            long priceBefore = sumLong(db, "SELECT SUM(price_cents) FROM artworks");
+            // turn the file back into a version-5 one: text prices, REAL amounts and earnings
+            db.pool().write(c -> {
+                try (java.sql.Statement st = c.createStatement()) {
+                    for (String name : new String[] { "trg_artist_stats_order_insert", "trg_artist_stats_order_delete", "trg_artist_stats_order_update" }) {
+                        st.execute("DROP TRIGGER " + name);
+                    }
+                    for (String name : new String[] { "idx_artworks_price_cents", "idx_orders_artist_status_amount_cents", "idx_orders_artist_id_status_amount_cents" }) {
+                        st.execute("DROP INDEX " + name);
+                    }
+                    st.execute("ALTER TABLE artworks ADD COLUMN price TEXT");
+                    st.execute("UPDATE artworks SET price = '$' || (price_cents / 100) || '.' || printf('%02d', price_cents % 100)");
+                    st.execute("ALTER TABLE artworks DROP COLUMN price_cents");
+                    st.execute("ALTER TABLE orders ADD COLUMN amount REAL");
+                    st.execute("UPDATE orders SET amount = amount_cents / 100.0");
+                    st.execute("ALTER TABLE orders DROP COLUMN amount_cents");
+                    st.execute("ALTER TABLE artist_stats ADD COLUMN completed_earnings REAL NOT NULL DEFAULT 0");
+                    st.execute("ALTER TABLE artist_stats DROP COLUMN completed_earnings_cents");
+                    st.execute("CREATE INDEX idx_orders_artist_status_amount ON orders(artist_name COLLATE NOCASE, status, amount)");
+                    st.execute("CREATE INDEX idx_orders_artist_id_status_amount ON orders(artist_id, status, amount)");
+                    st.execute("PRAGMA user_version = 5");
+                }
+                return null;
+            });
+            db.close();
+            t0 = System.nanoTime();
+            db = new DatabaseHelper(file, 1);
+            long migrate = System.nanoTime() - t0;
+            System.out.printf("  migration to cents    : %.2f s; amounts %s, prices %s, artist_stats drift %s%n", migrate / 1e9,
+                    sumLong(db, "SELECT SUM(amount_cents) FROM orders") == amountBefore ? "match" : "DIFFER",
+                    sumLong(db, "SELECT SUM(price_cents) FROM artworks") == priceBefore ? "match" : "DIFFER",
+                    db.checkArtistStats().isEmpty() ? "none" : db.checkArtistStats());
+        } finally {
+            db.close();
+        }
+    }
+
+    private static long sumLong(DatabaseHelper db, String sql) throws SQLException {
+        return db.pool().read(c -> {
+            try (java.sql.Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+                return rs.next() ? rs.getLong(1) : -1L;
+            }
+        });
+    }
+
+    /**
+     * Logins and name lookups against a large users table, as a version-6 file (mixed-case emails,
+     * NOCASE and LIKE queries) and after migration 7 (canonical emails, name_key).
+     */
+    static void userLookups(Path dir, int rows) throws Exception {
+        Path file = dir.resolve("users.db");
+        DatabaseHelper db = new DatabaseHelper(file, 1);
+        try {
+            long t0 = System.nanoTime();
+            db.inTransaction(c -> {
+                PreparedStatement ps = db.pool().statements(c).prepare(
+                        "INSERT INTO users(password, email, user_type, first_name, last_name, full_name) VALUES('secret', ?, ?, ?, ?, ?)");
+                for (int i = 0; i < rows; i++) {
+                    boolean artist = i % 10 == 0;
+                    // every third address was typed with capitals, as early builds stored them
+                    ps.setString(1, i % 3 == 0 ? "User" + i + "@Bench.Local" : "user" + i + "@bench.local");
+                    ps.setString(2, artist ? "artist" : "customer");
+                    ps.setString(3, "User");
+                    ps.setString(4, String.valueOf(i));
+                    ps.setString(5, "User  " + i);
+                    ps.executeUpdate();
+                }
+                return null;
+            });
+            System.out.printf("users: %,d users seeded in %.1f s%n", rows, (System.nanoTime() - t0) / 1e9);
+            db.pool().write(c -> {
+                try (java.sql.Statement st = c.createStatement()) {
+                    st.execute("DROP INDEX idx_users_name_key");
+                    st.execute("PRAGMA user_version = 6");
+                }
+                return null;
+            });
+
+            String oldLogin = "SELECT first_name, last_name, full_name FROM users WHERE email = ? COLLATE NOCASE AND password = ? AND user_type = ?";
+            String oldByName = "SELECT email FROM users WHERE full_name LIKE ? COLLATE NOCASE LIMIT 1";
+            // a capitalized address near the end of the table
+            int t = (rows - 1) / 3 * 3;
+            String target = "user" + t + "@bench.local";
+            String targetType = t % 10 == 0 ? "artist" : "customer";
+            String targetName = "User  " + t;
+            System.out.println("  v6 login plan : " + explain(db, oldLogin));
+            System.out.println("  v6 name plan  : " + explain(db, oldByName));
+            double oldLoginUs = timeLookup(db, oldLogin, 20, target, "secret", targetType);
+            double oldNameUs = timeLookup(db, oldByName, 20, "%" + targetName + "%");
+
+            db.close();
+            t0 = System.nanoTime();
+            DatabaseHelper migrated = new DatabaseHelper(file, 1);
+            long migrate = System.nanoTime() - t0;
+            try {
+                long mixedCase = sumLong(migrated, "SELECT COUNT(*) FROM users WHERE email <> lower(email)");
+                long missingKey = sumLong(migrated, "SELECT COUNT(*) FROM users WHERE name_key IS NULL");
+                System.out.printf("  migration 7   : %.2f s; emails not canonical %d, users without name_key %d%n",
+                        migrate / 1e9, mixedCase, missingKey);
+                for (String sql : DatabaseHelper.USER_LOOKUP_SQL) System.out.println("  plan: " + explain(migrated, sql));
+
+                double loginUs = timeLookup(migrated, DatabaseHelper.LOGIN_SQL, 20_000, target, "secret", targetType);
+                double nameUs = timeLookup(migrated, DatabaseHelper.EMAIL_BY_NAME_SQL, 20_000, DatabaseHelper.nameKey(targetName));
+                System.out.printf("  login        : NOCASE scan %9.1f us | canonical email %6.2f us%n", oldLoginUs, loginUs);
+                System.out.printf("  email by name: LIKE scan   %9.1f us | name_key        %6.2f us%n", oldNameUs, nameUs);
+                System.out.printf("  loginUser(\"%s\") -> %s%n", target.toUpperCase(Locale.ROOT),
+                        migrated.loginUser(target.toUpperCase(Locale.ROOT), "secret", targetType));
+                System.out.printf("  getEmailForFullName(\"user %d\") -> %s%n", t, migrated.getEmailForFullName("user " + t));
+            } finally {
+                migrated.close();
+            }
+        } finally {
+            db.close();
+        }
+    }
+
+    /** Mean microseconds per execution of a cached lookup statement, after one warm-up run. */
+    private static double timeLookup(DatabaseHelper db, String sql, int runs, String... args) throws SQLException {
+        return db.pool().read(c -> {
+            PreparedStatement ps = db.pool().statements(c).prepare(sql);
+            for (int i = 0; i < args.length; i++) ps.setString(i + 1, args[i]);
+            long start = 0;
+            for (int run = -1; run < runs; run++) {
+                if (run == 0) start = System.nanoTime();
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) throw new IllegalStateException("lookup found nothing: " + sql);
+                }
+            }
+            return (System.nanoTime() - start) / 1e3 / runs;
+        });
+    }
+
+    /**
+     * What one log line costs the thread that writes it (on the FX thread, the frame budget): a
+     * System.out.println to a file, a FINE statement while FINE is off, and an enabled line through a
+     * file handler called directly vs queued by AppLogging.AsyncHandler.
+     */
+    static void logCost(Path dir, int lines) throws Exception {
+        java.util.logging.Logger logger = java.util.logging.Logger.getLogger("com.example.artflow.bench");
+        logger.setUseParentHandlers(false);
+        logger.setLevel(java.util.logging.Level.INFO);
+        System.out.printf("logging: %,d lines per variant (after a warm-up pass)%n", lines);
+
+        long[] println = new long[1], disabledParam = new long[1], disabledLambda = new long[1], direct = new long[1];
+        long[] queued = new long[3]; // caller nanos, wall nanos, dropped
+        for (int pass = 0; pass < 2; pass++) {
+            int n = pass == 0 ? lines / 10 : lines;
+
+            java.io.PrintStream console = System.out;
+            try (java.io.PrintStream out = new java.io.PrintStream(new java.io.FileOutputStream(dir.resolve("println.log").toFile()), true)) {
+                System.setOut(out);
+                long t0 = System.nanoTime();
+                for (int i = 0; i < n; i++) System.out.println("Order inserted into DB file: /data/artflow.db (id=" + i + ")");
+                println[0] = System.nanoTime() - t0;
+            } finally {
+                System.setOut(console);
+            }
+
+            // disabled statements are a few nanoseconds, so take the best of several runs
+            disabledParam[0] = disabledLambda[0] = Long.MAX_VALUE;
+            for (int run = 0; run < 5; run++) {
+                long t0 = System.nanoTime();
+                for (int i = 0; i < n; i++) logger.log(java.util.logging.Level.FINE, "Order {0} inserted", i);
+                disabledParam[0] = Math.min(disabledParam[0], System.nanoTime() - t0);
+                t0 = System.nanoTime();
+                for (int i = 0; i < n; i++) {
+                    int id = i;
+                    logger.fine(() -> "Order inserted (id=" + id + ")");
+                }
+                disabledLambda[0] = Math.min(disabledLambda[0], System.nanoTime() - t0);
+            }
+            long t0;
+
+            // what the app had: a handler that writes and flushes on the calling thread (as ConsoleHandler does)
+            java.util.logging.FileHandler file = new java.util.logging.FileHandler(dir.resolve("direct.log").toString());
+            file.setFormatter(new AppLogging.LineFormatter());
+            logger.addHandler(file);
+            t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) logger.log(java.util.logging.Level.INFO, "Order {0} inserted", i);
+            direct[0] = System.nanoTime() - t0;
+            logger.removeHandler(file);
+            file.close();
+
+            // what AppLogging installs: a stream handler behind the queue, flushed when the queue runs empty
+            java.util.logging.StreamHandler stream = new java.util.logging.StreamHandler(
+                    new java.io.FileOutputStream(dir.resolve("async.log").toFile()), new AppLogging.LineFormatter());
+            stream.setLevel(java.util.logging.Level.ALL);
+            AppLogging.AsyncHandler async = new AppLogging.AsyncHandler(stream, 8192);
+            logger.addHandler(async);
+            // bursts of 1,000 lines (e.g. a catalog import) 5 ms apart
+            long callerNanos = 0;
+            t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                long c0 = System.nanoTime();
+                logger.log(java.util.logging.Level.INFO, "Order {0} inserted", i);
+                callerNanos += System.nanoTime() - c0;
+                if (i % 1000 == 999) Thread.sleep(5);
+            }
+            async.drain(10_000);
+            queued[0] = callerNanos;
+            queued[1] = System.nanoTime() - t0;
+            queued[2] = async.getDroppedCount();
+            logger.removeHandler(async);
+            async.close();
+        }
+
+        System.out.printf("  System.out.println to file : %8.0f ns/line%n", (double) println[0] / lines);
+        System.out.printf("  FINE off, {0} parameter    : %8.1f ns/line%n", (double) disabledParam[0] / lines);
+        System.out.printf("  FINE off, Supplier lambda  : %8.1f ns/line%n", (double) disabledLambda[0] / lines);
+        System.out.printf("  INFO, flushing handler     : %8.0f ns/line%n", (double) direct[0] / lines);
+        System.out.printf("  INFO, behind AsyncHandler  : %8.0f ns/line on the caller (all written after %.0f ms, %d dropped)%n",
+                (double) queued[0] / lines, queued[1] / 1e6, queued[2]);
+    }
+
+    /**
+     * What the order journal costs the thread placing an order, how fast the writer drains a burst
+     * (with 16 MB segments, so it rotates), and reading back: tail(20), a full streaming pass, and a
+     * stream from near the end that skips the older segments.
+     */
+    static void orderJournal(Path dir, int events) throws Exception {
+        Path file = dir.resolve("orders_log.csv");
+        List<OrderModel> orders = generateOrders(events);
+        Runtime rt = Runtime.getRuntime();
+        System.out.printf("journal: %,d order events%n", events);
+        OrderJournal journal = OrderJournal.open(file, 16L * 1024 * 1024, 1000);
+        try {
+            for (int i = 0; i < 20_000; i++) journal.orderCreated(orders.get(i)); // warm-up
+            journal.flush(60_000);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < events; i++) journal.orderCreated(orders.get(i));
+            long record = System.nanoTime() - t0;
+            for (int i = 0; i < events / 10; i++) journal.statusChanged(orders.get(i).getId(), "completed");
+            long queued = System.nanoTime() - t0;
+            if (!journal.flush(600_000)) throw new IllegalStateException("journal did not drain");
+            long drained = System.nanoTime() - t0;
+            long bytes = 0;
+            int files = 0;
+            try (var list = Files.list(dir)) {
+                for (Path p : (Iterable<Path>) list::iterator) {
+                    if (p.getFileName().toString().startsWith("orders_log")) { bytes += Files.size(p); files++; }
+                }
+            }
+            int total = events + events / 10;
+            System.out.printf("  caller      : %6.0f ns/event (order created), %6.0f ns/event overall%n",
+                    (double) record / events, (double) queued / total);
+            System.out.printf("  writer      : all %,d written after %.2f s (%,.0f events/s), %d rotations, %d files, %.1f MB%n",
+                    journal.getWrittenCount(), drained / 1e9, journal.getWrittenCount() / (drained / 1e9),
+                    journal.getRotationCount(), files, bytes / 1e6);
+
+            t0 = System.nanoTime();
+            List<OrderJournal.Entry> last = journal.tail(20);
+            long tail = System.nanoTime() - t0;
+            System.out.printf("  tail(20)    : %6.2f ms, seq %d..%d, newest %s%n", tail / 1e6,
+                    last.get(0).getSeq(), last.get(last.size() - 1).getSeq(), last.get(last.size() - 1));
+
+            orders = null;
+            System.gc();
+            long heapBefore = rt.totalMemory() - rt.freeMemory();
+            long[] seen = new long[2];
+            t0 = System.nanoTime();
+            long streamed = journal.forEach(0, e -> {
+                seen[0]++;
+                if (e.getEvent() == OrderJournal.Event.CREATED) seen[1] += e.getAmountCents();
+            });
+            long stream = System.nanoTime() - t0;
+            System.gc();
+            long heapAfter = rt.totalMemory() - rt.freeMemory();
+            System.out.printf("  forEach(0)  : %,d entries in %.2f s (%,.0f entries/s), heap retained %.1f MB%n",
+                    streamed, stream / 1e9, streamed / (stream / 1e9), (heapAfter - heapBefore) / 1e6);
+            long from = last.get(0).getSeq();
+            t0 = System.nanoTime();
+            long recent = journal.forEach(from, e -> {});
+            System.out.printf("  forEach(%d): %,d entries in %.2f ms%n", from, recent, (System.nanoTime() - t0) / 1e6);
+        } finally {
+            journal.close(60_000);
+        }
+        OrderJournal reopened = OrderJournal.open(file, 16L * 1024 * 1024, 1000);
+        try {
+            reopened.statusChanged("bench-0", "rejected");
+            reopened.flush(5_000);
+            System.out.println("  reopened    : next entry " + reopened.tail(1).get(0));
+        } finally {
+            reopened.close(5_000);
+        }
+    }
+
+    /**
+     * The same read mix with QueryStats off and on (first order pages, dashboard stats, full order
+     * scans), then what the stats report: top statements, open statement / ResultSet gauges including
+     * a deliberately unclosed ResultSet, and the slow-query log with a 20 ms threshold.
+     */
+    static void queryTiming(Path dir, int rows) throws Exception {
+        Path file = dir.resolve("querystats.db");
+        OrderPage.Query q = OrderPage.Query.forArtist(ARTISTS[0], null);
+        System.out.printf("querystats: %,d orders%n", rows);
+        String previous = System.getProperty("artflow.db.queryStats");
+        try {
+            for (boolean enabled : new boolean[] { false, true }) {
+                System.setProperty("artflow.db.queryStats", String.valueOf(enabled));
+                DatabaseHelper db = new DatabaseHelper(file, 1);
+                try {
+                    if (!enabled) seedOrders(db, rows);
+                    int pages = 200, statsCalls = 5_000, scans = 5;
+                    for (int i = 0; i < 50; i++) { db.listOrdersPage(q, null, 100); db.getArtistStats(ARTISTS[i % ARTISTS.length]); }
+                    db.listOrders();
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < pages; i++) db.listOrdersPage(q, null, 100);
+                    long page = System.nanoTime() - t0;
+                    t0 = System.nanoTime();
+                    for (int i = 0; i < statsCalls; i++) db.getArtistStats(ARTISTS[i % ARTISTS.length]);
+                    long stats = System.nanoTime() - t0;
+                    t0 = System.nanoTime();
+                    for (int i = 0; i < scans; i++) db.listOrders();
+                    long scan = System.nanoTime() - t0;
+                    System.out.printf("  stats %-3s: first page %7.1f us | artist stats %6.2f us | full scan %7.1f ms%n",
+                            enabled ? "on" : "off", page / 1e3 / pages, stats / 1e3 / statsCalls, scan / 1e6 / scans);
+                    if (!enabled) continue;
+
+                    QueryStats qs = db.getQueryStats();
+                    List<QueryStats.StatementStats> top = qs.snapshot();
+                    for (QueryStats.StatementStats s : top.subList(0, Math.min(4, top.size()))) System.out.println("    " + s);
+                    ResultSet leaked = db.pool().read(c -> db.pool().statements(c).prepare("SELECT id FROM orders LIMIT 1").executeQuery());
+                    System.out.printf("  open statements %d (cached %d), open ResultSets with one left unclosed %d",
+                            qs.getOpenStatements(), db.pool().getStatementCacheMisses(), qs.getOpenResultSets());
+                    leaked.close();
+                    System.out.printf(", after closing it %d%n", qs.getOpenResultSets());
+
+                    qs.setSlowQueryThresholdMs(20);
+                    db.listOrders();
+                    db.listOrdersPage(q, null, 100);
+                    for (QueryStats.SlowQuery slow : qs.getSlowQueries()) {
+                        System.out.printf("  slow: %s %.1f ms, %,d rows, plan: %s%n", slow.getLabel(), slow.getNanos() / 1e6, slow.getRows(), slow.getPlan());
+                    }
+                } finally {
+                    db.close();
+                }
+            }
+        } finally {
+            if (previous == null) System.clearProperty("artflow.db.queryStats");
+            else System.setProperty("artflow.db.queryStats", previous);
+        }
+    }
+
+    /** How long the calling (FX) thread is held by a blocking query vs by submitting it to DbExecutor. */
+    /**
+     * Import a folder of {@code images} 1600x1200 JPEGs with a manifest (one row in a hundred has a bad
+     * price, one file is not an image), then save the same rows with one auto-committed upsert each to
+     * show what the single transaction saves.
+     */
+    static void catalogImport(Path dir, int images) throws Exception {
+        Path folder = Files.createDirectories(dir.resolve("images"));
+        // a few distinct pictures, encoded once and copied, so generating the folder doesn't dominate the run
+        byte[][] pictures = new byte[8][];
+        for (int v = 0; v < pictures.length; v++) {
+            java.awt.image.BufferedImage img = new java.awt.image.BufferedImage(1600, 1200, java.awt.image.BufferedImage.TYPE_INT_RGB);
+            java.awt.Graphics2D g = img.createGraphics();
+            g.setPaint(new java.awt.GradientPaint(0, 0, new java.awt.Color(30 * v, 90, 160), 1600, 1200, new java.awt.Color(240, 200 - 20 * v, 60)));
+            g.fillRect(0, 0, 1600, 1200);
+            g.setColor(java.awt.Color.WHITE);
+            for (int k = 0; k < 40; k++) g.fillOval((k * 97 + v * 31) % 1500, (k * 53 + v * 17) % 1100, 60 + k, 60 + k);
+            g.dispose();
+            java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+            javax.imageio.ImageIO.write(img, "jpg", out);
+            pictures[v] = out.toByteArray();
+        }
+        StringBuilder manifest = new StringBuilder("file,title,price,category,description\n");
+        long bytes = 0;
+        for (int i = 0; i < images; i++) {
+            String name = String.format("art_%05d.jpg", i);
+            byte[] data = i == images / 2 ? "not really a jpeg".getBytes() : pictures[i % pictures.length];
+            Files.write(folder.resolve(name), data);
+            bytes += data.length;
+            String price = i % 100 == 7 ? "twelve" : String.valueOf(10 + i % 90);
+            manifest.append(name).append(',').append(ADJECTIVES[i % ADJECTIVES.length]).append(' ').append(NOUNS[i % NOUNS.length])
+                    .append(',').append(price).append(',').append(CATEGORIES[i % CATEGORIES.length])
+                    .append(",\"Imported, piece ").append(i).append("\"\n");
+        }
+        Files.writeString(folder.resolve(CatalogImport.MANIFEST_NAME), manifest);
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        Path thumbs = dir.resolve("thumbnails");
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("import.db"), 1);
+        DatabaseHelper perRow = new DatabaseHelper(dir.resolve("per-row.db"), 1);
+        try {
+            long t0 = System.nanoTime();
+            CatalogImport.Result r = new CatalogImport(db, thumbs, threads)
+                    .run(folder, CatalogImport.findManifest(folder), ARTISTS[0], null);
+            long total = System.nanoTime() - t0;
+            long thumbBytes = 0;
+            try (java.util.stream.Stream<Path> files = Files.list(thumbs)) {
+                for (Path p : (Iterable<Path>) files::iterator) thumbBytes += Files.size(p);
+            }
+            int stored = db.pool().read(c -> {
+                try (java.sql.Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM artworks")) {
+                    return rs.next() ? rs.getInt(1) : -1;
+                }
+            });
+
+            t0 = System.nanoTime();
+            for (ArtworkModel m : r.getImported()) perRow.upsertArtwork(m);
+            long perRowNanos = System.nanoTime() - t0;
+
+            System.out.printf("import: %,d images (%.1f MB) with manifest, %d decode thread(s)%n", images, bytes / 1e6, threads);
+            System.out.printf("  total           : %8.1f ms (%,.0f images/s), imported %,d, skipped %,d, rows in db %,d%n",
+                    total / 1e6, rate(images, total), r.getImported().size(), r.getSkipped().size(), stored);
+            System.out.printf("  decode+thumbnail: %8d ms (%.2f ms per image per thread), thumbnails %.1f MB%n",
+                    r.getPrepareMs(), (double) r.getPrepareMs() * threads / images, thumbBytes / 1e6);
+            System.out.printf("  batched insert  : %8d ms in one transaction%n", r.getInsertMs());
+            System.out.printf("  per-row commits : %8.1f ms for the same %,d rows%n", perRowNanos / 1e6, r.getImported().size());
+            System.out.println("  e.g. skipped: " + r.getSkipped().subList(0, Math.min(2, r.getSkipped().size())));
+        } finally {
+            db.close();
+            perRow.close();
+        }
+    }
+
+    /**
+     * Back up a seeded database while another thread inserts orders one at a time, and compare the
+     * slowest insert during the backup with the slowest in an equally long quiet period. Then check the
+     * copy and restore it into a second database.
+     */
+    static void onlineBackup(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("live.db"), 1);
+        DatabaseHelper other = new DatabaseHelper(dir.resolve("restored.db"), 1);
+        try {
+            seedOrders(db, rows);
+            if (!db.insertArtworks(generateArtworks(rows / 10, "backup-"))) throw new IllegalStateException("seeding failed");
+            String count = "SELECT COUNT(*) FROM orders";
+            long before = sumLong(db, count);
+
+            AtomicLong inserted = new AtomicLong();
+            AtomicLong slowest = new AtomicLong();
+            java.util.concurrent.atomic.AtomicBoolean stop = new java.util.concurrent.atomic.AtomicBoolean();
+            Thread writer = new Thread(() -> {
+                int i = 0;
+                while (!stop.get()) {
+                    OrderModel o = new OrderModel("live-" + i, "Customer " + (i % 1000), ARTISTS[i % ARTISTS.length], "Artwork " + (i % 500),
+                            1, 2500, "2026-01-01T10:00:00", "pending");
+                    i++;
+                    long t0 = System.nanoTime();
+                    db.insertOrder(o);
+                    slowest.accumulateAndGet(System.nanoTime() - t0, Math::max);
+                    inserted.incrementAndGet();
+                    try { Thread.sleep(2); } catch (InterruptedException e) { return; }
+                }
+            }, "bench-writer");
+            writer.start();
+
+            Thread.sleep(500);
+            slowest.set(0);
+            inserted.set(0);
+            DatabaseBackup.Snapshot s = db.getBackups().backup();
+            long duringBackup = slowest.getAndSet(0);
+            long insertsDuring = inserted.getAndSet(0);
+            Thread.sleep(Math.max(200, s.getElapsedMs()));
+            long quiet = slowest.get();
+            long quietMs = Math.max(200, s.getElapsedMs());
+            long insertsQuiet = inserted.get();
+            stop.set(true);
+            writer.join();
+            long after = sumLong(db, count);
+
+            System.out.printf("backup: %,d orders + %,d artworks, %d pages per step%n", rows, rows / 10, DatabaseBackup.PAGES_PER_STEP);
+            System.out.println("  " + s);
+            System.out.printf("  slowest insert: %.2f ms during the backup (%,d inserts), %.2f ms in %d ms without (%,d inserts)%n",
+                    duringBackup / 1e6, insertsDuring, quiet / 1e6, quietMs, insertsQuiet);
+
+            other.getBackups().restore(s.getFile());
+            long restored = sumLong(other, count);
+            System.out.printf("  orders: %,d before, %,d in the restored copy, %,d live after the run (copy is one snapshot: %b)%n",
+                    before, restored, after, restored >= before && restored <= after);
+            System.out.println("  backups listed: " + db.getBackups().list().size());
+        } finally {
+            db.close();
+            other.close();
+        }
+    }
+
+    /**
+     * Churn a seeded database (half the artworks and every rejected order deleted), then run one
+     * maintenance pass while another thread keeps inserting orders, and report its steps, the slowest
+     * insert meanwhile, and the file size and probe latencies before and after.
+     */
+    static void maintenance(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("maintenance.db"), 1);
+        try {
+            seedOrders(db, rows);
+            List<ArtworkModel> arts = generateArtworks(rows / 3, "churn-");
+            for (int i = 0; i < arts.size(); i++) {
+                ArtworkModel a = arts.get(i);
+                arts.set(i, new ArtworkModel(a.getId(), a.getTitle(), a.getPriceCents(), CATEGORIES[i % CATEGORIES.length],
+                        null, a.getArtistName(), a.getDescription()));
+            }
+            if (!db.insertArtworks(arts)) throw new IllegalStateException("seeding failed");
+            List<String> deletes = new ArrayList<>();
+            for (int i = 0; i < arts.size(); i += 2) deletes.add(arts.get(i).getId());
+            db.applyArtworkChanges(List.of(), deletes);
+            int rejected = db.pool().write(c -> {
+                try (java.sql.Statement st = c.createStatement()) {
+                    return st.executeUpdate("DELETE FROM orders WHERE status = 'rejected'");
+                }
+            });
+
+            AtomicLong slowest = new AtomicLong();
+            AtomicLong inserted = new AtomicLong();
+            java.util.concurrent.atomic.AtomicBoolean stop = new java.util.concurrent.atomic.AtomicBoolean();
+            Thread writer = new Thread(() -> {
+                for (int i = 0; !stop.get(); i++) {
+                    OrderModel o = new OrderModel("live-" + i, "Customer " + (i % 1000), ARTISTS[i % ARTISTS.length], "Artwork " + (i % 500),
+                            1, 2500, "2026-01-01T10:00:00", "pending");
+                    long t0 = System.nanoTime();
+                    db.insertOrder(o);
+                    slowest.accumulateAndGet(System.nanoTime() - t0, Math::max);
+                    inserted.incrementAndGet();
+                    try { Thread.sleep(2); } catch (InterruptedException e) { return; }
+                }
+            }, "bench-writer");
+            writer.start();
+            Thread.sleep(300);
+            slowest.set(0);
+            inserted.set(0);
+            DatabaseMaintenance.Report r = db.getMaintenance().runNow();
+            long duringRun = slowest.get();
+            stop.set(true);
+            writer.join();
+
+            System.out.printf("maintenance: %,d orders (%,d rejected deleted), %,d artworks (%,d deleted)%n",
+                    rows, rejected, arts.size(), deletes.size());
+            System.out.println("  " + r.toString().replace("; ", "\n  "));
+            System.out.printf("  slowest insert during the run: %.2f ms (%,d inserts)%n", duringRun / 1e6, inserted.get());
+            DatabaseMaintenance.Report again = db.getMaintenance().runNow();
+            System.out.printf("  second run: %d ms, %d steps, vacuumed %,d pages%n", again.getElapsedMs(), again.getSteps(), again.getPagesVacuumed());
+        } finally {
+            db.close();
+        }
+    }
+
+    static void changeLog(Path dir, int rows) throws Exception {
+        // the trigger cost: the same batched seed into a file with and one without the capture triggers
+        DatabaseHelper plain = new DatabaseHelper(dir.resolve("changes-off.db"), 1);
+        long withoutTriggers;
+        try {
+            plain.pool().write(c -> {
+                try (java.sql.Statement st = c.createStatement()) {
+                    for (String t : new String[] { "artworks", "orders" }) {
+                        for (String op : new String[] { "insert", "update", "delete" }) st.execute("DROP TRIGGER trg_" + t + "_changes_" + op);
+                    }
+                }
+                return null;
+            });
+            long t0 = System.nanoTime();
+            seedOrders(plain, rows);
+            withoutTriggers = System.nanoTime() - t0;
+        } finally {
+            plain.close();
+        }
+
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("changes.db"), 2);
+        try {
+            long t0 = System.nanoTime();
+            seedOrders(db, rows);
+            long withTriggers = System.nanoTime() - t0;
+            System.out.printf("changes: %,d orders seeded%n", rows);
+            System.out.printf("  insert, no capture  : %,10.0f rows/s%n", rate(rows, withoutTriggers));
+            System.out.printf("  insert, with capture: %,10.0f rows/s (%,d change rows)%n", rate(rows, withTriggers),
+                    sumLong(db, "SELECT COUNT(*) FROM changes"));
+
+            // the dashboard's pending table after the artist scrolled through 10 pages
+            OrderPage.Query q = OrderPage.Query.forArtist(ARTISTS[0], "pending");
+            int pages = 10;
+            int runs = 200;
+            long cursor = db.latestChangeSeq();
+            long reload = 0;
+            long delta = 0;
+            int applied = 0;
+            for (int i = 0; i < runs; i++) {
+                // one Accept: a pending order of this artist completes
+                db.updateOrderStatus("bench-" + (i * 15), "completed");
+
+                t0 = System.nanoTime();
+                OrderPage.Cursor after = null;
+                int loaded = 0;
+                for (int p = 0; p < pages; p++) {
+                    OrderPage page = db.listOrdersPage(q, after, PagedOrderTable.DEFAULT_PAGE_SIZE);
+                    loaded += page.getItems().size();
+                    after = page.getNext();
+                    if (after == null) break;
+                }
+                reload += System.nanoTime() - t0;
+                if (loaded == 0) throw new IllegalStateException("nothing loaded");
+
+                t0 = System.nanoTime();
+                ChangeSet changes = db.changesSince(cursor, 500);
+                List<OrderModel> rowsNow = db.listOrdersByIds(q, changes.idsOf(ChangeSet.Entity.ORDER));
+                delta += System.nanoTime() - t0;
+                applied += changes.getChanges().size() - rowsNow.size();
+                cursor = changes.getCursor();
+            }
+            System.out.printf("  refresh after one status change, %d pages loaded:%n", pages);
+            System.out.println("    plan: " + explain(db, "SELECT o.id FROM json_each('[\"bench-1\"]') AS ids CROSS JOIN orders AS o ON o.id = ids.value "
+                    + "WHERE artist_name = 'x' COLLATE NOCASE AND status = 'pending'"));
+            System.out.printf("    reload pages      : %8.3f ms%n", reload / 1e6 / runs);
+            System.out.printf("    changesSince delta: %8.3f ms (%d of %d changed rows left the pending query)%n", delta / 1e6 / runs, applied, runs);
+
+            // a burst: one delta covering 1,000 changes
+            long burstFrom = db.latestChangeSeq();
+            for (int i = 0; i < 1_000; i++) db.updateOrderStatus("bench-" + (3_000 + i * 15), "rejected");
+            t0 = System.nanoTime();
+            ChangeSet burst = db.changesSince(burstFrom, 2_000);
+            List<OrderModel> burstRows = db.listOrdersByIds(q, burst.idsOf(ChangeSet.Entity.ORDER));
+            System.out.printf("    1,000 changes     : %8.3f ms (%,d changes, %,d still pending)%n",
+                    (System.nanoTime() - t0) / 1e6, burst.getChanges().size(), burstRows.size());
+
+            // after maintenance prunes the whole log, an old cursor is reported as truncated
+            System.setProperty("artflow.changes.retentionDays", "-1");
+            DatabaseMaintenance.Report r = db.getMaintenance().runNow();
+            ChangeSet stale = db.changesSince(burstFrom, 100);
+            System.out.printf("  pruned %,d changes in %d maintenance steps; stale cursor truncated=%s, resumes at %,d%n",
+                    r.getChangesPruned(), r.getSteps(), stale.isTruncated(), stale.getCursor());
+        } finally {
+            System.clearProperty("artflow.changes.retentionDays");
+            db.close();
+        }
+    }
+
+    /** A second DatabaseHelper on the same file stands in for another ArtFlow process: its own pool and connections. */
+    static void watcher(Path dir, int rows) throws Exception {
+        Path file = dir.resolve("watcher.db");
+        DatabaseHelper here = new DatabaseHelper(file, 1);
+        DatabaseHelper other = new DatabaseHelper(file, 1);
+        try {
+            if (!other.insertArtworks(generateArtworks(rows, "shared-"))) throw new IllegalStateException("seeding failed");
+            DatabaseWatcher watcher = here.getWatcher();
+            watcher.poll(); // catch up with the seed
+
+            int idle = 20_000;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < idle; i++) watcher.poll();
+            long idleNanos = System.nanoTime() - t0;
+
+            // commit-to-listener latency with the default poll interval, one edit at a time
+            java.util.concurrent.LinkedBlockingQueue<Long> seen = new java.util.concurrent.LinkedBlockingQueue<>();
+            List<ArtworkModel> refreshed = java.util.Collections.synchronizedList(new ArrayList<>());
+            long[] deltaNanos = new long[1];
+            watcher.addListener(changes -> {
+                long d0 = System.nanoTime();
+                refreshed.addAll(here.getArtworksByIds(changes.idsOf(ChangeSet.Entity.ARTWORK)));
+                deltaNanos[0] += System.nanoTime() - d0;
+                seen.add(System.nanoTime());
+            });
+            long intervalMs = Long.getLong("artflow.watch.intervalMs", 1000);
+            watcher.start(intervalMs);
+            int edits = 10;
+            long totalLatency = 0;
+            long worst = 0;
+            for (int i = 0; i < edits; i++) {
+                Thread.sleep(intervalMs / 3 + 37L * i % intervalMs);
+                ArtworkModel a = generateArtworks(1, "shared-" + (i * 97)).get(0);
+                ArtworkModel edited = new ArtworkModel("shared-" + (i * 97), "Edited " + i, a.getPriceCents() + 100, "Digital Art",
+                        null, a.getArtistName(), a.getDescription());
+                long c0 = System.nanoTime();
+                other.upsertArtwork(edited);
+                Long at = seen.poll(5 * intervalMs + 1000, java.util.concurrent.TimeUnit.MILLISECONDS);
+                if (at == null) throw new IllegalStateException("change not delivered");
+                totalLatency += at - c0;
+                worst = Math.max(worst, at - c0);
+            }
+            watcher.close(1000);
+
+            t0 = System.nanoTime();
+            int reloaded = here.listArtworks().size();
+            long fullReload = System.nanoTime() - t0;
+
+            System.out.printf("watcher: %,d artworks, second helper on the same file writing%n", rows);
+            System.out.printf("  idle poll (data_version unchanged): %.2f us%n", idleNanos / 1e3 / idle);
+            System.out.printf("  commit -> listener at %d ms polling: mean %.0f ms, worst %.0f ms over %d edits%n",
+                    intervalMs, totalLatency / 1e6 / edits, worst / 1e6, edits);
+            System.out.printf("  re-read changed rows: %.3f ms per delivery (%d rows, last title '%s')%n",
+                    deltaNanos[0] / 1e6 / edits, refreshed.size(), refreshed.isEmpty() ? "" : refreshed.get(refreshed.size() - 1).getTitle());
+            System.out.printf("  full catalog reload instead: %.1f ms (%,d rows)%n", fullReload / 1e6, reloaded);
+        } finally {
+            other.close();
+            here.close();
+        }
+    }
+
+    static void orderArchive(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("archive.db"), 2);
+        try {
+            seedOrders(db, rows);
+            OrderPage.Query pending = OrderPage.Query.forArtist(ARTISTS[0], "pending");
+            OrderPage.Query history = OrderPage.Query.forCustomer("Customer 7");
+            ArtistStats statsBefore = db.getArtistStats(ARTISTS[0]);
+            double pendingBefore = pageMicros(db, pending);
+            db.getArchive().open();
+
+            AtomicLong slowest = new AtomicLong();
+            AtomicLong inserted = new AtomicLong();
+            java.util.concurrent.atomic.AtomicBoolean stop = new java.util.concurrent.atomic.AtomicBoolean();
+            Thread writer = new Thread(() -> {
+                for (int i = 0; !stop.get(); i++) {
+                    OrderModel o = new OrderModel("live-" + i, "Customer " + (i % 1000), ARTISTS[i % ARTISTS.length], "Artwork " + (i % 500),
+                            1, 2500, "2026-01-01T10:00:00", "pending");
+                    long t0 = System.nanoTime();
+                    db.insertOrder(o);
+                    slowest.accumulateAndGet(System.nanoTime() - t0, Math::max);
+                    inserted.incrementAndGet();
+                    try { Thread.sleep(2); } catch (InterruptedException e) { return; }
+                }
+            }, "bench-writer");
+            writer.start();
+            Thread.sleep(300);
+            slowest.set(0);
+            // the seed spreads ordered_on over 2025; everything terminal before October goes
+            OrderArchive.Result r = db.getArchive().archiveBefore("2025-10-01");
+            long duringRun = slowest.get();
+            stop.set(true);
+            writer.join();
+            long liveInserts = inserted.get();
+
+            ArtistStats statsAfter = db.getArtistStats(ARTISTS[0]);
+            long live = sumLong(db, "SELECT COUNT(*) FROM orders");
+            long archived = sumLong(db, "SELECT COUNT(*) FROM archive.orders");
+            System.out.printf("archive: %,d orders seeded, %,d live and %,d archived after the run%n", rows, live, archived);
+            System.out.println("  " + r);
+            System.out.printf("  slowest insert during the run: %.2f ms (%,d inserts)%n", duringRun / 1e6, liveInserts);
+            System.out.printf("  artist_stats for %s: orders %,d -> %,d (+%,d inserted), completed %,d -> %,d, earnings %,d -> %,d cents%n",
+                    ARTISTS[0], statsBefore.getOrderCount(), statsAfter.getOrderCount(), (liveInserts + ARTISTS.length - 1) / ARTISTS.length,
+                    statsBefore.getCompletedCount(), statsAfter.getCompletedCount(),
+                    statsBefore.getCompletedEarningsCents(), statsAfter.getCompletedEarningsCents());
+            System.out.printf("  pending first page: %.1f us before, %.1f us after%n", pendingBefore, pageMicros(db, pending));
+
+            // a customer's history, scrolled from the newest order to the oldest archived one
+            int pages = 0;
+            int liveRows = 0;
+            int archivedRows = 0;
+            long t0 = System.nanoTime();
+            OrderPage.Cursor after = null;
+            do {
+                OrderPage page = db.listOrdersPage(history, after, PagedOrderTable.DEFAULT_PAGE_SIZE);
+                for (OrderModel o : page.getItems()) {
+                    if (o.getOrderedOn().compareTo("2025-10-01") < 0 && !"pending".equals(o.getStatus())) archivedRows++; else liveRows++;
+                }
+                pages++;
+                after = page.getNext();
+            } while (after != null);
+            long expected = sumLong(db, "SELECT COUNT(*) FROM orders WHERE customer_name = 'Customer 7'")
+                    + sumLong(db, "SELECT COUNT(*) FROM archive.orders WHERE customer_name = 'Customer 7'");
+            System.out.printf("  customer history: %d pages, %,d live + %,d archived rows (expected %,d) in %.1f ms%n",
+                    pages, liveRows, archivedRows, expected, (System.nanoTime() - t0) / 1e6);
+            System.out.println("  archived page plan: " + explain(db, "SELECT id FROM archive.orders WHERE customer_name = 'x' COLLATE NOCASE "
+                    + "AND ordered_on <= '2025' AND (ordered_on < '2025' OR id < 'x') ORDER BY ordered_on DESC, id DESC LIMIT 101"));
+        } finally {
+            db.close();
+        }
+    }
+
+    // median of 200 first-page reads
+    private static double pageMicros(DatabaseHelper db, OrderPage.Query q) {
+        long[] t = new long[200];
+        for (int i = 0; i < t.length; i++) {
+            long t0 = System.nanoTime();
+            db.listOrdersPage(q, null, PagedOrderTable.DEFAULT_PAGE_SIZE);
+            t[i] = System.nanoTime() - t0;
+        }
+        java.util.Arrays.sort(t);
+        return t[t.length / 2] / 1e3;
+    }
+
+    static void asyncApi(Path dir, int rows) throws Exception {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("async.db"), ConnectionPool.defaultReaderCount());
+        try {
+            seedOrders(db, rows);
+            OrderPage.Query q = OrderPage.Query.forArtist(ARTISTS[0], null);
+            int calls = 2_000;
+            db.listOrdersPage(q, null, 100); // warm up statement caches
+
+            long t0 = System.nanoTime();
+            for (int i = 0; i < calls; i++) db.listOrdersPage(q, null, 100);
+            long blocking = System.nanoTime() - t0;
+
+            List<java.util.concurrent.CompletableFuture<OrderPage>> futures = new ArrayList<>(calls);
+            t0 = System.nanoTime();
+            for (int i = 0; i < calls; i++) futures.add(db.async().listOrdersPage(q, null, 100));
+            long submit = System.nanoTime() - t0;
+            java.util.concurrent.CompletableFuture.allOf(futures.toArray(new java.util.concurrent.CompletableFuture<?>[0])).join();
+            long all = System.nanoTime() - t0;
+            System.out.printf("async: %,d first-page queries over %,d orders%n", calls, rows);
+            System.out.printf("  blocking  : caller held %8.1f ms (%.1f us/call)%n", blocking / 1e6, blocking / 1e3 / calls);
+            System.out.printf("  async     : caller held %8.1f ms (%.1f us/call), all complete after %.1f ms%n",
+                    submit / 1e6, submit / 1e3 / calls, all / 1e6);
+        } finally {
+            db.close();
+        }
+    }
+
+    /** Time spent in the DatabaseHelper constructor (schema setup before the first frame) on a populated file. */
+    static void startupInit(Path dir, int rows) throws Exception {
+        Path file = dir.resolve("startup.db");
+        DatabaseHelper seed = new DatabaseHelper(file, 1);
+        try {
+            if (!seed.insertOrders(generateOrders(rows, 100, 20_000))) throw new IllegalStateException("seeding failed");
+            seed.insertArtworks(generateArtworks(rows / 20, "art-"));
+        } finally {
+            seed.close();
+        }
+        System.out.printf("startup: DatabaseHelper init on %,d orders / %,d artworks%n", rows, rows / 20);
+        long[] times = new long[6];
+        for (int i = 0; i < times.length; i++) {
+            long t0 = System.nanoTime();
+            DatabaseHelper db = new DatabaseHelper(file, 1);
+            times[i] = System.nanoTime() - t0;
+            db.close();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 1; i < times.length; i++) best = Math.min(best, times[i]);
+        System.out.printf("  first reopen %8.2f ms, best of %d later opens %8.2f ms%n", times[0] / 1e6, times.length - 1, best / 1e6);
+    }
+
+    static String explain(DatabaseHelper db, String sql) throws SQLException {
+        return db.pool().read(c -> {
+            StringBuilder sb = new StringBuilder();
+            try (java.sql.Statement st = c.createStatement(); ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+                while (rs.next()) {
+                    if (sb.length() > 0) sb.append(" / ");
+                    sb.append(rs.getString("detail"));
+                }
+            }
+            return sb.toString();
+        });
+    }
+
+    // --- seeding ---
+
+    static List<OrderModel> generateOrders(int rows) {
+        return generateOrders(rows, ARTISTS.length, 1000);
+    }
+
+    /** Orders spread round-robin over {@code artists} artists and {@code customers} customers. */
+    static List<OrderModel> generateOrders(int rows, int artists, int customers) {
+        List<OrderModel> out = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String artist = artists <= ARTISTS.length ? ARTISTS[i % artists] : "Artist " + (i % artists);
+            String orderedOn = String.format("2025-%02d-%02dT%02d:%02d:00", 1 + i % 12, 1 + i % 28, i % 24, i % 60);
+            out.add(new OrderModel("bench-" + i, "Customer " + (i % customers), artist, "Artwork " + (i % 500),
+                    1 + i % 3, 100L * (10 + (i % 90)), orderedOn, STATUSES[i % STATUSES.length]));
+        }
+        return out;
+    }
+
+    /** Seed rows with the batched insert so setup time doesn't dominate the run. */
+    static void seedOrders(DatabaseHelper db, int rows) {
+        if (!db.insertOrders(generateOrders(rows))) throw new IllegalStateException("seeding failed");
+    }
+
+    static List<ArtworkModel> generateArtworks(int rows, String idPrefix) {
+        List<ArtworkModel> out = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            out.add(new ArtworkModel(idPrefix + i, "Artwork " + i, 100L * (10 + i % 90), "Digital Art",
+                    null, ARTISTS[i % ARTISTS.length], "Seeded artwork " + i));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseMaintenanceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void runsFreePagesInStepsOnAnIncrementalFile() throws SQLException {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("incremental.db"), 1);
+        try {
+            fillAndDelete(db);
+            long free = freePages(db);
+            assertTrue(free > 100, "free pages: " + free);
+
+            DatabaseMaintenance.Report r = db.getMaintenance().runNow();
+            assertTrue(r.isFinished());
+            assertTrue(r.getAnalyzed() > 0);
+            assertEquals(0, r.getFreePagesAfter());
+            assertTrue(r.getPagesVacuumed() > 0);
+            assertTrue(r.getBytesAfter() < r.getBytesBefore());
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    void runsNeverVacuumAFileThatIsNotIncremental() throws SQLException {
+        Path file = dir.resolve("legacy.db");
+        SchemaMigrationsTest.createLegacyFile(file);
+        DatabaseHelper db = new DatabaseHelper(file, 1);
+        try {
+            assertEquals(0L, autoVacuum(db));
+            fillAndDelete(db);
+            long free = freePages(db);
+
+            DatabaseMaintenance.Report r = db.getMaintenance().runNow();
+            // no full VACUUM behind the user's back: the file and its free pages are as they were
+            assertEquals(0L, autoVacuum(db));
+            assertEquals(0, r.getPagesVacuumed());
+            assertEquals(r.getBytesBefore(), r.getBytesAfter());
+            // ANALYZE may reuse a few free pages for its statistics tables
+            assertTrue(r.getFreePagesAfter() > free / 2, "free pages: " + free + " -> " + r.getFreePagesAfter());
+
+            // converting is an explicit, one-off step; runs vacuum incrementally from then on
+            assertTrue(db.getMaintenance().convertToIncrementalVacuum());
+            assertFalse(db.getMaintenance().convertToIncrementalVacuum());
+            assertEquals(2L, autoVacuum(db));
+            fillAndDelete(db);
+            assertTrue(db.getMaintenance().runNow().getPagesVacuumed() > 0);
+            assertEquals(0, freePages(db));
+        } finally {
+            db.close();
+        }
+    }
+
+    // a few MB of artworks, then delete them all so their pages go on the freelist
+    private static void fillAndDelete(DatabaseHelper db) throws SQLException {
+        String text = "x".repeat(2000);
+        db.pool().transaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement("INSERT INTO artworks(id, title, artist_name, description) VALUES(?, ?, 'Filler', ?)")) {
+                for (int i = 0; i < 2000; i++) {
+                    ps.setString(1, "fill-" + i);
+                    ps.setString(2, "Filler " + i);
+                    ps.setString(3, text);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+        db.pool().write(c -> {
+            try (Statement st = c.createStatement()) {
+                return st.executeUpdate("DELETE FROM artworks WHERE artist_name = 'Filler'");
+            }
+        });
+    }
+
+    private static long freePages(DatabaseHelper db) throws SQLException {
+        return Long.parseLong(db.pool().read(c -> SchemaMigrationsTest.queryString(c, "PRAGMA freelist_count")));
+    }
+
+    // asked on the writer, like the maintenance itself: a reader keeps the mode it first saw
+    private static long autoVacuum(DatabaseHelper db) throws SQLException {
+        return Long.parseLong(db.pool().write(c -> SchemaMigrationsTest.queryString(c, "PRAGMA auto_vacuum")));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void parsesPricesAsTyped() {
+        assertEquals(12000, Money.parseCents("120"));
+        assertEquals(12050, Money.parseCents("120.5"));
+        assertEquals(120000, Money.parseCents("$1,200.00"));
+        assertEquals(120000, Money.parseCents(" $ 1200 "));
+        // more than two decimals round half-up
+        assertEquals(1000, Money.parseCents("9.995"));
+        assertEquals(999, Money.parseCents("9.994"));
+    }
+
+    @Test
+    void rejectsTextThatIsNotAPrice() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents(null));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents("  "));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents("-5"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents("ask me"));
+    }
+
+    @Test
+    void formatsCentsWithTwoPlaces() {
+        assertEquals("1200.00", Money.format(120000));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("12.50", Money.format(1250));
+        assertEquals("-3.07", Money.format(-307));
+    }
+}
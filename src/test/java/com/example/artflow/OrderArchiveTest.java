@@ -0,0 +1,242 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHelper db;
+
+    @BeforeEach
+    void open() {
+        db = new DatabaseHelper(dir.resolve("orders.db"), 1);
+    }
+
+    @AfterEach
+    void close() {
+        db.close();
+    }
+
+    @Test
+    void archivedOrdersStayInTheArtistStats() throws SQLException {
+        assertTrue(db.insertOrders(List.of(
+                new OrderModel("o1", "Customer 1", "Mitu Das", "Dawn", 1, 5000, "2025-01-01T10:00:00", "completed"),
+                new OrderModel("o2", "Customer 2", "mitu das", "Dusk", 1, 7000, "2025-02-01T10:00:00", "rejected"),
+                new OrderModel("o3", "Customer 3", "Mitu Das", "Noon", 1, 3000, "2025-03-01T10:00:00", "pending"),
+                new OrderModel("o4", "Customer 1", "Mitu Das", "Dawn", 2, 10000, "2026-01-01T10:00:00", "completed"),
+                new OrderModel("o5", "Customer 4", "Rafi Karim", "Sea", 1, 2500, "2025-01-05T10:00:00", "completed"))));
+
+        OrderArchive.Result r = db.getArchive().archiveBefore("2025-10-01");
+        assertEquals(3, r.getMoved());
+
+        ArtistStats stats = db.getArtistStats("Mitu Das");
+        assertEquals(4, stats.getOrderCount());
+        assertEquals(1, stats.getPendingCount());
+        assertEquals(2, stats.getCompletedCount());
+        assertEquals(1, stats.getRejectedCount());
+        assertEquals(15000, stats.getCompletedEarningsCents());
+        // an artist whose every order is archived is not reported as a leftover row either
+        assertEquals(List.of(), db.checkArtistStats());
+
+        assertTrue(db.repairArtistStats());
+        assertEquals(List.of(), db.checkArtistStats());
+        assertEquals(15000, db.getArtistStats("Mitu Das").getCompletedEarningsCents());
+        assertEquals(1, db.getArtistStats("Rafi Karim").getOrderCount());
+        assertEquals(2500, db.getArtistStats("Rafi Karim").getCompletedEarningsCents());
+    }
+
+    @Test
+    void batchesPickTheOldestOrdersFromIndexRanges() throws SQLException {
+        assertTrue(db.insertOrders(List.of(
+                new OrderModel("o1", "Customer 1", "Mitu Das", "Dawn", 1, 5000, "2025-05-01T10:00:00", "completed"),
+                new OrderModel("o2", "Customer 2", "Mitu Das", "Dusk", 1, 7000, "2025-01-01T10:00:00", "rejected"),
+                new OrderModel("o3", "Customer 3", "Mitu Das", "Noon", 1, 3000, "2025-02-01T10:00:00", "completed"),
+                new OrderModel("o4", "Customer 4", "Mitu Das", "Noon", 1, 3000, "2024-12-01T10:00:00", "pending"),
+                new OrderModel("o5", "Customer 5", "Mitu Das", "Dawn", 1, 5000, "2025-03-01T10:00:00", "rejected"))));
+        db.getArchive().open();
+
+        List<String> picked = db.pool().transaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(OrderArchive.PICK_SQL)) {
+                ps.setString(1, "2025-10-01");
+                ps.setInt(2, 3);
+                ps.executeUpdate();
+            }
+            List<String> ids = new ArrayList<>();
+            try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT id FROM temp.archive_batch ORDER BY id")) {
+                while (rs.next()) ids.add(rs.getString(1));
+                st.execute("DELETE FROM temp.archive_batch");
+            }
+            return ids;
+        });
+        assertEquals(List.of("o2", "o3", "o5"), picked);
+
+        // each status is a range of idx_orders_status_date, merged in date order: no scan, no sort
+        List<String> plan = db.pool().write(c -> {
+            List<String> lines = new ArrayList<>();
+            try (PreparedStatement ps = c.prepareStatement("EXPLAIN QUERY PLAN " + OrderArchive.PICK_SQL)) {
+                ps.setString(1, "2025-10-01");
+                ps.setInt(2, 3);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) lines.add(rs.getString("detail"));
+                }
+            }
+            return lines;
+        });
+        assertEquals(2, plan.stream().filter(l -> l.equals("SEARCH main.orders USING INDEX idx_orders_status_date (status=? AND ordered_on<?)")).count(),
+                plan.toString());
+        assertFalse(plan.stream().anyMatch(l -> l.contains("TEMP B-TREE") || l.startsWith("SCAN main.orders")), plan.toString());
+    }
+
+    @Test
+    void largeRunsMoveEverythingInSmallBatches() throws SQLException {
+        List<OrderModel> orders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            orders.add(new OrderModel(String.format("o%03d", i), "Customer " + i % 7, "Mitu Das", "Dawn", 1, 1000,
+                    String.format("2025-01-01T10:%02d:%02d", i / 60, i % 60), i % 2 == 0 ? "completed" : "rejected"));
+        }
+        assertTrue(db.insertOrders(orders));
+
+        OrderArchive.Result r = db.getArchive().archiveBefore("2025-10-01");
+        assertEquals(500, r.getMoved());
+        // batches start small and grow only as far as the time target allows
+        assertTrue(r.getBatches() > 1, r.toString());
+        assertEquals(500, db.getArtistStats("Mitu Das").getOrderCount());
+        assertEquals(List.of(), db.checkArtistStats());
+    }
+
+    @Test
+    void anOrderLeftInBothFilesIsCountedOnceAndFinishedByTheNextRun() throws SQLException {
+        assertTrue(db.insertOrder(new OrderModel("o1", "Customer 1", "Mitu Das", "Dawn", 1, 5000, "2025-01-01T10:00:00", "completed")));
+        db.getArchive().open();
+        // as if the app died after a batch's copy committed and before its delete did
+        db.pool().write(c -> {
+            try (Statement st = c.createStatement()) {
+                return st.executeUpdate("INSERT INTO archive.orders(id, customer_name, artist_name, art_title, quantity, amount_cents, ordered_on, status, archived_at) " +
+                        "SELECT id, customer_name, artist_name, art_title, quantity, amount_cents, ordered_on, status, 0 FROM main.orders");
+            }
+        });
+        assertEquals(List.of(), db.checkArtistStats());
+
+        assertEquals(1, db.getArchive().archiveBefore("2025-10-01").getMoved());
+        assertEquals(1, db.getArtistStats("Mitu Das").getOrderCount());
+        assertEquals(5000, db.getArtistStats("Mitu Das").getCompletedEarningsCents());
+        assertEquals(List.of(), db.checkArtistStats());
+    }
+
+    @Test
+    void historyPagesMergeLiveAndArchivedOrders() throws SQLException {
+        archiveCustomerHistory();
+        // one order across both files, newest first: the old pending o3 sits between archived orders
+        List<String> expected = List.of("o9", "o8", "o7", "o6", "o5", "o4", "o3", "o2", "o1");
+        for (int limit : new int[] { 2, 3, 4, 5, 10 }) {
+            List<String> seen = new ArrayList<>();
+            OrderPage.Cursor after = null;
+            int pages = 0;
+            do {
+                OrderPage page = db.listOrdersPage(OrderPage.Query.forCustomer("Customer 7"), after, limit);
+                assertTrue(page.getItems().size() <= limit);
+                for (OrderModel o : page.getItems()) seen.add(o.getId());
+                after = page.getNext();
+                pages++;
+            } while (after != null && pages < 20);
+            assertEquals(expected, seen, "page size " + limit);
+        }
+
+        // the other direction, another sort, and a query that cannot reach the archive
+        List<String> oldestFirst = new ArrayList<>();
+        OrderPage.Cursor after = null;
+        do {
+            OrderPage page = db.listOrdersPage(OrderPage.Query.forCustomer("Customer 7").sortedBy(OrderPage.Sort.DATE, false), after, 3);
+            for (OrderModel o : page.getItems()) oldestFirst.add(o.getId());
+            after = page.getNext();
+        } while (after != null);
+        assertEquals(List.of("o1", "o2", "o3", "o4", "o5", "o6", "o7", "o8", "o9"), oldestFirst);
+        List<String> byStatus = new ArrayList<>();
+        after = null;
+        do {
+            OrderPage page = db.listOrdersPage(OrderPage.Query.forCustomer("Customer 7").sortedBy(OrderPage.Sort.STATUS, false), after, 2);
+            for (OrderModel o : page.getItems()) byStatus.add(o.getId());
+            after = page.getNext();
+        } while (after != null);
+        assertEquals(List.of("o1", "o4", "o5", "o7", "o9", "o3", "o8", "o2", "o6"), byStatus);
+        OrderPage pending = db.listOrdersPage(OrderPage.Query.forArtist("Mitu Das", "pending"), null, 10);
+        assertEquals(List.of("o8", "o3"), ids(pending.getItems()));
+        assertFalse(pending.hasMore());
+    }
+
+    @Test
+    void changedIdsAreFoundInEitherFile() throws SQLException {
+        archiveCustomerHistory();
+        List<String> ids = List.of("o9", "o1", "o3", "missing");
+        assertEquals(Set.of("o9", "o1", "o3"), new HashSet<>(ids(db.listOrdersByIds(OrderPage.Query.forCustomer("Customer 7"), ids))));
+        // a query for a status the archive cannot hold does not look there
+        assertEquals(List.of("o3"), ids(db.listOrdersByIds(OrderPage.Query.forArtist("Mitu Das", "pending"), ids)));
+        assertEquals(List.of("o1"), ids(db.listOrdersByIds(OrderPage.Query.forArtist("Mitu Das", "completed"), List.of("o1", "o2"))));
+    }
+
+    // o1, o2, o4..o6 are archived; o3 (pending) and o7..o9 (recent) stay live
+    private void archiveCustomerHistory() throws SQLException {
+        assertTrue(db.insertOrders(List.of(
+                new OrderModel("o1", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2025-01-01T10:00:00", "completed"),
+                new OrderModel("o2", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2025-02-01T10:00:00", "rejected"),
+                new OrderModel("o3", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2025-02-15T10:00:00", "pending"),
+                new OrderModel("o4", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2025-03-01T10:00:00", "completed"),
+                new OrderModel("o5", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2025-04-01T10:00:00", "completed"),
+                new OrderModel("o6", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2025-05-01T10:00:00", "rejected"),
+                new OrderModel("o7", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2025-11-01T10:00:00", "completed"),
+                new OrderModel("o8", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2025-12-01T10:00:00", "pending"),
+                new OrderModel("o9", "Customer 7", "Mitu Das", "Dawn", 1, 1000, "2026-01-01T10:00:00", "completed"),
+                new OrderModel("x1", "Customer 8", "Mitu Das", "Dawn", 1, 1000, "2025-01-15T10:00:00", "completed"))));
+        assertEquals(6, db.getArchive().archiveBefore("2025-10-01").getMoved());
+    }
+
+    private static List<String> ids(List<OrderModel> orders) {
+        List<String> ids = new ArrayList<>();
+        for (OrderModel o : orders) ids.add(o.getId());
+        return ids;
+    }
+
+    @Test
+    void renamingAnAccountCarriesItsArchivedOrders() throws SQLException {
+        assertTrue(db.signupUser("Mitu", "Das", "mitu@example.com", "secret1", "artist"));
+        assertTrue(db.signupUser("Some", "Customer", "customer@example.com", "secret1", "customer"));
+        assertTrue(db.insertOrders(List.of(
+                new OrderModel("o1", "Some Customer", "Mitu Das", "Dawn", 1, 5000, "2025-01-01T10:00:00", "completed"),
+                new OrderModel("o2", "Some Customer", "Mitu Das", "Dusk", 1, 3000, "2026-01-01T10:00:00", "completed"))));
+        assertEquals(1, db.getArchive().archiveBefore("2025-10-01").getMoved());
+        assertEquals(8000, db.getArtistStats("Mitu Das").getCompletedEarningsCents());
+
+        assertEquals(DatabaseHelper.ProfileUpdate.SAVED, db.saveUserProfile("mitu@example.com", "Mitu Rahman", "mitu@example.com", null, null));
+        ArtistStats renamed = db.getArtistStats("Mitu Rahman");
+        assertEquals(2, renamed.getOrderCount());
+        assertEquals(8000, renamed.getCompletedEarningsCents());
+        assertEquals(0, db.getArtistStats("Mitu Das").getOrderCount());
+        assertEquals(List.of(), db.checkArtistStats());
+        assertEquals(List.of("o2", "o1"), ids(db.listOrdersPage(OrderPage.Query.forArtist("Mitu Rahman", null), null, 10).getItems()));
+
+        assertEquals(DatabaseHelper.ProfileUpdate.SAVED, db.saveUserProfile("customer@example.com", "Some Buyer", "customer@example.com", null, null));
+        List<OrderModel> history = db.listOrdersPage(OrderPage.Query.forCustomer("Some Buyer"), null, 10).getItems();
+        assertEquals(List.of("o2", "o1"), ids(history));
+        assertEquals("Mitu Rahman", history.get(1).getArtistName());
+        assertEquals("Some Buyer", history.get(1).getCustomerName());
+    }
+}
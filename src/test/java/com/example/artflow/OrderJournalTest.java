@@ -0,0 +1,65 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void eventsAreWrittenInOrderAndReadBack() throws IOException {
+        Path file = dir.resolve("orders_log.csv");
+        try (OrderJournal journal = OrderJournal.open(file)) {
+            journal.orderCreated(new OrderModel("o1", "Customer, \"One\"", "Mitu Das", "Dawn\nover the river", 2, 10000, "2026-01-01T10:00:00", "pending"));
+            journal.statusChanged("o1", "completed");
+            assertTrue(journal.flush(5000));
+        }
+
+        List<OrderJournal.Entry> read = new ArrayList<>();
+        try (OrderJournal journal = OrderJournal.open(file)) {
+            assertEquals(2, journal.forEach(1, read::add));
+            assertEquals(OrderJournal.Event.CREATED, read.get(0).getEvent());
+            assertEquals("Customer, \"One\"", read.get(0).getCustomer());
+            // one entry per line: line breaks inside a title become spaces
+            assertEquals("Dawn over the river", read.get(0).getTitle());
+            assertEquals(10000, read.get(0).getAmountCents());
+            assertEquals(OrderJournal.Event.STATUS, read.get(1).getEvent());
+            assertEquals("completed", read.get(1).getStatus());
+
+            // a reopened journal carries on numbering after the last entry
+            journal.statusChanged("o1", "rejected");
+            assertTrue(journal.flush(5000));
+            List<OrderJournal.Entry> last = journal.tail(1);
+            assertEquals(3, last.get(0).getSeq());
+        }
+    }
+
+    @Test
+    void rotatesAndKeepsTheNewestSegments() throws IOException {
+        Path file = dir.resolve("orders_log.csv");
+        int events = 5000;
+        try (OrderJournal journal = OrderJournal.open(file, 64 * 1024, 3)) {
+            for (int i = 0; i < events; i++) journal.statusChanged("order-" + i, "completed");
+            assertTrue(journal.flush(10_000));
+            assertTrue(journal.getRotationCount() > 3, "rotations: " + journal.getRotationCount());
+
+            List<OrderJournal.Entry> all = new ArrayList<>();
+            journal.forEach(1, all::add);
+            // older segments were dropped; what is left is contiguous and ends at the newest event
+            assertTrue(all.size() < events);
+            for (int i = 1; i < all.size(); i++) assertEquals(all.get(i - 1).getSeq() + 1, all.get(i).getSeq());
+            assertEquals(events, all.get(all.size() - 1).getSeq());
+            assertEquals("order-" + (events - 1), journal.tail(1).get(0).getOrderId());
+        }
+    }
+}
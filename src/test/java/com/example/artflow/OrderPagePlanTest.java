@@ -0,0 +1,88 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** EXPLAIN QUERY PLAN for the order history pages: each table is read in page order off one index, with no sort step. */
+class OrderPagePlanTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHelper db;
+
+    @BeforeEach
+    void open() {
+        db = new DatabaseHelper(dir.resolve("pages.db"), 1);
+    }
+
+    @AfterEach
+    void close() {
+        db.close();
+    }
+
+    @Test
+    void historyPagesReadStraightOffAnIndex() throws SQLException {
+        assertPagesUseIndexes(false);
+    }
+
+    @Test
+    void archivedHistoryPagesReadStraightOffAnIndex() throws SQLException {
+        db.getArchive().open();
+        assertPagesUseIndexes(true);
+    }
+
+    private void assertPagesUseIndexes(boolean withArchive) throws SQLException {
+        assertIndexOrder(OrderPage.Query.forCustomerAccount(2L), OrderPage.Sort.DATE, withArchive, "idx_orders_customer_id_date");
+        assertIndexOrder(OrderPage.Query.forCustomerAccount(2L), OrderPage.Sort.AMOUNT, withArchive, "idx_orders_customer_id_amount_cents");
+        assertIndexOrder(OrderPage.Query.forCustomerAccount("c@test.local"), OrderPage.Sort.AMOUNT, withArchive, "idx_orders_customer_id_amount_cents");
+        assertIndexOrder(OrderPage.Query.forArtistAccount(1L, "completed"), OrderPage.Sort.DATE, withArchive, "idx_orders_artist_id_status_date");
+        assertIndexOrder(OrderPage.Query.forArtistAccount(1L, "completed"), OrderPage.Sort.AMOUNT, withArchive, "idx_orders_artist_id_status_amount_cents");
+        assertIndexOrder(OrderPage.Query.forArtist("Mitu Das", "completed"), OrderPage.Sort.DATE, withArchive, "idx_orders_artist_status_date");
+        assertIndexOrder(OrderPage.Query.forCustomer("Customer 1"), OrderPage.Sort.DATE, withArchive, "idx_orders_customer_date");
+    }
+
+    private void assertIndexOrder(OrderPage.Query query, OrderPage.Sort sort, boolean withArchive, String index) throws SQLException {
+        for (boolean descending : new boolean[] { true, false }) {
+            for (OrderPage.Cursor after : new OrderPage.Cursor[] { null, new OrderPage.Cursor("2026-01-01T10:00:00", "o5") }) {
+                List<Object> args = new ArrayList<>();
+                String sql = DatabaseHelper.orderPageSql(query.sortedBy(sort, descending), after, 21, withArchive, args);
+                List<String> plan = plan(sql, args);
+                String context = sort + (descending ? " desc" : " asc") + (after == null ? "" : " after cursor") + " -> " + plan;
+                long searches = plan.stream().filter(l -> l.matches("SEARCH (main\\.orders|a) USING INDEX " + index + " \\(.*\\)")).count();
+                assertEquals(withArchive ? 2 : 1, searches, context);
+                for (int i = 0; i < plan.size(); i++) {
+                    // only merging the two bounded pages of a live/archive union may sort
+                    if (plan.get(i).contains("TEMP B-TREE")) {
+                        assertTrue(withArchive && i > 0 && plan.get(i - 1).startsWith("SCAN (subquery-"), context);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<String> plan(String sql, List<Object> args) throws SQLException {
+        return db.pool().read(c -> {
+            List<String> lines = new ArrayList<>();
+            try (PreparedStatement ps = c.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+                for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) lines.add(rs.getString("detail"));
+                }
+            }
+            return lines;
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigrationsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void newFileIsCreatedAtTheLatestVersion() throws SQLException {
+        DatabaseHelper db = new DatabaseHelper(dir.resolve("new.db"), 1);
+        try {
+            assertEquals(SchemaMigrations.latestVersion(), (int) db.pool().read(c -> SchemaMigrations.userVersion(db.pool(), c)));
+            assertEquals(0, (int) db.pool().write(c -> SchemaMigrations.migrate(db.pool(), c)));
+            // set up before the first table, so maintenance can free pages incrementally
+            assertEquals("2", db.pool().read(c -> queryString(c, "PRAGMA auto_vacuum")));
+            // migration statements are timed with everything else
+            assertTrue(db.pool().getQueryStats().snapshot().stream()
+                    .anyMatch(s -> s.getSql().startsWith("CREATE TABLE IF NOT EXISTS users")));
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    void reopeningAppliesNothing() throws SQLException {
+        Path file = dir.resolve("reopen.db");
+        new DatabaseHelper(file, 1).close();
+        DatabaseHelper db = new DatabaseHelper(file, 1);
+        try {
+            assertEquals(0, (int) db.pool().write(c -> SchemaMigrations.migrate(db.pool(), c)));
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    void unversionedFileIsUpgradedKeepingItsRows() throws SQLException {
+        Path file = dir.resolve("legacy.db");
+        createLegacyFile(file);
+
+        DatabaseHelper db = new DatabaseHelper(file, 1);
+        try {
+            assertEquals(SchemaMigrations.latestVersion(), (int) db.pool().read(c -> SchemaMigrations.userVersion(db.pool(), c)));
+            assertEquals("2", db.pool().read(c -> queryString(c, "SELECT COUNT(*) FROM users")));
+            assertEquals("2", db.pool().read(c -> queryString(c, "SELECT COUNT(*) FROM artworks")));
+            assertEquals("3", db.pool().read(c -> queryString(c, "SELECT COUNT(*) FROM orders")));
+            db.pool().read(c -> {
+                for (String column : new String[] { "customer_id", "artist_id", "artwork_id", "amount_cents" }) {
+                    assertTrue(SchemaMigrations.hasColumn(db.pool(), c, "orders", column), "orders." + column);
+                }
+                assertTrue(SchemaMigrations.hasColumn(db.pool(), c, "users", "name_key"));
+                return null;
+            });
+            // rows were linked by name, and the rollup was built from them
+            assertEquals("1", db.pool().read(c -> queryString(c, "SELECT COUNT(*) FROM orders WHERE artist_id IS NOT NULL AND artwork_id IS NOT NULL")));
+            assertEquals(3, db.getArtistStats("Mitu Das").getOrderCount());
+            assertEquals(java.util.List.of(), db.checkArtistStats());
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    void legacyPricesAndAmountsBecomeCents() throws SQLException {
+        Path file = dir.resolve("prices.db");
+        createLegacyFile(file);
+
+        DatabaseHelper db = new DatabaseHelper(file, 1);
+        try {
+            db.pool().read(c -> {
+                assertFalse(SchemaMigrations.hasColumn(db.pool(), c, "artworks", "price"));
+                assertFalse(SchemaMigrations.hasColumn(db.pool(), c, "orders", "amount"));
+                assertEquals("125050", queryString(c, "SELECT price_cents FROM artworks WHERE id = 'a1'"));
+                // text that is not a price becomes 0 rather than failing the migration
+                assertEquals("0", queryString(c, "SELECT price_cents FROM artworks WHERE id = 'a2'"));
+                assertEquals("125050", queryString(c, "SELECT amount_cents FROM orders WHERE id = 'o1'"));
+                assertEquals("2000", queryString(c, "SELECT amount_cents FROM orders WHERE id = 'o2'"));
+                assertEquals("0", queryString(c, "SELECT amount_cents FROM orders WHERE id = 'o3'"));
+                return null;
+            });
+            assertEquals(127050, db.getArtistStats("Mitu Das").getCompletedEarningsCents());
+            assertEquals(2, db.listArtworksByPrice(0, 200_000, 10, 0).size());
+            assertEquals(1, db.listArtworksByPrice(1, 200_000, 10, 0).size());
+        } finally {
+            db.close();
+        }
+    }
+
+    /**
+     * A database as builds before user_version wrote it: prices as text, order amounts as REAL
+     * dollars, mixed-case emails, no summary tables or foreign keys.
+     */
+    static void createLegacyFile(Path file) throws SQLException {
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath());
+             Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, password TEXT NOT NULL, email TEXT UNIQUE NOT NULL, " +
+                    "user_type TEXT NOT NULL, first_name TEXT, last_name TEXT, full_name TEXT, phone TEXT, address TEXT)");
+            st.execute("CREATE TABLE artworks (id TEXT PRIMARY KEY, title TEXT, price TEXT, category TEXT, image_path TEXT, artist_name TEXT, description TEXT)");
+            st.execute("CREATE TABLE orders (id TEXT PRIMARY KEY, customer_name TEXT, artist_name TEXT, art_title TEXT, quantity INTEGER, " +
+                    "amount REAL, ordered_on TEXT, status TEXT)");
+            st.execute("INSERT INTO users(password, email, user_type, first_name, last_name, full_name) VALUES " +
+                    "('pw', ' Mitu@Example.COM', 'artist', 'Mitu', 'Das', 'Mitu Das'), " +
+                    "('pw', 'customer@example.com', 'customer', 'Some', 'Customer', 'Some  Customer')");
+            st.execute("INSERT INTO artworks(id, title, price, category, artist_name) VALUES " +
+                    "('a1', 'Dawn', '$1,250.50', 'Painting', 'Mitu Das'), " +
+                    "('a2', 'Dusk', 'ask me', 'Painting', 'Mitu Das')");
+            st.execute("INSERT INTO orders(id, customer_name, artist_name, art_title, quantity, amount, ordered_on, status) VALUES " +
+                    "('o1', 'Some  Customer', 'Mitu Das', 'Dawn', 1, 1250.5, '2025-03-01T10:00:00', 'completed'), " +
+                    "('o2', 'Someone Else', 'mitu das', 'Lost', 1, 19.999, '2025-03-02T10:00:00', 'completed'), " +
+                    "('o3', 'Someone Else', 'Mitu Das', 'Lost', 1, NULL, '2025-03-03T10:00:00', 'pending')");
+        }
+    }
+
+    static String queryString(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
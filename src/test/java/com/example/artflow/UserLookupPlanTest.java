@@ -0,0 +1,96 @@
+package com.example.artflow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** EXPLAIN QUERY PLAN for every statement that looks a user up: each must be an index search, never a scan. */
+class UserLookupPlanTest {
+
+    private static final Pattern INDEX_SEARCH = Pattern.compile("SEARCH users USING (COVERING )?INDEX \\w+ \\(.*\\)");
+
+    @TempDir
+    Path dir;
+
+    private DatabaseHelper db;
+
+    @BeforeEach
+    void open() {
+        db = new DatabaseHelper(dir.resolve("users.db"), 1);
+    }
+
+    @AfterEach
+    void close() {
+        db.close();
+    }
+
+    @Test
+    void lookupsAreIndexSearchesOnAFreshDatabase() throws SQLException {
+        assertUserLookupsUseIndexes();
+    }
+
+    @Test
+    void lookupsAreIndexSearchesOnceAnalyzed() throws SQLException {
+        // with sqlite_stat1 filled the planner weighs indexes by their statistics instead of defaults
+        db.pool().transaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO users(password, email, user_type, full_name, name_key) VALUES('pw', ?, ?, ?, ?)")) {
+                for (int i = 0; i < 500; i++) {
+                    ps.setString(1, "user" + i + "@test.local");
+                    ps.setString(2, i % 10 == 0 ? "artist" : "customer");
+                    ps.setString(3, "User " + (i % 50));
+                    ps.setString(4, DatabaseHelper.nameKey("User " + (i % 50)));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (Statement st = c.createStatement()) {
+                st.execute("ANALYZE");
+            }
+            return null;
+        });
+        assertUserLookupsUseIndexes();
+    }
+
+    private void assertUserLookupsUseIndexes() throws SQLException {
+        for (String sql : DatabaseHelper.USER_LOOKUP_SQL) {
+            List<String> plan = plan(sql);
+            assertFalse(plan.isEmpty(), sql);
+            for (String line : plan) {
+                assertTrue(INDEX_SEARCH.matcher(line).matches(), sql + " -> " + plan);
+            }
+        }
+        // order inserts resolve the customer and artist ids with user lookups of their own
+        List<String> plan = plan(DatabaseHelper.INSERT_ORDER_SQL);
+        int userLines = 0;
+        for (String line : plan) {
+            if (!line.contains(" users ")) continue;
+            userLines++;
+            assertTrue(INDEX_SEARCH.matcher(line).matches(), "order insert -> " + plan);
+        }
+        assertTrue(userLines >= 3, "order insert -> " + plan);
+    }
+
+    private List<String> plan(String sql) throws SQLException {
+        return db.pool().read(c -> {
+            List<String> lines = new ArrayList<>();
+            try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+                while (rs.next()) lines.add(rs.getString("detail"));
+            }
+            return lines;
+        });
+    }
+}